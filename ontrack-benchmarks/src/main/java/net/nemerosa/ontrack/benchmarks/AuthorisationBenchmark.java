@@ -0,0 +1,100 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.security.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks of project functions for an account having many groups and thousands of project grants,
+ * comparing the compiled rights of a locked account with the evaluation of the raw authorisations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorisationBenchmark {
+
+    @Param({"10", "50"})
+    private int groups;
+
+    @Param({"1000", "5000"})
+    private int projects;
+
+    private Account compiled;
+    private Account raw;
+    private int[] projectIds;
+    private int index;
+
+    @Setup
+    public void setup() {
+        compiled = account().lock();
+        raw = account();
+        // Projects to check, including some which are not granted
+        Random random = new Random(0);
+        projectIds = new int[1024];
+        for (int i = 0; i < projectIds.length; i++) {
+            projectIds[i] = random.nextInt(projects * 2);
+        }
+    }
+
+    private Account account() {
+        ProjectRole owner = new ProjectRole("OWNER", "Owner", "", Collections.singleton(ProjectEdit.class));
+        ProjectRole viewer = new ProjectRole("READ_ONLY", "Read only", "", Collections.singleton(ProjectView.class));
+        Account account = Account.of("benchmark", "Benchmark", "benchmark@test.com", SecurityRole.USER, AuthenticationSource.none());
+        // Project grants are spread over the groups and the account itself
+        List<AccountGroup> accountGroups = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            accountGroups.add(AccountGroup.of("group" + g, ""));
+        }
+        for (int projectId = 0; projectId < projects; projectId++) {
+            ProjectRoleAssociation association = new ProjectRoleAssociation(projectId, projectId % 2 == 0 ? owner : viewer);
+            int holder = projectId % (groups + 1);
+            if (holder == groups) {
+                account.withProjectRole(association);
+            } else {
+                accountGroups.get(holder).withProjectRole(association);
+            }
+        }
+        return account.withGroups(accountGroups);
+    }
+
+    private int nextProjectId() {
+        index = (index + 1) & (projectIds.length - 1);
+        return projectIds[index];
+    }
+
+    @Benchmark
+    public boolean compiledProjectView() {
+        return compiled.isGranted(nextProjectId(), ProjectView.class);
+    }
+
+    @Benchmark
+    public boolean compiledBuildCreate() {
+        return compiled.isGranted(nextProjectId(), BuildCreate.class);
+    }
+
+    @Benchmark
+    public boolean compiledGlobalFunction() {
+        return compiled.isGranted(ProjectCreation.class);
+    }
+
+    @Benchmark
+    public boolean rawProjectView() {
+        return raw.isGranted(nextProjectId(), ProjectView.class);
+    }
+
+    @Benchmark
+    public boolean rawBuildCreate() {
+        return raw.isGranted(nextProjectId(), BuildCreate.class);
+    }
+
+    @Benchmark
+    public boolean rawGlobalFunction() {
+        return raw.isGranted(ProjectCreation.class);
+    }
+
+}
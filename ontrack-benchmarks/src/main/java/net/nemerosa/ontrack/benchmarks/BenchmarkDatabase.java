@@ -0,0 +1,135 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.repository.config.MainDBInitConfig;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+/**
+ * Embedded H2 database, initialised with the Ontrack schema and seeded with a dataset
+ * whose content depends only on its sizes, so that the results of the benchmarks can be
+ * compared between commits.
+ * <p>
+ * The dataset is created using set based statements:
+ * <ul>
+ * <li>each branch has 3 promotion levels and 3 validation stamps</li>
+ * <li>every 2nd build is promoted to the first level, every 3rd to the second one and every 4th to the third one</li>
+ * <li>each build is validated against all the validation stamps of its branch, every 10th run being failed</li>
+ * </ul>
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    public static final int PROMOTION_LEVELS = 3;
+    public static final int VALIDATION_STAMPS = 3;
+
+    private static final String CREATION = Time.forStorage(LocalDateTime.of(2017, 1, 1, 0, 0));
+    private static final String CREATOR = "benchmark";
+
+    private final org.apache.tomcat.jdbc.pool.DataSource dataSource;
+
+    private BenchmarkDatabase(org.apache.tomcat.jdbc.pool.DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Creates and seeds a database.
+     *
+     * @param projects           Number of projects
+     * @param branchesPerProject Number of branches for each project
+     * @param buildsPerBranch    Number of builds for each branch
+     */
+    public static BenchmarkDatabase create(int projects, int branchesPerProject, int buildsPerBranch) throws SQLException {
+        org.apache.tomcat.jdbc.pool.DataSource pool = new org.apache.tomcat.jdbc.pool.DataSource();
+        pool.setDriverClassName("org.h2.Driver");
+        pool.setUrl("jdbc:h2:mem:benchmark;MODE=MYSQL;DB_CLOSE_ON_EXIT=FALSE");
+        pool.setUsername("sa");
+        pool.setPassword("");
+        pool.setInitialSize(1);
+        pool.setMaxActive(2);
+        BenchmarkDatabase database = new BenchmarkDatabase(pool);
+        database.init();
+        database.seed(projects, branchesPerProject, buildsPerBranch);
+        return database;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    private void init() {
+        // No migration action is needed on an empty database
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.refresh();
+        new MainDBInitConfig(dataSource, context).createConfig().run();
+        context.close();
+    }
+
+    private void seed(int projects, int branchesPerProject, int buildsPerBranch) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            update(connection,
+                    "INSERT INTO PROJECTS(NAME, DESCRIPTION, DISABLED, CREATION, CREATOR) " +
+                            "SELECT CONCAT('P', X), '', FALSE, ?, ? FROM SYSTEM_RANGE(1, ?) ORDER BY X",
+                    projects);
+            update(connection,
+                    "INSERT INTO BRANCHES(PROJECTID, NAME, DESCRIPTION, DISABLED, CREATION, CREATOR) " +
+                            "SELECT P.ID, CONCAT('B', X), '', FALSE, ?, ? FROM PROJECTS P, SYSTEM_RANGE(1, ?) ORDER BY P.ID, X",
+                    branchesPerProject);
+            update(connection,
+                    "INSERT INTO PROMOTION_LEVELS(BRANCHID, NAME, DESCRIPTION, ORDERNB, CREATION, CREATOR) " +
+                            "SELECT B.ID, CONCAT('PL', X), '', X, ?, ? FROM BRANCHES B, SYSTEM_RANGE(1, ?) ORDER BY B.ID, X",
+                    PROMOTION_LEVELS);
+            update(connection,
+                    "INSERT INTO VALIDATION_STAMPS(BRANCHID, NAME, DESCRIPTION, ORDERNB, CREATION, CREATOR) " +
+                            "SELECT B.ID, CONCAT('VS', X), '', X, ?, ? FROM BRANCHES B, SYSTEM_RANGE(1, ?) ORDER BY B.ID, X",
+                    VALIDATION_STAMPS);
+            update(connection,
+                    "INSERT INTO BUILDS(BRANCHID, NAME, DESCRIPTION, CREATION, CREATOR) " +
+                            "SELECT B.ID, CONCAT('1.0.', X), '', ?, ? FROM BRANCHES B, SYSTEM_RANGE(1, ?) ORDER BY B.ID, X",
+                    buildsPerBranch);
+            update(connection,
+                    "INSERT INTO PROMOTION_RUNS(BUILDID, PROMOTIONLEVELID, CREATION, CREATOR, DESCRIPTION) " +
+                            "SELECT B.ID, L.ID, ?, ?, '' FROM BUILDS B INNER JOIN PROMOTION_LEVELS L ON L.BRANCHID = B.BRANCHID " +
+                            "WHERE MOD(B.ID, L.ORDERNB + 1) = 0 ORDER BY B.ID, L.ID"
+            );
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(
+                        "INSERT INTO VALIDATION_RUNS(BUILDID, VALIDATIONSTAMPID) " +
+                                "SELECT B.ID, V.ID FROM BUILDS B INNER JOIN VALIDATION_STAMPS V ON V.BRANCHID = B.BRANCHID " +
+                                "ORDER BY B.ID, V.ID"
+                );
+            }
+            update(connection,
+                    "INSERT INTO VALIDATION_RUN_STATUSES(VALIDATIONRUNID, VALIDATIONRUNSTATUSID, CREATION, CREATOR, DESCRIPTION) " +
+                            "SELECT R.ID, CASE WHEN MOD(R.ID, 10) = 0 THEN 'FAILED' ELSE 'PASSED' END, ?, ?, '' " +
+                            "FROM VALIDATION_RUNS R ORDER BY R.ID"
+            );
+            connection.commit();
+        }
+    }
+
+    private void update(Connection connection, String sql, int... counts) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, CREATION);
+            statement.setString(2, CREATOR);
+            for (int i = 0; i < counts.length; i++) {
+                statement.setInt(3 + i, counts[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        dataSource.close();
+    }
+}
@@ -0,0 +1,59 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.structure.ExpressionEngine;
+import net.nemerosa.ontrack.service.ExpressionEngineImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the expressions used by the branch templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionEngineBenchmark {
+
+    private ExpressionEngine expressionEngine;
+    private Map<String, String> parameters;
+
+    @Setup
+    public void setup() {
+        expressionEngine = new ExpressionEngineImpl();
+        parameters = new HashMap<>();
+        parameters.put("sourceName", "feature/1234-benchmark");
+        parameters.put("version", "1.0");
+    }
+
+    @Benchmark
+    public String noExpression() {
+        return expressionEngine.render("release-1.0", parameters);
+    }
+
+    @Benchmark
+    public String singleExpression() {
+        return expressionEngine.render("${sourceName}", parameters);
+    }
+
+    @Benchmark
+    public String methodCalls() {
+        return expressionEngine.render("${sourceName.replace('/', '-').toUpperCase()}", parameters);
+    }
+
+    @Benchmark
+    public String severalExpressions() {
+        return expressionEngine.render("${sourceName}-${version}-${sourceName.toUpperCase()}", parameters);
+    }
+
+    @Benchmark
+    public String resolve() {
+        return expressionEngine.resolve("sourceName", Collections.singletonMap("sourceName", "feature/1234-benchmark"));
+    }
+
+}
@@ -0,0 +1,124 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nemerosa.ontrack.boot.resources.BranchResourceDecorator;
+import net.nemerosa.ontrack.boot.resources.BuildResourceDecorator;
+import net.nemerosa.ontrack.boot.resources.ProjectResourceDecorator;
+import net.nemerosa.ontrack.boot.ui.DefaultURIBuilder;
+import net.nemerosa.ontrack.json.ObjectMapperFactory;
+import net.nemerosa.ontrack.model.settings.SecuritySettings;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.ui.resource.DefaultResourceContext;
+import net.nemerosa.ontrack.ui.resource.ResourceDecorationContributorService;
+import net.nemerosa.ontrack.ui.resource.ResourceObjectMapper;
+import net.nemerosa.ontrack.ui.resource.ResourceObjectMapperFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd;
+import static org.mockito.Mockito.mock;
+
+/**
+ * JSON serialization of a page of builds and of a list of projects, with the plain object mapper
+ * and with the resource object mapper, which decorates each entity with its links.
+ * <p>
+ * The resource object mapper uses the production URI builder and decorators. The links of the builds
+ * are recorded once for all the builds, whereas the links of the projects are still defined by
+ * recording the controller invocation for each project.
+ * <p>
+ * The request is set up once per iteration, so that the serializations use the base URL computed for this request.
+ * The cost of a new request, whose base URL is computed when building its first link, is measured on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private DefaultURIBuilder uriBuilder;
+    private ResourceObjectMapper resourceObjectMapper;
+    private ServletRequestAttributes requestAttributes;
+    private List<Build> buildList;
+    private List<Project> projectList;
+
+    @Setup
+    public void setup() {
+        objectMapper = ObjectMapperFactory.create();
+        uriBuilder = new DefaultURIBuilder();
+        ResourceDecorationContributorService resourceDecorationContributorService = mock(ResourceDecorationContributorService.class);
+        resourceObjectMapper = new ResourceObjectMapperFactory(objectMapper).resourceObjectMapper(
+                new DefaultResourceContext(
+                        uriBuilder,
+                        SecurityServiceBenchmark.securityService(SecuritySettings.of())
+                ),
+                new ProjectResourceDecorator(resourceDecorationContributorService, mock(ProjectFavouriteService.class)),
+                new BranchResourceDecorator(resourceDecorationContributorService, mock(StructureService.class)),
+                new BuildResourceDecorator(resourceDecorationContributorService)
+        );
+        // Page of builds
+        Signature signature = Signature.of(LocalDateTime.of(2017, 1, 1, 0, 0), "benchmark");
+        Project project = Project.of(nd("P", "Project")).withId(ID.of(1));
+        Branch branch = Branch.of(project, nd("B", "Branch")).withId(ID.of(1));
+        buildList = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            buildList.add(Build.of(branch, nd("1.0." + i, "Build " + i), signature).withId(ID.of(i)));
+        }
+        // List of projects
+        projectList = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            projectList.add(Project.of(nd("P" + i, "Project " + i)).withId(ID.of(i)).withSignature(signature));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void request() {
+        requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+    }
+
+    @TearDown(Level.Iteration)
+    public void endOfRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public String plain() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(buildList);
+    }
+
+    @Benchmark
+    public String builds() throws JsonProcessingException {
+        return resourceObjectMapper.write(buildList);
+    }
+
+    @Benchmark
+    public String projects() throws JsonProcessingException {
+        return resourceObjectMapper.write(projectList);
+    }
+
+    @Benchmark
+    public URI newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            return uriBuilder.getEntityURI(projectList.get(0));
+        } finally {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+        }
+    }
+
+}
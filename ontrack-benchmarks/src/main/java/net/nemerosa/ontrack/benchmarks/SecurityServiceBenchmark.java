@@ -0,0 +1,99 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.security.*;
+import net.nemerosa.ontrack.model.settings.CachedSettingsService;
+import net.nemerosa.ontrack.model.settings.SecuritySettings;
+import net.nemerosa.ontrack.service.security.SecurityServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks of project functions through the security service, for an authenticated account
+ * having a thousand of project grants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityServiceBenchmark {
+
+    private static final int PROJECTS = 1000;
+
+    @Param({"true", "false"})
+    private boolean grantProjectViewToAll;
+
+    private SecurityService securityService;
+    private int[] projectIds;
+    private int index;
+
+    @Setup
+    public void setup() {
+        securityService = securityService(SecuritySettings.of().withGrantProjectViewToAll(grantProjectViewToAll));
+        // Authenticated account
+        ProjectRole owner = new ProjectRole("OWNER", "Owner", "", Collections.singleton(ProjectEdit.class));
+        Account account = Account.of("benchmark", "Benchmark", "benchmark@test.com", SecurityRole.USER, AuthenticationSource.none());
+        for (int projectId = 0; projectId < PROJECTS; projectId++) {
+            account.withProjectRole(new ProjectRoleAssociation(projectId, owner));
+        }
+        Account locked = account.lock();
+        AccountHolder holder = () -> locked;
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(holder, "", Collections.emptyList())
+        );
+        // Projects to check, including some which are not granted
+        Random random = new Random(0);
+        projectIds = new int[1024];
+        for (int i = 0; i < projectIds.length; i++) {
+            projectIds[i] = random.nextInt(PROJECTS * 2);
+        }
+    }
+
+    /**
+     * Security service using the given settings
+     */
+    static SecurityService securityService(SecuritySettings settings) {
+        return new SecurityServiceImpl(new CachedSettingsService() {
+            @Override
+            public <T> T getCachedSettings(Class<T> type) {
+                return type.cast(settings);
+            }
+
+            @Override
+            public <T> void invalidate(Class<T> type) {
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private int nextProjectId() {
+        index = (index + 1) & (projectIds.length - 1);
+        return projectIds[index];
+    }
+
+    @Benchmark
+    public boolean projectView() {
+        return securityService.isProjectFunctionGranted(nextProjectId(), ProjectView.class);
+    }
+
+    @Benchmark
+    public boolean projectEdit() {
+        return securityService.isProjectFunctionGranted(nextProjectId(), ProjectEdit.class);
+    }
+
+    @Benchmark
+    public boolean globalFunction() {
+        return securityService.isGlobalFunctionGranted(ProjectCreation.class);
+    }
+
+}
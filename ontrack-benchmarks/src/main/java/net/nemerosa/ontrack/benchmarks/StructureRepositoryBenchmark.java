@@ -0,0 +1,130 @@
+package net.nemerosa.ontrack.benchmarks;
+
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.repository.BranchTemplateJdbcRepository;
+import net.nemerosa.ontrack.repository.StructureJdbcRepository;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Queries and row mapping of the structure repository, against an embedded database
+ * containing thousands of branches and hundreds of thousands of builds and runs.
+ * <p>
+ * The size of the dataset can be reduced using the parameters, for example
+ * <code>-p buildsPerBranch=10</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class StructureRepositoryBenchmark {
+
+    /**
+     * Number of builds per page
+     */
+    private static final int PAGE = 10;
+
+    @Param({"20"})
+    private int projects;
+
+    @Param({"100"})
+    private int branchesPerProject;
+
+    @Param({"100"})
+    private int buildsPerBranch;
+
+    private BenchmarkDatabase database;
+    private StructureRepository repository;
+    private final Function<String, ValidationRunStatusID> validationRunStatusService = Stream.of(
+            ValidationRunStatusID.STATUS_PASSED,
+            ValidationRunStatusID.STATUS_FAILED
+    ).collect(Collectors.toMap(ValidationRunStatusID::getId, Function.identity()))::get;
+
+    private List<Project> projectList;
+    private List<List<Branch>> branchPages;
+    private List<List<Build>> buildPages;
+    private int buildCount;
+    private int index;
+    private Random random;
+
+    @Setup
+    public void setup() throws SQLException {
+        database = BenchmarkDatabase.create(projects, branchesPerProject, buildsPerBranch);
+        DataSource dataSource = database.getDataSource();
+        repository = new StructureJdbcRepository(dataSource, new BranchTemplateJdbcRepository(dataSource));
+        buildCount = projects * branchesPerProject * buildsPerBranch;
+        // Samples of branches and builds
+        projectList = repository.getProjectList();
+        branchPages = new ArrayList<>();
+        buildPages = new ArrayList<>();
+        random = new Random(0);
+        for (int i = 0; i < 64; i++) {
+            Project project = projectList.get(random.nextInt(projectList.size()));
+            List<Branch> branches = repository.getBranchesForProject(project.getId());
+            List<Branch> page = branches.subList(0, Math.min(PAGE, branches.size()));
+            branchPages.add(page);
+            buildPages.add(repository.getLastBuildsForBranches(page, PAGE).get(page.get(0).getId()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    private int next() {
+        index = (index + 1) & 63;
+        return index;
+    }
+
+    @Benchmark
+    public Build getBuild() {
+        return repository.getBuild(ID.of(1 + random.nextInt(buildCount)));
+    }
+
+    @Benchmark
+    public List<Branch> getBranchesForProject() {
+        return repository.getBranchesForProject(projectList.get(next() % projectList.size()).getId());
+    }
+
+    @Benchmark
+    public Build getLastBuildForBranch() {
+        return repository.getLastBuildForBranch(branchPages.get(next()).get(0));
+    }
+
+    @Benchmark
+    public Map<ID, List<Build>> getLastBuildsForBranches() {
+        return repository.getLastBuildsForBranches(branchPages.get(next()), PAGE);
+    }
+
+    @Benchmark
+    public List<PromotionRun> getLastPromotionRunsForBuild() {
+        return repository.getLastPromotionRunsForBuild(buildPages.get(next()).get(0));
+    }
+
+    @Benchmark
+    public Map<ID, List<PromotionRun>> getPromotionRunsForBuilds() {
+        return repository.getPromotionRunsForBuilds(buildPages.get(next()));
+    }
+
+    @Benchmark
+    public List<ValidationRun> getValidationRunsForBuild() {
+        return repository.getValidationRunsForBuild(buildPages.get(next()).get(0), validationRunStatusService);
+    }
+
+    @Benchmark
+    public Map<ID, List<ValidationRun>> getValidationRunsForBuilds() {
+        return repository.getValidationRunsForBuilds(buildPages.get(next()), validationRunStatusService);
+    }
+
+}
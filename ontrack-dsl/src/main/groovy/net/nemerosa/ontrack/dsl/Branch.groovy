@@ -2,6 +2,8 @@ package net.nemerosa.ontrack.dsl
 
 import net.nemerosa.ontrack.dsl.doc.DSL
 import net.nemerosa.ontrack.dsl.doc.DSLMethod
+import net.nemerosa.ontrack.dsl.http.OTMessageClientException
+import net.nemerosa.ontrack.dsl.http.OTNotFoundException
 import net.nemerosa.ontrack.dsl.properties.BranchProperties
 
 @DSL
@@ -199,22 +201,40 @@ class Branch extends AbstractProjectResource {
 
     @DSLMethod(value = "Creates a build for the branch", count = 3)
     Build build(String name, String description = '', boolean getIfExists = false) {
-        def builds = ontrack.project(this.project).search(branchName: this.name, buildName: name)
-        if (builds.empty) {
+        if (getIfExists) {
             new Build(
                     ontrack,
-                    ontrack.post(link('createBuild'), [
+                    ontrack.put(link('getOrCreateBuild'), [
                             name       : name,
                             description: description
                     ])
             )
-        } else if (getIfExists) {
-            new Build(
-                    ontrack,
-                    ontrack.get(builds[0].node._self)
-            )
         } else {
-            throw new ObjectAlreadyExistsException("Build ${name} already exists.")
+            try {
+                new Build(
+                        ontrack,
+                        ontrack.post(link('createBuild'), [
+                                name       : name,
+                                description: description
+                        ])
+                )
+            } catch (OTMessageClientException ex) {
+                // The creation was rejected: because of the name only if the build exists now
+                if (buildExists(name)) {
+                    throw new ObjectAlreadyExistsException("Build ${name} already exists.")
+                } else {
+                    throw ex
+                }
+            }
+        }
+    }
+
+    private boolean buildExists(String name) {
+        try {
+            ontrack.build(this.project, this.name, name)
+            true
+        } catch (OTNotFoundException ignored) {
+            false
         }
     }
 
@@ -225,6 +245,18 @@ class Branch extends AbstractProjectResource {
         b
     }
 
+    @DSLMethod("Gets or creates a build for the branch and records all the information collected by the closure in one call.")
+    Build batchBuild(String name, Closure closure) {
+        def batch = new BuildBatch()
+        closure.resolveStrategy = Closure.DELEGATE_FIRST
+        closure.delegate = batch
+        closure()
+        new Build(
+                ontrack,
+                ontrack.put(link('batchBuild'), batch.toRequest(name))
+        )
+    }
+
     /**
      * Download file from the branch SCM
      */
@@ -0,0 +1,63 @@
+package net.nemerosa.ontrack.dsl
+
+import net.nemerosa.ontrack.dsl.doc.DSL
+import net.nemerosa.ontrack.dsl.doc.DSLMethod
+
+@DSL("Collects the information about a build (properties, validations, promotions and links) in order to record it in one call.")
+class BuildBatch {
+
+    private String description = ''
+    private final List<Map<String, ?>> properties = []
+    private final List<Map<String, ?>> validationRuns = []
+    private final List<Map<String, ?>> promotionRuns = []
+    private final List<Map<String, ?>> links = []
+
+    @DSLMethod("Sets the description of the build, used only when the build is created.")
+    def description(String value) {
+        description = value
+    }
+
+    @DSLMethod("Sets a property on the build, using the property type name and its data.")
+    def property(String type, Object data) {
+        properties << [
+                propertyTypeName: type,
+                propertyData    : data,
+        ]
+    }
+
+    @DSLMethod(value = "Validates the build against a validation stamp.", count = 3)
+    def validate(String validationStamp, String validationStampStatus = 'PASSED', String description = '') {
+        validationRuns << [
+                validationStampName  : validationStamp,
+                validationRunStatusId: validationStampStatus,
+                description          : description,
+        ]
+    }
+
+    @DSLMethod(value = "Promotes the build to a promotion level.", count = 2)
+    def promote(String promotion, String description = '') {
+        promotionRuns << [
+                promotionLevelName: promotion,
+                description       : description,
+        ]
+    }
+
+    @DSLMethod("Links the build to the build of another project.")
+    def buildLink(String project, String build) {
+        links << [
+                project: project,
+                build  : build,
+        ]
+    }
+
+    Map<String, ?> toRequest(String name) {
+        [
+                name          : name,
+                description   : description,
+                properties    : properties,
+                validationRuns: validationRuns,
+                promotionRuns : promotionRuns,
+                links         : links,
+        ]
+    }
+}
@@ -1,10 +1,14 @@
 package net.nemerosa.ontrack.extension.api;
 
 import net.nemerosa.ontrack.model.extension.Extension;
+import net.nemerosa.ontrack.model.structure.Decoration;
 import net.nemerosa.ontrack.model.structure.Decorator;
+import net.nemerosa.ontrack.model.structure.ProjectEntity;
 import net.nemerosa.ontrack.model.structure.ProjectEntityType;
 
 import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public interface DecorationExtension<T> extends Extension, Decorator<T> {
 
@@ -15,4 +19,20 @@ public interface DecorationExtension<T> extends Extension, Decorator<T> {
      */
     EnumSet<ProjectEntityType> getScope();
 
+    /**
+     * Gets the decorations for a list of entities at once.
+     * <p>
+     * By default, {@link #getDecorations(ProjectEntity)} is called for each entity, but decorators
+     * are encouraged to override this method when their decorations can be loaded with a few
+     * set-based queries.
+     *
+     * @param entities Entities to decorate, all in the {@linkplain #getScope() scope} of this decorator
+     * @return For each entity, in the same order, its list of decorations
+     */
+    default List<List<Decoration<T>>> getDecorations(List<? extends ProjectEntity> entities) {
+        return entities.stream()
+                .map(entity -> getDecorations(entity))
+                .collect(Collectors.toList());
+    }
+
 }
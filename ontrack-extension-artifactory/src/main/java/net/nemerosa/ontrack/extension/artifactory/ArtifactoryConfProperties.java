@@ -17,4 +17,26 @@ public class ArtifactoryConfProperties {
      */
     boolean buildSyncDisabled;
 
+    /**
+     * Number of threads used to get the build information from Artifactory
+     */
+    private int buildSyncPoolSize = 4;
+
+    /**
+     * Number of days before the most recent build already synchronised, during which the
+     * builds are synchronised again, since they can still be promoted
+     */
+    private int buildSyncLookBack = 7;
+
+    /**
+     * Secret shared with the tools sending build notifications. The notifications are rejected
+     * if not set.
+     */
+    private String hookSecret;
+
+    /**
+     * Time (in seconds) during which the notifications for a build already notified are ignored
+     */
+    private int hookInterval = 10;
+
 }
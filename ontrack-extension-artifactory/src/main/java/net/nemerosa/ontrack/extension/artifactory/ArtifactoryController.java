@@ -1,8 +1,13 @@
 package net.nemerosa.ontrack.extension.artifactory;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.nemerosa.ontrack.extension.artifactory.configuration.ArtifactoryConfiguration;
 import net.nemerosa.ontrack.extension.artifactory.configuration.ArtifactoryConfigurationService;
+import net.nemerosa.ontrack.extension.artifactory.service.ArtifactoryPromotionSyncService;
 import net.nemerosa.ontrack.extension.support.AbstractExtensionController;
+import net.nemerosa.ontrack.extension.support.HookNotifications;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.extension.ExtensionFeatureDescription;
 import net.nemerosa.ontrack.model.form.Form;
@@ -13,11 +18,15 @@ import net.nemerosa.ontrack.model.support.ConnectionResult;
 import net.nemerosa.ontrack.ui.resource.Link;
 import net.nemerosa.ontrack.ui.resource.Resource;
 import net.nemerosa.ontrack.ui.resource.Resources;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
 
 @RequestMapping("extension/artifactory")
@@ -26,12 +35,23 @@ public class ArtifactoryController extends AbstractExtensionController<Artifacto
 
     private final ArtifactoryConfigurationService configurationService;
     private final SecurityService securityService;
+    private final ArtifactoryPromotionSyncService promotionSyncService;
+    private final ArtifactoryConfProperties artifactoryConfProperties;
+
+    private final Cache<String, Boolean> hookCache;
 
     @Autowired
-    public ArtifactoryController(ArtifactoryExtensionFeature feature, ArtifactoryConfigurationService configurationService, SecurityService securityService) {
+    public ArtifactoryController(ArtifactoryExtensionFeature feature, ArtifactoryConfigurationService configurationService, SecurityService securityService, ArtifactoryPromotionSyncService promotionSyncService, ArtifactoryConfProperties artifactoryConfProperties) {
         super(feature);
         this.configurationService = configurationService;
         this.securityService = securityService;
+        this.promotionSyncService = promotionSyncService;
+        this.artifactoryConfProperties = artifactoryConfProperties;
+        // Builds recently notified
+        hookCache = CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(artifactoryConfProperties.getHookInterval(), TimeUnit.SECONDS)
+                .build();
     }
 
     @Override
@@ -129,4 +149,22 @@ public class ArtifactoryController extends AbstractExtensionController<Artifacto
         return getConfiguration(name);
     }
 
+    /**
+     * Build notification, sent by Artifactory or by the CI engine once a build has been deployed or
+     * promoted. The notification must be signed with, or contain, the secret shared with the sender.
+     * The name of the build is given either by the <code>build</code> parameter, or by
+     * the <code>data.build_name</code> field of the payload.
+     */
+    @RequestMapping(value = "hook", method = RequestMethod.POST)
+    public Ack hook(@RequestParam(required = false) String build, @RequestHeader HttpHeaders headers, @RequestBody(required = false) String body) {
+        JsonNode payload = HookNotifications.check(artifactoryConfProperties.getHookSecret(), headers, body);
+        String buildName = StringUtils.isNotBlank(build) ? build : payload.path("data").path("build_name").asText();
+        // Builds notified again shortly after are not looked for again
+        if (StringUtils.isNotBlank(buildName) && hookCache.asMap().putIfAbsent(buildName, Boolean.TRUE) == null) {
+            return promotionSyncService.triggerSync(buildName);
+        } else {
+            return Ack.NOK;
+        }
+    }
+
 }
@@ -2,6 +2,7 @@ package net.nemerosa.ontrack.extension.artifactory.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import net.nemerosa.ontrack.client.JsonClient;
+import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryBuildNumber;
 import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryStatus;
 
 import java.util.List;
@@ -12,6 +13,11 @@ public interface ArtifactoryClient {
 
     List<String> getBuildNumbers(String buildName);
 
+    /**
+     * Gets the build numbers for a build name, with their start time.
+     */
+    List<ArtifactoryBuildNumber> getBuilds(String buildName);
+
     JsonNode getBuildInfo(String buildName, String buildNumber);
 
     List<ArtifactoryStatus> getStatuses(JsonNode buildInfo);
@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.extension.artifactory.client;
 import com.fasterxml.jackson.databind.JsonNode;
 import net.nemerosa.ontrack.client.ClientNotFoundException;
 import net.nemerosa.ontrack.client.JsonClient;
+import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryBuildNumber;
 import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryStatus;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.entity.ContentType;
@@ -13,9 +14,12 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class ArtifactoryClientImpl implements ArtifactoryClient {
 
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+
     private final JsonClient jsonClient;
 
     public ArtifactoryClientImpl(JsonClient jsonClient) {
@@ -53,13 +57,24 @@ public class ArtifactoryClientImpl implements ArtifactoryClient {
 
     @Override
     public List<String> getBuildNumbers(String buildName) {
+        return getBuilds(buildName).stream()
+                .map(ArtifactoryBuildNumber::getNumber)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ArtifactoryBuildNumber> getBuilds(String buildName) {
         try {
             JsonNode node = jsonClient.get("/api/build/%s", buildName);
-            List<String> numbers = new ArrayList<>();
+            List<ArtifactoryBuildNumber> numbers = new ArrayList<>();
             node.path("buildsNumbers").forEach((JsonNode numberNode) -> {
                 String number = StringUtils.stripStart(numberNode.path("uri").asText(), "/");
                 if (StringUtils.isNotBlank(number)) {
-                    numbers.add(number);
+                    String started = numberNode.path("started").asText();
+                    numbers.add(new ArtifactoryBuildNumber(
+                            number,
+                            StringUtils.isNotBlank(started) ? parseTimestamp(started) : null
+                    ));
                 }
             });
             return numbers;
@@ -80,14 +95,13 @@ public class ArtifactoryClientImpl implements ArtifactoryClient {
         buildInfo.path("statuses").forEach(statusNode -> statuses.add(new ArtifactoryStatus(
                 statusNode.path("status").asText(),
                 statusNode.path("user").asText(),
-                LocalDateTime.parse(
-                        statusNode.path("timestamp").asText(),
-                        DateTimeFormatter.ofPattern(
-                                "yyyy-MM-dd'T'HH:mm:ss.SSSZ"
-                        )
-                )
+                parseTimestamp(statusNode.path("timestamp").asText())
         )));
         return statuses;
     }
 
+    private static LocalDateTime parseTimestamp(String value) {
+        return LocalDateTime.parse(value, TIMESTAMP_FORMAT);
+    }
+
 }
@@ -0,0 +1,17 @@
+package net.nemerosa.ontrack.extension.artifactory.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ArtifactoryBuildNumber {
+
+    private final String number;
+
+    /**
+     * Start of the build, <code>null</code> if not available
+     */
+    private final LocalDateTime started;
+
+}
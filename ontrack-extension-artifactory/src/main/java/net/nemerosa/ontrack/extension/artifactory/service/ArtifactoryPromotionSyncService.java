@@ -1,4 +1,16 @@
 package net.nemerosa.ontrack.extension.artifactory.service;
 
+import net.nemerosa.ontrack.model.Ack;
+
 public interface ArtifactoryPromotionSyncService {
+
+    /**
+     * Triggers the synchronisation of the branches associated with an Artifactory build, typically
+     * after a notification from Artifactory. Repeated triggers are coalesced by the job scheduler.
+     *
+     * @param buildName Name of the build in Artifactory
+     * @return OK if at least one synchronisation was triggered
+     */
+    Ack triggerSync(String buildName);
+
 }
@@ -1,27 +1,35 @@
 package net.nemerosa.ontrack.extension.artifactory.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.nemerosa.ontrack.common.FutureUtils;
 import net.nemerosa.ontrack.extension.artifactory.ArtifactoryConfProperties;
 import net.nemerosa.ontrack.extension.artifactory.client.ArtifactoryClient;
 import net.nemerosa.ontrack.extension.artifactory.client.ArtifactoryClientFactory;
 import net.nemerosa.ontrack.extension.artifactory.configuration.ArtifactoryConfiguration;
 import net.nemerosa.ontrack.extension.artifactory.configuration.ArtifactoryConfigurationService;
+import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryBuildNumber;
 import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryStatus;
 import net.nemerosa.ontrack.extension.artifactory.property.ArtifactoryPromotionSyncProperty;
 import net.nemerosa.ontrack.extension.artifactory.property.ArtifactoryPromotionSyncPropertyType;
 import net.nemerosa.ontrack.job.*;
 import net.nemerosa.ontrack.job.orchestrator.JobOrchestratorSupplier;
+import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.*;
 import net.nemerosa.ontrack.model.support.AbstractBranchJob;
 import net.nemerosa.ontrack.model.support.ConfigurationServiceListener;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -31,6 +39,8 @@ import static org.apache.commons.lang3.StringUtils.replace;
 @Service
 public class ArtifactoryPromotionSyncServiceImpl implements ArtifactoryPromotionSyncService, JobOrchestratorSupplier, ConfigurationServiceListener<ArtifactoryConfiguration> {
 
+    private static final String SYNC_STATE_KEY = ArtifactoryPromotionSyncState.class.getName();
+
     private static final JobType ARTIFACTORY_BUILD_SYNC_JOB =
             JobCategory.of("artifactory").withName("Artifactory")
                     .getType("build-sync").withName("Artifactory Build synchronisation");
@@ -42,37 +52,86 @@ public class ArtifactoryPromotionSyncServiceImpl implements ArtifactoryPromotion
     private final ArtifactoryClientFactory artifactoryClientFactory;
     private final ArtifactoryConfProperties artifactoryConfProperties;
     private final SecurityService securityService;
+    private final JobScheduler jobScheduler;
+    private final EntityDataService entityDataService;
+
+    /**
+     * Bounded pool used to get the build information from Artifactory
+     */
+    private final ExecutorService executor;
 
     @Autowired
-    public ArtifactoryPromotionSyncServiceImpl(StructureService structureService, PropertyService propertyService, ArtifactoryClientFactory artifactoryClientFactory, ArtifactoryConfigurationService configurationService, ArtifactoryConfProperties artifactoryConfProperties, SecurityService securityService) {
+    public ArtifactoryPromotionSyncServiceImpl(StructureService structureService, PropertyService propertyService, ArtifactoryClientFactory artifactoryClientFactory, ArtifactoryConfigurationService configurationService, ArtifactoryConfProperties artifactoryConfProperties, SecurityService securityService, JobScheduler jobScheduler, EntityDataService entityDataService) {
         this.structureService = structureService;
         this.propertyService = propertyService;
         this.artifactoryClientFactory = artifactoryClientFactory;
         this.artifactoryConfProperties = artifactoryConfProperties;
         this.securityService = securityService;
+        this.jobScheduler = jobScheduler;
+        this.entityDataService = entityDataService;
+        this.executor = Executors.newFixedThreadPool(
+                artifactoryConfProperties.getBuildSyncPoolSize(),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("artifactory-sync-%d")
+                        .build()
+        );
         configurationService.addConfigurationServiceListener(this);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
     @Override
     public Stream<JobRegistration> collectJobRegistrations() {
         if (artifactoryConfProperties.isBuildSyncDisabled()) {
             return Stream.empty();
         } else {
             return securityService.asAdmin(() ->
-                    // For all projects...
-                    structureService.getProjectList().stream()
-                            // ... and their branches
-                            .flatMap(project -> structureService.getBranchesForProject(project.getId()).stream())
-                            // ... only if not a template
-                            .filter(branch -> branch.getType() != BranchType.TEMPLATE_DEFINITION)
-                            // ... gets those with the sync. property
-                            .filter(branch -> propertyService.hasProperty(branch, ArtifactoryPromotionSyncPropertyType.class))
+                    getSyncBranches()
                             // ... creates the job
                             .map(this::scheduleArtifactoryBuildSync)
             );
         }
     }
 
+    @Override
+    public Ack triggerSync(String buildName) {
+        // Notifications are not sent by a user, so the branches are looked for as an administrator
+        long count = securityService.asAdmin(() ->
+                propertyService.searchWithPropertyValue(
+                        ArtifactoryPromotionSyncPropertyType.class,
+                        (entityType, id) -> entityType.getEntityFn(structureService).apply(id),
+                        syncProperty -> StringUtils.equals(buildName, syncProperty.getBuildName())
+                ).stream()
+                        // ... only the branches which are not templates
+                        .filter(entity -> entity instanceof Branch)
+                        .map(entity -> (Branch) entity)
+                        .filter(branch -> branch.getType() != BranchType.TEMPLATE_DEFINITION)
+                        .map(this::getBranchSyncJobKey)
+                        .filter(jobScheduler::trigger)
+                        .count()
+        );
+        logger.debug("[artifactory-sync] Build {} triggered {} jobs", buildName, count);
+        return Ack.validate(count > 0);
+    }
+
+    /**
+     * Gets the branches configured for the synchronisation with Artifactory
+     */
+    private Stream<Branch> getSyncBranches() {
+        // For all projects...
+        return structureService.getProjectList().stream()
+                // ... and their branches
+                .flatMap(project -> structureService.getBranchesForProject(project.getId()).stream())
+                // ... only if not a template
+                .filter(branch -> branch.getType() != BranchType.TEMPLATE_DEFINITION)
+                // ... gets those with the sync. property
+                .filter(branch -> propertyService.hasProperty(branch, ArtifactoryPromotionSyncPropertyType.class));
+    }
+
     public JobRegistration scheduleArtifactoryBuildSync(Branch branch) {
         ArtifactoryPromotionSyncProperty property = propertyService.getProperty(branch, ArtifactoryPromotionSyncPropertyType.class).getValue();
         return JobRegistration.of(getBranchSyncJob(branch)).everyMinutes(property.getInterval());
@@ -115,7 +174,7 @@ public class ArtifactoryPromotionSyncServiceImpl implements ArtifactoryPromotion
                 .orElseThrow(() -> new IllegalStateException("Branch not configured for Artifactory"));
     }
 
-    private void sync(Branch branch, JobRunListener listener) {
+    protected void sync(Branch branch, JobRunListener listener) {
         // Gets the sync properties
         Property<ArtifactoryPromotionSyncProperty> syncProperty = propertyService.getProperty(branch, ArtifactoryPromotionSyncPropertyType.class);
         if (syncProperty.isEmpty()) {
@@ -135,62 +194,94 @@ public class ArtifactoryPromotionSyncServiceImpl implements ArtifactoryPromotion
         Pattern buildNamePattern = Pattern.compile(
                 replace(replace(buildNameFilter, ".", "\\."), "*", ".*")
         );
+        // Only the builds started since the last sync (minus the look-back period) are synchronised again
+        Optional<LocalDateTime> since = entityDataService.retrieve(branch, SYNC_STATE_KEY, ArtifactoryPromotionSyncState.class)
+                .filter(state -> state.isFor(buildName, buildNameFilter))
+                .map(ArtifactoryPromotionSyncState::getLastStarted)
+                .map(lastStarted -> lastStarted.minusDays(artifactoryConfProperties.getBuildSyncLookBack()));
         // Gets an Artifactory client
         ArtifactoryClient client = artifactoryClientFactory.getClient(configuration);
         // Gets all the build numbers for the specified build name
-        List<String> buildNumbers = client.getBuildNumbers(buildName).stream()
+        List<ArtifactoryBuildNumber> builds = client.getBuilds(buildName).stream()
                 // ... and filter them
-                .filter(name -> buildNamePattern.matcher(name).matches())
+                .filter(build -> buildNamePattern.matcher(build.getNumber()).matches())
+                .collect(Collectors.toList());
+        List<String> buildNumbers = builds.stream()
+                .filter(build -> !since.isPresent() || build.getStarted() == null || !build.getStarted().isBefore(since.get()))
+                .map(ArtifactoryBuildNumber::getNumber)
                 .collect(Collectors.toList());
-        // Synchronises the promotion levels for each build
-        for (String buildNumber : buildNumbers) {
-            syncBuild(branch, buildName, buildNumber, client, listener);
+        listener.message("Synchronising %d builds out of %d", buildNumbers.size(), builds.size());
+        // Synchronises the promotion levels for the builds
+        int promotions = syncBuilds(branch, buildName, buildNumbers, client, listener);
+        // Remembers the most recent build
+        builds.stream()
+                .map(ArtifactoryBuildNumber::getStarted)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .ifPresent(lastStarted -> entityDataService.store(
+                        branch,
+                        SYNC_STATE_KEY,
+                        new ArtifactoryPromotionSyncState(buildName, buildNameFilter, lastStarted)
+                ));
+        if (promotions == 0) {
+            listener.unchanged();
         }
     }
 
-    protected void syncBuild(Branch branch, String artifactoryBuildName, String buildName, ArtifactoryClient client, JobRunListener listener) {
-        // Looks for the build
-        Optional<Build> buildOpt = structureService.findBuildByName(
-                branch.getProject().getName(),
-                branch.getName(),
-                buildName
-        );
-        if (buildOpt.isPresent()) {
-            // Log
-            String log = String.format("Sync branch %s/%s for Artifactory build %s",
-                    branch.getProject().getName(),
-                    branch.getName(),
-                    buildName);
-            logger.debug("[artifactory-sync] {}", log);
-            listener.message(log);
-            // Gets the build information from Artifactory
-            JsonNode buildInfo = client.getBuildInfo(artifactoryBuildName, buildName);
-            // Gets the list of statuses
-            List<ArtifactoryStatus> statuses = client.getStatuses(buildInfo);
-            // For all statuses
-            for (ArtifactoryStatus artifactoryStatus : statuses) {
-                String statusName = artifactoryStatus.getName();
-                // Looks for an existing promotion level with the same name on the branch
-                Optional<PromotionLevel> promotionLevelOpt = structureService.findPromotionLevelByName(
+    /**
+     * @return Number of promotions created for the builds
+     */
+    protected int syncBuilds(Branch branch, String artifactoryBuildName, Collection<String> buildNames, ArtifactoryClient client, JobRunListener listener) {
+        // Looks for the builds, in one go
+        List<Build> builds = structureService.findBuildsByName(branch, buildNames);
+        if (builds.isEmpty()) {
+            return 0;
+        }
+        // Gets the statuses of the builds from Artifactory, concurrently
+        Map<String, Future<List<ArtifactoryStatus>>> statuses = new HashMap<>();
+        for (Build build : builds) {
+            statuses.put(
+                    build.getName(),
+                    executor.submit(() -> client.getStatuses(client.getBuildInfo(artifactoryBuildName, build.getName())))
+            );
+        }
+        // Promotion levels of the branch, by name
+        Map<String, PromotionLevel> promotionLevels = structureService.getPromotionLevelListForBranch(branch.getId()).stream()
+                .collect(Collectors.toMap(PromotionLevel::getName, promotionLevel -> promotionLevel));
+        // Existing promotions of the builds
+        Map<ID, List<PromotionRun>> existingRuns = structureService.getLastPromotionRunsForBuilds(builds);
+        // Collects the promotions to create
+        List<PromotionRun> promotionRuns = new ArrayList<>();
+        try {
+            for (Build build : builds) {
+                // Log
+                String log = String.format("Sync branch %s/%s for Artifactory build %s",
                         branch.getProject().getName(),
                         branch.getName(),
-                        statusName
-                );
-                if (promotionLevelOpt.isPresent()) {
-                    // Looks for an existing promotion run for the build
-                    Optional<PromotionRun> runOpt = structureService.getLastPromotionRunForBuildAndPromotionLevel(buildOpt.get(), promotionLevelOpt.get());
-                    if (!runOpt.isPresent()) {
-                        // No existing promotion, we can promote safely
+                        build.getName());
+                logger.debug("[artifactory-sync] {}", log);
+                listener.message(log);
+                // Promotion levels the build is already promoted to
+                Set<String> promoted = existingRuns.getOrDefault(build.getId(), Collections.emptyList()).stream()
+                        .map(run -> run.getPromotionLevel().getName())
+                        .collect(Collectors.toSet());
+                // For all statuses
+                List<ArtifactoryStatus> buildStatuses = FutureUtils.wait(log, statuses.get(build.getName()));
+                for (ArtifactoryStatus artifactoryStatus : buildStatuses) {
+                    String statusName = artifactoryStatus.getName();
+                    // Looks for an existing promotion level with the same name on the branch
+                    PromotionLevel promotionLevel = promotionLevels.get(statusName);
+                    // No existing promotion, we can promote safely
+                    if (promotionLevel != null && promoted.add(statusName)) {
                         logger.info("[artifactory-sync] Promote {}/{}/{} to {}",
                                 branch.getProject().getName(),
                                 branch.getName(),
-                                buildName,
+                                build.getName(),
                                 statusName);
-                        // Actual promotion
-                        structureService.newPromotionRun(
+                        promotionRuns.add(
                                 PromotionRun.of(
-                                        buildOpt.get(),
-                                        promotionLevelOpt.get(),
+                                        build,
+                                        promotionLevel,
                                         Signature.of(artifactoryStatus.getUser()).withTime(artifactoryStatus.getTimestamp()),
                                         "Promoted from Artifactory"
                                 )
@@ -198,6 +289,13 @@ public class ArtifactoryPromotionSyncServiceImpl implements ArtifactoryPromotion
                     }
                 }
             }
+        } finally {
+            statuses.values().forEach(future -> future.cancel(true));
+        }
+        // Actual promotions, all at once
+        if (!promotionRuns.isEmpty()) {
+            structureService.newPromotionRuns(promotionRuns);
         }
+        return promotionRuns.size();
     }
 }
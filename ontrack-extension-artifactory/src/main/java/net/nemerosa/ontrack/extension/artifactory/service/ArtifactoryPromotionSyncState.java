@@ -0,0 +1,37 @@
+package net.nemerosa.ontrack.extension.artifactory.service;
+
+import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the synchronisation of a branch with Artifactory, stored with the branch.
+ */
+@Data
+public class ArtifactoryPromotionSyncState {
+
+    /**
+     * Artifactory build name
+     */
+    private final String buildName;
+
+    /**
+     * Artifactory build name filter
+     */
+    private final String buildNameFilter;
+
+    /**
+     * Start of the most recent Artifactory build seen by the synchronisation
+     */
+    private final LocalDateTime lastStarted;
+
+    /**
+     * Checks if this state is still valid for the given configuration
+     */
+    public boolean isFor(String buildName, String buildNameFilter) {
+        return StringUtils.equals(this.buildName, buildName) &&
+                StringUtils.equals(this.buildNameFilter, buildNameFilter);
+    }
+
+}
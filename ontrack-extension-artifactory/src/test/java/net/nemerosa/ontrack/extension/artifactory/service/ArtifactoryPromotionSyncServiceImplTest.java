@@ -6,19 +6,24 @@ import net.nemerosa.ontrack.extension.artifactory.ArtifactoryExtensionFeature;
 import net.nemerosa.ontrack.extension.artifactory.client.ArtifactoryClient;
 import net.nemerosa.ontrack.extension.artifactory.client.ArtifactoryClientFactory;
 import net.nemerosa.ontrack.extension.artifactory.configuration.ArtifactoryConfigurationService;
+import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryBuildNumber;
 import net.nemerosa.ontrack.extension.artifactory.model.ArtifactoryStatus;
 import net.nemerosa.ontrack.extension.artifactory.property.ArtifactoryPromotionSyncProperty;
 import net.nemerosa.ontrack.extension.artifactory.property.ArtifactoryPromotionSyncPropertyType;
+import net.nemerosa.ontrack.job.JobScheduler;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +37,8 @@ public class ArtifactoryPromotionSyncServiceImplTest {
     private PromotionLevel promotionLevel;
     PropertyService propertyService;
     private Build build;
+    private JobScheduler jobScheduler;
+    private EntityDataService entityDataService;
 
     @Before
     public void setup() {
@@ -47,13 +54,18 @@ public class ArtifactoryPromotionSyncServiceImplTest {
             return run.get();
         }).when(securityService).asAdmin(any(Supplier.class));
 
+        jobScheduler = mock(JobScheduler.class);
+        entityDataService = mock(EntityDataService.class);
+
         service = new ArtifactoryPromotionSyncServiceImpl(
                 structureService,
                 propertyService,
                 artifactoryClientFactory,
                 configurationService,
                 artifactoryConfProperties,
-                securityService);
+                securityService,
+                jobScheduler,
+                entityDataService);
 
         // Fake Artifactory client
         artifactoryClient = mock(ArtifactoryClient.class);
@@ -72,8 +84,8 @@ public class ArtifactoryPromotionSyncServiceImplTest {
                 new NameDescription("1.0.0", "Build 1.0.0"),
                 Signature.of("test")
         ).withId(ID.of(100));
-        when(structureService.findBuildByName("P", "B", "1.0.0")).thenReturn(
-                Optional.of(build)
+        when(structureService.findBuildsByName(branch, Collections.singletonList("1.0.0"))).thenReturn(
+                Collections.singletonList(build)
         );
 
         // Existing promotions
@@ -90,8 +102,8 @@ public class ArtifactoryPromotionSyncServiceImplTest {
                 branch,
                 new NameDescription("COPPER", "Copper level")
         ).withId(ID.of(100));
-        when(structureService.findPromotionLevelByName("P", "B", "COPPER")).thenReturn(
-                Optional.of(promotionLevel)
+        when(structureService.getPromotionLevelListForBranch(branch.getId())).thenReturn(
+                Collections.singletonList(promotionLevel)
         );
 
     }
@@ -100,22 +112,25 @@ public class ArtifactoryPromotionSyncServiceImplTest {
     public void syncBuild_new_promotion() {
 
         // Existing promotion run
-        when(structureService.getLastPromotionRunForBuildAndPromotionLevel(build, promotionLevel)).thenReturn(
-                Optional.of(
-                        PromotionRun.of(
-                                build,
-                                promotionLevel,
-                                Signature.of("test"),
-                                "Promotion"
+        when(structureService.getLastPromotionRunsForBuilds(Collections.singletonList(build))).thenReturn(
+                Collections.singletonMap(
+                        build.getId(),
+                        Collections.singletonList(
+                                PromotionRun.of(
+                                        build,
+                                        promotionLevel,
+                                        Signature.of("test"),
+                                        "Promotion"
+                                )
                         )
                 )
         );
 
         // Call
-        service.syncBuild(branch, "1.0.0", "1.0.0", artifactoryClient, System.out::println);
+        assertEquals(0, service.syncBuilds(branch, "1.0.0", Collections.singletonList("1.0.0"), artifactoryClient, System.out::println));
 
         // Checks that a promotion has NOT been created
-        verify(structureService, times(0)).newPromotionRun(any());
+        verify(structureService, never()).newPromotionRuns(any());
 
     }
 
@@ -123,16 +138,54 @@ public class ArtifactoryPromotionSyncServiceImplTest {
     public void syncBuild_existing_promotion() {
 
         // No existing promotion run
-        when(structureService.getLastPromotionRunForBuildAndPromotionLevel(build, promotionLevel)).thenReturn(
-                Optional.empty()
+        when(structureService.getLastPromotionRunsForBuilds(Collections.singletonList(build))).thenReturn(
+                Collections.emptyMap()
         );
 
         // Call
-        service.syncBuild(branch, "1.0.0", "1.0.0", artifactoryClient, System.out::println);
+        assertEquals(1, service.syncBuilds(branch, "1.0.0", Collections.singletonList("1.0.0"), artifactoryClient, System.out::println));
 
         // Checks that a promotion has been created
-        verify(structureService, times(1)).newPromotionRun(any());
+        verify(structureService, times(1)).newPromotionRuns(any());
+
+    }
 
+    @Test
+    public void sync_since_last_build() {
+        Property<ArtifactoryPromotionSyncProperty> property = Property.of(
+                new ArtifactoryPromotionSyncPropertyType(
+                        new ArtifactoryExtensionFeature(),
+                        null
+                ),
+                new ArtifactoryPromotionSyncProperty(
+                        null,
+                        "build",
+                        "*",
+                        10
+                )
+        );
+        when(propertyService.getProperty(branch, ArtifactoryPromotionSyncPropertyType.class)).thenReturn(property);
+        // Last sync
+        LocalDateTime now = Time.now();
+        when(entityDataService.retrieve(branch, ArtifactoryPromotionSyncState.class.getName(), ArtifactoryPromotionSyncState.class)).thenReturn(
+                Optional.of(new ArtifactoryPromotionSyncState("build", "*", now.minusDays(2)))
+        );
+        // Artifactory builds
+        when(artifactoryClient.getBuilds("build")).thenReturn(Arrays.asList(
+                new ArtifactoryBuildNumber("1", now.minusDays(30)),
+                new ArtifactoryBuildNumber("2", now.minusDays(3)),
+                new ArtifactoryBuildNumber("3", now.minusDays(1))
+        ));
+        // Call
+        service.sync(branch, System.out::println);
+        // Only the builds since the last sync (minus the look-back period) are synchronised
+        verify(structureService, times(1)).findBuildsByName(branch, Arrays.asList("2", "3"));
+        // The last build is remembered
+        verify(entityDataService, times(1)).store(
+                branch,
+                ArtifactoryPromotionSyncState.class.getName(),
+                new ArtifactoryPromotionSyncState("build", "*", now.minusDays(1))
+        );
     }
 
     @Test
@@ -157,6 +210,31 @@ public class ArtifactoryPromotionSyncServiceImplTest {
         assertEquals(1, service.collectJobRegistrations().count());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void triggerSync_for_build_name() {
+        ArtifactoryPromotionSyncProperty property = new ArtifactoryPromotionSyncProperty(
+                null,
+                "build",
+                "",
+                10
+        );
+        // Search on the property of the branch
+        when(propertyService.searchWithPropertyValue(eq(ArtifactoryPromotionSyncPropertyType.class), any(), any())).then(invocation -> {
+            Predicate<ArtifactoryPromotionSyncProperty> predicate = (Predicate<ArtifactoryPromotionSyncProperty>) invocation.getArguments()[2];
+            return predicate.test(property) ?
+                    Collections.singletonList(branch) :
+                    Collections.emptyList();
+        });
+        when(jobScheduler.trigger(any())).thenReturn(true);
+        // Other build
+        assertFalse(service.triggerSync("other").isSuccess());
+        verify(jobScheduler, never()).trigger(any());
+        // Build of the branch
+        assertTrue(service.triggerSync("build").isSuccess());
+        verify(jobScheduler, times(1)).trigger(any());
+    }
+
     @Test
     public void syncBuildJobs_ignoring_templates() {
         // Branch as template
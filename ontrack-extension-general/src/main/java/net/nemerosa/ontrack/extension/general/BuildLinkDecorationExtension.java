@@ -7,8 +7,7 @@ import net.nemerosa.ontrack.ui.controller.URIBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.EnumSet;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Component
@@ -29,6 +28,14 @@ public class BuildLinkDecorationExtension extends AbstractExtension implements D
         return EnumSet.of(ProjectEntityType.BUILD);
     }
 
+    /**
+     * Loads the promotions of every linked build.
+     */
+    @Override
+    public DecoratorCost getCost() {
+        return DecoratorCost.EXPENSIVE;
+    }
+
     @Override
     public List<Decoration<BuildLinkDecoration>> getDecorations(ProjectEntity entity) {
         return structureService.getBuildLinksFrom((Build) entity).stream()
@@ -36,9 +43,40 @@ public class BuildLinkDecorationExtension extends AbstractExtension implements D
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads the links of all the builds, and then the promotions of all the linked builds, at once.
+     */
+    @Override
+    public List<List<Decoration<BuildLinkDecoration>>> getDecorations(List<? extends ProjectEntity> entities) {
+        List<Build> builds = entities.stream()
+                .map(entity -> (Build) entity)
+                .collect(Collectors.toList());
+        // Links for all builds
+        Map<ID, List<Build>> links = structureService.getBuildLinksFrom(builds);
+        // Promotions for all linked builds
+        Map<ID, List<PromotionRun>> promotionRuns = structureService.getLastPromotionRunsForBuilds(
+                links.values().stream()
+                        .flatMap(Collection::stream)
+                        .collect(Collectors.toList())
+        );
+        // Decorations for each build
+        return builds.stream()
+                .map(build -> links.getOrDefault(build.getId(), Collections.emptyList()).stream()
+                        .map(target -> getDecoration(
+                                target,
+                                promotionRuns.getOrDefault(target.getId(), Collections.emptyList())
+                        ))
+                        .collect(Collectors.toList())
+                )
+                .collect(Collectors.toList());
+    }
+
     protected Decoration<BuildLinkDecoration> getDecoration(Build build) {
         // Gets the list of promotion runs for this build
-        List<PromotionRun> promotionRuns = structureService.getLastPromotionRunsForBuild(build.getId());
+        return getDecoration(build, structureService.getLastPromotionRunsForBuild(build.getId()));
+    }
+
+    protected Decoration<BuildLinkDecoration> getDecoration(Build build, List<PromotionRun> promotionRuns) {
         // Decoration
         return Decoration.of(this, new BuildLinkDecoration(
                 build.getProject().getName(),
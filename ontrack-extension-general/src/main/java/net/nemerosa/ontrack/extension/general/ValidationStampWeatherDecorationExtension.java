@@ -10,6 +10,8 @@ import org.springframework.stereotype.Component;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class ValidationStampWeatherDecorationExtension extends AbstractExtension implements DecorationExtension<ValidationStampWeatherDecoration> {
@@ -27,6 +29,14 @@ public class ValidationStampWeatherDecorationExtension extends AbstractExtension
         return EnumSet.of(ProjectEntityType.VALIDATION_STAMP);
     }
 
+    /**
+     * Loads the last validation runs of the stamp.
+     */
+    @Override
+    public DecoratorCost getCost() {
+        return DecoratorCost.EXPENSIVE;
+    }
+
     @Override
     public List<Decoration<ValidationStampWeatherDecoration>> getDecorations(ProjectEntity entity) {
         // Argument check
@@ -35,7 +45,36 @@ public class ValidationStampWeatherDecorationExtension extends AbstractExtension
         List<ValidationRun> runs = structureService.getValidationRunsForValidationStamp(entity.getId(), 0, 5);
         // Keeps only the ones which are not passed
         long notPassed = runs.stream().filter(run -> !run.isPassed()).count();
-        // Result
+        // OK
+        return Collections.singletonList(Decoration.of(this, getWeather(notPassed)));
+    }
+
+    /**
+     * Loads the statuses of the last five runs of all the validation stamps at once.
+     */
+    @Override
+    public List<List<Decoration<ValidationStampWeatherDecoration>>> getDecorations(List<? extends ProjectEntity> entities) {
+        // Argument check
+        List<ValidationStamp> validationStamps = entities.stream()
+                .map(entity -> {
+                    Validate.isTrue(entity instanceof ValidationStamp, "Expecting validation stamp");
+                    return (ValidationStamp) entity;
+                })
+                .collect(Collectors.toList());
+        // Statuses of the last five runs for all validation stamps
+        Map<ID, List<ValidationRunStatusID>> statuses = structureService.getLastValidationRunStatusesForValidationStamps(validationStamps, 5);
+        // Result for each validation stamp
+        return validationStamps.stream()
+                .map(validationStamp -> {
+                    long notPassed = statuses.getOrDefault(validationStamp.getId(), Collections.emptyList()).stream()
+                            .filter(status -> !status.isPassed())
+                            .count();
+                    return Collections.singletonList(Decoration.of(this, getWeather(notPassed)));
+                })
+                .collect(Collectors.toList());
+    }
+
+    protected ValidationStampWeatherDecoration getWeather(long notPassed) {
         ValidationStampWeatherDecoration decoration;
         if (notPassed == 0) {
             decoration = new ValidationStampWeatherDecoration(
@@ -64,7 +103,7 @@ public class ValidationStampWeatherDecorationExtension extends AbstractExtension
             );
         }
         // OK
-        return Collections.singletonList(Decoration.of(this, decoration));
+        return decoration;
     }
 
 }
@@ -0,0 +1,37 @@
+package net.nemerosa.ontrack.extension.git;
+
+import lombok.Data;
+import net.nemerosa.ontrack.git.support.GitRepositoryClientFactoryImpl;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the Git extension.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ontrack.extension.git")
+public class GitConfProperties {
+
+    /**
+     * Maximum memory (in MB) used by the pack indexes of the repositories kept open
+     */
+    int repositoryPoolMemory = (int) (GitRepositoryClientFactoryImpl.DEFAULT_MAX_MEMORY / (1024 * 1024));
+
+    /**
+     * Maximum number of pack files of the repositories kept open
+     */
+    int repositoryPoolPackFiles = GitRepositoryClientFactoryImpl.DEFAULT_MAX_PACK_FILES;
+
+    /**
+     * Secret shared with the Git servers sending push notifications. The notifications are rejected
+     * if not set.
+     */
+    String hookSecret;
+
+    /**
+     * Time (in seconds) during which the notifications for a repository already notified are ignored
+     */
+    int hookInterval = 10;
+
+}
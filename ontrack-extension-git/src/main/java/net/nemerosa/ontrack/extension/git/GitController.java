@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.git;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import net.nemerosa.ontrack.extension.api.model.BuildDiffRequest;
@@ -8,6 +9,7 @@ import net.nemerosa.ontrack.extension.api.model.IssueChangeLogExportRequest;
 import net.nemerosa.ontrack.extension.git.model.*;
 import net.nemerosa.ontrack.extension.git.service.GitConfigurationService;
 import net.nemerosa.ontrack.extension.git.service.GitService;
+import net.nemerosa.ontrack.extension.git.support.GitRemotes;
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry;
 import net.nemerosa.ontrack.extension.issues.export.ExportFormat;
 import net.nemerosa.ontrack.extension.issues.export.ExportedIssues;
@@ -17,6 +19,7 @@ import net.nemerosa.ontrack.extension.scm.model.SCMChangeLogIssue;
 import net.nemerosa.ontrack.extension.scm.model.SCMChangeLogUUIDException;
 import net.nemerosa.ontrack.extension.scm.model.SCMDocumentNotFoundException;
 import net.nemerosa.ontrack.extension.support.AbstractExtensionController;
+import net.nemerosa.ontrack.extension.support.HookNotifications;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.buildfilter.BuildDiff;
 import net.nemerosa.ontrack.model.extension.ExtensionFeatureDescription;
@@ -32,6 +35,7 @@ import net.nemerosa.ontrack.model.support.ConnectionResult;
 import net.nemerosa.ontrack.ui.resource.Link;
 import net.nemerosa.ontrack.ui.resource.Resource;
 import net.nemerosa.ontrack.ui.resource.Resources;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -42,6 +46,7 @@ import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBui
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -56,8 +61,10 @@ public class GitController extends AbstractExtensionController<GitExtensionFeatu
     private final GitConfigurationService configurationService;
     private final IssueServiceRegistry issueServiceRegistry;
     private final SecurityService securityService;
+    private final GitConfProperties gitConfProperties;
 
     private final Cache<String, GitChangeLog> logCache;
+    private final Cache<String, Boolean> hookCache;
 
     @Autowired
     public GitController(GitExtensionFeature feature,
@@ -65,18 +72,25 @@ public class GitController extends AbstractExtensionController<GitExtensionFeatu
                          GitService gitService,
                          GitConfigurationService configurationService,
                          IssueServiceRegistry issueServiceRegistry,
-                         SecurityService securityService) {
+                         SecurityService securityService,
+                         GitConfProperties gitConfProperties) {
         super(feature);
         this.structureService = structureService;
         this.gitService = gitService;
         this.configurationService = configurationService;
         this.issueServiceRegistry = issueServiceRegistry;
         this.securityService = securityService;
+        this.gitConfProperties = gitConfProperties;
         // Cache
         logCache = CacheBuilder.newBuilder()
                 .maximumSize(20)
                 .expireAfterAccess(10, TimeUnit.MINUTES)
                 .build();
+        // Repositories recently notified
+        hookCache = CacheBuilder.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(gitConfProperties.getHookInterval(), TimeUnit.SECONDS)
+                .build();
     }
 
     @Override
@@ -406,4 +420,25 @@ public class GitController extends AbstractExtensionController<GitExtensionFeatu
         return gitService.projectSync(project, request);
     }
 
+    /**
+     * Push notification, as sent by GitHub, GitLab or any tool able to call a web hook. The notification must
+     * be signed with, or contain, the secret shared with the Git server. The repository is given either by
+     * the <code>remote</code> parameter, or by the URLs contained in the payload.
+     */
+    @RequestMapping(value = "hook", method = RequestMethod.POST)
+    public Ack hook(@RequestParam(required = false) String remote, @RequestHeader HttpHeaders headers, @RequestBody(required = false) String body) {
+        JsonNode payload = HookNotifications.check(gitConfProperties.getHookSecret(), headers, body);
+        Set<String> remotes = GitRemotes.getRemotes(payload);
+        if (StringUtils.isNotBlank(remote)) {
+            remotes.add(GitRemotes.normalize(remote));
+        }
+        // Repositories notified again shortly after are not looked for again
+        remotes.removeIf(r -> hookCache.asMap().putIfAbsent(r, Boolean.TRUE) != null);
+        if (remotes.isEmpty()) {
+            return Ack.NOK;
+        } else {
+            return gitService.triggerSync(remotes);
+        }
+    }
+
 }
@@ -0,0 +1,39 @@
+package net.nemerosa.ontrack.extension.git;
+
+import net.nemerosa.ontrack.git.GitRepositoryClientFactory;
+import net.nemerosa.ontrack.git.model.GitRepositoryPoolStats;
+import net.nemerosa.ontrack.model.metrics.OntrackMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Metrics about the pool of Git repositories.
+ */
+@Component
+public class GitRepositoryPoolMetrics implements OntrackMetrics {
+
+    private final GitRepositoryClientFactory repositoryClientFactory;
+
+    @Autowired
+    public GitRepositoryPoolMetrics(GitRepositoryClientFactory repositoryClientFactory) {
+        this.repositoryClientFactory = repositoryClientFactory;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        GitRepositoryPoolStats stats = repositoryClientFactory.getStats();
+        return Arrays.asList(
+                new Metric<>("gauge.git.repositories", stats.getCount()),
+                new Metric<>("gauge.git.repositories.memory", stats.getMemory()),
+                new Metric<>("gauge.git.repositories.packFiles", stats.getPackFiles()),
+                new Metric<>("counter.git.repositories.hit", stats.getHitCount()),
+                new Metric<>("counter.git.repositories.miss", stats.getMissCount()),
+                new Metric<>("counter.git.repositories.eviction", stats.getEvictionCount())
+        );
+    }
+
+}
@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.git.config;
 
+import net.nemerosa.ontrack.extension.git.GitConfProperties;
 import net.nemerosa.ontrack.git.GitRepositoryClientFactory;
 import net.nemerosa.ontrack.git.support.GitRepositoryClientFactoryImpl;
 import net.nemerosa.ontrack.model.support.EnvService;
@@ -15,10 +16,17 @@ public class GitConfig {
     @Autowired
     private EnvService envService;
 
+    @Autowired
+    private GitConfProperties gitConfProperties;
+
     @Bean
     public GitRepositoryClientFactory gitRepositoryClientFactory() {
         File repositories = envService.getWorkingDir("git", "repositories");
-        return new GitRepositoryClientFactoryImpl(repositories);
+        return new GitRepositoryClientFactoryImpl(
+                repositories,
+                gitConfProperties.getRepositoryPoolMemory() * 1024L * 1024L,
+                gitConfProperties.getRepositoryPoolPackFiles()
+        );
     }
 
 }
@@ -0,0 +1,42 @@
+package net.nemerosa.ontrack.extension.git.db;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stores, for each branch, the tags seen by the last synchronisation of its builds, so that
+ * the next synchronisation processes only the tags which have been created or moved since.
+ */
+public interface GitBuildSyncDao {
+
+    /**
+     * Gets the configuration used for the last synchronisation of the branch, or <code>null</code>
+     * if the branch was never synchronised.
+     */
+    String getConfiguration(int branch);
+
+    /**
+     * Gets the tags seen by the last synchronisation of the branch.
+     *
+     * @param branch ID of the branch
+     * @return Index of tag IDs per tag name
+     */
+    Map<String, String> getTags(int branch);
+
+    /**
+     * Forgets all the tags of the branch and records the configuration used for its next
+     * synchronisation.
+     */
+    void reset(int branch, String configuration);
+
+    /**
+     * Records some tags for the branch, replacing any previous ID for the same tag names.
+     */
+    void saveTags(int branch, Map<String, String> tags);
+
+    /**
+     * Forgets some tags for the branch.
+     */
+    void deleteTags(int branch, Collection<String> names);
+
+}
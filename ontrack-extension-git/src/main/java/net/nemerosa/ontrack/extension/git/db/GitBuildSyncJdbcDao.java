@@ -0,0 +1,92 @@
+package net.nemerosa.ontrack.extension.git.db;
+
+import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Repository
+public class GitBuildSyncJdbcDao extends AbstractJdbcRepository implements GitBuildSyncDao {
+
+    @Autowired
+    public GitBuildSyncJdbcDao(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public String getConfiguration(int branch) {
+        return getFirstItem(
+                "SELECT CONFIGURATION FROM EXT_GIT_BUILD_SYNC_BRANCH WHERE BRANCH = :branch",
+                params("branch", branch),
+                String.class
+        );
+    }
+
+    @Override
+    public Map<String, String> getTags(int branch) {
+        Map<String, String> tags = new TreeMap<>();
+        getNamedParameterJdbcTemplate().query(
+                "SELECT TAG, TAGID FROM EXT_GIT_BUILD_SYNC_TAG WHERE BRANCH = :branch",
+                params("branch", branch),
+                rs -> {
+                    tags.put(rs.getString("TAG"), rs.getString("TAGID"));
+                }
+        );
+        return tags;
+    }
+
+    @Override
+    public void reset(int branch, String configuration) {
+        MapSqlParameterSource params = params("branch", branch).addValue("configuration", configuration);
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM EXT_GIT_BUILD_SYNC_TAG WHERE BRANCH = :branch",
+                params
+        );
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM EXT_GIT_BUILD_SYNC_BRANCH WHERE BRANCH = :branch",
+                params
+        );
+        getNamedParameterJdbcTemplate().update(
+                "INSERT INTO EXT_GIT_BUILD_SYNC_BRANCH (BRANCH, CONFIGURATION) VALUES (:branch, :configuration)",
+                params
+        );
+    }
+
+    @Override
+    public void saveTags(int branch, Map<String, String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] params = tags.entrySet().stream()
+                .map(entry -> params("branch", branch)
+                        .addValue("tag", entry.getKey())
+                        .addValue("tagId", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+        getNamedParameterJdbcTemplate().batchUpdate(
+                "DELETE FROM EXT_GIT_BUILD_SYNC_TAG WHERE BRANCH = :branch AND TAG = :tag",
+                params
+        );
+        getNamedParameterJdbcTemplate().batchUpdate(
+                "INSERT INTO EXT_GIT_BUILD_SYNC_TAG (BRANCH, TAG, TAGID) VALUES (:branch, :tag, :tagId)",
+                params
+        );
+    }
+
+    @Override
+    public void deleteTags(int branch, Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        getNamedParameterJdbcTemplate().batchUpdate(
+                "DELETE FROM EXT_GIT_BUILD_SYNC_TAG WHERE BRANCH = :branch AND TAG = :tag",
+                names.stream()
+                        .map(name -> params("branch", branch).addValue("tag", name))
+                        .toArray(MapSqlParameterSource[]::new)
+        );
+    }
+}
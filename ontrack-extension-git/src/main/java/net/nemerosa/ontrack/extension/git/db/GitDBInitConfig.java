@@ -0,0 +1,42 @@
+package net.nemerosa.ontrack.extension.git.db;
+
+import net.nemerosa.ontrack.repository.support.AbstractDBInitConfig;
+import net.nemerosa.ontrack.repository.support.ConfiguredDBInit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class GitDBInitConfig extends AbstractDBInitConfig {
+
+    public static final int VERSION = 0;
+
+    @Autowired
+    public GitDBInitConfig(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public String getName() {
+        return "extension-git";
+    }
+
+    @Override
+    public ConfiguredDBInit createConfig() {
+        ConfiguredDBInit db = new ConfiguredDBInit();
+        db.setVersion(VERSION);
+        db.setJdbcDataSource(dataSource);
+        db.setVersionTable("EXT_GIT_VERSION");
+        db.setVersionColumnName("VALUE");
+        db.setVersionColumnTimestamp("UPDATED");
+        db.setResourceInitialization("/META-INF/db/git/init.sql");
+        db.setResourceUpdate("/META-INF/db/git/update.{0}.sql");
+        return db;
+    }
+
+    @Override
+    public int getOrder() {
+        return 21;
+    }
+}
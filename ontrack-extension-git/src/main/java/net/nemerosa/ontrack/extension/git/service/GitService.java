@@ -10,6 +10,7 @@ import net.nemerosa.ontrack.model.structure.ID;
 import net.nemerosa.ontrack.model.structure.Project;
 import org.eclipse.jgit.revwalk.RevCommit;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Future;
@@ -129,6 +130,16 @@ public interface GitService extends SCMService {
      */
     Optional<Future<?>> sync(GitConfiguration gitConfiguration, GitSynchronisationRequest request);
 
+    /**
+     * Triggers the synchronisation of the Git repositories having one of these remote URLs, and
+     * of the builds of their branches, typically after a push notification. Repeated triggers
+     * are coalesced by the job scheduler.
+     *
+     * @param remotes Remote URLs, in any form
+     * @return OK if at least one synchronisation was triggered
+     */
+    Ack triggerSync(Collection<String> remotes);
+
     /**
      * Gets the Git synchronisation information.
      *
@@ -1,12 +1,15 @@
 package net.nemerosa.ontrack.extension.git.service;
 
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
 import net.nemerosa.ontrack.common.FutureUtils;
 import net.nemerosa.ontrack.extension.api.model.BuildDiffRequest;
 import net.nemerosa.ontrack.extension.api.model.BuildDiffRequestDifferenceProjectException;
+import net.nemerosa.ontrack.extension.git.db.GitBuildSyncDao;
 import net.nemerosa.ontrack.extension.git.model.*;
 import net.nemerosa.ontrack.extension.git.property.GitBranchConfigurationProperty;
 import net.nemerosa.ontrack.extension.git.property.GitBranchConfigurationPropertyType;
+import net.nemerosa.ontrack.extension.git.support.GitRemotes;
 import net.nemerosa.ontrack.extension.git.support.TagBuildNameGitCommitLink;
 import net.nemerosa.ontrack.extension.issues.model.ConfiguredIssueService;
 import net.nemerosa.ontrack.extension.issues.model.Issue;
@@ -17,6 +20,7 @@ import net.nemerosa.ontrack.extension.scm.model.SCMChangeLogFileChangeType;
 import net.nemerosa.ontrack.extension.scm.model.SCMIssueCommitBranchInfo;
 import net.nemerosa.ontrack.extension.scm.model.SCMPathInfo;
 import net.nemerosa.ontrack.extension.scm.service.AbstractSCMChangeLogService;
+import net.nemerosa.ontrack.extension.scm.service.SCMConfigurationCache;
 import net.nemerosa.ontrack.extension.scm.service.SCMUtilsService;
 import net.nemerosa.ontrack.git.GitRepositoryClient;
 import net.nemerosa.ontrack.git.GitRepositoryClientFactory;
@@ -25,6 +29,8 @@ import net.nemerosa.ontrack.git.model.*;
 import net.nemerosa.ontrack.job.*;
 import net.nemerosa.ontrack.job.orchestrator.JobOrchestratorSupplier;
 import net.nemerosa.ontrack.model.Ack;
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventListener;
 import net.nemerosa.ontrack.model.security.ProjectConfig;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.*;
@@ -39,6 +45,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
@@ -51,13 +58,18 @@ import static java.lang.String.format;
 
 @Service
 @Transactional
-public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration, GitBuildInfo, GitChangeLogIssue> implements GitService, JobOrchestratorSupplier {
+public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration, GitBuildInfo, GitChangeLogIssue> implements GitService, JobOrchestratorSupplier, EventListener {
 
     private static final JobCategory GIT_JOB_CATEGORY = JobCategory.of("git").withName("Git");
 
     private static final JobType GIT_INDEXATION_JOB = GIT_JOB_CATEGORY.getType("git-indexation").withName("Git indexation");
     private static final JobType GIT_BUILD_SYNC_JOB = GIT_JOB_CATEGORY.getType("git-build-sync").withName("Git build synchronisation");
 
+    /**
+     * Number of builds created by the tag synchronisation in one transaction
+     */
+    private static final int BUILD_SYNC_BATCH_SIZE = 100;
+
     private final Logger logger = LoggerFactory.getLogger(GitService.class);
 
     private final PropertyService propertyService;
@@ -69,6 +81,13 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
     private final BuildGitCommitLinkService buildGitCommitLinkService;
     private final Collection<GitConfigurator> gitConfigurators;
     private final SCMUtilsService scmService;
+    private final GitBuildSyncDao gitBuildSyncDao;
+
+    /**
+     * Resolved configurations for the projects and the branches
+     */
+    private final SCMConfigurationCache<GitConfiguration> projectConfigurations = new SCMConfigurationCache<>(10_000, 60);
+    private final SCMConfigurationCache<GitBranchConfiguration> branchConfigurations = new SCMConfigurationCache<>(100_000, 60);
 
     @Autowired
     public GitServiceImpl(
@@ -81,7 +100,8 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
             GitRepositoryClientFactory gitRepositoryClientFactory,
             BuildGitCommitLinkService buildGitCommitLinkService,
             Collection<GitConfigurator> gitConfigurators,
-            SCMUtilsService scmService) {
+            SCMUtilsService scmService,
+            GitBuildSyncDao gitBuildSyncDao) {
         super(structureService, propertyService);
         this.propertyService = propertyService;
         this.jobScheduler = jobScheduler;
@@ -92,6 +112,7 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         this.buildGitCommitLinkService = buildGitCommitLinkService;
         this.gitConfigurators = gitConfigurators;
         this.scmService = scmService;
+        this.gitBuildSyncDao = gitBuildSyncDao;
     }
 
     @Override
@@ -524,6 +545,35 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         return jobScheduler.fireImmediately(getGitIndexationJobKey(gitConfiguration));
     }
 
+    @Override
+    public Ack triggerSync(Collection<String> remotes) {
+        Set<String> normalizedRemotes = remotes.stream().map(GitRemotes::normalize).collect(Collectors.toSet());
+        Predicate<GitConfiguration> matching = configuration -> normalizedRemotes.contains(GitRemotes.normalize(configuration.getRemote()));
+        // Notifications are not sent by a user, so all the projects must be looked at
+        int count = securityService.asAdmin(() -> {
+            Set<JobKey> keys = new LinkedHashSet<>();
+            List<Project> projects = new ArrayList<>();
+            forEachConfiguredProject((project, configuration) -> {
+                if (matching.test(configuration)) {
+                    keys.add(getGitIndexationJobKey(configuration));
+                    projects.add(project);
+                }
+            });
+            // Only the branches of the matching projects
+            for (Project project : projects) {
+                structureService.getBranchesForProject(project.getId()).stream()
+                        .filter(branch -> branch.getType() != BranchType.TEMPLATE_DEFINITION)
+                        .forEach(branch -> getBranchConfiguration(branch)
+                                .filter(branchConfiguration -> matching.test(branchConfiguration.getConfiguration()))
+                                .ifPresent(branchConfiguration -> keys.add(getGitBranchSyncJobKey(branch)))
+                        );
+            }
+            return (int) keys.stream().filter(jobScheduler::trigger).count();
+        });
+        logger.debug("[git][hook] {} triggered {} jobs", normalizedRemotes, count);
+        return Ack.validate(count > 0);
+    }
+
     @Override
     public GitSynchronisationInfo getProjectGitSyncInfo(Project project) {
         securityService.checkProjectFunction(project, ProjectConfig.class);
@@ -537,9 +587,9 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         GitRepositoryClient client = gitRepositoryClientFactory.getClient(gitConfiguration.getGitRepository());
         // Gets the status
         GitSynchronisationStatus status = client.getSynchronisationStatus();
-        // Collects the branch info
+        // Collects the branch info, as they were after the last fetch if a synchronisation is running
         List<GitBranchInfo> branches;
-        if (status == GitSynchronisationStatus.IDLE) {
+        if (status != GitSynchronisationStatus.NONE) {
             branches = client.getBranches().getBranches();
         } else {
             branches = Collections.emptyList();
@@ -707,11 +757,18 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
 
     @Override
     public Optional<GitConfiguration> getProjectConfiguration(Project project) {
-        return gitConfigurators.stream()
+        return projectConfigurations.get(project, () -> gitConfigurators.stream()
                 .map(c -> c.getConfiguration(project))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
-                .findFirst();
+                .findFirst()
+        );
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        projectConfigurations.onEvent(event);
+        branchConfigurations.onEvent(event);
     }
 
     protected GitBranchConfiguration getRequiredBranchConfiguration(Branch branch) {
@@ -721,6 +778,10 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
 
     @Override
     public Optional<GitBranchConfiguration> getBranchConfiguration(Branch branch) {
+        return branchConfigurations.get(branch, () -> loadBranchConfiguration(branch));
+    }
+
+    private Optional<GitBranchConfiguration> loadBranchConfiguration(Branch branch) {
         // Get the configuration for the project
         Optional<GitConfiguration> configuration = getProjectConfiguration(branch.getProject());
         if (configuration.isPresent()) {
@@ -796,6 +857,11 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
                 return super.isDisabled() &&
                         isBranchConfiguredForGit(branch);
             }
+
+            @Override
+            public String getAffinity() {
+                return getGitJobAffinity(configuration.getConfiguration());
+            }
         };
     }
 
@@ -833,9 +899,21 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
             public boolean isDisabled() {
                 return false;
             }
+
+            @Override
+            public String getAffinity() {
+                return getGitJobAffinity(config);
+            }
         };
     }
 
+    /**
+     * The jobs working on the same repository run preferably on the instance holding its clone.
+     */
+    private String getGitJobAffinity(GitConfiguration config) {
+        return "git:" + config.getGitRepository().getId();
+    }
+
     protected <T> void buildSync(Branch branch, GitBranchConfiguration branchConfiguration, JobRunListener listener) {
         listener.message("Git build/tag sync for %s/%s", branch.getProject().getName(), branch.getName());
         GitConfiguration configuration = branchConfiguration.getConfiguration();
@@ -852,52 +930,105 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         // Makes sure of synchronization
         listener.message("Synchronizing before importing");
         syncAndWait(configuration);
-        // Gets the list of tags
+        // Tags processed by the previous synchronisations, unless the configuration has changed since
+        int branchId = branch.id();
+        String fingerprint = getBuildSyncFingerprint(branchConfiguration, override);
+        Map<String, String> processedTags;
+        if (StringUtils.equals(fingerprint, gitBuildSyncDao.getConfiguration(branchId))) {
+            processedTags = gitBuildSyncDao.getTags(branchId);
+        } else {
+            listener.message("New configuration, processing all the tags");
+            gitBuildSyncDao.reset(branchId, fingerprint);
+            processedTags = Collections.emptyMap();
+        }
+        // Gets the list of tags, without loading them
         listener.message("Getting list of tags");
-        Collection<GitTag> tags = gitClient.getTags();
+        Map<String, String> tagIds = gitClient.getTagIds();
+        // Keeps only the new or moved tags
+        Map<String, String> newTags = new TreeMap<>();
+        Map<String, String> tagPerBuildName = new LinkedHashMap<>();
+        tagIds.forEach((tagName, tagId) -> {
+            if (!StringUtils.equals(tagId, processedTags.get(tagName))) {
+                // Filters the tags according to the branch tag pattern
+                link.getBuildNameFromTagName(tagName, linkData).ifPresent(buildNameCandidate -> {
+                    newTags.put(tagName, tagId);
+                    tagPerBuildName.putIfAbsent(NameDescription.escapeName(buildNameCandidate), tagName);
+                });
+            }
+        });
+        List<String> removedTags = processedTags.keySet().stream()
+                .filter(tagName -> !tagIds.containsKey(tagName))
+                .collect(Collectors.toList());
         // Creates the builds
-        listener.message("Creating builds from tags");
-        for (GitTag tag : tags) {
-            String tagName = tag.getName();
-            // Filters the tags according to the branch tag pattern
-            link.getBuildNameFromTagName(tagName, linkData).ifPresent(buildNameCandidate -> {
-                String buildName = NameDescription.escapeName(buildNameCandidate);
-                listener.message(format("Build %s from tag %s", buildName, tagName));
-                // Existing build?
-                boolean createBuild;
-                Optional<Build> build = structureService.findBuildByName(branch.getProject().getName(), branch.getName(), buildName);
-                if (build.isPresent()) {
-                    if (override) {
-                        // Deletes the build
-                        listener.message("Deleting existing build %s", buildName);
-                        structureService.deleteBuild(build.get().getId());
-                        createBuild = true;
-                    } else {
-                        // Keeps the build
-                        listener.message("Build %s already exists", buildName);
-                        createBuild = false;
-                    }
+        int createdBuilds = 0;
+        if (!tagPerBuildName.isEmpty()) {
+            listener.message("Creating builds from %d new or moved tags", newTags.size());
+            // Existing builds, in one go
+            for (Build build : structureService.findBuildsByName(branch, tagPerBuildName.keySet())) {
+                if (override) {
+                    listener.message("Deleting existing build %s", build.getName());
+                    structureService.deleteBuild(build.getId());
                 } else {
-                    createBuild = true;
+                    listener.message("Build %s already exists", build.getName());
+                    tagPerBuildName.remove(build.getName());
                 }
-                // Actual creation
-                if (createBuild) {
-                    listener.message("Creating build %s from tag %s", buildName, tagName);
-                    structureService.newBuild(
+            }
+            // Loads only the tags needed for the new builds
+            Map<String, GitTag> tags = gitClient.getTags(tagPerBuildName.values()).stream()
+                    .collect(Collectors.toMap(GitTag::getName, tag -> tag));
+            Signature signature = securityService.getCurrentSignature();
+            List<Build> builds = new ArrayList<>();
+            tagPerBuildName.forEach((buildName, tagName) -> {
+                GitTag tag = tags.get(tagName);
+                if (tag != null) {
+                    builds.add(
                             Build.of(
                                     branch,
                                     new NameDescription(
                                             buildName,
                                             "Imported from Git tag " + tagName
                                     ),
-                                    securityService.getCurrentSignature().withTime(
+                                    signature.withTime(
                                             tag.getTime()
                                     )
                             )
                     );
                 }
             });
+            // Actual creation, one transaction per batch
+            for (List<Build> batch : Lists.partition(builds, BUILD_SYNC_BATCH_SIZE)) {
+                listener.message("Creating %d builds, from %s to %s",
+                        batch.size(),
+                        batch.get(0).getName(),
+                        batch.get(batch.size() - 1).getName());
+                structureService.newBuilds(batch);
+                createdBuilds += batch.size();
+            }
         }
+        // Remembers the processed tags
+        gitBuildSyncDao.saveTags(branchId, newTags);
+        gitBuildSyncDao.deleteTags(branchId, removedTags);
+        if (createdBuilds == 0) {
+            listener.unchanged();
+        }
+    }
+
+    /**
+     * Identifies the configuration used to synchronise the builds of a branch, so that all the tags
+     * are processed again when it changes.
+     */
+    private String getBuildSyncFingerprint(GitBranchConfiguration branchConfiguration, boolean override) {
+        ServiceConfiguration link = branchConfiguration.getBuildCommitLink().toServiceConfiguration();
+        return Hashing.sha1().hashString(
+                format(
+                        "%s|%s|%s|%s",
+                        branchConfiguration.getConfiguration().getGitRepository().getId(),
+                        link.getId(),
+                        link.getData(),
+                        override
+                ),
+                StandardCharsets.UTF_8
+        ).toString();
     }
 
     private void index(GitConfiguration config, JobRunListener listener) {
@@ -905,7 +1036,9 @@ public class GitServiceImpl extends AbstractSCMChangeLogService<GitConfiguration
         // Gets the client for this configuration
         GitRepositoryClient client = gitRepositoryClientFactory.getClient(config.getGitRepository());
         // Launches the synchronisation
-        client.sync(listener.logger());
+        if (!client.sync(listener.logger())) {
+            listener.unchanged();
+        }
     }
 
     private JobRegistration getGitIndexationJobRegistration(GitConfiguration configuration) {
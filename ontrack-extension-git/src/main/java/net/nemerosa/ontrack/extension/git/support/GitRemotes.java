@@ -0,0 +1,83 @@
+package net.nemerosa.ontrack.extension.git.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Utility methods to match the remote URL of Git repositories, which can be written in many ways
+ * for the same repository, like <code>https://github.com/org/repo.git</code> and
+ * <code>git@github.com:org/repo</code>.
+ */
+public final class GitRemotes {
+
+    private GitRemotes() {
+    }
+
+    /**
+     * Reduces a remote URL to its host and path, in lower case, without any protocol, user,
+     * port or <code>.git</code> suffix.
+     */
+    public static String normalize(String remote) {
+        String s = StringUtils.trimToEmpty(remote).toLowerCase();
+        // Protocol
+        int protocol = s.indexOf("://");
+        boolean scp = protocol < 0;
+        if (!scp) {
+            s = s.substring(protocol + 3);
+        }
+        // User
+        int at = s.indexOf('@');
+        int slash = s.indexOf('/');
+        if (at >= 0 && (slash < 0 || at < slash)) {
+            s = s.substring(at + 1);
+            slash = s.indexOf('/');
+        }
+        // Port or SCP-like separator
+        int colon = s.indexOf(':');
+        if (colon >= 0 && (slash < 0 || colon < slash)) {
+            String rest = s.substring(colon + 1);
+            if (!scp) {
+                // Port
+                rest = StringUtils.substringAfter(rest, "/");
+            }
+            s = s.substring(0, colon) + "/" + rest;
+        }
+        // Suffixes
+        s = StringUtils.removeEnd(s, "/");
+        s = StringUtils.removeEnd(s, ".git");
+        return s;
+    }
+
+    /**
+     * Gets the remote URLs of the repository described by the payload of a push notification,
+     * as sent by GitHub, GitLab or similar services.
+     *
+     * @param payload Notification payload
+     * @return Remote URLs, normalized
+     */
+    public static Set<String> getRemotes(JsonNode payload) {
+        Set<String> remotes = new TreeSet<>();
+        if (payload != null) {
+            for (String node : Arrays.asList("repository", "project")) {
+                collectRemotes(payload.path(node), remotes);
+            }
+        }
+        return remotes;
+    }
+
+    private static void collectRemotes(JsonNode node, Set<String> remotes) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().endsWith("url") && field.getValue().isTextual()) {
+                String value = field.getValue().asText();
+                if (StringUtils.isNotBlank(value) && !StringUtils.contains(value, '{')) {
+                    remotes.add(normalize(value));
+                }
+            }
+        }
+    }
+
+}
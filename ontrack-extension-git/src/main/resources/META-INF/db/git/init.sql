@@ -0,0 +1,29 @@
+-- Schema for the Git extension
+
+-- DB versioning
+
+CREATE TABLE EXT_GIT_VERSION (
+  VALUE   INTEGER   NOT NULL,
+  UPDATED TIMESTAMP NOT NULL
+);
+
+-- Configuration used for the last synchronisation of the builds of a branch with the tags
+
+CREATE TABLE EXT_GIT_BUILD_SYNC_BRANCH (
+  BRANCH        INTEGER       NOT NULL,
+  CONFIGURATION VARCHAR(2000) NOT NULL,
+  CONSTRAINT EXT_GIT_BUILD_SYNC_BRANCH_PK PRIMARY KEY (BRANCH),
+  CONSTRAINT EXT_GIT_BUILD_SYNC_BRANCH_FK_BRANCH FOREIGN KEY (BRANCH) REFERENCES BRANCHES (ID)
+    ON DELETE CASCADE
+);
+
+-- Tags seen by the last synchronisation of the builds of a branch
+
+CREATE TABLE EXT_GIT_BUILD_SYNC_TAG (
+  BRANCH INTEGER      NOT NULL,
+  TAG    VARCHAR(400) NOT NULL,
+  TAGID  VARCHAR(40)  NOT NULL,
+  CONSTRAINT EXT_GIT_BUILD_SYNC_TAG_PK PRIMARY KEY (BRANCH, TAG),
+  CONSTRAINT EXT_GIT_BUILD_SYNC_TAG_FK_BRANCH FOREIGN KEY (BRANCH) REFERENCES BRANCHES (ID)
+    ON DELETE CASCADE
+);
@@ -119,4 +119,77 @@ class GitBuildSyncIT extends AbstractServiceTestSupport {
         }
     }
 
+    @Test
+    void 'Incremental sync'() {
+        // Git repo
+        prepare {
+
+            int no = 0
+            git 'init'
+
+            commit no++
+            git 'tag', '1.2.0'
+            commit no
+            git 'tag', '1.2.1'
+
+        } and { client, repo ->
+
+            // Create a Git configuration
+            String gitConfigurationName = uid('C')
+            BasicGitConfiguration gitConfiguration = asUser().with(GlobalSettings).call {
+                gitConfigurationService.newConfiguration(
+                        BasicGitConfiguration.empty()
+                                .withName(gitConfigurationName)
+                                .withRemote("file://${repo.dir.absolutePath}")
+                )
+            }
+
+            // Creates a project and branch
+            Branch branch = doCreateBranch()
+            Project project = branch.project
+
+            asAdmin().execute {
+                // Configures the project and the branch
+                propertyService.editProperty(
+                        project,
+                        GitProjectConfigurationPropertyType,
+                        new GitProjectConfigurationProperty(gitConfiguration)
+                )
+                propertyService.editProperty(
+                        branch,
+                        GitBranchConfigurationPropertyType,
+                        new GitBranchConfigurationProperty(
+                                'master',
+                                new ConfiguredBuildGitCommitLink<>(
+                                        tagPatternBuildNameGitCommitLink,
+                                        new TagPattern('1.2.*')
+                                ).toServiceConfiguration(),
+                                false, 1
+                        )
+                )
+
+                // Job registration
+                jobOrchestrator.orchestrate(JobRunListener.out());
+
+                // First synchronisation
+                gitService.launchBuildSync(branch.id, true)
+                assert structureService.findBuildByName(project.name, branch.name, '1.2.0').present
+                assert structureService.findBuildByName(project.name, branch.name, '1.2.1').present
+
+                // Deletes a build and adds a tag
+                structureService.deleteBuild(structureService.findBuildByName(project.name, branch.name, '1.2.0').get().id)
+                repo.commit 2
+                repo.git 'tag', '1.2.2'
+
+                // Next synchronisation
+                gitService.launchBuildSync(branch.id, true)
+
+                // Only the new tag has been processed
+                assert !structureService.findBuildByName(project.name, branch.name, '1.2.0').present
+                assert structureService.findBuildByName(project.name, branch.name, '1.2.1').present
+                assert structureService.findBuildByName(project.name, branch.name, '1.2.2').present
+            }
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package net.nemerosa.ontrack.extension.git.service
 
 import net.nemerosa.ontrack.extension.git.GitExtensionFeature
+import net.nemerosa.ontrack.extension.git.db.GitBuildSyncDao
 import net.nemerosa.ontrack.extension.git.model.BasicGitActualConfiguration
 import net.nemerosa.ontrack.extension.git.model.BasicGitConfiguration
 import net.nemerosa.ontrack.extension.git.model.GitBranchConfiguration
@@ -58,7 +59,8 @@ class GitServiceImplTest {
                 mock(GitRepositoryClientFactory),
                 mock(BuildGitCommitLinkService),
                 [gitConfigurator],
-                mock(SCMUtilsService)
+                mock(SCMUtilsService),
+                mock(GitBuildSyncDao)
         )
     }
 
@@ -0,0 +1,54 @@
+package net.nemerosa.ontrack.extension.git.support
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.junit.Test
+
+class GitRemotesTest {
+
+    @Test
+    void 'Normalized remotes'() {
+        assert GitRemotes.normalize('https://github.com/nemerosa/ontrack.git') == 'github.com/nemerosa/ontrack'
+        assert GitRemotes.normalize('https://github.com/nemerosa/ontrack') == 'github.com/nemerosa/ontrack'
+        assert GitRemotes.normalize('https://user@GitHub.com/nemerosa/ontrack/') == 'github.com/nemerosa/ontrack'
+        assert GitRemotes.normalize('git@github.com:nemerosa/ontrack.git') == 'github.com/nemerosa/ontrack'
+        assert GitRemotes.normalize('ssh://git@github.com:22/nemerosa/ontrack.git') == 'github.com/nemerosa/ontrack'
+        assert GitRemotes.normalize('file:///tmp/repo') == '/tmp/repo'
+    }
+
+    @Test
+    void 'Remotes from a GitHub payload'() {
+        def payload = new ObjectMapper().readTree('''{
+            "ref": "refs/heads/master",
+            "repository": {
+                "name": "ontrack",
+                "url": "https://github.com/nemerosa/ontrack",
+                "clone_url": "https://github.com/nemerosa/ontrack.git",
+                "ssh_url": "git@github.com:nemerosa/ontrack.git",
+                "tags_url": "https://api.github.com/repos/nemerosa/ontrack/tags",
+                "keys_url": "https://api.github.com/repos/nemerosa/ontrack/keys{/key_id}"
+            }
+        }''')
+        assert GitRemotes.getRemotes(payload) == [
+                'api.github.com/repos/nemerosa/ontrack/tags',
+                'github.com/nemerosa/ontrack',
+        ] as Set
+    }
+
+    @Test
+    void 'Remotes from a GitLab payload'() {
+        def payload = new ObjectMapper().readTree('''{
+            "object_kind": "push",
+            "project": {
+                "git_ssh_url": "git@gitlab.example.com:group/project.git",
+                "git_http_url": "https://gitlab.example.com/group/project.git"
+            }
+        }''')
+        assert GitRemotes.getRemotes(payload) == ['gitlab.example.com/group/project'] as Set
+    }
+
+    @Test
+    void 'No remote without payload'() {
+        assert GitRemotes.getRemotes(null).empty
+    }
+
+}
@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.extension.git;
 import net.nemerosa.ontrack.git.GitRepository;
 import net.nemerosa.ontrack.git.GitRepositoryClient;
 import net.nemerosa.ontrack.git.GitRepositoryClientFactory;
+import net.nemerosa.ontrack.git.model.GitRepositoryPoolStats;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -26,6 +27,7 @@ public class GitMockConfig {
     public GitRepositoryClientFactory repositoryClientFactory() {
         GitRepositoryClientFactory factory = mock(GitRepositoryClientFactory.class);
         when(factory.getClient(any(GitRepository.class))).thenReturn(testGitRepositoryClient());
+        when(factory.getStats()).thenReturn(new GitRepositoryPoolStats(0, 0, 0, 0, 0, 0));
         return factory;
     }
 
@@ -0,0 +1,35 @@
+package net.nemerosa.ontrack.extension.jenkins;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the Jenkins extension.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ontrack.extension.jenkins")
+public class JenkinsConfProperties {
+
+    /**
+     * Period (in seconds) during which a Jenkins job state is considered fresh
+     */
+    private int decorationCacheTtl = 60;
+
+    /**
+     * Maximum number of Jenkins job states to keep in the cache
+     */
+    private int decorationCacheMaxSize = 1000;
+
+    /**
+     * Maximum time (in milliseconds) to wait for a Jenkins job state when computing a decoration
+     */
+    private int decorationTimeout = 500;
+
+    /**
+     * Number of threads used to get the Jenkins job states
+     */
+    private int decorationPoolSize = 4;
+
+}
@@ -1,8 +1,6 @@
 package net.nemerosa.ontrack.extension.jenkins;
 
 import net.nemerosa.ontrack.extension.api.DecorationExtension;
-import net.nemerosa.ontrack.extension.jenkins.client.JenkinsClient;
-import net.nemerosa.ontrack.extension.jenkins.client.JenkinsClientFactory;
 import net.nemerosa.ontrack.extension.jenkins.client.JenkinsJob;
 import net.nemerosa.ontrack.extension.support.AbstractExtension;
 import net.nemerosa.ontrack.model.structure.*;
@@ -20,13 +18,13 @@ import java.util.List;
 public class JenkinsJobDecorationExtension extends AbstractExtension implements DecorationExtension<JenkinsJob> {
 
     private final PropertyService propertyService;
-    private final JenkinsClientFactory jenkinsClientFactory;
+    private final JenkinsJobService jenkinsJobService;
 
     @Autowired
-    public JenkinsJobDecorationExtension(JenkinsExtensionFeature extensionFeature, PropertyService propertyService, JenkinsClientFactory jenkinsClientFactory) {
+    public JenkinsJobDecorationExtension(JenkinsExtensionFeature extensionFeature, PropertyService propertyService, JenkinsJobService jenkinsJobService) {
         super(extensionFeature);
         this.propertyService = propertyService;
-        this.jenkinsClientFactory = jenkinsClientFactory;
+        this.jenkinsJobService = jenkinsJobService;
     }
 
     @Override
@@ -39,6 +37,14 @@ public class JenkinsJobDecorationExtension extends AbstractExtension implements
         );
     }
 
+    /**
+     * Might have to wait for Jenkins.
+     */
+    @Override
+    public DecoratorCost getCost() {
+        return DecoratorCost.EXPENSIVE;
+    }
+
     @Override
     public List<Decoration<JenkinsJob>> getDecorations(ProjectEntity entity) {
         // Gets the Jenkins Job property for this entity, if any
@@ -50,11 +56,11 @@ public class JenkinsJobDecorationExtension extends AbstractExtension implements
             if (entity instanceof Branch && ((Branch) entity).getType() == BranchType.TEMPLATE_DEFINITION) {
                 return Collections.emptyList();
             }
-            // Gets a client
-            // FIXME getJob does not need a full HTTP client
-            JenkinsClient jenkinsClient = jenkinsClientFactory.getClient(property.getValue().getConfiguration());
-            // Gets the Jenkins job
-            JenkinsJob job = jenkinsClient.getJob(property.getValue().getJob());
+            // Gets the Jenkins job from the cache, without blocking on Jenkins
+            JenkinsJob job = jenkinsJobService.getJob(
+                    property.getValue().getConfiguration(),
+                    property.getValue().getJob()
+            );
             // Gets the decoration for the job
             return Collections.singletonList(
                     getDecoration(job)
@@ -0,0 +1,23 @@
+package net.nemerosa.ontrack.extension.jenkins;
+
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsJob;
+
+/**
+ * Access to the Jenkins jobs, served from a cache which is refreshed in the background.
+ */
+public interface JenkinsJobService {
+
+    /**
+     * Gets the Jenkins job for a configuration and a job path.
+     * <p>
+     * This method never waits longer than the configured timeout. If the state of the
+     * job cannot be fetched in time, the last known state is returned, marked as
+     * {@link JenkinsJob#isStale() stale}.
+     *
+     * @param configuration Jenkins configuration
+     * @param job           Path to the job
+     * @return Jenkins job (never null)
+     */
+    JenkinsJob getJob(JenkinsConfiguration configuration, String job);
+
+}
@@ -0,0 +1,169 @@
+package net.nemerosa.ontrack.extension.jenkins;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Data;
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsClient;
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsClientFactory;
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsJob;
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsJobState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+
+@Service
+public class JenkinsJobServiceImpl implements JenkinsJobService {
+
+    private final Logger logger = LoggerFactory.getLogger(JenkinsJobServiceImpl.class);
+
+    private final JenkinsClientFactory jenkinsClientFactory;
+    private final JenkinsConfProperties confProperties;
+
+    /**
+     * Last known states of the jobs. Once their TTL is over, the states are reloaded in the background,
+     * the last known state being returned in the meantime.
+     */
+    private final LoadingCache<JobKey, CachedJob> cache;
+
+    /**
+     * First loads in progress, so that only one call per job is done at a time.
+     */
+    private final ConcurrentMap<JobKey, CompletableFuture<JenkinsJob>> refreshes = new ConcurrentHashMap<>();
+
+    /**
+     * Bounded pool used to get the job states
+     */
+    private final ExecutorService executor;
+
+    @Autowired
+    public JenkinsJobServiceImpl(JenkinsClientFactory jenkinsClientFactory, JenkinsConfProperties confProperties) {
+        this.jenkinsClientFactory = jenkinsClientFactory;
+        this.confProperties = confProperties;
+        this.executor = new ThreadPoolExecutor(
+                confProperties.getDecorationPoolSize(),
+                confProperties.getDecorationPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(confProperties.getDecorationCacheMaxSize()),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("jenkins-job-%d")
+                        .build()
+        );
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(confProperties.getDecorationCacheMaxSize())
+                .refreshAfterWrite(Math.max(1, TimeUnit.SECONDS.toMillis(confProperties.getDecorationCacheTtl())), TimeUnit.MILLISECONDS)
+                .build(CacheLoader.asyncReloading(
+                        new CacheLoader<JobKey, CachedJob>() {
+                            @Override
+                            public CachedJob load(JobKey key) {
+                                return new CachedJob(JenkinsJobServiceImpl.this.load(key), System.currentTimeMillis());
+                            }
+                        },
+                        executor
+                ));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public JenkinsJob getJob(JenkinsConfiguration configuration, String job) {
+        JobKey key = new JobKey(configuration, job);
+        // Last known state, its reload being started in the background when its TTL is over
+        CachedJob cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (cached.isFresh(confProperties.getDecorationCacheTtl())) {
+                return cached.getJob();
+            } else {
+                return cached.getJob().asStale();
+            }
+        }
+        // First load, but waiting only for a limited amount of time
+        CompletableFuture<JenkinsJob> refresh = refresh(key);
+        try {
+            return refresh.get(confProperties.getDecorationTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            logger.debug("[jenkins] Timeout while getting job state for {}", key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            logger.debug("[jenkins] Cannot get job state for {}", key, ex.getCause());
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new IllegalStateException(cause);
+            }
+        }
+        // Builds the job link without its state
+        return jenkinsClientFactory.getClient(configuration)
+                .getJob(job)
+                .withState(JenkinsJobState.UNKNOWN)
+                .asStale();
+    }
+
+    protected CompletableFuture<JenkinsJob> refresh(JobKey key) {
+        CompletableFuture<JenkinsJob> future = refreshes.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<JenkinsJob> newFuture = new CompletableFuture<>();
+        future = refreshes.putIfAbsent(key, newFuture);
+        if (future != null) {
+            return future;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    JenkinsJob job = load(key);
+                    cache.put(key, new CachedJob(job, System.currentTimeMillis()));
+                    newFuture.complete(job);
+                } catch (Exception ex) {
+                    newFuture.completeExceptionally(ex);
+                } finally {
+                    refreshes.remove(key, newFuture);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refreshes.remove(key, newFuture);
+            newFuture.completeExceptionally(ex);
+        }
+        return newFuture;
+    }
+
+    protected JenkinsJob load(JobKey key) {
+        JenkinsClient client = jenkinsClientFactory.getClient(key.getConfiguration());
+        JenkinsJob job = client.getJob(key.getJob());
+        return job.withState(client.getJobState(key.getJob()));
+    }
+
+    @Data
+    protected static class JobKey {
+        private final JenkinsConfiguration configuration;
+        private final String job;
+
+        @Override
+        public String toString() {
+            return String.format("%s/%s", configuration.getName(), job);
+        }
+    }
+
+    @Data
+    protected static class CachedJob {
+        private final JenkinsJob job;
+        private final long timestamp;
+
+        public boolean isFresh(int ttlSeconds) {
+            return System.currentTimeMillis() - timestamp < TimeUnit.SECONDS.toMillis(ttlSeconds);
+        }
+    }
+
+}
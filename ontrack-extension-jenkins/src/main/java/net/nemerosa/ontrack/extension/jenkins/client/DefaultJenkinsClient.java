@@ -14,7 +14,7 @@ public class DefaultJenkinsClient implements JenkinsClient {
 
     @Override
     public JenkinsJob getJob(String job) {
-        String path = job.replaceAll("/job/", "/").replaceAll("/", "/job/");
+        String path = getJobPath(job);
         String jobPath = jsonClient.getUrl("job/%s", path);
         String jobName = StringUtils.substringAfterLast(jobPath, "/");
         return new JenkinsJob(
@@ -23,6 +23,25 @@ public class DefaultJenkinsClient implements JenkinsClient {
         );
     }
 
+    @Override
+    public JenkinsJobState getJobState(String job) {
+        JsonNode tree = jsonClient.get("job/%s/api/json?tree=color", getJobPath(job));
+        String color = tree.path("color").asText();
+        if (StringUtils.equals("disabled", color)) {
+            return JenkinsJobState.DISABLED;
+        } else if (StringUtils.endsWith(color, "_anime")) {
+            return JenkinsJobState.RUNNING;
+        } else if (StringUtils.isNotBlank(color)) {
+            return JenkinsJobState.IDLE;
+        } else {
+            return JenkinsJobState.UNKNOWN;
+        }
+    }
+
+    private String getJobPath(String job) {
+        return job.replaceAll("/job/", "/").replaceAll("/", "/job/");
+    }
+
     @Override
     public JenkinsInfo getInfo() {
         JsonNode tree = jsonClient.get("/api/json");
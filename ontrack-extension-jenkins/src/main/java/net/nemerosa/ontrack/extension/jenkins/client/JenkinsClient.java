@@ -4,6 +4,11 @@ public interface JenkinsClient {
 
     JenkinsJob getJob(String job);
 
+    /**
+     * Gets the current state of a job. This performs a remote call.
+     */
+    JenkinsJobState getJobState(String job);
+
     JenkinsInfo getInfo();
 
 }
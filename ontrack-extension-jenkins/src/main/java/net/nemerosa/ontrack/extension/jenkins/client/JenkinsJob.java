@@ -1,11 +1,35 @@
 package net.nemerosa.ontrack.extension.jenkins.client;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 
 @Data
+@AllArgsConstructor
 public class JenkinsJob {
 
     private final String name;
     private final String url;
 
+    /**
+     * State of the job
+     */
+    private final JenkinsJobState state;
+
+    /**
+     * Is this information older than expected, because Jenkins could not be reached in time?
+     */
+    private final boolean stale;
+
+    public JenkinsJob(String name, String url) {
+        this(name, url, JenkinsJobState.UNKNOWN, false);
+    }
+
+    public JenkinsJob withState(JenkinsJobState state) {
+        return new JenkinsJob(name, url, state, stale);
+    }
+
+    public JenkinsJob asStale() {
+        return new JenkinsJob(name, url, state, true);
+    }
+
 }
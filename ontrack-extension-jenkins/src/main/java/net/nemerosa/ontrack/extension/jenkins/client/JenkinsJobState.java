@@ -6,6 +6,8 @@ public enum JenkinsJobState {
 
     DISABLED,
 
-    RUNNING
+    RUNNING,
+
+    UNKNOWN
 
 }
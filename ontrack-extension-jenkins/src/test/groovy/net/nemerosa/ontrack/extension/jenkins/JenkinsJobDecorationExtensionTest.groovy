@@ -24,7 +24,10 @@ class JenkinsJobDecorationExtensionTest {
         extension = new JenkinsJobDecorationExtension(
                 new JenkinsExtensionFeature(),
                 propertyService,
-                jenkinsClientFactory
+                new JenkinsJobServiceImpl(
+                        jenkinsClientFactory,
+                        new JenkinsConfProperties()
+                )
         )
 
         def jenkinsConfiguration = new JenkinsConfiguration('Jenkins', 'http://jenkins', '', '')
@@ -36,6 +39,7 @@ class JenkinsJobDecorationExtensionTest {
                         'http://jenkins/job/MyBuild'
                 )
         )
+        when(client.getJobState('MyBuild')).thenReturn(JenkinsJobState.IDLE)
         when(jenkinsClientFactory.getClient(jenkinsConfiguration)).thenReturn(client)
 
         branch = Branch.of(
@@ -68,7 +72,9 @@ class JenkinsJobDecorationExtensionTest {
         assert decoration.decorationType == 'net.nemerosa.ontrack.extension.jenkins.JenkinsJobDecorationExtension'
         assert decoration.data == new JenkinsJob(
                 'MyBuild',
-                'http://jenkins/job/MyBuild'
+                'http://jenkins/job/MyBuild',
+                JenkinsJobState.IDLE,
+                false
         )
     }
 
@@ -0,0 +1,81 @@
+package net.nemerosa.ontrack.extension.jenkins
+
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsClient
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsClientFactory
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsJob
+import net.nemerosa.ontrack.extension.jenkins.client.JenkinsJobState
+import org.junit.Before
+import org.junit.Test
+
+import java.util.concurrent.CountDownLatch
+
+import static org.mockito.Mockito.*
+
+class JenkinsJobServiceImplTest {
+
+    JenkinsConfiguration configuration
+    JenkinsClient client
+    JenkinsClientFactory jenkinsClientFactory
+    JenkinsConfProperties confProperties
+
+    @Before
+    void before() {
+        configuration = new JenkinsConfiguration('Jenkins', 'http://jenkins', '', '')
+        client = mock(JenkinsClient)
+        when(client.getJob('MyBuild')).thenReturn(new JenkinsJob('MyBuild', 'http://jenkins/job/MyBuild'))
+        jenkinsClientFactory = mock(JenkinsClientFactory)
+        when(jenkinsClientFactory.getClient(configuration)).thenReturn(client)
+        confProperties = new JenkinsConfProperties()
+    }
+
+    @Test
+    void 'Job state is cached'() {
+        when(client.getJobState('MyBuild')).thenReturn(JenkinsJobState.RUNNING)
+        def service = new JenkinsJobServiceImpl(jenkinsClientFactory, confProperties)
+        def expected = new JenkinsJob('MyBuild', 'http://jenkins/job/MyBuild', JenkinsJobState.RUNNING, false)
+        assert service.getJob(configuration, 'MyBuild') == expected
+        assert service.getJob(configuration, 'MyBuild') == expected
+        verify(client, times(1)).getJobState('MyBuild')
+    }
+
+    @Test
+    void 'Unknown state when Jenkins does not answer in time'() {
+        def latch = new CountDownLatch(1)
+        when(client.getJobState('MyBuild')).thenAnswer { latch.await(); JenkinsJobState.IDLE }
+        confProperties.decorationTimeout = 10
+        def service = new JenkinsJobServiceImpl(jenkinsClientFactory, confProperties)
+        try {
+            assert service.getJob(configuration, 'MyBuild') == new JenkinsJob('MyBuild', 'http://jenkins/job/MyBuild', JenkinsJobState.UNKNOWN, true)
+        } finally {
+            latch.countDown()
+        }
+    }
+
+    @Test
+    void 'Last known state returned while reloading'() {
+        def latch = new CountDownLatch(1)
+        when(client.getJobState('MyBuild'))
+                .thenReturn(JenkinsJobState.IDLE)
+                .thenAnswer { latch.await(); JenkinsJobState.RUNNING }
+        confProperties.decorationCacheTtl = 0
+        confProperties.decorationTimeout = 10000
+        def service = new JenkinsJobServiceImpl(jenkinsClientFactory, confProperties)
+        assert service.getJob(configuration, 'MyBuild') == new JenkinsJob('MyBuild', 'http://jenkins/job/MyBuild', JenkinsJobState.IDLE, false)
+        Thread.sleep(10)
+        try {
+            // Not waiting for the reload
+            long start = System.currentTimeMillis()
+            assert service.getJob(configuration, 'MyBuild') == new JenkinsJob('MyBuild', 'http://jenkins/job/MyBuild', JenkinsJobState.IDLE, true)
+            assert System.currentTimeMillis() - start < 1000
+        } finally {
+            latch.countDown()
+        }
+        // Reloaded state
+        def deadline = System.currentTimeMillis() + 10000
+        while (service.getJob(configuration, 'MyBuild').state != JenkinsJobState.RUNNING) {
+            assert System.currentTimeMillis() < deadline
+            Thread.sleep(10)
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package net.nemerosa.ontrack.extension.scm.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Data;
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventFactory;
+import net.nemerosa.ontrack.model.events.EventType;
+import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the SCM configurations resolved for projects or branches, so that properties do not have to be
+ * loaded and configurations decrypted again on each access.
+ * <p>
+ * The owner of the cache must forward the events it receives to {@link #onEvent(Event)}:
+ * <ul>
+ * <li>a property change on a project evicts the project and all its branches</li>
+ * <li>a property change on a branch evicts this branch</li>
+ * <li>any change on a configuration, or the deletion of a project or a branch, clears the whole cache</li>
+ * </ul>
+ *
+ * @param <T> Type of resolved configuration
+ */
+public class SCMConfigurationCache<T> {
+
+    private final Cache<Key, Optional<T>> cache;
+
+    /**
+     * Incremented on each eviction, so that a value computed before an eviction is not stored.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param maxSize       Maximum number of entities in the cache
+     * @param expirationMin Number of minutes after which an entry is loaded again anyway
+     */
+    public SCMConfigurationCache(int maxSize, int expirationMin) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expirationMin, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Gets the configuration for an entity, resolving it if not cached yet.
+     *
+     * @param entity   Project or branch
+     * @param resolver Resolution of the configuration
+     * @return Resolved configuration, empty if the entity is not configured
+     */
+    public Optional<T> get(ProjectEntity entity, Supplier<Optional<T>> resolver) {
+        Key key = new Key(entity.getProjectEntityType(), entity.projectId(), entity.id());
+        Optional<T> value = cache.getIfPresent(key);
+        if (value == null) {
+            long current = generation.get();
+            value = resolver.get();
+            synchronized (this) {
+                if (current == generation.get()) {
+                    cache.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Evicts the entries impacted by an event.
+     */
+    public void onEvent(Event event) {
+        EventType eventType = event.getEventType();
+        if (eventType == EventFactory.PROPERTY_CHANGE || eventType == EventFactory.PROPERTY_DELETE) {
+            ProjectEntityType type = event.getRef();
+            if (type == ProjectEntityType.PROJECT) {
+                int projectId = event.getEntity(ProjectEntityType.PROJECT).id();
+                evict(key -> key.getProjectId() == projectId);
+            } else if (type == ProjectEntityType.BRANCH) {
+                int branchId = event.getEntity(ProjectEntityType.BRANCH).id();
+                evict(key -> key.getType() == ProjectEntityType.BRANCH && key.getId() == branchId);
+            }
+        } else if (eventType == EventFactory.NEW_CONFIGURATION
+                || eventType == EventFactory.UPDATE_CONFIGURATION
+                || eventType == EventFactory.DELETE_CONFIGURATION
+                || eventType == EventFactory.DELETE_PROJECT
+                || eventType == EventFactory.DELETE_BRANCH) {
+            evict(key -> true);
+        }
+    }
+
+    /**
+     * Clears the cache.
+     */
+    public void clear() {
+        evict(key -> true);
+    }
+
+    private void evict(Predicate<Key> predicate) {
+        doEvict(predicate);
+        // Values loaded before the change is committed are evicted again afterwards
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    doEvict(predicate);
+                }
+            });
+        }
+    }
+
+    private synchronized void doEvict(Predicate<Key> predicate) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    @Data
+    private static class Key {
+        private final ProjectEntityType type;
+        private final int projectId;
+        private final int id;
+    }
+
+}
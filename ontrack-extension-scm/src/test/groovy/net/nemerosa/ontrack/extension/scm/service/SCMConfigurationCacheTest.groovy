@@ -0,0 +1,74 @@
+package net.nemerosa.ontrack.extension.scm.service
+
+import net.nemerosa.ontrack.model.events.Event
+import net.nemerosa.ontrack.model.events.EventFactory
+import net.nemerosa.ontrack.model.structure.Branch
+import net.nemerosa.ontrack.model.structure.ID
+import net.nemerosa.ontrack.model.structure.Project
+import net.nemerosa.ontrack.model.support.NameValue
+import org.junit.Test
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+
+class SCMConfigurationCacheTest {
+
+    private final SCMConfigurationCache<String> cache = new SCMConfigurationCache<>(100, 60)
+
+    private final Project project = Project.of(nd('P', '')).withId(ID.of(1))
+    private final Branch branch1 = Branch.of(project, nd('B1', '')).withId(ID.of(10))
+    private final Branch branch2 = Branch.of(project, nd('B2', '')).withId(ID.of(20))
+
+    private int loads = 0
+
+    private Optional<String> load(String value) {
+        loads++
+        Optional.ofNullable(value)
+    }
+
+    @Test
+    void 'Resolved values are cached, including missing ones'() {
+        assert cache.get(project, { load('git') }).get() == 'git'
+        assert cache.get(project, { load('other') }).get() == 'git'
+        assert !cache.get(branch1, { load(null) }).present
+        assert !cache.get(branch1, { load('other') }).present
+        assert loads == 2
+    }
+
+    @Test
+    void 'Property change on a project evicts its branches'() {
+        cache.get(project, { load('git') })
+        cache.get(branch1, { load('master') })
+        cache.onEvent(propertyEvent(project))
+        assert cache.get(project, { load('svn') }).get() == 'svn'
+        assert cache.get(branch1, { load('trunk') }).get() == 'trunk'
+    }
+
+    @Test
+    void 'Property change on a branch evicts only this branch'() {
+        cache.get(project, { load('git') })
+        cache.get(branch1, { load('master') })
+        cache.get(branch2, { load('develop') })
+        cache.onEvent(propertyEvent(branch1))
+        assert cache.get(project, { load('svn') }).get() == 'git'
+        assert cache.get(branch1, { load('feature') }).get() == 'feature'
+        assert cache.get(branch2, { load('feature') }).get() == 'develop'
+    }
+
+    @Test
+    void 'Configuration change clears everything'() {
+        cache.get(project, { load('git') })
+        cache.get(branch1, { load('master') })
+        cache.onEvent(Event.of(EventFactory.UPDATE_CONFIGURATION).with('configuration', 'Git').get())
+        assert cache.get(project, { load('svn') }).get() == 'svn'
+        assert cache.get(branch1, { load('trunk') }).get() == 'trunk'
+    }
+
+    private static Event propertyEvent(def entity) {
+        Event.of(EventFactory.PROPERTY_CHANGE)
+                .withRef(entity)
+                .with('entity', new NameValue('entity', entity.projectEntityType.displayName))
+                .with('property', new NameValue('type', 'Property'))
+                .get()
+    }
+
+}
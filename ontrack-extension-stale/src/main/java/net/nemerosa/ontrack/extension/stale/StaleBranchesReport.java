@@ -0,0 +1,41 @@
+package net.nemerosa.ontrack.extension.stale;
+
+import lombok.Data;
+import net.nemerosa.ontrack.model.structure.Branch;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Branches of a project which are due for staleness.
+ */
+@Data
+public class StaleBranchesReport {
+
+    /**
+     * Time before which the branches are disabled, <code>null</code> if the project is not
+     * configured for stale branches
+     */
+    private final LocalDateTime disablingTime;
+
+    /**
+     * Time before which the branches are deleted, <code>null</code> if not applicable
+     */
+    private final LocalDateTime deletionTime;
+
+    /**
+     * Branches to disable
+     */
+    private final List<Branch> branchesToDisable;
+
+    /**
+     * Branches to delete
+     */
+    private final List<Branch> branchesToDelete;
+
+    public static StaleBranchesReport none() {
+        return new StaleBranchesReport(null, null, Collections.emptyList(), Collections.emptyList());
+    }
+
+}
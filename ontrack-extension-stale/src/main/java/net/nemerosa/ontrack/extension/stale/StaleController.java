@@ -0,0 +1,49 @@
+package net.nemerosa.ontrack.extension.stale;
+
+import net.nemerosa.ontrack.extension.support.AbstractExtensionController;
+import net.nemerosa.ontrack.model.extension.ExtensionFeatureDescription;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.structure.StructureService;
+import net.nemerosa.ontrack.ui.resource.Resource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+
+@RequestMapping("extension/stale")
+@RestController
+public class StaleController extends AbstractExtensionController<StaleExtensionFeature> {
+
+    private final StructureService structureService;
+    private final StaleJobService staleJobService;
+
+    @Autowired
+    public StaleController(StaleExtensionFeature feature, StructureService structureService, StaleJobService staleJobService) {
+        super(feature);
+        this.structureService = structureService;
+        this.staleJobService = staleJobService;
+    }
+
+    @Override
+    @RequestMapping(value = "", method = RequestMethod.GET)
+    public Resource<ExtensionFeatureDescription> getDescription() {
+        return Resource.of(
+                feature.getFeatureDescription(),
+                uri(MvcUriComponentsBuilder.on(getClass()).getDescription())
+        );
+    }
+
+    /**
+     * Gets the branches which would be disabled or deleted by the next run of the stale job,
+     * without changing anything.
+     */
+    @RequestMapping(value = "project/{projectId}/report", method = RequestMethod.GET)
+    public StaleBranchesReport getStaleBranchesReport(@PathVariable ID projectId) {
+        return staleJobService.getStaleBranches(
+                structureService.getProject(projectId)
+        );
+    }
+
+}
@@ -18,6 +18,14 @@ public interface StaleJobService extends JobOrchestratorSupplier {
      */
     void detectAndManageStaleBranches(JobRunListener runListener, Project project);
 
+    /**
+     * Gets the branches of the project which are due for staleness, without changing them.
+     *
+     * @param project Project to scan
+     * @return Branches to disable or delete, none if the project is not configured for stale branches
+     */
+    StaleBranchesReport getStaleBranches(Project project);
+
     /**
      * Applies the given retention times to the branch.
      *
@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.stale;
 
+import com.google.common.collect.Lists;
 import net.nemerosa.ontrack.common.Time;
 import net.nemerosa.ontrack.job.*;
 import net.nemerosa.ontrack.model.structure.*;
@@ -10,6 +11,8 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 @Component
@@ -21,6 +24,11 @@ public class StaleJobServiceImpl implements StaleJobService {
             JobCategory.of("cleanup").withName("Cleanup")
                     .getType("stale-branches").withName("Stale branches cleanup");
 
+    /**
+     * Number of branches disabled or deleted in one transaction
+     */
+    private static final int BATCH_SIZE = 100;
+
     private final StructureService structureService;
     private final PropertyService propertyService;
 
@@ -88,47 +96,85 @@ public class StaleJobServiceImpl implements StaleJobService {
 
     @Override
     public void detectAndManageStaleBranches(JobRunListener runListener, Project project) {
+        StaleBranchesReport report = getStaleBranches(project);
+        if (report.getDisablingTime() != null) {
+            runListener.message("Deleting %d and disabling %d stale branches in %s project",
+                    report.getBranchesToDelete().size(),
+                    report.getBranchesToDisable().size(),
+                    project.getName());
+            // Deletions and disabling, one transaction per batch
+            for (List<Branch> branches : Lists.partition(report.getBranchesToDelete(), BATCH_SIZE)) {
+                trace(project, "Deleting %d branches", branches.size());
+                structureService.deleteBranches(branches);
+            }
+            for (List<Branch> branches : Lists.partition(report.getBranchesToDisable(), BATCH_SIZE)) {
+                trace(project, "Disabling %d branches", branches.size());
+                structureService.disableBranches(branches);
+            }
+        }
+    }
+
+    @Override
+    public StaleBranchesReport getStaleBranches(Project project) {
         // Gets the stale property for the project
-        propertyService.getProperty(project, StalePropertyType.class).option().ifPresent(property -> {
-            // Disabling and deletion times
-            int disablingDuration = property.getDisablingDuration();
-            int deletionDuration = property.getDeletingDuration();
-            List<String> promotionsToKeep = property.getPromotionsToKeep();
-            if (disablingDuration <= 0) {
-                trace(project, "No disabling time being set - exiting.");
-            } else {
-                // Current time
-                LocalDateTime now = Time.now();
-                // Disabling time
-                LocalDateTime disablingTime = now.minusDays(disablingDuration);
-                // Deletion time
-                Optional<LocalDateTime> deletionTime =
-                        Optional.ofNullable(
-                                deletionDuration > 0 ?
-                                        disablingTime.minusDays(deletionDuration) :
-                                        null
-                        );
-                // Logging
-                trace(project, "Disabling time: %s", disablingTime);
-                trace(project, "Deletion time: %s", deletionTime);
-                // Going on with the scan of the project
-                runListener.message("Scanning %s project for stale branches", project.getName());
-                trace(project, "Scanning project for stale branches");
-                structureService.getBranchesForProject(project.getId()).forEach(
-                        branch -> detectAndManageStaleBranch(branch, disablingTime, deletionTime.orElse(null), promotionsToKeep)
-                );
+        Optional<StaleProperty> oProperty = propertyService.getProperty(project, StalePropertyType.class).option();
+        if (!oProperty.isPresent()) {
+            return StaleBranchesReport.none();
+        }
+        StaleProperty property = oProperty.get();
+        // Disabling and deletion times
+        int disablingDuration = property.getDisablingDuration();
+        int deletionDuration = property.getDeletingDuration();
+        List<String> promotionsToKeep = property.getPromotionsToKeep();
+        if (disablingDuration <= 0) {
+            trace(project, "No disabling time being set - exiting.");
+            return StaleBranchesReport.none();
+        }
+        // Current time
+        LocalDateTime now = Time.now();
+        // Disabling time
+        LocalDateTime disablingTime = now.minusDays(disablingDuration);
+        // Deletion time
+        LocalDateTime deletionTime = deletionDuration > 0 ? disablingTime.minusDays(deletionDuration) : null;
+        // Logging
+        trace(project, "Disabling time: %s", disablingTime);
+        trace(project, "Deletion time: %s", deletionTime);
+        // Going on with the scan of the project
+        trace(project, "Scanning project for stale branches");
+        List<Branch> branches = structureService.getBranchesForProject(project.getId());
+        // Last build and protecting promotions for all the branches, in one go
+        Map<ID, LocalDateTime> lastBuildTimes = structureService.getLastBuildTimesForProject(project.getId());
+        Set<ID> protectedBranches = structureService.getBranchesPromotedTo(
+                project.getId(),
+                promotionsToKeep != null ? promotionsToKeep : Collections.emptyList()
+        );
+        // Decision for each branch
+        List<Branch> branchesToDisable = new ArrayList<>();
+        List<Branch> branchesToDelete = new ArrayList<>();
+        for (Branch branch : branches) {
+            StaleBranchAction action = getStaleBranchAction(
+                    branch,
+                    () -> protectedBranches.contains(branch.getId()),
+                    () -> Optional.ofNullable(lastBuildTimes.get(branch.getId())),
+                    disablingTime,
+                    deletionTime
+            );
+            if (action == StaleBranchAction.DELETE) {
+                branchesToDelete.add(branch);
+            } else if (action == StaleBranchAction.DISABLE) {
+                branchesToDisable.add(branch);
             }
-        });
+        }
+        return new StaleBranchesReport(
+                disablingTime,
+                deletionTime,
+                branchesToDisable,
+                branchesToDelete
+        );
     }
 
     @Override
     public void detectAndManageStaleBranch(Branch branch, LocalDateTime disablingTime, LocalDateTime deletionTime, List<String> promotionsToKeep) {
-        trace(branch.getProject(), "[%s] Scanning branch for staleness", branch.getName());
-        // Templates are excluded
-        if (branch.getType() == BranchType.TEMPLATE_DEFINITION) {
-            trace(branch.getProject(), "[%s] Branch templates are not eligible for staleness", branch.getName());
-            return;
-        }
         // Indexation of promotion levels to protect
         Set<String> promotionsToProtect;
         if (promotionsToKeep != null) {
@@ -136,20 +182,43 @@ public class StaleJobServiceImpl implements StaleJobService {
         } else {
             promotionsToProtect = Collections.emptySet();
         }
-        // Gets the last promotions for this branch
-        List<PromotionView> lastPromotions = structureService.getBranchStatusView(branch).getPromotions();
-        boolean isProtected = lastPromotions.stream()
-                .anyMatch(promotionView -> promotionView.getPromotionRun() != null
-                        && promotionsToProtect.contains(promotionView.getPromotionLevel().getName()));
-        if (isProtected) {
+        StaleBranchAction action = getStaleBranchAction(
+                branch,
+                // Gets the last promotions for this branch
+                () -> structureService.getBranchStatusView(branch).getPromotions().stream()
+                        .anyMatch(promotionView -> promotionView.getPromotionRun() != null
+                                && promotionsToProtect.contains(promotionView.getPromotionLevel().getName())),
+                // Last build on this branch
+                () -> structureService.getLastBuild(branch.getId()).map(build -> build.getSignature().getTime()),
+                disablingTime,
+                deletionTime
+        );
+        if (action == StaleBranchAction.DELETE) {
+            structureService.deleteBranch(branch.getId());
+        } else if (action == StaleBranchAction.DISABLE) {
+            structureService.saveBranch(
+                    branch.withDisabled(true)
+            );
+        }
+    }
+
+    private StaleBranchAction getStaleBranchAction(Branch branch, BooleanSupplier promoted, Supplier<Optional<LocalDateTime>> lastBuildTime, LocalDateTime disablingTime, LocalDateTime deletionTime) {
+        trace(branch.getProject(), "[%s] Scanning branch for staleness", branch.getName());
+        // Templates are excluded
+        if (branch.getType() == BranchType.TEMPLATE_DEFINITION) {
+            trace(branch.getProject(), "[%s] Branch templates are not eligible for staleness", branch.getName());
+            return StaleBranchAction.KEEP;
+        }
+        // Protecting promotions
+        if (promoted.getAsBoolean()) {
             trace(branch.getProject(), "[%s] Branch is promoted and is not eligible for staleness", branch.getName());
-            return;
+            return StaleBranchAction.KEEP;
         }
         // Last date
         LocalDateTime lastTime;
         // Last build on this branch
-        Optional<Build> oBuild = structureService.getLastBuild(branch.getId());
-        if (!oBuild.isPresent()) {
+        Optional<LocalDateTime> oBuildTime = lastBuildTime.get();
+        if (!oBuildTime.isPresent()) {
             trace(branch.getProject(), "[%s] No available build - taking branch's creation time", branch.getName());
             // Takes the branch creation time from the branch itself
             if (branch.getSignature() != null && branch.getSignature().getTime() != null) {
@@ -159,22 +228,26 @@ public class StaleJobServiceImpl implements StaleJobService {
                 lastTime = Time.now();
             }
         } else {
-            Build build = oBuild.get();
-            lastTime = build.getSignature().getTime();
+            lastTime = oBuildTime.get();
         }
         // Logging
         trace(branch.getProject(), "[%s] Branch last build activity: %s", branch.getName(), lastTime);
         // Deletion?
         if (deletionTime != null && deletionTime.compareTo(lastTime) > 0) {
             trace(branch.getProject(), "[%s] Branch due for deletion", branch.getName());
-            structureService.deleteBranch(branch.getId());
+            return StaleBranchAction.DELETE;
         } else if (disablingTime.compareTo(lastTime) > 0 && !branch.isDisabled()) {
             trace(branch.getProject(), "[%s] Branch due for staleness - disabling", branch.getName());
-            structureService.saveBranch(
-                    branch.withDisabled(true)
-            );
+            return StaleBranchAction.DISABLE;
         } else {
             trace(branch.getProject(), "[%s] Not touching the branch", branch.getName());
+            return StaleBranchAction.KEEP;
         }
     }
+
+    private enum StaleBranchAction {
+        KEEP,
+        DISABLE,
+        DELETE
+    }
 }
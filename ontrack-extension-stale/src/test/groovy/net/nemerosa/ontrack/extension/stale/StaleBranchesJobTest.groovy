@@ -273,6 +273,49 @@ class StaleBranchesJobTest {
         verify(structureService).getBranchesForProject(project.id)
     }
 
+    @Test
+    void 'Scan for project using aggregated branch information'() {
+        // Configuration
+        configureProject(StaleProperty.create().withDisablingDuration(5).withDeletingDuration(5).withPromotionsToKeep(['PRODUCTION']))
+        // Branches
+        def toDelete = Branch.of(project, nd('B1', '')).withId(ID.of(1))
+        def toDisable = Branch.of(project, nd('B2', '')).withId(ID.of(2))
+        def promoted = Branch.of(project, nd('B3', '')).withId(ID.of(3))
+        def recent = Branch.of(project, nd('B4', '')).withId(ID.of(4))
+        def template = Branch.of(project, nd('B5', '')).withId(ID.of(5)).withType(BranchType.TEMPLATE_DEFINITION)
+        when(structureService.getBranchesForProject(project.id)).thenReturn([toDelete, toDisable, promoted, recent, template])
+        when(structureService.getLastBuildTimesForProject(project.id)).thenReturn([
+                (ID.of(1)): now.minusDays(11),
+                (ID.of(2)): now.minusDays(6),
+                (ID.of(3)): now.minusDays(11),
+                (ID.of(4)): now.minusDays(4),
+                (ID.of(5)): now.minusDays(11),
+        ])
+        when(structureService.getBranchesPromotedTo(project.id, ['PRODUCTION'])).thenReturn([ID.of(3)] as Set)
+        // Report
+        def report = staleJobService.getStaleBranches(project)
+        assert report.branchesToDelete == [toDelete]
+        assert report.branchesToDisable == [toDisable]
+        verify(structureService, never()).deleteBranches(any(List))
+        verify(structureService, never()).disableBranches(any(List))
+        // Actual run
+        staleJobService.detectAndManageStaleBranches(JobRunListener.out(), project)
+        verify(structureService).deleteBranches([toDelete])
+        verify(structureService).disableBranches([toDisable])
+        // No per-branch loading
+        verify(structureService, never()).getBranchStatusView(any(Branch))
+        verify(structureService, never()).getLastBuild(any(ID))
+    }
+
+    @Test
+    void 'No report for project without stale property'() {
+        configureProject(null)
+        def report = staleJobService.getStaleBranches(project)
+        assert report.disablingTime == null
+        assert report.branchesToDelete.empty
+        assert report.branchesToDisable.empty
+    }
+
     @Test
     void 'Configured projects do schedule jobs at startup'() {
         // Configuration
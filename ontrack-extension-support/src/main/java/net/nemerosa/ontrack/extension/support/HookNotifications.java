@@ -0,0 +1,96 @@
+package net.nemerosa.ontrack.extension.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.google.common.io.BaseEncoding;
+import net.nemerosa.ontrack.json.JsonParseException;
+import net.nemerosa.ontrack.json.ObjectMapperFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.AccessDeniedException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Checks the notifications sent to the hooks of the extensions, which are called without any user.
+ * <p>
+ * A notification is accepted only if it proves the knowledge of the secret shared with the sender, either:
+ * <ul>
+ * <li>by signing its body, like GitHub does in the <code>X-Hub-Signature-256</code> or
+ * <code>X-Hub-Signature</code> headers (HMAC SHA-256 or SHA-1, in hexadecimal, prefixed by the algorithm)</li>
+ * <li>by giving the secret itself, like GitLab does in the <code>X-Gitlab-Token</code> header, or in the
+ * <code>X-Ontrack-Token</code> header for the other tools</li>
+ * </ul>
+ * The hook is disabled when no secret is configured.
+ */
+public final class HookNotifications {
+
+    private HookNotifications() {
+    }
+
+    /**
+     * Checks a notification and gets its payload.
+     *
+     * @param secret  Secret shared with the senders, the hook being disabled if blank
+     * @param headers Headers of the notification
+     * @param body    Raw body of the notification, may be <code>null</code>
+     * @return Payload of the notification, a missing node if there is no body
+     * @throws AccessDeniedException If the notification cannot be trusted
+     */
+    public static JsonNode check(String secret, HttpHeaders headers, String body) {
+        if (StringUtils.isBlank(secret)) {
+            throw new AccessDeniedException("Hook is disabled");
+        }
+        String content = StringUtils.defaultString(body);
+        boolean trusted;
+        String signature256 = headers.getFirst("X-Hub-Signature-256");
+        String signature = headers.getFirst("X-Hub-Signature");
+        String token = StringUtils.defaultIfBlank(headers.getFirst("X-Gitlab-Token"), headers.getFirst("X-Ontrack-Token"));
+        if (signature256 != null) {
+            trusted = equals(signature256, "sha256=" + hmac("HmacSHA256", secret, content));
+        } else if (signature != null) {
+            trusted = equals(signature, "sha1=" + hmac("HmacSHA1", secret, content));
+        } else {
+            trusted = token != null && equals(token, secret);
+        }
+        if (!trusted) {
+            throw new AccessDeniedException("Hook notification is not signed");
+        }
+        // Payload
+        if (StringUtils.isBlank(content)) {
+            return MissingNode.getInstance();
+        } else {
+            try {
+                return ObjectMapperFactory.create().readTree(content);
+            } catch (IOException ex) {
+                throw new JsonParseException(ex);
+            }
+        }
+    }
+
+    private static String hmac(String algorithm, String secret, String content) {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+            return BaseEncoding.base16().lowerCase().encode(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot compute the signature", ex);
+        }
+    }
+
+    /**
+     * Comparison in constant time
+     */
+    private static boolean equals(String actual, String expected) {
+        return MessageDigest.isEqual(
+                actual.getBytes(StandardCharsets.UTF_8),
+                expected.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+}
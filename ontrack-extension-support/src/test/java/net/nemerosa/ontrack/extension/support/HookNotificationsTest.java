@@ -0,0 +1,62 @@
+package net.nemerosa.ontrack.extension.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HookNotificationsTest {
+
+    private static final String BODY = "{\"repository\":{\"url\":\"https://github.com/nemerosa/ontrack\"}}";
+
+    private static HttpHeaders headers(String name, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(name, value);
+        return headers;
+    }
+
+    @Test
+    public void signature_sha256() {
+        // HMAC SHA-256 of the body with the secret
+        JsonNode payload = HookNotifications.check(
+                "secret",
+                headers("X-Hub-Signature-256", "sha256=3b34e67a5252fdc2269f3bc530e928a6e59726cf095112956be383a051a8aee9"),
+                BODY
+        );
+        assertEquals("https://github.com/nemerosa/ontrack", payload.path("repository").path("url").asText());
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void wrong_signature() {
+        HookNotifications.check(
+                "secret",
+                headers("X-Hub-Signature-256", "sha256=0000"),
+                BODY
+        );
+    }
+
+    @Test
+    public void token() {
+        JsonNode payload = HookNotifications.check("secret", headers("X-Gitlab-Token", "secret"), null);
+        assertTrue(payload.isMissingNode());
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void wrong_token() {
+        HookNotifications.check("secret", headers("X-Ontrack-Token", "other"), BODY);
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void no_proof() {
+        HookNotifications.check("secret", new HttpHeaders(), BODY);
+    }
+
+    @Test(expected = AccessDeniedException.class)
+    public void disabled_without_secret() {
+        HookNotifications.check("", headers("X-Ontrack-Token", ""), BODY);
+    }
+
+}
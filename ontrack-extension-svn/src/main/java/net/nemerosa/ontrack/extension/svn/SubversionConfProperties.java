@@ -17,4 +17,15 @@ public class SubversionConfProperties {
      */
     boolean buildSyncDisabled;
 
+    /**
+     * Number of revisions indexed together, in one transaction
+     */
+    int indexationBatchSize = 100;
+
+    /**
+     * Computing the change logs from the indexed revisions, the repository being
+     * used only for the revisions which are not indexed yet
+     */
+    boolean changeLogIndexed = true;
+
 }
@@ -10,7 +10,7 @@ import javax.sql.DataSource;
 @Component
 public class SVNDBInitConfig extends AbstractDBInitConfig {
 
-    public static final int VERSION = 0;
+    public static final int VERSION = 2;
 
     @Autowired
     public SVNDBInitConfig(DataSource dataSource) {
@@ -2,6 +2,7 @@ package net.nemerosa.ontrack.extension.svn.db;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 
@@ -9,8 +10,22 @@ public interface SVNIssueRevisionDao {
 
     void link(int repositoryId, long revision, String issueKey);
 
+    /**
+     * Links several revisions to their issues at once.
+     *
+     * @param issueKeys For each revision, the keys of the issues it refers to
+     */
+    void link(int repositoryId, Map<Long, ? extends Collection<String>> issueKeys);
+
     List<String> findIssuesByRevision(int repositoryId, long revision);
 
+    /**
+     * Gets the issues of several revisions at once.
+     *
+     * @return For each revision having issues, the sorted list of issue keys
+     */
+    Map<Long, List<String>> findIssuesByRevisions(int repositoryId, Collection<Long> revisions);
+
     Optional<String> findIssueByKey(int repositoryId, String issueKey);
 
     List<Long> findRevisionsByIssue(int repositoryId, String issueKey);
@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.svn.db;
 
+import com.google.common.collect.Iterables;
 import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -7,11 +8,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
 import javax.sql.DataSource;
-import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
-import java.util.OptionalLong;
+import java.util.*;
 
 @Repository
 public class SVNIssueRevisionJdbcDao extends AbstractJdbcRepository implements SVNIssueRevisionDao {
@@ -26,14 +26,39 @@ public class SVNIssueRevisionJdbcDao extends AbstractJdbcRepository implements S
 
     @Override
     public void link(int repositoryId, long revision, String key) {
+        if (isValidKey(revision, key)) {
+            getNamedParameterJdbcTemplate().update(
+                    "INSERT INTO EXT_SVN_REVISION_ISSUE (REPOSITORY, REVISION, ISSUE) VALUES (:repository, :revision, :key)",
+                    params("revision", revision).addValue("key", key).addValue("repository", repositoryId));
+        }
+    }
+
+    @Override
+    public void link(int repositoryId, Map<Long, ? extends Collection<String>> issueKeys) {
+        List<MapSqlParameterSource> params = new ArrayList<>();
+        issueKeys.forEach((revision, keys) -> keys.stream()
+                .filter(key -> isValidKey(revision, key))
+                .forEach(key -> params.add(
+                        params("revision", revision).addValue("key", key).addValue("repository", repositoryId)
+                ))
+        );
+        if (!params.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(
+                    "INSERT INTO EXT_SVN_REVISION_ISSUE (REPOSITORY, REVISION, ISSUE) VALUES (:repository, :revision, :key)",
+                    params.toArray(new MapSqlParameterSource[params.size()])
+            );
+        }
+    }
+
+    private boolean isValidKey(long revision, String key) {
         if (StringUtils.isBlank(key)) {
             logger.warn("Cannot insert a null or blank key (revision {})", revision);
+            return false;
         } else if (key.length() > ISSUE_KEY_MAX_LENGTH) {
             logger.warn("Cannot insert a key longer than {} characters: {} for revision {}", ISSUE_KEY_MAX_LENGTH, key, revision);
+            return false;
         } else {
-            getNamedParameterJdbcTemplate().update(
-                    "INSERT INTO EXT_SVN_REVISION_ISSUE (REPOSITORY, REVISION, ISSUE) VALUES (:repository, :revision, :key)",
-                    params("revision", revision).addValue("key", key).addValue("repository", repositoryId));
+            return true;
         }
     }
 
@@ -46,6 +71,22 @@ public class SVNIssueRevisionJdbcDao extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public Map<Long, List<String>> findIssuesByRevisions(int repositoryId, Collection<Long> revisions) {
+        Map<Long, List<String>> result = new LinkedHashMap<>();
+        // Limiting the size of the IN clause
+        for (List<Long> chunk : Iterables.partition(revisions, 500)) {
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT REVISION, ISSUE FROM EXT_SVN_REVISION_ISSUE WHERE REPOSITORY = :repository AND REVISION IN (:revisions) ORDER BY REVISION, ISSUE",
+                    params("revisions", chunk).addValue("repository", repositoryId),
+                    rs -> {
+                        result.computeIfAbsent(rs.getLong("REVISION"), revision -> new ArrayList<>()).add(rs.getString("ISSUE"));
+                    }
+            );
+        }
+        return result;
+    }
+
     @Override
     public Optional<String> findIssueByKey(int repositoryId, String issueKey) {
         return Optional.ofNullable(
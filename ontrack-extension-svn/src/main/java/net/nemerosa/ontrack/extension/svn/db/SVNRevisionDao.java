@@ -1,7 +1,9 @@
 package net.nemerosa.ontrack.extension.svn.db;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface SVNRevisionDao {
@@ -10,13 +12,79 @@ public interface SVNRevisionDao {
 
     void addRevision(int repositoryId, long revision, String author, LocalDateTime dateTime, String message, String branch);
 
+    /**
+     * Inserts or replaces several revisions at once.
+     */
+    void addRevisions(int repositoryId, List<TRevision> revisions);
+
     void addMergedRevisions(int repositoryId, long revision, List<Long> mergedRevisions);
 
+    /**
+     * Registers the merged revisions of several revisions at once, and updates the closure
+     * of the merges accordingly.
+     *
+     * @param mergedRevisions For each target revision, the list of revisions it merges
+     */
+    void addMergedRevisions(int repositoryId, Map<Long, List<Long>> mergedRevisions);
+
+    /**
+     * Checks if some merges are registered for the repository without their closure, like when
+     * the revisions were indexed before the closure was maintained.
+     */
+    boolean isMergeClosureMissing(int repositoryId);
+
+    /**
+     * Computes again the closure of the merges for a repository.
+     */
+    void rebuildMergeClosure(int repositoryId);
+
     TRevision getLastRevision(int repositoryId);
 
     TRevision get(int repositoryId, long revision);
 
+    /**
+     * Gets the revisions of a list.
+     *
+     * @param revisions Revisions to get
+     * @return Indexed revisions, sorted from the newest to the oldest. Revisions which are not indexed are ignored.
+     */
+    List<TRevision> getRevisions(int repositoryId, Collection<Long> revisions);
+
+    /**
+     * Gets the revisions made on a branch.
+     *
+     * @param branch Path to the branch
+     * @param from   Start of the range (excluded)
+     * @param to     End of the range (included)
+     * @return Indexed revisions, sorted from the newest to the oldest
+     */
+    List<TRevision> getRevisionsOnBranch(int repositoryId, String branch, long from, long to);
+
     List<Long> getMergesForRevision(int repositoryId, long revision);
 
+    /**
+     * Gets the revisions merged by a list of revisions.
+     *
+     * @param targets Revisions which have merged other ones
+     * @return For each target revision having merges, the list of merged revisions
+     */
+    Map<Long, List<Long>> getMergedRevisions(int repositoryId, Collection<Long> targets);
+
+    /**
+     * For each branch a revision has been merged into, directly or through other merges, gets the
+     * first revision which contains it.
+     *
+     * @return Index of the first containing revision per branch path
+     */
+    Map<String, Long> getFirstMergeTargetsByBranch(int repositoryId, long revision);
+
+    /**
+     * For each branch some revisions have been merged into, directly or through other merges, gets the
+     * last revision which contains any of them.
+     *
+     * @return Index of the last containing revision per branch path
+     */
+    Map<String, Long> getLastMergeTargetsByBranch(int repositoryId, Collection<Long> revisions);
+
     Optional<TRevision> getLastRevisionOnBranch(int repositoryId, String branch);
 }
@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.svn.db;
 
+import com.google.common.collect.Iterables;
 import net.nemerosa.ontrack.extension.svn.model.SVNRevisionNotFoundException;
 import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
 import org.apache.commons.lang3.StringUtils;
@@ -13,15 +14,27 @@ import javax.sql.DataSource;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
 
 @Repository
 public class SVNRevisionJdbcDao extends AbstractJdbcRepository implements SVNRevisionDao {
 
     public static final int MESSAGE_LENGTH = 500;
 
+    /**
+     * A target revision contains the revisions it merges, and all the revisions
+     * they contain themselves. Targets must be processed in ascending order.
+     */
+    private static final String SQL_MERGE_CLOSURE = "INSERT INTO EXT_SVN_MERGE_CLOSURE (REPOSITORY, REVISION, TARGET, BRANCH) " +
+            "SELECT DISTINCT :repository, X.REVISION, :target, R.BRANCH FROM (" +
+            "  SELECT M.REVISION FROM EXT_SVN_MERGE_REVISION M WHERE M.REPOSITORY = :repository AND M.TARGET = :target " +
+            "  UNION " +
+            "  SELECT C.REVISION FROM EXT_SVN_MERGE_CLOSURE C " +
+            "  INNER JOIN EXT_SVN_MERGE_REVISION M ON M.REPOSITORY = C.REPOSITORY AND M.REVISION = C.TARGET " +
+            "  WHERE M.REPOSITORY = :repository AND M.TARGET = :target" +
+            ") X " +
+            "INNER JOIN EXT_SVN_REVISION R ON R.REPOSITORY = :repository AND R.REVISION = :target";
+
     @Autowired
     public SVNRevisionJdbcDao(DataSource dataSource) {
         super(dataSource);
@@ -54,15 +67,89 @@ public class SVNRevisionJdbcDao extends AbstractJdbcRepository implements SVNRev
     }
 
     @Override
-    public void addMergedRevisions(int repositoryId, long revision, List<Long> mergedRevisions) {
+    public void addRevisions(int repositoryId, List<TRevision> revisions) {
+        if (revisions.isEmpty()) {
+            return;
+        }
         NamedParameterJdbcTemplate t = getNamedParameterJdbcTemplate();
-        for (long mergedRevision : mergedRevisions) {
-            t.update("INSERT INTO EXT_SVN_MERGE_REVISION (REPOSITORY, REVISION, TARGET) " +
+        MapSqlParameterSource[] params = revisions.stream()
+                .map(revision -> params("revision", revision.getRevision())
+                        .addValue("repositoryId", repositoryId)
+                        .addValue("author", revision.getAuthor())
+                        .addValue("creation", dateTimeForDB(revision.getCreation()))
+                        .addValue("message", Objects.toString(StringUtils.abbreviate(revision.getMessage(), MESSAGE_LENGTH), ""))
+                        .addValue("branch", revision.getBranch()))
+                .toArray(MapSqlParameterSource[]::new);
+        // Getting rid of the revisions
+        t.batchUpdate("DELETE FROM EXT_SVN_REVISION WHERE REPOSITORY =:repositoryId AND REVISION = :revision", params);
+        // Creates the revision records
+        t.batchUpdate("INSERT INTO EXT_SVN_REVISION (REPOSITORY, REVISION, AUTHOR, CREATION, MESSAGE, BRANCH) " +
+                        "VALUES (:repositoryId, :revision, :author, :creation, :message, :branch)",
+                params
+        );
+    }
+
+    @Override
+    public void addMergedRevisions(int repositoryId, long revision, List<Long> mergedRevisions) {
+        addMergedRevisions(repositoryId, Collections.singletonMap(revision, mergedRevisions));
+    }
+
+    @Override
+    public void addMergedRevisions(int repositoryId, Map<Long, List<Long>> mergedRevisions) {
+        List<MapSqlParameterSource> params = new ArrayList<>();
+        mergedRevisions.forEach((revision, merged) -> {
+            for (long mergedRevision : merged) {
+                params.add(
+                        params("mergedRevision", mergedRevision)
+                                .addValue("repository", repositoryId)
+                                .addValue("revision", revision)
+                );
+            }
+        });
+        if (!params.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(
+                    "INSERT INTO EXT_SVN_MERGE_REVISION (REPOSITORY, REVISION, TARGET) " +
                             "VALUES (:repository, :mergedRevision, :revision)",
-                    params("mergedRevision", mergedRevision)
-                            .addValue("repository", repositoryId)
-                            .addValue("revision", revision)
+                    params.toArray(new MapSqlParameterSource[params.size()])
             );
+            // Closure
+            addMergeClosure(repositoryId, new TreeSet<>(mergedRevisions.keySet()));
+        }
+    }
+
+    private void addMergeClosure(int repositoryId, SortedSet<Long> targets) {
+        getNamedParameterJdbcTemplate().batchUpdate(
+                SQL_MERGE_CLOSURE,
+                targets.stream()
+                        .map(target -> params("repository", repositoryId).addValue("target", target))
+                        .toArray(MapSqlParameterSource[]::new)
+        );
+    }
+
+    @Override
+    public boolean isMergeClosureMissing(int repositoryId) {
+        return getFirstItem(
+                "SELECT TARGET FROM EXT_SVN_MERGE_REVISION M WHERE M.REPOSITORY = :repository " +
+                        "AND NOT EXISTS (SELECT 1 FROM EXT_SVN_MERGE_CLOSURE C WHERE C.REPOSITORY = M.REPOSITORY AND C.TARGET = M.TARGET) " +
+                        "LIMIT 1",
+                params("repository", repositoryId),
+                Long.class
+        ) != null;
+    }
+
+    @Override
+    public void rebuildMergeClosure(int repositoryId) {
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM EXT_SVN_MERGE_CLOSURE WHERE REPOSITORY = :repository",
+                params("repository", repositoryId)
+        );
+        List<Long> targets = getNamedParameterJdbcTemplate().queryForList(
+                "SELECT DISTINCT TARGET FROM EXT_SVN_MERGE_REVISION WHERE REPOSITORY = :repository ORDER BY TARGET",
+                params("repository", repositoryId),
+                Long.class
+        );
+        if (!targets.isEmpty()) {
+            addMergeClosure(repositoryId, new TreeSet<>(targets));
         }
     }
 
@@ -98,6 +185,34 @@ public class SVNRevisionJdbcDao extends AbstractJdbcRepository implements SVNRev
         }
     }
 
+    @Override
+    public List<TRevision> getRevisions(int repositoryId, Collection<Long> revisions) {
+        List<TRevision> result = new ArrayList<>();
+        // Limiting the size of the IN clause
+        for (List<Long> chunk : Iterables.partition(revisions, 500)) {
+            result.addAll(getNamedParameterJdbcTemplate().query(
+                    "SELECT * FROM EXT_SVN_REVISION WHERE REPOSITORY = :repository AND REVISION IN (:revisions)",
+                    params("revisions", chunk).addValue("repository", repositoryId),
+                    (rs, rowNum) -> toRevision(rs)
+            ));
+        }
+        result.sort((o1, o2) -> Long.compare(o2.getRevision(), o1.getRevision()));
+        return result;
+    }
+
+    @Override
+    public List<TRevision> getRevisionsOnBranch(int repositoryId, String branch, long from, long to) {
+        return getNamedParameterJdbcTemplate().query(
+                "SELECT * FROM EXT_SVN_REVISION WHERE REPOSITORY = :repository AND BRANCH = :branch " +
+                        "AND REVISION > :from AND REVISION <= :to ORDER BY REVISION DESC",
+                params("repository", repositoryId)
+                        .addValue("branch", branch)
+                        .addValue("from", from)
+                        .addValue("to", to),
+                (rs, rowNum) -> toRevision(rs)
+        );
+    }
+
     @Override
     public List<Long> getMergesForRevision(int repositoryId, long revision) {
         return getNamedParameterJdbcTemplate().queryForList(
@@ -107,6 +222,55 @@ public class SVNRevisionJdbcDao extends AbstractJdbcRepository implements SVNRev
         );
     }
 
+    @Override
+    public Map<Long, List<Long>> getMergedRevisions(int repositoryId, Collection<Long> targets) {
+        Map<Long, List<Long>> result = new LinkedHashMap<>();
+        // Limiting the size of the IN clause
+        for (List<Long> chunk : Iterables.partition(targets, 500)) {
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT REVISION, TARGET FROM EXT_SVN_MERGE_REVISION WHERE REPOSITORY = :repository AND TARGET IN (:targets) ORDER BY TARGET, REVISION",
+                    params("targets", chunk).addValue("repository", repositoryId),
+                    rs -> {
+                        result.computeIfAbsent(rs.getLong("TARGET"), target -> new ArrayList<>()).add(rs.getLong("REVISION"));
+                    }
+            );
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getFirstMergeTargetsByBranch(int repositoryId, long revision) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                "SELECT BRANCH, MIN(TARGET) AS TARGET FROM EXT_SVN_MERGE_CLOSURE " +
+                        "WHERE REPOSITORY = :repository AND REVISION = :revision AND BRANCH IS NOT NULL " +
+                        "GROUP BY BRANCH ORDER BY BRANCH",
+                params("repository", repositoryId).addValue("revision", revision),
+                rs -> {
+                    result.put(rs.getString("BRANCH"), rs.getLong("TARGET"));
+                }
+        );
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getLastMergeTargetsByBranch(int repositoryId, Collection<Long> revisions) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        // Limiting the size of the IN clause
+        for (List<Long> chunk : Iterables.partition(revisions, 500)) {
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT BRANCH, MAX(TARGET) AS TARGET FROM EXT_SVN_MERGE_CLOSURE " +
+                            "WHERE REPOSITORY = :repository AND REVISION IN (:revisions) AND BRANCH IS NOT NULL " +
+                            "GROUP BY BRANCH ORDER BY BRANCH",
+                    params("repository", repositoryId).addValue("revisions", chunk),
+                    rs -> {
+                        result.merge(rs.getString("BRANCH"), rs.getLong("TARGET"), Math::max);
+                    }
+            );
+        }
+        return result;
+    }
+
     @Override
     public Optional<TRevision> getLastRevisionOnBranch(int repositoryId, String branch) {
         return getOptional(
@@ -1,6 +1,7 @@
 package net.nemerosa.ontrack.extension.svn.service;
 
 import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.extension.svn.SubversionConfProperties;
 import net.nemerosa.ontrack.extension.issues.IssueServiceExtension;
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry;
 import net.nemerosa.ontrack.extension.issues.model.ConfiguredIssueService;
@@ -32,7 +33,6 @@ import org.springframework.transaction.support.TransactionTemplate;
 import org.tmatesoft.svn.core.*;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -52,6 +52,7 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
     private final TransactionService transactionService;
     private final ApplicationContext applicationContext;
     private final JobScheduler jobScheduler;
+    private final SubversionConfProperties subversionConfProperties;
 
     @Autowired
     public IndexationServiceImpl(
@@ -65,7 +66,8 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
             SecurityService securityService,
             TransactionService transactionService,
             ApplicationContext applicationContext,
-            JobScheduler jobScheduler) {
+            JobScheduler jobScheduler,
+            SubversionConfProperties subversionConfProperties) {
         this.applicationContext = applicationContext;
         this.issueRevisionDao = issueRevisionDao;
         this.jobScheduler = jobScheduler;
@@ -78,6 +80,7 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
         this.svnClient = svnClient;
         this.securityService = securityService;
         this.transactionService = transactionService;
+        this.subversionConfProperties = subversionConfProperties;
     }
 
     /**
@@ -163,6 +166,16 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
             long repositoryRevision = svnClient.getRepositoryRevision(repository, url);
             // Logging
             logger.info("[svn-indexation] Repository={}, LastScannedRevision={}", repository.getId(), lastScannedRevision);
+            // Merges indexed before their closure was maintained
+            if (revisionDao.isMergeClosureMissing(repository.getId())) {
+                logger.info("[svn-indexation] Repository={}, Computing the closure of the merges", repository.getId());
+                transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                    @Override
+                    protected void doInTransactionWithoutResult(TransactionStatus status) {
+                        revisionDao.rebuildMergeClosure(repository.getId());
+                    }
+                });
+            }
             // Range
             long from = lastScannedRevision + 1;
             // Request index of the range
@@ -268,95 +281,181 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
         unscheduleSvnIndexation(configuration);
     }
 
+    /**
+     * Collects the log entries in windows of revisions, each window being indexed at once.
+     */
     private class IndexationHandler implements ISVNLogEntryHandler {
 
         private final SVNRepository repository;
+        private final int batchSize;
         private final Consumer<Long> revisionListener;
+        private final List<SVNLogEntry> window = new ArrayList<>();
+        private int count = 0;
 
-        private IndexationHandler(SVNRepository repository, Consumer<Long> revisionListener) {
+        private IndexationHandler(SVNRepository repository, int batchSize, Consumer<Long> revisionListener) {
             this.repository = repository;
+            this.batchSize = Math.max(1, batchSize);
             this.revisionListener = revisionListener;
         }
 
         @Override
         public void handleLogEntry(final SVNLogEntry logEntry) throws SVNException {
-            // Transaction
-            transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            window.add(logEntry);
+            if (window.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (!window.isEmpty()) {
+                List<SVNLogEntry> entries = new ArrayList<>(window);
+                window.clear();
+                indexWindow(repository, entries);
+                count += entries.size();
+                revisionListener.accept(entries.get(entries.size() - 1).getRevision());
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Indexes a window of revisions. The information is first collected from the
+     * repository, then written in one transaction.
+     */
+    private void indexWindow(SVNRepository repository, List<SVNLogEntry> entries) {
+        SVNLogEntry first = entries.get(0);
+        logger.info("[svn-indexation] Repository={}, Indexing revisions {}-{}",
+                repository.getId(), first.getRevision(), entries.get(entries.size() - 1).getRevision());
+        // Revisions
+        List<TRevision> revisions = entries.stream()
+                .map(logEntry -> toRevision(repository, logEntry))
+                .collect(Collectors.toList());
+        // Merge relationships
+        Map<Long, List<Long>> mergedRevisions = getMergedRevisions(repository, entries, revisions);
+        // Issues
+        Map<Long, Set<String>> issues = getIssues(repository, entries);
+        // Transaction
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus transactionStatus) {
+                try {
+                    // Inserting or updating the revisions
+                    revisionDao.addRevisions(repository.getId(), revisions);
+                    // Merge relationships
+                    revisionDao.addMergedRevisions(repository.getId(), mergedRevisions);
+                    // Subversion events
+                    entries.forEach(logEntry -> indexSVNEvents(repository, logEntry));
+                    // Indexes the issues
+                    issueRevisionDao.link(repository.getId(), issues);
+                } catch (Exception ex) {
+                    throw new SVNIndexationException(first.getRevision(), first.getMessage(), ex);
+                }
+            }
+        });
+    }
 
-                @Override
-                protected void doInTransactionWithoutResult(TransactionStatus transactionStatus) {
+    private TRevision toRevision(SVNRepository repository, SVNLogEntry logEntry) {
+        return new TRevision(
+                repository.getId(),
+                logEntry.getRevision(),
+                // Sanitizes the possible null values
+                Objects.toString(logEntry.getAuthor(), ""),
+                // Date to date time
+                Time.from(logEntry.getDate(), Time.now()),
+                Objects.toString(logEntry.getMessage(), ""),
+                // Branch for the revision
+                getBranchForRevision(repository, logEntry)
+        );
+    }
+
+    /**
+     * Gets the merged revisions for a window of revisions, using a nested SVN client. Only the
+     * revisions which may have changed the merge information of their branch are looked at.
+     */
+    private Map<Long, List<Long>> getMergedRevisions(SVNRepository repository, List<SVNLogEntry> entries, List<TRevision> revisions) {
+        Map<Long, List<Long>> result = new LinkedHashMap<>();
+        try (Transaction ignored = transactionService.start(true)) {
+            for (int i = 0; i < entries.size(); i++) {
+                SVNLogEntry logEntry = entries.get(i);
+                String branch = revisions.get(i).getBranch();
+                Set<String> targets = getMergeInfoTargets(logEntry, branch);
+                if (!targets.isEmpty()) {
+                    long revision = logEntry.getRevision();
                     try {
-                        revisionListener.accept(logEntry.getRevision());
-                        indexInTransaction(repository, logEntry);
+                        List<Long> mergedRevisions = new ArrayList<>();
+                        for (String target : targets) {
+                            mergedRevisions.addAll(svnClient.getMergedRevisions(repository, SVNUtils.toURL(repository.getConfiguration().getUrl(), target), revision));
+                        }
+                        // Unique revisions
+                        List<Long> uniqueMergedRevisions = mergedRevisions.stream().distinct().collect(Collectors.toList());
+                        if (!uniqueMergedRevisions.isEmpty()) {
+                            result.put(revision, uniqueMergedRevisions);
+                        }
                     } catch (Exception ex) {
-                        throw new SVNIndexationException(logEntry.getRevision(), logEntry.getMessage(), ex);
+                        throw new SVNIndexationException(revision, logEntry.getMessage(), ex);
                     }
                 }
-            });
+            }
         }
+        return result;
     }
 
     /**
-     * This method is executed within a transaction
+     * Gets the paths whose merge information may have been changed by a revision.
+     * <p>
+     * The merge information is stored in the <code>svn:mergeinfo</code> property of the branch, or
+     * inherited from one of its parents. It can change only if the revision modifies or replaces
+     * the branch directory or one of its parents, and the branch is then returned.
+     * <p>
+     * A merge into a sub-directory of the branch (subtree merge) stores its merge information on this
+     * sub-directory. A directory is reported as modified only when its properties change, so each modified
+     * or replaced directory below the branch is returned as well. The kind of the changed paths is unknown
+     * for old servers, and the modified files are then returned too.
      */
-    private void indexInTransaction(SVNRepository repository, SVNLogEntry logEntry) throws SVNException {
-        // Log values
-        long revision = logEntry.getRevision();
-        String author = logEntry.getAuthor();
-        String message = logEntry.getMessage();
-        Date date = logEntry.getDate();
-        // Sanitizes the possible null values
-        author = Objects.toString(author, "");
-        message = Objects.toString(message, "");
-        // Date to date time
-        LocalDateTime dateTime = Time.from(date, Time.now());
-        // Branch for the revision
-        String branch = getBranchForRevision(repository, logEntry);
-        // Logging
-        logger.info(String.format("Indexing revision %d", revision));
-        // Inserting or updating the revision
-        revisionDao.addRevision(repository.getId(), revision, author, dateTime, message, branch);
-        // Merge relationships (using a nested SVN client)
-        try (Transaction ignored = transactionService.start(true)) {
-            List<Long> mergedRevisions = svnClient.getMergedRevisions(repository, SVNUtils.toURL(repository.getConfiguration().getUrl(), branch), revision);
-            // Unique revisions
-            List<Long> uniqueMergedRevisions = mergedRevisions.stream().distinct().collect(Collectors.toList());
-            revisionDao.addMergedRevisions(repository.getId(), revision, uniqueMergedRevisions);
+    private Set<String> getMergeInfoTargets(SVNLogEntry logEntry, String branch) {
+        String root = StringUtils.defaultIfBlank(branch, "/");
+        String rootPrefix = StringUtils.appendIfMissing(root, "/");
+        Set<String> targets = new TreeSet<>();
+        @SuppressWarnings("unchecked")
+        Map<String, SVNLogEntryPath> changedPaths = logEntry.getChangedPaths();
+        for (SVNLogEntryPath logEntryPath : changedPaths.values()) {
+            char type = logEntryPath.getType();
+            if (type == SVNLogEntryPath.TYPE_MODIFIED || type == SVNLogEntryPath.TYPE_REPLACED) {
+                String path = logEntryPath.getPath();
+                if (root.equals(path) || root.startsWith(StringUtils.appendIfMissing(path, "/"))) {
+                    targets.add(root);
+                } else if (path.startsWith(rootPrefix) && logEntryPath.getKind() != SVNNodeKind.FILE) {
+                    targets.add(path);
+                }
+            }
         }
-        // Subversion events
-        indexSVNEvents(repository, logEntry);
-        // Indexes the issues
-        indexIssues(repository, logEntry);
+        return targets;
     }
 
-    private void indexIssues(SVNRepository repository, SVNLogEntry logEntry) {
+    private Map<Long, Set<String>> getIssues(SVNRepository repository, List<SVNLogEntry> entries) {
+        Map<Long, Set<String>> result = new LinkedHashMap<>();
         // Is the repository associated with any issue service?
         ConfiguredIssueService configuredIssueService = repository.getConfiguredIssueService();
         if (configuredIssueService != null) {
             IssueServiceExtension issueServiceExtension = configuredIssueService.getIssueServiceExtension();
             IssueServiceConfiguration issueServiceConfiguration = configuredIssueService.getIssueServiceConfiguration();
-            // Revision information to scan
-            long revision = logEntry.getRevision();
-            String message = logEntry.getMessage();
-            // Cache for issues
-            Set<String> revisionIssues = new HashSet<>();
-            // Gets all issues from the message
-            Set<String> issues = issueServiceExtension.extractIssueKeysFromMessage(
-                    issueServiceConfiguration,
-                    message
-            );
-            // For each issue in the message
-            issues.stream()
-                    // Checks that the issue has not already been associated with this revision
-                    .filter(issueKey -> !revisionIssues.contains(issueKey))
-                    // Indexes this issue
-                    .forEach(issueKey -> {
-                        revisionIssues.add(issueKey);
-                        logger.info(String.format("     Indexing revision %d <-> %s", revision, issueKey));
-                        // Indexes this issue
-                        issueRevisionDao.link(repository.getId(), revision, issueKey);
-                    });
+            for (SVNLogEntry logEntry : entries) {
+                // Gets all issues from the message, once each
+                Set<String> issues = new LinkedHashSet<>(issueServiceExtension.extractIssueKeysFromMessage(
+                        issueServiceConfiguration,
+                        logEntry.getMessage()
+                ));
+                if (!issues.isEmpty()) {
+                    logger.debug("[svn-indexation] Revision {} <-> {}", logEntry.getRevision(), issues);
+                    result.put(logEntry.getRevision(), issues);
+                }
+            }
         }
+        return result;
     }
 
     private void indexSVNEvents(SVNRepository repository, SVNLogEntry logEntry) {
@@ -478,7 +577,8 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
             SVNRevision fromRevision = SVNRevision.create(from);
             SVNRevision toRevision = SVNRevision.create(to);
             // Calls the indexer, including merge revisions
-            IndexationHandler handler = new IndexationHandler(repository, revision -> runListener.message(
+            long start = System.currentTimeMillis();
+            IndexationHandler handler = new IndexationHandler(repository, subversionConfProperties.getIndexationBatchSize(), revision -> runListener.message(
                     "Indexation on %s is running (%d to %d - at %d - %d%%)",
                     repository.getConfiguration().getName(),
                     min,
@@ -487,6 +587,17 @@ public class IndexationServiceImpl implements IndexationService, StartupService,
                     Math.round(100.0 * (revision - min + 1) / (max - min + 1))
             ));
             svnClient.log(repository, url, SVNRevision.HEAD, fromRevision, toRevision, true, true, 0, false, handler);
+            handler.flush();
+            // Throughput
+            long duration = Math.max(1, System.currentTimeMillis() - start);
+            logger.info("[svn-indexation] Repository={}, Range: {}-{}, {} revisions indexed in {} ms", repository.getId(), from, to, handler.getCount(), duration);
+            runListener.message(
+                    "Indexation on %s: %d revisions indexed in %d ms (%.1f revisions/s)",
+                    repository.getConfiguration().getName(),
+                    handler.getCount(),
+                    duration,
+                    1000.0 * handler.getCount() / duration
+            );
         }
     }
 }
@@ -8,9 +8,12 @@ import net.nemerosa.ontrack.extension.issues.model.Issue;
 import net.nemerosa.ontrack.extension.issues.model.IssueServiceConfigurationRepresentation;
 import net.nemerosa.ontrack.extension.scm.model.SCMBuildView;
 import net.nemerosa.ontrack.extension.scm.service.AbstractSCMChangeLogService;
+import net.nemerosa.ontrack.extension.svn.SubversionConfProperties;
 import net.nemerosa.ontrack.extension.svn.client.SVNClient;
 import net.nemerosa.ontrack.extension.svn.db.SVNIssueRevisionDao;
 import net.nemerosa.ontrack.extension.svn.db.SVNRepository;
+import net.nemerosa.ontrack.extension.svn.db.SVNRevisionDao;
+import net.nemerosa.ontrack.extension.svn.db.TRevision;
 import net.nemerosa.ontrack.extension.svn.model.*;
 import net.nemerosa.ontrack.extension.svn.property.SVNBranchConfigurationProperty;
 import net.nemerosa.ontrack.extension.svn.property.SVNBranchConfigurationPropertyType;
@@ -37,9 +40,11 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
 
     private final BuildSvnRevisionLinkService buildSvnRevisionLinkService;
     private final SVNIssueRevisionDao issueRevisionDao;
+    private final SVNRevisionDao revisionDao;
     private final SVNService svnService;
     private final SVNClient svnClient;
     private final TransactionService transactionService;
+    private final SubversionConfProperties subversionConfProperties;
 
     @Autowired
     public SVNChangeLogServiceImpl(
@@ -47,15 +52,19 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
             PropertyService propertyService,
             BuildSvnRevisionLinkService buildSvnRevisionLinkService,
             SVNIssueRevisionDao issueRevisionDao,
+            SVNRevisionDao revisionDao,
             SVNService svnService,
             SVNClient svnClient,
-            TransactionService transactionService) {
+            TransactionService transactionService,
+            SubversionConfProperties subversionConfProperties) {
         super(structureService, propertyService);
         this.buildSvnRevisionLinkService = buildSvnRevisionLinkService;
         this.issueRevisionDao = issueRevisionDao;
+        this.revisionDao = revisionDao;
         this.svnService = svnService;
         this.svnClient = svnClient;
         this.transactionService = transactionService;
+        this.subversionConfProperties = subversionConfProperties;
     }
 
     @Override
@@ -106,39 +115,7 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
             List<SVNChangeLogRevision> revisions = new ArrayList<>();
             for (SVNChangeLogReference reference : references) {
                 if (!reference.isNone()) {
-                    SVNRepository repository = changeLog.getRepository();
-                    // List of log entries
-                    SVNLogEntryCollector logEntryCollector = new SVNLogEntryCollector();
-                    // SVN change log
-                    svnClient.log(
-                            repository,
-                            SVNUtils.toURL(repository.getUrl(reference.getPath())),
-                            SVNRevision.create(reference.getEnd()),
-                            SVNRevision.create(reference.getStart() + 1),
-                            SVNRevision.create(reference.getEnd()),
-                            true, // Stops on copy
-                            false, // No path discovering (yet)
-                            0L, // no limit
-                            true, // Includes merged revisions
-                            logEntryCollector
-                    );
-                    // Loops through all SVN log entries, taking the merged revisions into account
-                    int level = 0;
-                    for (SVNLogEntry svnEntry : logEntryCollector.getEntries()) {
-                        long revision = svnEntry.getRevision();
-                        if (SVNRevision.isValidRevisionNumber(revision)) {
-                            // Conversion
-                            SVNChangeLogRevision entry = createChangeLogRevision(repository, reference.getPath(), level, svnEntry);
-                            // Adds it to the list
-                            revisions.add(entry);
-                            // New parent?
-                            if (svnEntry.hasChildren()) {
-                                level++;
-                            }
-                        } else {
-                            level--;
-                        }
-                    }
+                    revisions.addAll(getChangeLogRevisions(changeLog.getRepository(), reference));
                 }
             }
             // Sorting the revisions
@@ -152,6 +129,97 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
         }
     }
 
+    /**
+     * Gets the revisions of a range, using the indexed revisions as much as possible. Only the revisions
+     * which are not indexed yet are read from the repository.
+     */
+    private List<SVNChangeLogRevision> getChangeLogRevisions(SVNRepository repository, SVNChangeLogReference reference) {
+        List<SVNChangeLogRevision> revisions = new ArrayList<>();
+        long start = reference.getStart();
+        long end = reference.getEnd();
+        // Indexed part of the range
+        if (subversionConfProperties.isChangeLogIndexed()
+                && start + 1 >= repository.getConfiguration().getIndexationStart()
+                && svnClient.isTrunkOrBranch(repository, reference.getPath())) {
+            long lastIndexed = revisionDao.getLast(repository.getId());
+            if (lastIndexed > start) {
+                long indexedEnd = Math.min(end, lastIndexed);
+                revisions.addAll(getIndexedChangeLogRevisions(repository, reference.getPath(), start, indexedEnd));
+                start = indexedEnd;
+            }
+        }
+        // Part of the range not indexed yet
+        if (start < end) {
+            revisions.addAll(getRepositoryChangeLogRevisions(repository, reference.getPath(), start, end));
+        }
+        return revisions;
+    }
+
+    /**
+     * Gets the revisions of a range from the index: the revisions made on the branch, and then
+     * the revisions they have merged, level by level.
+     */
+    private List<SVNChangeLogRevision> getIndexedChangeLogRevisions(SVNRepository repository, String path, long start, long end) {
+        List<SVNChangeLogRevision> revisions = new ArrayList<>();
+        Set<Long> collected = new HashSet<>();
+        // Revisions on the branch
+        List<TRevision> levelRevisions = revisionDao.getRevisionsOnBranch(repository.getId(), path, start, end);
+        int level = 0;
+        while (!levelRevisions.isEmpty()) {
+            List<Long> targets = new ArrayList<>();
+            for (TRevision t : levelRevisions) {
+                if (collected.add(t.getRevision())) {
+                    revisions.add(createChangeLogRevision(repository, path, level, t));
+                    targets.add(t.getRevision());
+                }
+            }
+            // Merged revisions
+            Set<Long> merged = new TreeSet<>();
+            revisionDao.getMergedRevisions(repository.getId(), targets).values().forEach(merged::addAll);
+            merged.removeAll(collected);
+            levelRevisions = merged.isEmpty() ? Collections.emptyList() : revisionDao.getRevisions(repository.getId(), merged);
+            level++;
+        }
+        return revisions;
+    }
+
+    private List<SVNChangeLogRevision> getRepositoryChangeLogRevisions(SVNRepository repository, String path, long start, long end) {
+        List<SVNChangeLogRevision> revisions = new ArrayList<>();
+        // List of log entries
+        SVNLogEntryCollector logEntryCollector = new SVNLogEntryCollector();
+        // SVN change log
+        svnClient.log(
+                repository,
+                SVNUtils.toURL(repository.getUrl(path)),
+                SVNRevision.create(end),
+                SVNRevision.create(start + 1),
+                SVNRevision.create(end),
+                true, // Stops on copy
+                false, // No path discovering (yet)
+                0L, // no limit
+                true, // Includes merged revisions
+                logEntryCollector
+        );
+        // Loops through all SVN log entries, taking the merged revisions into account
+        int level = 0;
+        for (SVNLogEntry svnEntry : logEntryCollector.getEntries()) {
+            long revision = svnEntry.getRevision();
+            if (SVNRevision.isValidRevisionNumber(revision)) {
+                // Conversion
+                SVNChangeLogRevision entry = createChangeLogRevision(repository, path, level, svnEntry);
+                // Adds it to the list
+                revisions.add(entry);
+                // New parent?
+                if (svnEntry.hasChildren()) {
+                    level++;
+                }
+            } else {
+                level--;
+            }
+        }
+        return revisions;
+    }
+
     @Override
     @Transactional
     public SVNChangeLogIssues getChangeLogIssues(SVNChangeLog changeLog) {
@@ -165,10 +233,19 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
             SVNRepository repository = changeLog.getRepository();
             // Index of issues, sorted by keys
             Map<String, SVNChangeLogIssue> issues = new TreeMap<>();
+            // All revisions in this revision log
+            List<Long> revisions = changeLog.getRevisions().getList().stream()
+                    .map(SVNChangeLogRevision::getRevision)
+                    .collect(Collectors.toList());
+            // Issues and revision information, loaded at once from the index
+            Map<Long, List<String>> revisionIssues = issueRevisionDao.findIssuesByRevisions(repository.getId(), revisions);
+            Map<Long, TRevision> revisionInfos = revisionIssues.isEmpty() ?
+                    Collections.emptyMap() :
+                    revisionDao.getRevisions(repository.getId(), revisionIssues.keySet()).stream()
+                            .collect(Collectors.toMap(TRevision::getRevision, t -> t));
             // For all revisions in this revision log
-            for (SVNChangeLogRevision changeLogRevision : changeLog.getRevisions().getList()) {
-                long revision = changeLogRevision.getRevision();
-                collectIssuesForRevision(repository, issues, revision);
+            for (long revision : revisions) {
+                collectIssuesForRevision(repository, issues, revision, revisionIssues.get(revision), revisionInfos.get(revision));
             }
             // List of issues
             List<SVNChangeLogIssue> issuesList = new ArrayList<>(issues.values());
@@ -234,9 +311,11 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
         }
     }
 
-    private void collectIssuesForRevision(SVNRepository repository, Map<String, SVNChangeLogIssue> issues, long revision) {
-        // Gets all issues attached to this revision
-        List<String> issueKeys = issueRevisionDao.findIssuesByRevision(repository.getId(), revision);
+    private void collectIssuesForRevision(SVNRepository repository, Map<String, SVNChangeLogIssue> issues, long revision, List<String> issueKeys, TRevision t) {
+        // Issues attached to this revision
+        if (issueKeys == null || t == null) {
+            return;
+        }
         // For each issue
         for (String issueKey : issueKeys) {
             // Gets its details if not indexed yet
@@ -247,7 +326,14 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
             // Existing issue?
             if (changeLogIssue != null) {
                 // Attaches the revision to this issue
-                SVNRevisionInfo issueRevision = svnService.getRevisionInfo(repository, revision);
+                SVNRevisionInfo issueRevision = new SVNRevisionInfo(
+                        revision,
+                        t.getAuthor(),
+                        t.getCreation(),
+                        t.getBranch(),
+                        t.getMessage(),
+                        repository.getRevisionBrowsingURL(revision)
+                );
                 changeLogIssue = changeLogIssue.addRevision(issueRevision);
                 // Puts back into the cache
                 issues.put(issueKey, changeLogIssue);
@@ -283,6 +369,18 @@ public class SVNChangeLogServiceImpl extends AbstractSCMChangeLogService impleme
         );
     }
 
+    private SVNChangeLogRevision createChangeLogRevision(SVNRepository repository, String path, int level, TRevision t) {
+        return SVNServiceUtils.createChangeLogRevision(
+                repository,
+                path,
+                level,
+                t.getRevision(),
+                t.getMessage(),
+                t.getAuthor(),
+                t.getCreation()
+        );
+    }
+
     protected SCMBuildView<SVNHistory> getSCMBuildView(SVNRepository svnRepository, ID buildId) {
         // Gets the build view
         BuildView buildView = getBuildView(buildId);
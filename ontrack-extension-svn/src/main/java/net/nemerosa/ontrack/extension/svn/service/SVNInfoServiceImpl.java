@@ -7,7 +7,6 @@ import net.nemerosa.ontrack.extension.scm.service.SCMUtilsService;
 import net.nemerosa.ontrack.extension.svn.db.SVNIssueRevisionDao;
 import net.nemerosa.ontrack.extension.svn.db.SVNRepository;
 import net.nemerosa.ontrack.extension.svn.db.SVNRevisionDao;
-import net.nemerosa.ontrack.extension.svn.db.TRevision;
 import net.nemerosa.ontrack.extension.svn.model.*;
 import net.nemerosa.ontrack.extension.svn.property.SVNBranchConfigurationProperty;
 import net.nemerosa.ontrack.extension.svn.property.SVNBranchConfigurationPropertyType;
@@ -19,7 +18,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
@@ -64,10 +62,12 @@ public class SVNInfoServiceImpl implements SVNInfoService {
 
         // For each configured branch
         Map<String, BranchRevision> branchRevisions = new HashMap<>();
+        Map<String, Branch> branches = new HashMap<>();
         svnService.forEachConfiguredBranch(
                 config -> Objects.equals(configurationName, config.getConfiguration().getName()),
                 (branch, branchConfig) -> {
                     String branchPath = branchConfig.getCuredBranchPath();
+                    branches.put(branchPath, branch);
                     // List of linked issues
                     Collection<String> linkedIssues = configuredIssueService.getLinkedIssues(branch.getProject(), issue).stream()
                             .map(Issue::getKey)
@@ -81,51 +81,37 @@ public class SVNInfoServiceImpl implements SVNInfoService {
                 }
         );
 
-        // Until all revisions are complete in respect of their merges...
-        while (!BranchRevision.areComplete(branchRevisions.values())) {
-            // Gets the incomplete revisions
-            Collection<BranchRevision> incompleteRevisions = branchRevisions.values().stream()
-                    .filter(br -> !br.isComplete()).collect(Collectors.toList());
-            // For each of them, gets the list of revisions it was merged to
-            incompleteRevisions.forEach(br -> {
-                List<Long> merges = revisionDao.getMergesForRevision(repository.getId(), br.getRevision());
-                // Marks the current revision as complete
-                branchRevisions.put(br.getPath(), br.complete());
-                // Gets the revision info for each merged revision
-                List<TRevision> revisions = merges.stream().map(r -> revisionDao.get(repository.getId(), r)).collect(Collectors.toList());
+        // Last revisions on the branches these revisions were merged into, directly or not
+        if (!branchRevisions.isEmpty()) {
+            List<Long> lastRevisions = branchRevisions.values().stream()
+                    .map(BranchRevision::getRevision)
+                    .collect(Collectors.toList());
+            revisionDao.getLastMergeTargetsByBranch(repository.getId(), lastRevisions).forEach((branch, target) -> {
                 // For each revision path, compares with current stored revision
-                revisions.forEach(t -> {
-                    String branch = t.getBranch();
-                    // Existing branch revision?
-                    BranchRevision existingBranchRevision = branchRevisions.get(branch);
-                    if (existingBranchRevision == null || t.getRevision() > existingBranchRevision.getRevision()) {
-                        branchRevisions.put(branch, new BranchRevision(branch, t.getRevision(), true));
-                    }
-                });
+                BranchRevision existingBranchRevision = branchRevisions.get(branch);
+                if (existingBranchRevision == null || target > existingBranchRevision.getRevision()) {
+                    branchRevisions.put(branch, new BranchRevision(branch, target, true));
+                }
             });
-
         }
 
         // We now have the last revision for this issue on each branch...
+        Map<Long, SVNRevisionInfo> basicInfos = svnService.getRevisionInfos(
+                repository,
+                branchRevisions.values().stream().map(BranchRevision::getRevision).collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(SVNRevisionInfo::getRevision, info -> info));
         List<OntrackSVNIssueRevisionInfo> issueRevisionInfos = new ArrayList<>();
         branchRevisions.values().forEach(br -> {
             // Loads the revision info
-            SVNRevisionInfo basicInfo = svnService.getRevisionInfo(repository, br.getRevision());
+            SVNRevisionInfo basicInfo = basicInfos.get(br.getRevision());
+            if (basicInfo == null) {
+                return;
+            }
             SVNChangeLogRevision changeLogRevision = svnService.createChangeLogRevision(repository, basicInfo);
             // Info to collect
             OntrackSVNIssueRevisionInfo issueRevisionInfo = OntrackSVNIssueRevisionInfo.of(changeLogRevision);
             // Gets the branch from the branch path
-            AtomicReference<Branch> rBranch = new AtomicReference<>();
-            svnService.forEachConfiguredBranch(
-                    config -> Objects.equals(configurationName, config.getConfiguration().getName()),
-                    (candidate, branchConfig) -> {
-                        String branchPath = branchConfig.getCuredBranchPath();
-                        if (Objects.equals(br.getPath(), branchPath)) {
-                            rBranch.set(candidate);
-                        }
-                    }
-            );
-            Branch branch = rBranch.get();
+            Branch branch = branches.get(br.getPath());
             if (branch != null) {
                 // Collects branch info
                 SCMIssueCommitBranchInfo branchInfo = SCMIssueCommitBranchInfo.of(branch);
@@ -142,8 +128,8 @@ public class SVNInfoServiceImpl implements SVNInfoService {
         });
 
         // Gets the list of revisions & their basic info (order from latest to oldest)
-        List<SVNChangeLogRevision> revisions = svnService.getRevisionsForIssueKey(repository, issueKey).stream()
-                .map(revision -> svnService.createChangeLogRevision(repository, svnService.getRevisionInfo(repository, revision)))
+        List<SVNChangeLogRevision> revisions = svnService.getRevisionInfos(repository, svnService.getRevisionsForIssueKey(repository, issueKey)).stream()
+                .map(revisionInfo -> svnService.createChangeLogRevision(repository, revisionInfo))
                 .collect(Collectors.toList());
 
         // OK
@@ -165,8 +151,15 @@ public class SVNInfoServiceImpl implements SVNInfoService {
                 repository,
                 basicInfo);
 
-        // Gets the first copy event on this path after this revision
-        SVNLocation firstCopy = svnService.getFirstCopyAfter(repository, basicInfo.toLocation());
+        // Branches containing this revision: its own branch, and the ones it was merged into, directly
+        // or not, each one with the first revision containing it
+        Map<String, SVNLocation> locations = new HashMap<>();
+        locations.put(basicInfo.getPath(), basicInfo.toLocation());
+        revisionDao.getFirstMergeTargetsByBranch(repository.getId(), revision).forEach(
+                (path, target) -> locations.putIfAbsent(path, new SVNLocation(path, target))
+        );
+        // First copy event on each path after its revision
+        Map<String, Optional<SVNLocation>> firstCopies = new HashMap<>();
 
         // Data to collect
         Collection<BuildView> buildViews = new ArrayList<>();
@@ -180,10 +173,17 @@ public class SVNInfoServiceImpl implements SVNInfoService {
                 for (Branch branch : structureService.getBranchesForProject(project.getId())) {
                     // Filter on branch type
                     // Filter on SVN configuration: must be present
-                    if (branch.getType() != BranchType.TEMPLATE_DEFINITION &&
-                            propertyService.hasProperty(branch, SVNBranchConfigurationPropertyType.class)) {
+                    // Filter on the branches containing the revision
+                    Property<SVNBranchConfigurationProperty> branchSvnConfig = propertyService.getProperty(branch, SVNBranchConfigurationPropertyType.class);
+                    SVNLocation location = branchSvnConfig.isEmpty() ? null : locations.get(branchSvnConfig.getValue().getCuredBranchPath());
+                    if (branch.getType() != BranchType.TEMPLATE_DEFINITION && location != null) {
+                        // Gets the first copy event on this path after this revision
+                        SVNLocation firstCopy = firstCopies.computeIfAbsent(
+                                location.getPath(),
+                                path -> Optional.ofNullable(svnService.getFirstCopyAfter(repository, location))
+                        ).orElse(null);
                         // Identifies a possible build given the path/revision and the first copy
-                        Optional<Build> build = lookupBuild(basicInfo.toLocation(), firstCopy, branch);
+                        Optional<Build> build = lookupBuild(location, firstCopy, branch);
                         // Build found
                         if (build.isPresent()) {
                             // Gets the build view
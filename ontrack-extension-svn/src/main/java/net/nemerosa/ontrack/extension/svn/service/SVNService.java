@@ -10,6 +10,7 @@ import net.nemerosa.ontrack.job.JobCategory;
 import net.nemerosa.ontrack.model.structure.Branch;
 import net.nemerosa.ontrack.model.structure.ID;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.BiConsumer;
@@ -30,6 +31,14 @@ public interface SVNService extends SCMService {
      */
     SVNRevisionInfo getRevisionInfo(SVNRepository repository, long revision);
 
+    /**
+     * Gets the information about several revisions at once
+     *
+     * @param revisions Revisions to get information about
+     * @return Details about the indexed revisions, from the newest to the oldest
+     */
+    List<SVNRevisionInfo> getRevisionInfos(SVNRepository repository, Collection<Long> revisions);
+
     /**
      * Gets the list of changes for a revision
      */
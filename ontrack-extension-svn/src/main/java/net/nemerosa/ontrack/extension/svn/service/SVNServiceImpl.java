@@ -3,11 +3,14 @@ package net.nemerosa.ontrack.extension.svn.service;
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry;
 import net.nemerosa.ontrack.extension.issues.model.ConfiguredIssueService;
 import net.nemerosa.ontrack.extension.scm.model.SCMPathInfo;
+import net.nemerosa.ontrack.extension.scm.service.SCMConfigurationCache;
 import net.nemerosa.ontrack.extension.svn.client.SVNClient;
 import net.nemerosa.ontrack.extension.svn.db.*;
 import net.nemerosa.ontrack.extension.svn.model.*;
 import net.nemerosa.ontrack.extension.svn.property.*;
 import net.nemerosa.ontrack.extension.svn.support.SVNUtils;
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventListener;
 import net.nemerosa.ontrack.model.security.ProjectConfig;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.*;
@@ -18,15 +21,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 @Service
 @Transactional
-public class SVNServiceImpl implements SVNService {
+public class SVNServiceImpl implements SVNService, EventListener {
 
     private final StructureService structureService;
     private final PropertyService propertyService;
@@ -40,6 +45,11 @@ public class SVNServiceImpl implements SVNService {
     private final TransactionService transactionService;
     private final SecurityService securityService;
 
+    /**
+     * Repositories resolved for the projects
+     */
+    private final SCMConfigurationCache<SVNRepository> projectRepositories = new SCMConfigurationCache<>(10_000, 60);
+
     @Autowired
     public SVNServiceImpl(
             StructureService structureService,
@@ -68,7 +78,20 @@ public class SVNServiceImpl implements SVNService {
 
     @Override
     public SVNRevisionInfo getRevisionInfo(SVNRepository repository, long revision) {
-        TRevision t = revisionDao.get(repository.getId(), revision);
+        return toRevisionInfo(repository, revisionDao.get(repository.getId(), revision));
+    }
+
+    @Override
+    public List<SVNRevisionInfo> getRevisionInfos(SVNRepository repository, Collection<Long> revisions) {
+        if (revisions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return revisionDao.getRevisions(repository.getId(), revisions).stream()
+                .map(t -> toRevisionInfo(repository, t))
+                .collect(Collectors.toList());
+    }
+
+    private SVNRevisionInfo toRevisionInfo(SVNRepository repository, TRevision t) {
         return new SVNRevisionInfo(
                 t.getRevision(),
                 t.getAuthor(),
@@ -168,9 +191,18 @@ public class SVNServiceImpl implements SVNService {
 
     @Override
     public Optional<SVNRepository> getSVNRepository(Branch branch) {
+        return projectRepositories.get(branch.getProject(), () -> loadSVNRepository(branch.getProject()));
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        projectRepositories.onEvent(event);
+    }
+
+    private Optional<SVNRepository> loadSVNRepository(Project project) {
         // Gets the SVN project configuration property
         Property<SVNProjectConfigurationProperty> projectConfiguration = propertyService.getProperty(
-                branch.getProject(),
+                project,
                 SVNProjectConfigurationPropertyType.class
         );
         if (projectConfiguration.isEmpty()) {
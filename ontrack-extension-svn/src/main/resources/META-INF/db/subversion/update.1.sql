@@ -0,0 +1,4 @@
+-- 1. Indexes for the change logs
+
+CREATE INDEX IF NOT EXISTS EXT_SVN_REVISION_IDX_BRANCH ON EXT_SVN_REVISION (REPOSITORY, BRANCH, REVISION);
+CREATE INDEX IF NOT EXISTS EXT_SVN_MERGE_REVISION_IDX_TARGET ON EXT_SVN_MERGE_REVISION (REPOSITORY, TARGET);
@@ -0,0 +1,13 @@
+-- 2. Closure of the merge relationships
+
+CREATE TABLE IF NOT EXISTS EXT_SVN_MERGE_CLOSURE (
+  REPOSITORY INTEGER      NOT NULL,
+  REVISION   INTEGER      NOT NULL,
+  TARGET     INTEGER      NOT NULL,
+  BRANCH     VARCHAR(200) NULL,
+  CONSTRAINT EXT_SVN_MERGE_CLOSURE_PK PRIMARY KEY (REPOSITORY, REVISION, TARGET),
+  CONSTRAINT EXT_SVN_MERGE_CLOSURE_FK_TARGET FOREIGN KEY (REPOSITORY, TARGET) REFERENCES EXT_SVN_REVISION (REPOSITORY, REVISION)
+    ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS EXT_SVN_MERGE_CLOSURE_IDX_BRANCH ON EXT_SVN_MERGE_CLOSURE (REPOSITORY, REVISION, BRANCH, TARGET);
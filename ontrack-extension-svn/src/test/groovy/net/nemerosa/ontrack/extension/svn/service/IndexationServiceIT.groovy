@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.extension.svn.service
 
+import net.nemerosa.ontrack.extension.svn.SubversionConfProperties
 import net.nemerosa.ontrack.extension.svn.db.SVNRepository
 import net.nemerosa.ontrack.extension.svn.db.SVNRepositoryDao
 import net.nemerosa.ontrack.extension.svn.db.SVNRevisionDao
@@ -28,6 +29,9 @@ class IndexationServiceIT extends AbstractServiceTestSupport {
     @Autowired
     private SVNRevisionDao revisionDao
 
+    @Autowired
+    private SubversionConfProperties subversionConfProperties
+
     @Test
     @IfProfileValue(name = "svn", value = "true")
     void 'Indexation of merge info'() {
@@ -72,6 +76,15 @@ class IndexationServiceIT extends AbstractServiceTestSupport {
                 assert revisionDao.getMergesForRevision(repositoryId, it) == [12]
             }
 
+            /**
+             * ... and its closure
+             */
+
+            (5..8).each {
+                assert revisionDao.getFirstMergeTargetsByBranch(repositoryId, it) == ['/IndexationOfMergeInfo/trunk': 12L]
+            }
+            assert revisionDao.getLastMergeTargetsByBranch(repositoryId, [6L, 9L]) == ['/IndexationOfMergeInfo/trunk': 12L]
+
             /**
              * Checks the branch extraction
              */
@@ -82,4 +95,91 @@ class IndexationServiceIT extends AbstractServiceTestSupport {
 
     }
 
+    @Test
+    @IfProfileValue(name = "svn", value = "true")
+    void 'Indexation in batches of revisions'() {
+
+        SVNTestRepo.withSvnRepo('IndexationServiceBatchIT') { SVNTestRepo repo ->
+
+            // Commits on the trunk
+            repo.mkdir 'IndexationInBatches/trunk', 'Trunk'
+            (1..20).each { repo.mkdir "IndexationInBatches/trunk/$it", "$it" }
+            // Branch (revision 22) with some commits to merge later (revisions 23 to 27)
+            long revision = repo.copy 'IndexationInBatches/trunk', 'IndexationInBatches/branches/MyBranch', 'MyBranch'
+            (21..25).each { repo.mkdir "IndexationInBatches/branches/MyBranch/$it", "Branch $it" }
+            // Commits on the trunk
+            (26..30).each { repo.mkdir "IndexationInBatches/trunk/$it", "$it" }
+            // Merges the branch into the trunk (revision = 33)
+            repo.merge "IndexationInBatches/branches/MyBranch@${revision}", 'IndexationInBatches/trunk', 'Merge'
+
+            def configuration = SVNTestUtils.repository(repo.url.toString()).configuration
+            def repositoryId = repositoryDao.getOrCreateByName(configuration.name)
+            def repository = SVNRepository.of(repositoryId, configuration, null)
+
+            // Indexation, by windows not aligned with the repository
+            int batchSize = subversionConfProperties.indexationBatchSize
+            subversionConfProperties.indexationBatchSize = 7
+            try {
+                asUser().with(GlobalSettings).call {
+                    ((IndexationServiceImpl) indexationService).indexFromLatest(repository, { println it })
+                }
+            } finally {
+                subversionConfProperties.indexationBatchSize = batchSize
+            }
+
+            // All revisions are indexed
+            assert revisionDao.getLast(repositoryId) == 33
+            (1..33).each {
+                assert revisionDao.get(repositoryId, it) != null
+            }
+            // Merges
+            (22..27).each {
+                assert revisionDao.getMergesForRevision(repositoryId, it) == [33]
+            }
+            assert revisionDao.getMergesForRevision(repositoryId, 28) == []
+            // Branches
+            (23..27).each {
+                assert revisionDao.get(repositoryId, it).branch == '/IndexationInBatches/branches/MyBranch'
+            }
+            assert revisionDao.get(repositoryId, 33).branch == '/IndexationInBatches/trunk'
+        }
+
+    }
+
+    @Test
+    @IfProfileValue(name = "svn", value = "true")
+    void 'Indexation of a merge into a sub-directory of the branch'() {
+
+        SVNTestRepo.withSvnRepo('IndexationServiceSubtreeIT') { SVNTestRepo repo ->
+
+            // Trunk with two sub-directories (revisions 1 to 3)
+            repo.mkdir 'IndexationOfSubtreeMerge/trunk', 'Trunk'
+            repo.mkdir 'IndexationOfSubtreeMerge/trunk/module', 'Module'
+            repo.mkdir 'IndexationOfSubtreeMerge/trunk/other', 'Other'
+            // Branch (revision 4) with some commits in the sub-directory (revisions 5 and 6)
+            long revision = repo.copy 'IndexationOfSubtreeMerge/trunk', 'IndexationOfSubtreeMerge/branches/MyBranch', 'MyBranch'
+            (1..2).each { repo.mkdir "IndexationOfSubtreeMerge/branches/MyBranch/module/$it", "Module $it" }
+            // Commit on the trunk (revision 7)
+            repo.mkdir 'IndexationOfSubtreeMerge/trunk/other/1', 'Other 1'
+            // Merges the sub-directory only, so that the merge information is set on trunk/module (revision 8)
+            repo.merge "IndexationOfSubtreeMerge/branches/MyBranch/module@${revision}", 'IndexationOfSubtreeMerge/trunk/module', 'Merge'
+
+            def configuration = SVNTestUtils.repository(repo.url.toString()).configuration
+            def repositoryId = repositoryDao.getOrCreateByName(configuration.name)
+            def repository = SVNRepository.of(repositoryId, configuration, null)
+
+            asUser().with(GlobalSettings).call {
+                ((IndexationServiceImpl) indexationService).indexFromLatest(repository, { println it })
+            }
+
+            // The merge is registered for the trunk
+            assert revisionDao.get(repositoryId, 8).branch == '/IndexationOfSubtreeMerge/trunk'
+            (5..6).each {
+                assert revisionDao.getMergesForRevision(repositoryId, it) == [8]
+            }
+            assert revisionDao.getMergesForRevision(repositoryId, 7) == []
+        }
+
+    }
+
 }
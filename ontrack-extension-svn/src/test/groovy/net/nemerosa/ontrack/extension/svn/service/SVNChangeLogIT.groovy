@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.extension.svn.service
 import net.nemerosa.ontrack.extension.api.model.BuildDiffRequest
 import net.nemerosa.ontrack.extension.issues.IssueServiceRegistry
 import net.nemerosa.ontrack.extension.issues.support.MockIssueServiceConfiguration
+import net.nemerosa.ontrack.extension.svn.SubversionConfProperties
 import net.nemerosa.ontrack.extension.svn.db.SVNRepository
 import net.nemerosa.ontrack.extension.svn.db.SVNRepositoryDao
 import net.nemerosa.ontrack.extension.svn.property.SVNBranchConfigurationProperty
@@ -60,6 +61,9 @@ class SVNChangeLogIT extends AbstractServiceTestSupport {
     @Autowired
     private RevisionPatternSvnRevisionLink revisionPatternSvnRevisionLink
 
+    @Autowired
+    private SubversionConfProperties subversionConfProperties
+
 
     @Test
     void 'SVN Change log without issues'() {
@@ -343,4 +347,97 @@ class SVNChangeLogIT extends AbstractServiceTestSupport {
         assert changeLogIssues.list.collect { it.issue.key } == (4..6).collect { it as String }
 
     }
+
+    @Test
+    void 'SVN Change log with merges and revisions not indexed yet'() {
+
+        /**
+         * Preparation of a repository with a branch merged into the trunk
+         */
+
+        repo.mkdir 'SVNChangeLogIndexed/trunk', 'Trunk'
+        (1..3).each { repo.mkdir "SVNChangeLogIndexed/trunk/$it", "$it" }
+        repo.copy 'SVNChangeLogIndexed/trunk', 'SVNChangeLogIndexed/tags/v1', 'Tag v1'
+        // Branch (revision 6) and commits to merge (revisions 7 and 8)
+        long branchRevision = repo.copy 'SVNChangeLogIndexed/trunk', 'SVNChangeLogIndexed/branches/MyBranch', 'MyBranch'
+        (4..5).each { repo.mkdir "SVNChangeLogIndexed/branches/MyBranch/$it", "Branch $it" }
+        // Merge (revision 9)
+        repo.merge "SVNChangeLogIndexed/branches/MyBranch@${branchRevision}", 'SVNChangeLogIndexed/trunk', 'Merge'
+        // Commit after the indexation (revision 10)
+        repo.mkdir 'SVNChangeLogIndexed/trunk/6', '6'
+        repo.copy 'SVNChangeLogIndexed/trunk', 'SVNChangeLogIndexed/tags/v2', 'Tag v2'
+
+        /**
+         * Definition of the repository
+         */
+
+        def configuration = SVNTestUtils.repository(repo.url.toString()).configuration
+        def repositoryId = repositoryDao.getOrCreateByName(configuration.name)
+        def repository = SVNRepository.of(repositoryId, configuration, null)
+
+        asUser().with(GlobalSettings).call {
+            configuration = svnConfigurationService.newConfiguration(configuration)
+        }
+
+        /**
+         * Indexation of this repository, up to the merge only
+         */
+
+        ((IndexationServiceImpl) indexationService).index(repository, 1, 9, { println it })
+
+        /**
+         * Branch with this configuration
+         */
+
+        Branch branch = doCreateBranch()
+        asUser().with(branch, ProjectEdit).call {
+            propertyService.editProperty(branch.project, SVNProjectConfigurationPropertyType, new SVNProjectConfigurationProperty(
+                    configuration,
+                    '/SVNChangeLogIndexed/trunk'
+            ))
+            propertyService.editProperty(branch, SVNBranchConfigurationPropertyType, new SVNBranchConfigurationProperty(
+                    '/SVNChangeLogIndexed/trunk',
+                    TagNameSvnRevisionLink.DEFAULT
+            ))
+        }
+
+        def build1 = doCreateBuild(branch, nd("v1", "Build 1"))
+        def build2 = doCreateBuild(branch, nd("v2", "Build 2"))
+
+        /**
+         * Change log, from the index and from the repository only
+         */
+
+        def diff = new BuildDiffRequest()
+        diff.from = build1.id
+        diff.to = build2.id
+        def changeLog = asUser().with(branch, ProjectView).call {
+            svnChangeLogService.changeLog(diff)
+        }
+        def indexedRevisions = svnChangeLogService.getChangeLogRevisions(changeLog)
+        def repositoryRevisions
+        subversionConfProperties.changeLogIndexed = false
+        try {
+            repositoryRevisions = svnChangeLogService.getChangeLogRevisions(changeLog)
+        } finally {
+            subversionConfProperties.changeLogIndexed = true
+        }
+
+        /**
+         * Revisions on the trunk, including the one which is not indexed yet
+         */
+
+        def trunkRevisions = { revisions -> revisions.list.findAll { it.level == 0 }.collect { it.revision } }
+        assert trunkRevisions(indexedRevisions) == [10L, 9L]
+        assert trunkRevisions(repositoryRevisions) == [10L, 9L]
+
+        /**
+         * Merged revisions, taken from the index
+         */
+
+        def merged = indexedRevisions.list.findAll { it.level == 1 }.collect { it.revision }
+        assert merged.containsAll([8L, 7L])
+        assert indexedRevisions.list.find { it.revision == 8L }.message == 'Branch 5'
+
+    }
 }
@@ -163,6 +163,17 @@ class SVNSearchMultiBranchIT extends AbstractServiceTestSupport {
         assert promotions.collect { it.promotionLevel.name } == [['COPPER', 'BRONZE']]
         assert promotions.collect { it.promotionRun.build.name } == [['v1.3.0', 'v1.3.0']]
 
+        /**
+         * Revision info for a revision of the feature branch: the earliest builds are looked for
+         * on the feature branch and on the trunk it was merged into
+         */
+
+        def revisionInfo = asUser().with(project, ProjectEdit).call {
+            svnInfoService.getOntrackRevisionInfo(svnService.getRepository(configuration.name), 6)
+        }
+        assert revisionInfo.revisionInfo.message == 'Commit 3 for #1'
+        assert revisionInfo.buildViews.collect { it.build.name } as Set == ['v1.2.1', 'v1.3.0'] as Set
+
     }
 
     protected void build(Branch branch, String name, String... promotions) {
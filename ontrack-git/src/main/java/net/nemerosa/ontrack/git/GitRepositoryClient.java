@@ -5,6 +5,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -26,8 +27,9 @@ public interface GitRepositoryClient {
      * Makes sure the repository is synchronised with its remote location.
      *
      * @param logger Used to log messages during the synchronisation
+     * @return <code>false</code> if the synchronisation did not bring anything new
      */
-    void sync(Consumer<String> logger);
+    boolean sync(Consumer<String> logger);
 
     /**
      * Checks if the given repository is compatible with this client. The remote, user name
@@ -115,6 +117,22 @@ public interface GitRepositoryClient {
      */
     Collection<GitTag> getTags();
 
+    /**
+     * Gets the object IDs of all the tags, without loading the commits they point to. This allows
+     * to detect the tags which have been created or moved at low cost.
+     *
+     * @return Object ID (hexadecimal) of each tag, indexed by tag name
+     */
+    Map<String, String> getTagIds();
+
+    /**
+     * Gets some tags
+     *
+     * @param names Names of the tags to load
+     * @return Tags which exist
+     */
+    Collection<GitTag> getTags(Collection<String> names);
+
     /**
      * Checks if the {@code commitish} string can be parsed into this repository
      *
@@ -144,8 +162,9 @@ public interface GitRepositoryClient {
     GitSynchronisationStatus getSynchronisationStatus();
 
     /**
-     * Gets the list of all local branches, and their last commit. If the repository is not synched, or is currently
-     * being synched, the map is returned empty.
+     * Gets the list of all local branches, and their last commit. If the repository is not cloned yet, or is
+     * currently being cloned, the map is returned empty. While a fetch is running, the branches are returned
+     * as they were after the last fetch.
      */
     GitBranchesInfo getBranches();
 
@@ -153,4 +172,10 @@ public interface GitRepositoryClient {
      * Resets the repository. Performs even if there is a synchronisation going on.
      */
     void reset();
+
+    /**
+     * Releases the resources (open files, pack indexes) held by this client. The client remains usable and
+     * reopens its resources when needed.
+     */
+    void close();
 }
@@ -1,5 +1,7 @@
 package net.nemerosa.ontrack.git;
 
+import net.nemerosa.ontrack.git.model.GitRepositoryPoolStats;
+
 public interface GitRepositoryClientFactory {
 
     /**
@@ -7,4 +9,9 @@ public interface GitRepositoryClientFactory {
      */
     GitRepositoryClient getClient(GitRepository repository);
 
+    /**
+     * Gets the statistics about the clients kept by this factory.
+     */
+    GitRepositoryPoolStats getStats();
+
 }
@@ -0,0 +1,41 @@
+package net.nemerosa.ontrack.git.model;
+
+import lombok.Data;
+
+/**
+ * Statistics about the pool of Git repository clients.
+ */
+@Data
+public class GitRepositoryPoolStats {
+
+    /**
+     * Number of repositories in the pool
+     */
+    private final long count;
+
+    /**
+     * Estimated memory (in bytes) used by the repositories in the pool
+     */
+    private final long memory;
+
+    /**
+     * Number of pack files of the repositories in the pool
+     */
+    private final long packFiles;
+
+    /**
+     * Number of times a repository was found in the pool
+     */
+    private final long hitCount;
+
+    /**
+     * Number of times a repository had to be opened
+     */
+    private final long missCount;
+
+    /**
+     * Number of repositories closed in order to respect the limits of the pool
+     */
+    private final long evictionCount;
+
+}
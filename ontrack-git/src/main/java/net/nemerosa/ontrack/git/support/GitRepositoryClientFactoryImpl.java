@@ -2,29 +2,83 @@ package net.nemerosa.ontrack.git.support;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import lombok.Data;
 import net.nemerosa.ontrack.git.GitRepository;
 import net.nemerosa.ontrack.git.GitRepositoryClient;
 import net.nemerosa.ontrack.git.GitRepositoryClientFactory;
 import net.nemerosa.ontrack.git.exceptions.GitRepositoryDirException;
+import net.nemerosa.ontrack.git.model.GitRepositoryPoolStats;
 import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Keeps the Git clients in a pool whose size is limited by the memory used by the repositories and by their
+ * number of pack files, rather than by their number. The least recently used repositories are evicted first,
+ * and are closed once their running operations are done.
+ * <p>
+ * The footprint of a repository is estimated again only when a synchronisation has changed it, and all the
+ * clients of a working directory, even evicted ones, share the same synchronisation lock.
+ */
 public class GitRepositoryClientFactoryImpl implements GitRepositoryClientFactory {
 
+    /**
+     * Default maximum memory (in bytes) used by the pack indexes of the repositories in the pool
+     */
+    public static final long DEFAULT_MAX_MEMORY = 256L * 1024 * 1024;
+
+    /**
+     * Default maximum number of pack files of the repositories in the pool
+     */
+    public static final int DEFAULT_MAX_PACK_FILES = 512;
+
+    /**
+     * Weight of the whole pool, the weight of each repository being its part of the limits
+     */
+    private static final int SCALE = 1_000_000;
+
+    private final Logger logger = LoggerFactory.getLogger(GitRepositoryClientFactory.class);
+
     private final File root;
 
-    private final Cache<String, GitRepositoryClient> repositoryClientCache =
-            CacheBuilder.newBuilder()
-                    .maximumSize(10)
-                    .build();
+    private final Cache<String, PooledClient> repositoryClientCache;
 
     private final ReentrantLock lock = new ReentrantLock();
 
+    /**
+     * Synchronisation locks, per working directory
+     */
+    private final ConcurrentMap<String, ReentrantLock> syncLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Cloning states, per working directory
+     */
+    private final ConcurrentMap<String, AtomicBoolean> cloningStates = new ConcurrentHashMap<>();
+
     public GitRepositoryClientFactoryImpl(File root) {
+        this(root, DEFAULT_MAX_MEMORY, DEFAULT_MAX_PACK_FILES);
+    }
+
+    public GitRepositoryClientFactoryImpl(File root, long maxMemory, int maxPackFiles) {
         this.root = root;
+        this.repositoryClientCache = CacheBuilder.newBuilder()
+                // Accesses are serialised by the lock, and one segment makes the whole weight available
+                .concurrencyLevel(1)
+                .maximumWeight(SCALE)
+                .<String, PooledClient>weigher((remote, pooledClient) -> pooledClient.getFootprint().weight(maxMemory, maxPackFiles, SCALE))
+                .removalListener(this::onRemoval)
+                .recordStats()
+                .build();
     }
 
     @Override
@@ -33,12 +87,15 @@ public class GitRepositoryClientFactoryImpl implements GitRepositoryClientFactor
         lock.lock();
         try {
             // Gets any existing repository in the cache
-            GitRepositoryClient repositoryClient = repositoryClientCache.getIfPresent(remote);
-            if (repositoryClient != null && repositoryClient.isCompatible(repository)) {
-                return repositoryClient;
+            PooledClient pooledClient = repositoryClientCache.getIfPresent(remote);
+            if (pooledClient != null && pooledClient.getClient().isCompatible(repository)) {
+                return pooledClient.getClient();
             }
             // Repository to be created
             else {
+                if (pooledClient != null) {
+                    repositoryClientCache.invalidate(remote);
+                }
                 return createAndRegisterRepositoryClient(repository);
             }
         } finally {
@@ -46,17 +103,34 @@ public class GitRepositoryClientFactoryImpl implements GitRepositoryClientFactor
         }
     }
 
+    @Override
+    public GitRepositoryPoolStats getStats() {
+        long memory = 0;
+        long packFiles = 0;
+        for (PooledClient pooledClient : repositoryClientCache.asMap().values()) {
+            memory += pooledClient.getFootprint().getMemory();
+            packFiles += pooledClient.getFootprint().getPackFiles();
+        }
+        CacheStats stats = repositoryClientCache.stats();
+        return new GitRepositoryPoolStats(
+                repositoryClientCache.size(),
+                memory,
+                packFiles,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount()
+        );
+    }
+
     protected GitRepositoryClient createAndRegisterRepositoryClient(GitRepository repository) {
         GitRepositoryClient client = createRepositoryClient(repository);
-        repositoryClientCache.put(repository.getRemote(), client);
+        repositoryClientCache.put(repository.getRemote(), new PooledClient(client, getFootprint(repository)));
         return client;
     }
 
     protected GitRepositoryClient createRepositoryClient(GitRepository repository) {
-        // ID for this repository
-        String repositoryId = repository.getId();
         // Directory for this repository
-        File repositoryDir = new File(root, repositoryId);
+        File repositoryDir = getRepositoryDir(repository);
         // Makes sure the directory is ready
         try {
             FileUtils.forceMkdir(repositoryDir);
@@ -64,7 +138,58 @@ public class GitRepositoryClientFactoryImpl implements GitRepositoryClientFactor
             throw new GitRepositoryDirException(repositoryDir, ex);
         }
         // Creates the client
-        return new GitRepositoryClientImpl(repositoryDir, repository);
+        return new GitRepositoryClientImpl(
+                repositoryDir,
+                repository,
+                syncLocks.computeIfAbsent(repository.getId(), id -> new ReentrantLock()),
+                cloningStates.computeIfAbsent(repository.getId(), id -> new AtomicBoolean(false)),
+                client -> onChange(repository, client)
+        );
+    }
+
+    /**
+     * The repository has grown after its synchronisation
+     */
+    private void onChange(GitRepository repository, GitRepositoryClient client) {
+        String remote = repository.getRemote();
+        lock.lock();
+        try {
+            // Not counted as an access, and the evicted clients are not put back
+            PooledClient pooledClient = repositoryClientCache.asMap().get(remote);
+            if (pooledClient != null && pooledClient.getClient() == client) {
+                repositoryClientCache.put(remote, new PooledClient(client, getFootprint(repository)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private GitRepositoryFootprint getFootprint(GitRepository repository) {
+        return GitRepositoryFootprint.of(getRepositoryDir(repository));
+    }
+
+    private File getRepositoryDir(GitRepository repository) {
+        return new File(root, repository.getId());
+    }
+
+    private void onRemoval(RemovalNotification<String, PooledClient> notification) {
+        // The client is still in the pool when its footprint is updated
+        if (notification.getCause() != RemovalCause.REPLACED) {
+            PooledClient pooledClient = notification.getValue();
+            if (pooledClient != null) {
+                logger.debug("[git] Closing {} ({})", notification.getKey(), notification.getCause());
+                pooledClient.getClient().close();
+            }
+        }
+    }
+
+    /**
+     * Client in the pool, with the footprint it was weighed with
+     */
+    @Data
+    private static class PooledClient {
+        private final GitRepositoryClient client;
+        private final GitRepositoryFootprint footprint;
     }
 
 }
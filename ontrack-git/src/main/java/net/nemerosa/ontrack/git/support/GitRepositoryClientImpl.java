@@ -25,6 +25,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.FetchResult;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
@@ -36,9 +37,12 @@ import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,11 +56,39 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
     private final GitRepository repository;
     private final Git git;
     private final CredentialsProvider credentialsProvider;
-    private final ReentrantLock sync = new ReentrantLock();
+    private final ReentrantLock sync;
+    /**
+     * Set while the repository is being cloned, its content not being usable yet. Like the lock,
+     * it is shared by all the clients of the working directory.
+     */
+    private final AtomicBoolean cloning;
+    private final Consumer<GitRepositoryClient> onChange;
+
+    /**
+     * Number of operations using the repository, plus one while the client is not closed. The resources
+     * of the repository are released when it drops to zero.
+     */
+    private final AtomicInteger users = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
     public GitRepositoryClientImpl(File repositoryDir, GitRepository repository) {
+        this(repositoryDir, repository, new ReentrantLock(), new AtomicBoolean(false), client -> {
+        });
+    }
+
+    /**
+     * @param repositoryDir Working directory
+     * @param repository    Remote repository
+     * @param sync          Lock for the synchronisations of the working directory, shared by all its clients
+     * @param cloning       Cloning state of the working directory, shared by all its clients
+     * @param onChange      Called when a synchronisation has changed the repository
+     */
+    public GitRepositoryClientImpl(File repositoryDir, GitRepository repository, ReentrantLock sync, AtomicBoolean cloning, Consumer<GitRepositoryClient> onChange) {
         this.repositoryDir = repositoryDir;
         this.repository = repository;
+        this.sync = sync;
+        this.cloning = cloning;
+        this.onChange = onChange;
         // Gets the Git repository
         Repository gitRepository;
         try {
@@ -95,51 +127,74 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
     }
 
     @Override
-    public void sync(Consumer<String> logger) {
-        if (sync.tryLock()) {
-            try {
-                // Clone or update?
-                if (isClonedOrCloning()) {
-                    // Fetch
-                    fetch(logger);
-                } else {
-                    // Clone
-                    cloneRemote(logger);
+    public boolean sync(Consumer<String> logger) {
+        return use(() -> {
+            if (sync.tryLock()) {
+                try {
+                    // Clone or update?
+                    if (isClonedOrCloning()) {
+                        // Fetch
+                        boolean updated = fetch(logger);
+                        if (updated) {
+                            onChange.accept(this);
+                        }
+                        return updated;
+                    } else {
+                        // Clone
+                        cloneRemote(logger);
+                        onChange.accept(this);
+                        return true;
+                    }
+                } finally {
+                    sync.unlock();
                 }
-            } finally {
-                sync.unlock();
+            } else {
+                logger.accept(format("[git] %s is already synchronising, trying later", repository.getRemote()));
+                // Not known yet
+                return true;
             }
-        } else {
-            logger.accept(format("[git] %s is already synchronising, trying later", repository.getRemote()));
-        }
+        });
     }
 
     protected boolean isClonedOrCloning() {
         return new File(repositoryDir, ".git").exists();
     }
 
-    protected synchronized void fetch(Consumer<String> logger) {
+    /**
+     * Fetches the remote repository. The readers are not blocked: the new objects are written before the
+     * references are updated, so that the readers keep working on the last fetched state.
+     *
+     * @return <code>true</code> if some references (branches or tags) have been updated
+     */
+    protected boolean fetch(Consumer<String> logger) {
         logger.accept(format("[git] Pulling %s", repository.getRemote()));
+        FetchResult result;
         try {
-            git.fetch()
+            result = git.fetch()
                     .setCredentialsProvider(credentialsProvider)
                     .call();
         } catch (GitAPIException e) {
             throw new GitRepositoryAPIException(repository.getRemote(), e);
         }
-        logger.accept(format("[git] Pulling done for %s", repository.getRemote()));
+        int updates = result.getTrackingRefUpdates().size();
+        logger.accept(format("[git] Pulling done for %s (%d updated references)", repository.getRemote(), updates));
+        return updates > 0;
     }
 
-    protected synchronized void cloneRemote(Consumer<String> logger) {
+    protected void cloneRemote(Consumer<String> logger) {
         logger.accept(format("[git] Cloning %s", repository.getRemote()));
+        cloning.set(true);
         try {
             new CloneCommand()
                     .setCredentialsProvider(credentialsProvider)
                     .setDirectory(repositoryDir)
                     .setURI(repository.getRemote())
-                    .call();
+                    .call()
+                    .close();
         } catch (GitAPIException e) {
             throw new GitRepositoryAPIException(repository.getRemote(), e);
+        } finally {
+            cloning.set(false);
         }
         // Check
         if (!isClonedOrCloning()) {
@@ -156,82 +211,88 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
 
     @Override
     public Stream<GitCommit> log(String from, String to) {
-        try {
-            Repository gitRepository = git.getRepository();
-            ObjectId oFrom = gitRepository.resolve(from);
-            ObjectId oTo = gitRepository.resolve(to);
-            if (oFrom == null || oTo == null) {
-                return Collections.<GitCommit>emptyList().stream();
-            } else {
-                return Lists.newArrayList(
-                        git.log()
-                                .addRange(oFrom, oTo)
-                                .call()
-                ).stream().map(this::toCommit);
-            }
+        return use(() -> {
+            try {
+                Repository gitRepository = git.getRepository();
+                ObjectId oFrom = gitRepository.resolve(from);
+                ObjectId oTo = gitRepository.resolve(to);
+                if (oFrom == null || oTo == null) {
+                    return Collections.<GitCommit>emptyList().stream();
+                } else {
+                    return Lists.newArrayList(
+                            git.log()
+                                    .addRange(oFrom, oTo)
+                                    .call()
+                    ).stream().map(this::toCommit);
+                }
 
-        } catch (GitAPIException e) {
-            throw new GitRepositoryAPIException(repository.getRemote(), e);
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+            } catch (GitAPIException e) {
+                throw new GitRepositoryAPIException(repository.getRemote(), e);
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
     }
 
     @Override
     public GitLog graph(String from, String to) {
-        try {
-            GitRange range = range(from, to, false);
-            PlotWalk walk = new PlotWalk(git.getRepository());
-
-            // Log
-            walk.markStart(walk.lookupCommit(range.getFrom().getId()));
-            walk.markUninteresting(walk.lookupCommit(range.getTo().getId()));
-            PlotCommitList<PlotLane> commitList = new PlotCommitList<>();
-            commitList.source(walk);
-            commitList.fillTo(Integer.MAX_VALUE);
-
-            // Rendering
-            GitPlotRenderer renderer = new GitPlotRenderer(commitList);
-            GPlot plot = renderer.getPlot();
-
-            // Gets the commits
-            List<GitCommit> commits = Lists.transform(
-                    renderer.getCommits(),
-                    this::toCommit
-            );
+        return use(() -> {
+            try {
+                GitRange range = range(from, to, false);
+                PlotWalk walk = new PlotWalk(git.getRepository());
+
+                // Log
+                walk.markStart(walk.lookupCommit(range.getFrom().getId()));
+                walk.markUninteresting(walk.lookupCommit(range.getTo().getId()));
+                PlotCommitList<PlotLane> commitList = new PlotCommitList<>();
+                commitList.source(walk);
+                commitList.fillTo(Integer.MAX_VALUE);
+
+                // Rendering
+                GitPlotRenderer renderer = new GitPlotRenderer(commitList);
+                GPlot plot = renderer.getPlot();
+
+                // Gets the commits
+                List<GitCommit> commits = Lists.transform(
+                        renderer.getCommits(),
+                        this::toCommit
+                );
 
-            // OK
-            return new GitLog(
-                    plot,
-                    commits
-            );
+                // OK
+                return new GitLog(
+                        plot,
+                        commits
+                );
 
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
     }
 
     @Override
     public boolean scanCommits(String branch, Predicate<RevCommit> scanFunction) {
-        // All commits
-        try {
-            ObjectId resolvedBranch = git.getRepository().resolve(getBranchRef(branch));
-            if (resolvedBranch != null) {
-                Iterable<RevCommit> commits = git.log().add(resolvedBranch).call();
-                for (RevCommit commit : commits) {
-                    if (scanFunction.test(commit)) {
-                        // Not going on
-                        return true;
+        return use(() -> {
+            // All commits
+            try {
+                ObjectId resolvedBranch = git.getRepository().resolve(getBranchRef(branch));
+                if (resolvedBranch != null) {
+                    Iterable<RevCommit> commits = git.log().add(resolvedBranch).call();
+                    for (RevCommit commit : commits) {
+                        if (scanFunction.test(commit)) {
+                            // Not going on
+                            return true;
+                        }
                     }
                 }
+                // Default behaviour
+                return false;
+            } catch (GitAPIException e) {
+                throw new GitRepositoryAPIException(repository.getRemote(), e);
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
             }
-            // Default behaviour
-            return false;
-        } catch (GitAPIException e) {
-            throw new GitRepositoryAPIException(repository.getRemote(), e);
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+        });
     }
 
     /**
@@ -260,37 +321,39 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
 
     @Override
     public String unifiedDiff(String from, String to, Predicate<String> pathFilter) {
-        try {
-            GitRange range = range(from, to);
+        return use(() -> {
+            try {
+                GitRange range = range(from, to);
 
-            // Diff command
-            List<DiffEntry> entries = git.diff()
-                    .setShowNameAndStatusOnly(true)
-                    .setOldTree(getTreeIterator(range.getFrom().getId()))
-                    .setNewTree(getTreeIterator(range.getTo().getId()))
-                    .call();
+                // Diff command
+                List<DiffEntry> entries = git.diff()
+                        .setShowNameAndStatusOnly(true)
+                        .setOldTree(getTreeIterator(range.getFrom().getId()))
+                        .setNewTree(getTreeIterator(range.getTo().getId()))
+                        .call();
 
-            // Filtering the entries
-            entries = entries.stream()
-                    .filter(entry -> pathFilter.test(entry.getOldPath()) || pathFilter.test(entry.getNewPath()))
-                    .collect(Collectors.toList());
+                // Filtering the entries
+                entries = entries.stream()
+                        .filter(entry -> pathFilter.test(entry.getOldPath()) || pathFilter.test(entry.getNewPath()))
+                        .collect(Collectors.toList());
 
-            // Output
-            ByteArrayOutputStream output = new ByteArrayOutputStream();
+                // Output
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
 
-            // Formatting
-            DiffFormatter formatter = new DiffFormatter(output);
-            formatter.setRepository(git.getRepository());
-            entries.forEach(entry -> formatDiffEntry(formatter, entry));
+                // Formatting
+                DiffFormatter formatter = new DiffFormatter(output);
+                formatter.setRepository(git.getRepository());
+                entries.forEach(entry -> formatDiffEntry(formatter, entry));
 
-            // OK
-            return Utils.toString(output.toByteArray());
+                // OK
+                return Utils.toString(output.toByteArray());
 
-        } catch (GitAPIException e) {
-            throw new GitRepositoryAPIException(repository.getRemote(), e);
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+            } catch (GitAPIException e) {
+                throw new GitRepositoryAPIException(repository.getRemote(), e);
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
     }
 
     @Override
@@ -314,47 +377,45 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
 
     @Override
     public GitBranchesInfo getBranches() {
-        if (!isClonedOrCloning()) {
-            // No synchronisation - not returning anything
-            return GitBranchesInfo.empty();
-        } else if (sync.tryLock()) {
-            try {
-                // Rev walk
-                Repository repo = git.getRepository();
-                RevWalk revWalk = new RevWalk(repo);
-                // Gets the list of local branches
-                List<Ref> branchRefs = git.branchList().setListMode(ListBranchCommand.ListMode.REMOTE).call();
-                // For all the branches
-                Map<String, GitCommit> index = new TreeMap<>();
-                for (Ref ref : branchRefs) {
-                    // Gets the name of the branch
-                    String branchName = StringUtils.removeStart(ref.getName(), "refs/remotes/origin/");
-                    if (!StringUtils.equals("HEAD", branchName)) {
-                        // Gets the commit for this ref
-                        RevCommit revCommit = revWalk.parseCommit(ref.getObjectId());
-                        // Commit info
-                        GitCommit gitCommit = toCommit(revCommit);
-                        // Indexation
-                        index.put(branchName, gitCommit);
+        return use(() -> {
+            if (!isClonedOrCloning() || cloning.get()) {
+                // No synchronisation - not returning anything
+                return GitBranchesInfo.empty();
+            } else {
+                // Last fetched state, even if a fetch is running
+                try {
+                    // Rev walk
+                    Repository repo = git.getRepository();
+                    RevWalk revWalk = new RevWalk(repo);
+                    // Gets the list of local branches
+                    List<Ref> branchRefs = git.branchList().setListMode(ListBranchCommand.ListMode.REMOTE).call();
+                    // For all the branches
+                    Map<String, GitCommit> index = new TreeMap<>();
+                    for (Ref ref : branchRefs) {
+                        // Gets the name of the branch
+                        String branchName = StringUtils.removeStart(ref.getName(), "refs/remotes/origin/");
+                        if (!StringUtils.equals("HEAD", branchName)) {
+                            // Gets the commit for this ref
+                            RevCommit revCommit = revWalk.parseCommit(ref.getObjectId());
+                            // Commit info
+                            GitCommit gitCommit = toCommit(revCommit);
+                            // Indexation
+                            index.put(branchName, gitCommit);
+                        }
                     }
+                    // OK
+                    return new GitBranchesInfo(
+                            index.entrySet().stream()
+                                    .map(entry -> new GitBranchInfo(entry.getKey(), entry.getValue()))
+                                    .collect(Collectors.toList())
+                    );
+                } catch (GitAPIException e) {
+                    throw new GitRepositoryAPIException(repository.getRemote(), e);
+                } catch (IOException e) {
+                    throw new GitRepositoryIOException(repository.getRemote(), e);
                 }
-                // OK
-                return new GitBranchesInfo(
-                        index.entrySet().stream()
-                                .map(entry -> new GitBranchInfo(entry.getKey(), entry.getValue()))
-                                .collect(Collectors.toList())
-                );
-            } catch (GitAPIException e) {
-                throw new GitRepositoryAPIException(repository.getRemote(), e);
-            } catch (IOException e) {
-                throw new GitRepositoryIOException(repository.getRemote(), e);
-            } finally {
-                sync.unlock();
             }
-        } else {
-            // Sync going on - not returning anything
-            return GitBranchesInfo.empty();
-        }
+        });
     }
 
     @Override
@@ -366,6 +427,37 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
         }
     }
 
+    /**
+     * Releases the resources of the repository as soon as the running operations are done.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    /**
+     * Runs an operation on the repository, making sure its resources are not released meanwhile. If the
+     * client is closed, the resources are reopened for the operation and released after it.
+     */
+    protected <T> T use(Supplier<T> operation) {
+        if (users.getAndIncrement() == 0) {
+            git.getRepository().incrementOpen();
+        }
+        try {
+            return operation.get();
+        } finally {
+            release();
+        }
+    }
+
+    private void release() {
+        if (users.decrementAndGet() == 0) {
+            git.getRepository().close();
+        }
+    }
+
     private void formatDiffEntry(DiffFormatter formatter, DiffEntry entry) {
         try {
             formatter.format(entry);
@@ -376,63 +468,105 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
 
     @Override
     public GitDiff diff(String from, String to) {
-        try {
-            GitRange range = range(from, to);
+        return use(() -> {
+            try {
+                GitRange range = range(from, to);
 
-            // Diff command
-            List<DiffEntry> entries = git.diff()
-                    .setShowNameAndStatusOnly(true)
-                    .setOldTree(getTreeIterator(range.getFrom().getId()))
-                    .setNewTree(getTreeIterator(range.getTo().getId()))
-                    .call();
+                // Diff command
+                List<DiffEntry> entries = git.diff()
+                        .setShowNameAndStatusOnly(true)
+                        .setOldTree(getTreeIterator(range.getFrom().getId()))
+                        .setNewTree(getTreeIterator(range.getTo().getId()))
+                        .call();
 
-            // OK
-            return new GitDiff(
-                    range.getFrom(),
-                    range.getTo(),
-                    Lists.transform(
-                            entries,
-                            diff -> new GitDiffEntry(
-                                    toChangeType(diff.getChangeType()),
-                                    diff.getOldPath(),
-                                    diff.getNewPath()
-                            )
-                    ));
+                // OK
+                return new GitDiff(
+                        range.getFrom(),
+                        range.getTo(),
+                        Lists.transform(
+                                entries,
+                                diff -> new GitDiffEntry(
+                                        toChangeType(diff.getChangeType()),
+                                        diff.getOldPath(),
+                                        diff.getNewPath()
+                                )
+                        ));
 
-        } catch (GitAPIException e) {
-            throw new GitRepositoryAPIException(repository.getRemote(), e);
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+            } catch (GitAPIException e) {
+                throw new GitRepositoryAPIException(repository.getRemote(), e);
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
     }
 
     @Override
     public Optional<GitCommit> getCommitFor(String id) {
-        try {
-            Repository repo = git.getRepository();
-            ObjectId objectId = repo.resolve(id + "^0");
-            if (objectId != null) {
-                return Optional.of(toCommit(new RevWalk(repo).parseCommit(objectId)));
-            } else {
+        return use(() -> {
+            try {
+                Repository repo = git.getRepository();
+                ObjectId objectId = repo.resolve(id + "^0");
+                if (objectId != null) {
+                    return Optional.of(toCommit(new RevWalk(repo).parseCommit(objectId)));
+                } else {
+                    return Optional.empty();
+                }
+            } catch (IOException e) {
                 return Optional.empty();
             }
-        } catch (IOException e) {
-            return Optional.empty();
-        }
+        });
     }
 
     @Override
     public Collection<GitTag> getTags() {
-        try {
-            Repository repo = git.getRepository();
-            RevWalk revWalk = new RevWalk(repo);
-            return repo.getRefDatabase().getRefs(Constants.R_TAGS).values().stream()
-                    .map(ref -> getGitTagFromRef(revWalk, ref))
-                    .collect(Collectors.toList())
-                    ;
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+        return use(() -> {
+            try {
+                Repository repo = git.getRepository();
+                RevWalk revWalk = new RevWalk(repo);
+                return repo.getRefDatabase().getRefs(Constants.R_TAGS).values().stream()
+                        .map(ref -> getGitTagFromRef(revWalk, ref))
+                        .collect(Collectors.toList())
+                        ;
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, String> getTagIds() {
+        return use(() -> {
+            try {
+                Repository repo = git.getRepository();
+                Map<String, String> ids = new TreeMap<>();
+                repo.getRefDatabase().getRefs(Constants.R_TAGS).forEach(
+                        (name, ref) -> ids.put(name, ref.getObjectId().name())
+                );
+                return ids;
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
+    }
+
+    @Override
+    public Collection<GitTag> getTags(Collection<String> names) {
+        return use(() -> {
+            try {
+                Repository repo = git.getRepository();
+                RevWalk revWalk = new RevWalk(repo);
+                List<GitTag> tags = new ArrayList<>();
+                for (String name : names) {
+                    Ref ref = repo.getRefDatabase().exactRef(Constants.R_TAGS + name);
+                    if (ref != null) {
+                        tags.add(getGitTagFromRef(revWalk, ref));
+                    }
+                }
+                return tags;
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
     }
 
     protected GitTag getGitTagFromRef(RevWalk revWalk, Ref ref) {
@@ -455,12 +589,14 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
 
     @Override
     public boolean isCommit(String commitish) {
-        try {
-            Repository repo = git.getRepository();
-            return repo.resolve(commitish) != null;
-        } catch (IOException e) {
-            throw new GitRepositoryIOException(repository.getRemote(), e);
-        }
+        return use(() -> {
+            try {
+                Repository repo = git.getRepository();
+                return repo.resolve(commitish) != null;
+            } catch (IOException e) {
+                throw new GitRepositoryIOException(repository.getRemote(), e);
+            }
+        });
     }
 
     @Override
@@ -475,11 +611,13 @@ public class GitRepositoryClientImpl implements GitRepositoryClient {
 
     @Override
     public String getShortId(RevCommit revCommit) {
-        try {
-            return git.getRepository().newObjectReader().abbreviate(revCommit.getId()).name();
-        } catch (IOException e) {
-            return revCommit.getId().getName();
-        }
+        return use(() -> {
+            try {
+                return git.getRepository().newObjectReader().abbreviate(revCommit.getId()).name();
+            } catch (IOException e) {
+                return revCommit.getId().getName();
+            }
+        });
     }
 
     @Override
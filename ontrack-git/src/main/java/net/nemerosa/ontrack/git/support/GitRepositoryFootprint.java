@@ -0,0 +1,72 @@
+package net.nemerosa.ontrack.git.support;
+
+import lombok.Data;
+
+import java.io.File;
+
+/**
+ * Estimation of the resources used by an open Git repository.
+ * <p>
+ * JGit loads the index of each pack file in memory and keeps a file handle on each pack file it reads, so
+ * the size of the indexes and the number of pack files are used as an estimation.
+ */
+@Data
+class GitRepositoryFootprint {
+
+    static final GitRepositoryFootprint NONE = new GitRepositoryFootprint(0, 0);
+
+    /**
+     * Size (in bytes) of the pack indexes and bitmaps
+     */
+    private final long memory;
+
+    /**
+     * Number of pack files
+     */
+    private final int packFiles;
+
+    /**
+     * Estimates the footprint of a repository, from its pack files.
+     *
+     * @param repositoryDir Working directory of the repository, or the repository itself when bare
+     * @return Footprint, {@link #NONE} if the repository is not cloned yet
+     */
+    static GitRepositoryFootprint of(File repositoryDir) {
+        File gitDir = new File(repositoryDir, ".git");
+        if (!gitDir.isDirectory()) {
+            gitDir = repositoryDir;
+        }
+        File[] files = new File(gitDir, "objects/pack").listFiles();
+        if (files == null) {
+            return NONE;
+        }
+        long memory = 0;
+        int packFiles = 0;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(".pack")) {
+                packFiles++;
+            } else if (name.endsWith(".idx") || name.endsWith(".bitmap")) {
+                memory += file.length();
+            }
+        }
+        return new GitRepositoryFootprint(memory, packFiles);
+    }
+
+    /**
+     * Part of the pool this footprint takes.
+     *
+     * @param maxMemory    Maximum memory for the pool
+     * @param maxPackFiles Maximum number of pack files for the pool
+     * @param scale        Weight of the whole pool
+     * @return Weight between 1 and <code>scale</code>
+     */
+    int weight(long maxMemory, int maxPackFiles, int scale) {
+        double part = Math.max(
+                (double) memory / maxMemory,
+                (double) packFiles / maxPackFiles
+        );
+        return (int) Math.max(1, Math.min(scale, Math.ceil(part * scale)));
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.nemerosa.ontrack.git.support
+
+import net.nemerosa.ontrack.git.GitRepository
+import net.nemerosa.ontrack.git.model.GitSynchronisationStatus
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import java.util.stream.Collectors
+
+class GitRepositoryClientFactoryImplTest {
+
+    private File root
+    private List<GitRepo> repos = []
+
+    @Before
+    void before() {
+        root = File.createTempDir('ontrack-git', '')
+    }
+
+    @After
+    void after() {
+        repos*.close()
+        root.deleteDir()
+    }
+
+    /**
+     * Creates a bare repository with some commits
+     */
+    private GitRepository bareRepository(String name) {
+        def origin = new GitRepo()
+        repos << origin
+        origin.git 'init'
+        (1..3).each { origin.commit it }
+        def bare = new GitRepo()
+        repos << bare
+        bare.git 'clone', '--bare', origin.dir.absolutePath, '.'
+        new GitRepository('file', name, bare.dir.absolutePath, '', '')
+    }
+
+    @Test
+    void 'Clients are kept in the pool'() {
+        def repository = bareRepository('test')
+        def factory = new GitRepositoryClientFactoryImpl(root)
+
+        def client = factory.getClient(repository)
+        assert factory.getClient(repository).is(client)
+
+        def stats = factory.stats
+        assert stats.count == 1
+        assert stats.missCount == 1
+        assert stats.hitCount == 1
+        assert stats.evictionCount == 0
+    }
+
+    @Test
+    void 'Footprint of the clients is updated after their synchronisation'() {
+        def repository = bareRepository('test')
+        def factory = new GitRepositoryClientFactoryImpl(root)
+
+        def client = factory.getClient(repository)
+        assert factory.stats.packFiles == 0
+
+        client.sync({ println it })
+        def stats = factory.stats
+        assert stats.packFiles == 1
+        assert stats.memory > 0
+        // Not counted as an access
+        assert stats.hitCount == 0
+    }
+
+    @Test
+    void 'Clients of the same repository share their synchronisation lock'() {
+        def repository = bareRepository('test')
+        def factory = new GitRepositoryClientFactoryImpl(root)
+
+        def client = factory.getClient(repository)
+        client.sync({ println it })
+        // New client for the same working directory, with other credentials
+        def other = factory.getClient(new GitRepository('file', 'test', repository.remote, 'user', 'password'))
+        assert !other.is(client)
+
+        // Synchronisation of the first client in progress
+        def lock = client.@sync
+        assert other.@sync.is(lock)
+        lock.lock()
+        try {
+            assert other.synchronisationStatus == GitSynchronisationStatus.RUNNING
+            def messages = []
+            Thread.start { other.sync({ messages << it }) }.join()
+            assert messages == ["[git] ${repository.remote} is already synchronising, trying later" as String]
+        } finally {
+            lock.unlock()
+        }
+        assert other.synchronisationStatus == GitSynchronisationStatus.IDLE
+    }
+
+    @Test
+    void 'Clients are evicted according to the number of pack files'() {
+        def repository1 = bareRepository('test1')
+        def repository2 = bareRepository('test2')
+        // Room for one pack file only
+        def factory = new GitRepositoryClientFactoryImpl(root, GitRepositoryClientFactoryImpl.DEFAULT_MAX_MEMORY, 1)
+
+        def client1 = factory.getClient(repository1)
+        client1.sync({ println it })
+        assert factory.getClient(repository1).is(client1)
+
+        def client2 = factory.getClient(repository2)
+        client2.sync({ println it })
+        assert factory.getClient(repository2).is(client2)
+
+        def stats = factory.stats
+        assert stats.count == 1
+        assert stats.packFiles == 1
+        assert stats.evictionCount == 1
+
+        // Evicted client reopens its repository when used
+        assert client1.log('HEAD~2', 'HEAD').collect(Collectors.toList()).size() == 2
+        // ... but a new one is created
+        assert !factory.getClient(repository1).is(client1)
+    }
+
+    @Test
+    void 'Clients are evicted according to the memory'() {
+        def repository1 = bareRepository('test1')
+        def repository2 = bareRepository('test2')
+        // Room for less than two pack indexes
+        def factory = new GitRepositoryClientFactoryImpl(root, 1, GitRepositoryClientFactoryImpl.DEFAULT_MAX_PACK_FILES)
+
+        factory.getClient(repository1).sync({ println it })
+        factory.getClient(repository1)
+        factory.getClient(repository2).sync({ println it })
+        factory.getClient(repository2)
+
+        def stats = factory.stats
+        assert stats.count == 1
+        assert stats.evictionCount == 1
+    }
+
+}
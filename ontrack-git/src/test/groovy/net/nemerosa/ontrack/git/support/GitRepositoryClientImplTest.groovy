@@ -4,8 +4,14 @@ import net.nemerosa.ontrack.common.Time
 import net.nemerosa.ontrack.git.GitRepository
 import net.nemerosa.ontrack.git.GitRepositoryClient
 import net.nemerosa.ontrack.git.model.GitBranchesInfo
+import net.nemerosa.ontrack.git.model.GitSynchronisationStatus
 import org.junit.Test
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.locks.ReentrantLock
+import java.util.function.Consumer
 import java.util.stream.Collectors
 
 class GitRepositoryClientImplTest {
@@ -47,6 +53,85 @@ class GitRepositoryClientImplTest {
         }
     }
 
+    @Test
+    void 'List of branches while fetching'() {
+        GitRepo.prepare {
+            git 'init'
+            commit 1
+            git 'checkout', '-b', '2.1'
+            commit 2
+            git 'checkout', 'master'
+        } and { repoClient, GitRepo repo ->
+            File wd = File.createTempDir('ontrack-git', '')
+            try {
+                def fetching = new CountDownLatch(1)
+                def release = new CountDownLatch(1)
+                // Client whose fetch waits to be released
+                def client = new GitRepositoryClientImpl(wd, new GitRepository('file', 'test', repo.dir.absolutePath, '', '')) {
+                    @Override
+                    protected boolean fetch(Consumer<String> logger) {
+                        fetching.countDown()
+                        release.await()
+                        return super.fetch(logger)
+                    }
+                }
+                // Clone
+                client.sync({ println it })
+                // New commit on master
+                repo.commit 3
+                // Fetching in the background
+                def sync = Thread.start { client.sync({ println it }) }
+                assert fetching.await(10, TimeUnit.SECONDS)
+                // Branches are available, in their last fetched state
+                assert client.synchronisationStatus == GitSynchronisationStatus.RUNNING
+                def branches = client.branches.branches
+                assert branches.collect { it.name } == ['2.1', 'master']
+                assert branches[1].commit.shortMessage == 'Commit 1'
+                // End of the fetch
+                release.countDown()
+                sync.join()
+                assert client.synchronisationStatus == GitSynchronisationStatus.IDLE
+                assert client.branches.branches[1].commit.shortMessage == 'Commit 3'
+            } finally {
+                wd.deleteDir()
+                repo.close()
+            }
+        }
+    }
+
+    @Test
+    void 'No branches while another client of the working directory is cloning'() {
+        GitRepo.prepare {
+            git 'init'
+            commit 1
+            git 'checkout', '-b', '2.1'
+            commit 2
+            git 'checkout', 'master'
+        } and { repoClient, GitRepo repo ->
+            File wd = File.createTempDir('ontrack-git', '')
+            try {
+                def repository = new GitRepository('file', 'test', repo.dir.absolutePath, '', '')
+                // State shared by the clients of the working directory
+                def sync = new ReentrantLock()
+                def cloning = new AtomicBoolean(false)
+                def first = new GitRepositoryClientImpl(wd, repository, sync, cloning, {})
+                def second = new GitRepositoryClientImpl(wd, repository, sync, cloning, {})
+                first.sync({ println it })
+                assert second.branches.branches.collect { it.name } == ['2.1', 'master']
+                // The first client clones again
+                cloning.set(true)
+                assert second.branches.branches.empty
+                cloning.set(false)
+                assert second.branches.branches.collect { it.name } == ['2.1', 'master']
+                first.close()
+                second.close()
+            } finally {
+                wd.deleteDir()
+                repo.close()
+            }
+        }
+    }
+
     @Test
     void 'Log: between HEAD and a commit ~ 1'() {
         GitRepo.prepare {
@@ -33,4 +33,13 @@ public interface Job {
         return true;
     }
 
+    /**
+     * Jobs sharing the same affinity run preferably on the same scheduler, for example
+     * because they share some local state. By default, returns <code>null</code>: the job has
+     * no affinity.
+     */
+    default String getAffinity() {
+        return null;
+    }
+
 }
@@ -0,0 +1,32 @@
+package net.nemerosa.ontrack.job;
+
+import lombok.Value;
+
+/**
+ * Execution policy for the jobs of a category.
+ */
+@Value
+public class JobCategoryPolicy {
+
+    /**
+     * No limit, default priority and no back-off
+     */
+    public static final JobCategoryPolicy DEFAULT = new JobCategoryPolicy(0, 0, 1);
+
+    /**
+     * Maximum number of jobs of this category running at the same time, <code>0</code> for no limit.
+     */
+    private final int maxConcurrentRuns;
+
+    /**
+     * Jobs waiting for execution are started by decreasing priority.
+     */
+    private final int priority;
+
+    /**
+     * Maximum factor by which the period of a job is stretched when its runs find nothing to do,
+     * <code>1</code> (or less) for no back-off.
+     */
+    private final int maxBackOff;
+
+}
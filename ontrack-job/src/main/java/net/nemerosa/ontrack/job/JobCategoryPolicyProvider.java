@@ -0,0 +1,17 @@
+package net.nemerosa.ontrack.job;
+
+/**
+ * Gets the execution policy for a category of jobs. It is called each time a job
+ * is about to be started, so that any change is taken into account immediately.
+ */
+@FunctionalInterface
+public interface JobCategoryPolicyProvider {
+
+    /**
+     * Same policy for all categories
+     */
+    JobCategoryPolicyProvider NONE = category -> JobCategoryPolicy.DEFAULT;
+
+    JobCategoryPolicy getPolicy(JobCategory category);
+
+}
@@ -0,0 +1,38 @@
+package net.nemerosa.ontrack.job;
+
+import lombok.Data;
+
+/**
+ * Execution statistics for a category of jobs.
+ */
+@Data
+public class JobCategoryStatus {
+
+    private final JobCategory category;
+    private final JobCategoryPolicy policy;
+    /**
+     * Number of jobs currently running
+     */
+    private final int running;
+    /**
+     * Number of jobs waiting for execution
+     */
+    private final int queued;
+    /**
+     * Number of jobs started since the scheduler was created
+     */
+    private final long startCount;
+    /**
+     * Total time spent by the started jobs in the queue
+     */
+    private final long totalWaitMs;
+    /**
+     * Maximum time spent by a job in the queue
+     */
+    private final long maxWaitMs;
+
+    public long getAverageWaitMs() {
+        return startCount > 0 ? totalWaitMs / startCount : 0;
+    }
+
+}
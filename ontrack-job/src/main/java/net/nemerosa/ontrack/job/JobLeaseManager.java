@@ -0,0 +1,51 @@
+package net.nemerosa.ontrack.job;
+
+/**
+ * Grants the right to run a job, when several schedulers share the same jobs,
+ * like when several instances of the application run side by side.
+ */
+public interface JobLeaseManager {
+
+    /**
+     * Always grants the right to run
+     */
+    JobLeaseManager NONE = new JobLeaseManager() {
+        @Override
+        public boolean acquire(Job job) {
+            return true;
+        }
+
+        @Override
+        public void release(Job job, long holdMs) {
+        }
+    };
+
+    /**
+     * Tries to get the right to run the job now.
+     *
+     * @param job Job to run
+     * @return <code>true</code> if the job can be run
+     */
+    boolean acquire(Job job);
+
+    /**
+     * Tries to get the right to run the job now.
+     *
+     * @param job       Job to run
+     * @param triggered <code>true</code> if the run was triggered by an external event, in which case the right
+     *                  may be taken from another scheduler which is not running the job
+     * @return <code>true</code> if the job can be run
+     */
+    default boolean acquire(Job job, boolean triggered) {
+        return acquire(job);
+    }
+
+    /**
+     * Called after a run, when the right to run was granted.
+     *
+     * @param job    Job which has run
+     * @param holdMs Time during which the job must not be run by another scheduler
+     */
+    void release(Job job, long holdMs);
+
+}
@@ -16,6 +16,13 @@ public interface JobRunListener {
         progress(JobRunProgress.message(pattern, parameters));
     }
 
+    /**
+     * Signals that the current run found nothing new. The scheduler may then run the job less often,
+     * according to the back-off of its category.
+     */
+    default void unchanged() {
+    }
+
     static JobRunListener logger(Logger logger) {
         return value -> logger.debug(value.getText());
     }
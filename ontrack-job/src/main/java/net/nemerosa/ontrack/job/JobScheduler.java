@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.job;
 
+import net.nemerosa.ontrack.job.support.JobNotRunException;
 import net.nemerosa.ontrack.job.support.JobNotScheduledException;
 
 import java.util.Collection;
@@ -92,15 +93,36 @@ public interface JobScheduler {
      */
     Collection<JobStatus> getJobStatuses();
 
+    /**
+     * Gets the execution statistics per category of jobs
+     *
+     * @return Statistics for the categories having run at least one job (never null)
+     */
+    Collection<JobCategoryStatus> getCategoryStatuses();
+
     /**
      * Fires a job immediately, without waiting the schedule
      *
      * @param jobKey Key of the job to fire immediately
-     * @return Future for the job execution
+     * @return Future for the job execution, which fails with a {@link JobNotRunException} if another
+     * scheduler holds the job
      * @throws JobNotScheduledException If the job is not scheduled
      */
     Optional<Future<?>> fireImmediately(JobKey jobKey);
 
+    /**
+     * Requests a job to run as soon as possible, typically because an external event signalled
+     * that there is something new for it. The back-off of the job is reset.
+     * <p>
+     * Triggers are coalesced: if the job is already running, it runs only once more after its
+     * current execution, whatever the number of triggers received in the meantime.
+     * Unlike {@link #fireImmediately(JobKey)}, a paused job is not run.
+     *
+     * @param jobKey Key of the job to trigger
+     * @return <code>false</code> if the job is not scheduled
+     */
+    boolean trigger(JobKey jobKey);
+
     /**
      * Gets the job key for a job id
      */
@@ -23,6 +23,11 @@ public class JobStatus {
     private final LocalDateTime nextRunDate;
     private final long lastErrorCount;
     private final String lastError;
+    /**
+     * Number of runs which did not take place because another scheduler held the job
+     */
+    private final long notRunCount;
+    private final LocalDateTime lastNotRunDate;
 
     public JobState getState() {
         if (running) {
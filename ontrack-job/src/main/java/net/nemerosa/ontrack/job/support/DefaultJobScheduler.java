@@ -14,6 +14,7 @@ import java.util.Optional;
 import java.util.TreeMap;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
@@ -26,7 +27,10 @@ public class DefaultJobScheduler implements JobScheduler {
     private final JobDecorator jobDecorator;
     private final ScheduledExecutorService schedulerPool;
     private final JobListener jobListener;
+    private final JobCategoryPolicyProvider categoryPolicyProvider;
     private final BiFunction<ExecutorService, Job, ExecutorService> jobPoolProvider;
+    private final JobDispatcher jobDispatcher;
+    private final JobLeaseManager jobLeaseManager;
 
     private final Map<JobKey, JobScheduledService> services = new ConcurrentHashMap<>(new TreeMap<>());
     private final AtomicBoolean schedulerPaused;
@@ -62,6 +66,37 @@ public class DefaultJobScheduler implements JobScheduler {
             BiFunction<ExecutorService, Job, ExecutorService> jobPoolProvider,
             boolean scattering,
             double scatteringRatio
+    ) {
+        this(
+                jobDecorator,
+                schedulerPool,
+                jobListener,
+                initiallyPaused,
+                jobPoolProvider,
+                scattering,
+                scatteringRatio,
+                JobCategoryPolicyProvider.NONE,
+                0,
+                JobLeaseManager.NONE
+        );
+    }
+
+    /**
+     * @param categoryPolicyProvider Limits and priorities per category of jobs
+     * @param maxConcurrentRuns      Maximum number of jobs running at the same time, <code>0</code> for no limit
+     * @param jobLeaseManager        Right to run the jobs, when they are shared with other schedulers
+     */
+    public DefaultJobScheduler(
+            JobDecorator jobDecorator,
+            ScheduledExecutorService schedulerPool,
+            JobListener jobListener,
+            boolean initiallyPaused,
+            BiFunction<ExecutorService, Job, ExecutorService> jobPoolProvider,
+            boolean scattering,
+            double scatteringRatio,
+            JobCategoryPolicyProvider categoryPolicyProvider,
+            int maxConcurrentRuns,
+            JobLeaseManager jobLeaseManager
     ) {
         Validate.inclusiveBetween(0.0, 1.0, scatteringRatio);
         this.jobDecorator = jobDecorator;
@@ -71,6 +106,9 @@ public class DefaultJobScheduler implements JobScheduler {
         this.jobPoolProvider = jobPoolProvider;
         this.scattering = scattering;
         this.scatteringRatio = scatteringRatio;
+        this.categoryPolicyProvider = categoryPolicyProvider;
+        this.jobDispatcher = new JobDispatcher(categoryPolicyProvider, maxConcurrentRuns);
+        this.jobLeaseManager = jobLeaseManager;
     }
 
     @Override
@@ -204,6 +242,11 @@ public class DefaultJobScheduler implements JobScheduler {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Collection<JobCategoryStatus> getCategoryStatuses() {
+        return jobDispatcher.getCategoryStatuses();
+    }
+
     @Override
     public Optional<Future<?>> fireImmediately(JobKey jobKey) {
         // Gets the existing scheduled service
@@ -212,7 +255,19 @@ public class DefaultJobScheduler implements JobScheduler {
             throw new JobNotScheduledException(jobKey);
         }
         // Fires the job immediately
-        return jobScheduledService.doRun(true);
+        return jobScheduledService.doRun(true, false);
+    }
+
+    @Override
+    public boolean trigger(JobKey jobKey) {
+        JobScheduledService jobScheduledService = services.get(jobKey);
+        if (jobScheduledService != null) {
+            jobScheduledService.trigger();
+            return true;
+        } else {
+            logger.debug("[job][trigger]{} Not scheduled", jobKey);
+            return false;
+        }
     }
 
     protected ExecutorService getExecutorService(Job job) {
@@ -236,6 +291,16 @@ public class DefaultJobScheduler implements JobScheduler {
         private final AtomicLong lastRunDurationMs = new AtomicLong();
         private final AtomicLong lastErrorCount = new AtomicLong();
         private final AtomicReference<String> lastError = new AtomicReference<>(null);
+        private final AtomicLong notRunCount = new AtomicLong();
+        private final AtomicReference<LocalDateTime> lastNotRunDate = new AtomicReference<>();
+
+        // Back-off: current factor applied to the period, and scheduled runs still to skip
+        private final AtomicInteger backOff = new AtomicInteger(1);
+        private final AtomicInteger skippedRuns = new AtomicInteger();
+        private final AtomicBoolean runUnchanged = new AtomicBoolean();
+        // Triggered while running
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean rerun = new AtomicBoolean();
 
         private JobScheduledService(Job job, Schedule schedule, ScheduledExecutorService scheduledExecutorService, JobScheduledService old, boolean pausedAtStartup) {
             this.id = idGenerator.incrementAndGet();
@@ -253,6 +318,8 @@ public class DefaultJobScheduler implements JobScheduler {
                 lastRunDurationMs.set(old.lastRunDurationMs.get());
                 lastErrorCount.set(old.lastErrorCount.get());
                 lastError.set(old.lastError.get());
+                notRunCount.set(old.notRunCount.get());
+                lastNotRunDate.set(old.lastNotRunDate.get());
             }
             // Converting all units to milliseconds
             long initialPeriod = TimeUnit.MILLISECONDS.convert(schedule.getInitialPeriod(), schedule.getUnit());
@@ -302,11 +369,52 @@ public class DefaultJobScheduler implements JobScheduler {
         @Override
         public void run() {
             if (!schedulerPaused.get()) {
-                doRun(false);
+                if (skippedRuns.get() > 0) {
+                    logger.debug("[job][run]{} Skipped because of back-off ({} runs left)", job.getKey(), skippedRuns.decrementAndGet());
+                } else {
+                    doRun(false, false);
+                }
+            }
+        }
+
+        public void trigger() {
+            logger.debug("[job][trigger]{} Triggered", job.getKey());
+            resetBackOff();
+            // An execution still waiting to start will see the changes anyway
+            if (!doRun(false, true).isPresent() && currentExecution.get() != null && started.get()) {
+                logger.debug("[job][trigger]{} Running - will run again after the current execution", job.getKey());
+                rerun.set(true);
+                // The execution may have completed in the meantime
+                rerunIfTriggered();
+            }
+        }
+
+        private void rerunIfTriggered() {
+            if (currentExecution.get() == null && rerun.getAndSet(false)) {
+                logger.debug("[job][trigger]{} Running again after being triggered", job.getKey());
+                doRun(false, true);
+            }
+        }
+
+        private void resetBackOff() {
+            backOff.set(1);
+            skippedRuns.set(0);
+        }
+
+        /**
+         * Doubles the back-off of the job, up to the maximum allowed by its category.
+         */
+        private void increaseBackOff() {
+            int max = categoryPolicyProvider.getPolicy(job.getKey().getType().getCategory()).getMaxBackOff();
+            int factor = Math.max(1, Math.min(backOff.get() * 2, max));
+            if (factor > 1) {
+                logger.debug("[job][run]{} Nothing new - back-off x{}", job.getKey(), factor);
             }
+            backOff.set(factor);
+            skippedRuns.set(factor - 1);
         }
 
-        protected Optional<Future<?>> doRun(boolean force) {
+        protected Optional<Future<?>> doRun(boolean force, boolean triggered) {
             logger.debug("[job][run]{} Trying to run now - forced = {}", job.getKey(), force);
             if (job.isValid()) {
                 if (job.isDisabled()) {
@@ -320,12 +428,12 @@ public class DefaultJobScheduler implements JobScheduler {
                     return Optional.empty();
                 } else {
                     // Task to run
-                    Runnable run = getRun();
+                    Runnable run = getRun(triggered);
                     // Gets the executor for this job
                     ExecutorService executor = getExecutorService(job);
-                    // Scheduling
+                    // Queuing, according to the category of the job
                     logger.debug("[job][run]{} Job task submitted asynchronously", job.getKey());
-                    Future<?> execution = executor.submit(run);
+                    Future<?> execution = jobDispatcher.submit(job.getKey().getType().getCategory(), executor, run);
                     currentExecution.set(execution);
                     return Optional.of(execution);
                 }
@@ -336,7 +444,7 @@ public class DefaultJobScheduler implements JobScheduler {
             }
         }
 
-        private Runnable getRun() {
+        private Runnable getRun(boolean triggered) {
             JobRunListener jobRunListener = new DefaultJobRunListener();
             // Initial task
             Runnable rootTask = () -> job.getTask().run(jobRunListener);
@@ -357,6 +465,7 @@ public class DefaultJobScheduler implements JobScheduler {
                     logger.debug("[job][task]{} On start", job.getKey());
                     lastRunDate.set(Time.now());
                     runCount.incrementAndGet();
+                    runUnchanged.set(false);
                     // Starting
                     jobListener.onJobStart(job.getKey());
                 }
@@ -370,12 +479,19 @@ public class DefaultJobScheduler implements JobScheduler {
                     // No error - resetting the counters
                     lastErrorCount.set(0);
                     lastError.set(null);
+                    // Back-off
+                    if (runUnchanged.get()) {
+                        increaseBackOff();
+                    } else {
+                        resetBackOff();
+                    }
                 }
 
                 @Override
                 public void onFailure(Exception ex) {
                     lastErrorCount.incrementAndGet();
                     lastError.set(ex.getMessage());
+                    resetBackOff();
                     // Only writing the error in debug mode, we count on the job listener
                     // to log the error properly
                     logger.debug("[job][task]{} Failure: {}", job.getKey(), ex.getMessage());
@@ -392,7 +508,49 @@ public class DefaultJobScheduler implements JobScheduler {
                 }
             };
             // Monitored task
-            return new MonitoredRun(runnable, monitoredRunListener);
+            Runnable monitoredRun = new MonitoredRun(runnable, monitoredRunListener);
+            // Runs only if no other scheduler is running the job
+            return () -> {
+                try {
+                    if (acquire(triggered)) {
+                        started.set(true);
+                        try {
+                            monitoredRun.run();
+                        } finally {
+                            started.set(false);
+                            release();
+                        }
+                    } else {
+                        logger.info("[job][task]{} Not run because held by another scheduler", job.getKey());
+                        notRunCount.incrementAndGet();
+                        lastNotRunDate.set(Time.now());
+                        currentExecution.set(null);
+                        // Outcome for the callers waiting for the run
+                        throw new JobNotRunException(job.getKey());
+                    }
+                } finally {
+                    // Triggered during the execution
+                    rerunIfTriggered();
+                }
+            };
+        }
+
+        private boolean acquire(boolean triggered) {
+            try {
+                return jobLeaseManager.acquire(job, triggered);
+            } catch (RuntimeException ex) {
+                logger.error(String.format("[job][task]%s Cannot get the right to run", job.getKey()), ex);
+                return false;
+            }
+        }
+
+        private void release() {
+            try {
+                // Other schedulers must not run the job before its next run is due
+                jobLeaseManager.release(job, actualSchedule.getPeriod() * backOff.get());
+            } catch (RuntimeException ex) {
+                logger.error(String.format("[job][task]%s Cannot release the right to run", job.getKey()), ex);
+            }
         }
 
         public boolean stop() {
@@ -433,7 +591,9 @@ public class DefaultJobScheduler implements JobScheduler {
                     lastRunDurationMs.get(),
                     getNextRunDate(valid),
                     lastErrorCount.get(),
-                    lastError.get()
+                    lastError.get(),
+                    notRunCount.get(),
+                    lastNotRunDate.get()
             );
         }
 
@@ -474,6 +634,11 @@ public class DefaultJobScheduler implements JobScheduler {
                 runProgress.set(progress);
             }
 
+            @Override
+            public void unchanged() {
+                runUnchanged.set(true);
+            }
+
         }
 
     }
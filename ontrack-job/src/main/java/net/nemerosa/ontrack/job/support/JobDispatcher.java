@@ -0,0 +1,182 @@
+package net.nemerosa.ontrack.job.support;
+
+import net.nemerosa.ontrack.job.JobCategory;
+import net.nemerosa.ontrack.job.JobCategoryPolicy;
+import net.nemerosa.ontrack.job.JobCategoryPolicyProvider;
+import net.nemerosa.ontrack.job.JobCategoryStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Queue of the job executions, which starts them according to their category policy.
+ * <p>
+ * Executions are started by decreasing priority of their category, and then in order of submission, as long
+ * as neither the global limit nor the limit of their category is reached. An execution whose category is full
+ * does not prevent the executions of other categories from starting.
+ */
+class JobDispatcher {
+
+    private final Logger logger = LoggerFactory.getLogger(JobDispatcher.class);
+
+    private final JobCategoryPolicyProvider policyProvider;
+    private final int maxConcurrentRuns;
+
+    private final SortedSet<PendingRun> queue = new TreeSet<>(
+            Comparator.<PendingRun>comparingInt(run -> -run.priority).thenComparingLong(run -> run.sequence)
+    );
+    private final Map<String, CategoryStats> categories = new TreeMap<>();
+    private int running = 0;
+    private long sequence = 0;
+
+    /**
+     * @param policyProvider    Policy per category
+     * @param maxConcurrentRuns Maximum number of executions running at the same time, <code>0</code> for no limit
+     */
+    JobDispatcher(JobCategoryPolicyProvider policyProvider, int maxConcurrentRuns) {
+        this.policyProvider = policyProvider;
+        this.maxConcurrentRuns = maxConcurrentRuns;
+    }
+
+    /**
+     * Queues an execution.
+     *
+     * @param category Category of the job
+     * @param executor Executor to run the job into
+     * @param task     Task to run
+     * @return Future for the execution, which can be cancelled while still queued
+     */
+    Future<?> submit(JobCategory category, ExecutorService executor, Runnable task) {
+        FutureTask<?> future = new FutureTask<>(task, null);
+        synchronized (this) {
+            CategoryStats stats = categories.computeIfAbsent(category.getKey(), key -> new CategoryStats(category));
+            stats.queued++;
+            queue.add(new PendingRun(
+                    stats,
+                    executor,
+                    future,
+                    policyProvider.getPolicy(category).getPriority(),
+                    sequence++,
+                    System.currentTimeMillis()
+            ));
+        }
+        dispatch();
+        return future;
+    }
+
+    synchronized Collection<JobCategoryStatus> getCategoryStatuses() {
+        return categories.values().stream()
+                .map(stats -> new JobCategoryStatus(
+                        stats.category,
+                        policyProvider.getPolicy(stats.category),
+                        stats.running,
+                        stats.queued,
+                        stats.startCount,
+                        stats.totalWaitMs,
+                        stats.maxWaitMs
+                ))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Starts the queued executions, as long as some are allowed to run.
+     */
+    private void dispatch() {
+        PendingRun next;
+        while ((next = poll()) != null) {
+            PendingRun run = next;
+            try {
+                run.executor.execute(() -> {
+                    try {
+                        run.future.run();
+                    } finally {
+                        release(run);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                logger.warn("[job][dispatch]{} Execution rejected", run.stats.category);
+                run.future.cancel(false);
+                release(run);
+            }
+        }
+    }
+
+    private void release(PendingRun run) {
+        synchronized (this) {
+            running--;
+            run.stats.running--;
+        }
+        dispatch();
+    }
+
+    /**
+     * Gets the next execution allowed to run, and counts it as running.
+     */
+    private synchronized PendingRun poll() {
+        if (maxConcurrentRuns > 0 && running >= maxConcurrentRuns) {
+            return null;
+        }
+        Iterator<PendingRun> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            PendingRun run = iterator.next();
+            CategoryStats stats = run.stats;
+            if (run.future.isCancelled()) {
+                // Stopped while waiting
+                iterator.remove();
+                stats.queued--;
+            } else {
+                int limit = policyProvider.getPolicy(stats.category).getMaxConcurrentRuns();
+                if (limit <= 0 || stats.running < limit) {
+                    iterator.remove();
+                    stats.queued--;
+                    stats.running++;
+                    running++;
+                    long wait = System.currentTimeMillis() - run.submission;
+                    stats.startCount++;
+                    stats.totalWaitMs += wait;
+                    stats.maxWaitMs = Math.max(stats.maxWaitMs, wait);
+                    return run;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class CategoryStats {
+        private final JobCategory category;
+        private int running;
+        private int queued;
+        private long startCount;
+        private long totalWaitMs;
+        private long maxWaitMs;
+
+        private CategoryStats(JobCategory category) {
+            this.category = category;
+        }
+    }
+
+    private static class PendingRun {
+        private final CategoryStats stats;
+        private final ExecutorService executor;
+        private final FutureTask<?> future;
+        private final int priority;
+        private final long sequence;
+        private final long submission;
+
+        private PendingRun(CategoryStats stats, ExecutorService executor, FutureTask<?> future, int priority, long sequence, long submission) {
+            this.stats = stats;
+            this.executor = executor;
+            this.future = future;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.submission = submission;
+        }
+    }
+
+}
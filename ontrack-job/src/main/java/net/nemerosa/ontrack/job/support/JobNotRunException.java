@@ -0,0 +1,13 @@
+package net.nemerosa.ontrack.job.support;
+
+import net.nemerosa.ontrack.common.BaseException;
+import net.nemerosa.ontrack.job.JobKey;
+
+/**
+ * Outcome of a run which did not take place because another scheduler holds the job.
+ */
+public class JobNotRunException extends BaseException {
+    public JobNotRunException(JobKey key) {
+        super("Job with key %s has not been run because another scheduler holds it.", key);
+    }
+}
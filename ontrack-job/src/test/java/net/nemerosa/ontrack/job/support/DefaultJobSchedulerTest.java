@@ -14,6 +14,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -58,6 +60,21 @@ public class DefaultJobSchedulerTest {
         );
     }
 
+    protected JobScheduler createJobScheduler(JobCategoryPolicy policy) {
+        return new DefaultJobScheduler(
+                NOPJobDecorator.INSTANCE,
+                schedulerPool,
+                NOPJobListener.INSTANCE,
+                false,
+                (pool, job) -> jobPool,
+                false,
+                1.0,
+                category -> policy,
+                0,
+                JobLeaseManager.NONE
+        );
+    }
+
     @Test
     public void schedule() throws InterruptedException {
         JobScheduler jobScheduler = createJobScheduler();
@@ -509,6 +526,159 @@ public class DefaultJobSchedulerTest {
         assertFalse(jobScheduler.getJobStatus(job.getKey()).isPresent());
     }
 
+    @Test
+    public void job_not_run_without_lease() throws InterruptedException {
+        AtomicBoolean granted = new AtomicBoolean(false);
+        AtomicInteger releases = new AtomicInteger();
+        JobScheduler jobScheduler = new DefaultJobScheduler(
+                NOPJobDecorator.INSTANCE,
+                schedulerPool,
+                NOPJobListener.INSTANCE,
+                false,
+                (pool, job) -> jobPool,
+                false,
+                1.0,
+                JobCategoryPolicyProvider.NONE,
+                0,
+                new JobLeaseManager() {
+                    @Override
+                    public boolean acquire(Job job) {
+                        return granted.get();
+                    }
+
+                    @Override
+                    public void release(Job job, long holdMs) {
+                        assertEquals(1000, holdMs);
+                        releases.incrementAndGet();
+                    }
+                }
+        );
+        TestJob job = TestJob.of();
+        jobScheduler.schedule(job, Schedule.EVERY_SECOND);
+        tick_seconds(2);
+        // Run by another scheduler
+        assertEquals(0, job.getCount());
+        assertEquals(0, releases.get());
+        JobStatus status = jobScheduler.getJobStatus(job.getKey()).orElseThrow(() -> new IllegalStateException("No status"));
+        assertFalse(status.isRunning());
+        assertEquals(0, status.getRunCount());
+        assertEquals(3, status.getNotRunCount());
+        assertNotNull(status.getLastNotRunDate());
+        // Outcome of a run fired immediately
+        Future<?> future = jobScheduler.fireImmediately(job.getKey()).orElseThrow(noFutureException);
+        jobPool.runUntilIdle();
+        try {
+            future.get();
+            fail("The run must not have taken place");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof JobNotRunException);
+        }
+        assertEquals(0, job.getCount());
+        // Lease granted to this scheduler
+        granted.set(true);
+        tick_seconds(2);
+        assertEquals(2, job.getCount());
+        assertEquals(2, releases.get());
+    }
+
+    @Test
+    public void trigger_coalesced_while_waiting() {
+        JobScheduler jobScheduler = createJobScheduler();
+        TestJob job = TestJob.of();
+        jobScheduler.schedule(job, Schedule.EVERY_MINUTE.after(1));
+        assertTrue(jobScheduler.trigger(job.getKey()));
+        assertTrue(jobScheduler.trigger(job.getKey()));
+        assertTrue(jobScheduler.trigger(job.getKey()));
+        jobPool.runUntilIdle();
+        assertEquals(1, job.getCount());
+    }
+
+    @Test
+    public void trigger_while_running() {
+        JobScheduler jobScheduler = createJobScheduler();
+        AtomicInteger count = new AtomicInteger();
+        JobKey key = Fixtures.TEST_CATEGORY.getType("test").getKey("trigger");
+        Job job = new Job() {
+            @Override
+            public JobKey getKey() {
+                return key;
+            }
+
+            @Override
+            public JobRun getTask() {
+                return listener -> {
+                    // Triggered twice during the first run
+                    if (count.incrementAndGet() == 1) {
+                        jobScheduler.trigger(key);
+                        jobScheduler.trigger(key);
+                    }
+                };
+            }
+
+            @Override
+            public String getDescription() {
+                return "Trigger test";
+            }
+
+            @Override
+            public boolean isDisabled() {
+                return false;
+            }
+        };
+        jobScheduler.schedule(job, Schedule.EVERY_MINUTE.after(1));
+        jobScheduler.trigger(key);
+        jobPool.runUntilIdle();
+        // Runs only once again
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void trigger_not_scheduled() {
+        JobScheduler jobScheduler = createJobScheduler();
+        assertFalse(jobScheduler.trigger(TestJob.of().getKey()));
+    }
+
+    @Test
+    public void back_off_when_unchanged() {
+        JobScheduler jobScheduler = createJobScheduler(new JobCategoryPolicy(0, 0, 4));
+        TestJob job = TestJob.of().withUnchanged(true);
+        jobScheduler.schedule(job, Schedule.EVERY_SECOND);
+        // Runs at 0, 2, 6 and 10 seconds
+        tick_seconds(10);
+        assertEquals(4, job.getCount());
+        // Period no longer extended
+        job.setUnchanged(false);
+        tick_seconds(4);
+        assertEquals(5, job.getCount());
+        tick_seconds(2);
+        assertEquals(7, job.getCount());
+    }
+
+    @Test
+    public void back_off_reset_by_trigger() {
+        JobScheduler jobScheduler = createJobScheduler(new JobCategoryPolicy(0, 0, 4));
+        TestJob job = TestJob.of().withUnchanged(true);
+        jobScheduler.schedule(job, Schedule.EVERY_SECOND);
+        // Runs at 0 and 2 seconds, next run at 6 seconds
+        tick_seconds(3);
+        assertEquals(2, job.getCount());
+        // Triggered, and next scheduled run in 2 seconds
+        jobScheduler.trigger(job.getKey());
+        jobPool.runUntilIdle();
+        assertEquals(3, job.getCount());
+        tick_seconds(2);
+        assertEquals(4, job.getCount());
+    }
+
+    @Test
+    public void no_back_off_by_default() {
+        JobScheduler jobScheduler = createJobScheduler();
+        TestJob job = TestJob.of().withUnchanged(true);
+        jobScheduler.schedule(job, Schedule.EVERY_SECOND);
+        tick_seconds(3);
+        assertEquals(4, job.getCount());
+    }
+
     /**
      * Runs a piece of codes a given number of times
      *
@@ -0,0 +1,112 @@
+package net.nemerosa.ontrack.job.support;
+
+import net.nemerosa.ontrack.job.JobCategory;
+import net.nemerosa.ontrack.job.JobCategoryPolicy;
+import net.nemerosa.ontrack.job.JobCategoryStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.Future;
+
+import static net.nemerosa.ontrack.job.Fixtures.TEST_CATEGORY;
+import static net.nemerosa.ontrack.job.Fixtures.TEST_OTHER_CATEGORY;
+import static org.junit.Assert.*;
+
+public class JobDispatcherTest {
+
+    private SynchronousScheduledExecutorService jobPool;
+    private Map<JobCategory, JobCategoryPolicy> policies;
+    private List<String> runs;
+
+    @Before
+    public void before() {
+        jobPool = new SynchronousScheduledExecutorService();
+        policies = new HashMap<>();
+        runs = new ArrayList<>();
+    }
+
+    private JobDispatcher dispatcher(int maxConcurrentRuns) {
+        return new JobDispatcher(
+                category -> policies.getOrDefault(category, JobCategoryPolicy.DEFAULT),
+                maxConcurrentRuns
+        );
+    }
+
+    private Future<?> submit(JobDispatcher dispatcher, JobCategory category, String name) {
+        return dispatcher.submit(category, jobPool, () -> runs.add(name));
+    }
+
+    private JobCategoryStatus status(JobDispatcher dispatcher, JobCategory category) {
+        return dispatcher.getCategoryStatuses().stream()
+                .filter(status -> status.getCategory().equals(category))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No status for " + category));
+    }
+
+    @Test
+    public void no_limit() {
+        JobDispatcher dispatcher = dispatcher(0);
+        submit(dispatcher, TEST_CATEGORY, "a");
+        submit(dispatcher, TEST_CATEGORY, "b");
+        assertEquals(2, status(dispatcher, TEST_CATEGORY).getRunning());
+        jobPool.runUntilIdle();
+        assertEquals(Arrays.asList("a", "b"), runs);
+        assertEquals(0, status(dispatcher, TEST_CATEGORY).getRunning());
+        assertEquals(2, status(dispatcher, TEST_CATEGORY).getStartCount());
+    }
+
+    @Test
+    public void category_limit_does_not_block_other_categories() {
+        policies.put(TEST_CATEGORY, new JobCategoryPolicy(1, 0, 1));
+        JobDispatcher dispatcher = dispatcher(0);
+        submit(dispatcher, TEST_CATEGORY, "a");
+        submit(dispatcher, TEST_CATEGORY, "b");
+        submit(dispatcher, TEST_OTHER_CATEGORY, "c");
+        assertEquals(1, status(dispatcher, TEST_CATEGORY).getRunning());
+        assertEquals(1, status(dispatcher, TEST_CATEGORY).getQueued());
+        assertEquals(1, status(dispatcher, TEST_OTHER_CATEGORY).getRunning());
+        jobPool.runUntilIdle();
+        assertEquals(Arrays.asList("a", "c", "b"), runs);
+        assertEquals(0, status(dispatcher, TEST_CATEGORY).getQueued());
+    }
+
+    @Test
+    public void priorities() {
+        policies.put(TEST_OTHER_CATEGORY, new JobCategoryPolicy(0, 10, 1));
+        JobDispatcher dispatcher = dispatcher(1);
+        submit(dispatcher, TEST_CATEGORY, "a");
+        submit(dispatcher, TEST_CATEGORY, "b");
+        submit(dispatcher, TEST_OTHER_CATEGORY, "c");
+        submit(dispatcher, TEST_OTHER_CATEGORY, "d");
+        jobPool.runUntilIdle();
+        assertEquals(Arrays.asList("a", "c", "d", "b"), runs);
+    }
+
+    @Test
+    public void limit_changed_at_runtime() {
+        policies.put(TEST_CATEGORY, new JobCategoryPolicy(1, 0, 1));
+        JobDispatcher dispatcher = dispatcher(0);
+        submit(dispatcher, TEST_CATEGORY, "a");
+        submit(dispatcher, TEST_CATEGORY, "b");
+        assertEquals(1, status(dispatcher, TEST_CATEGORY).getQueued());
+        policies.remove(TEST_CATEGORY);
+        submit(dispatcher, TEST_CATEGORY, "c");
+        assertEquals(0, status(dispatcher, TEST_CATEGORY).getQueued());
+        assertEquals(3, status(dispatcher, TEST_CATEGORY).getRunning());
+    }
+
+    @Test
+    public void cancelled_while_queued() {
+        JobDispatcher dispatcher = dispatcher(1);
+        submit(dispatcher, TEST_CATEGORY, "a");
+        Future<?> future = submit(dispatcher, TEST_CATEGORY, "b");
+        submit(dispatcher, TEST_CATEGORY, "c");
+        assertTrue(future.cancel(true));
+        jobPool.runUntilIdle();
+        assertEquals(Arrays.asList("a", "c"), runs);
+        assertEquals(0, status(dispatcher, TEST_CATEGORY).getQueued());
+        assertEquals(2, status(dispatcher, TEST_CATEGORY).getStartCount());
+    }
+
+}
@@ -22,6 +22,7 @@ public class TestJob implements Job {
                 "test",
                 false,
                 0L,
+                false,
                 true,
                 false
         );
@@ -37,6 +38,8 @@ public class TestJob implements Job {
     private boolean fail = false;
     @Wither
     private long wait = 0;
+    @Wither
+    private boolean unchanged = false;
     private boolean valid = true;
     private boolean disabled = false;
 
@@ -64,6 +67,9 @@ public class TestJob implements Job {
             }
             count++;
             listener.message("TEST JOB %s Count = %d", name, count);
+            if (unchanged) {
+                listener.unchanged();
+            }
         };
     }
 
@@ -0,0 +1,60 @@
+package net.nemerosa.ontrack.load
+
+/**
+ * Records the latencies and the errors of one operation, from several threads.
+ */
+class LatencyRecorder {
+
+    private long[] latencies = new long[1024]
+    private int count = 0
+    private int errors = 0
+
+    /**
+     * Records a successful call
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    synchronized void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2)
+        }
+        latencies[count++] = nanos
+    }
+
+    synchronized void error() {
+        errors++
+    }
+
+    synchronized int getCount() {
+        return count
+    }
+
+    synchronized int getErrors() {
+        return errors
+    }
+
+    /**
+     * Gets the latencies, sorted
+     */
+    synchronized long[] getSortedLatencies() {
+        long[] sorted = Arrays.copyOf(latencies, count)
+        Arrays.sort(sorted)
+        return sorted
+    }
+
+    /**
+     * Percentile of sorted latencies, using the nearest rank
+     *
+     * @param sorted     Sorted latencies
+     * @param percentile Percentile, between 0 and 100
+     * @return Latency, or 0 if there is no latency
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length)
+        sorted[Math.min(Math.max(rank, 1), sorted.length) - 1]
+    }
+
+}
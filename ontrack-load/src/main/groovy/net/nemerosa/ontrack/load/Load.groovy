@@ -0,0 +1,139 @@
+package net.nemerosa.ontrack.load
+
+import net.nemerosa.ontrack.dsl.OntrackConnection
+import org.kohsuke.args4j.CmdLineException
+import org.kohsuke.args4j.CmdLineParser
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Load test against a running instance of Ontrack, using the DSL.
+ * <p>
+ * Each client thread runs the operations back to back, choosing each of them at random according
+ * to their weights. The latencies of the warm-up are discarded.
+ */
+class Load {
+
+    private static final Logger logger = LoggerFactory.getLogger(Load)
+
+    private final LoadOptions options
+    private final Map<String, Integer> weights
+
+    /**
+     * Recorders the clients are currently using, indexed by operation name
+     */
+    private volatile Map<String, LatencyRecorder> recorders
+
+    private volatile boolean running = true
+
+    Load(LoadOptions options) {
+        this.options = options
+        this.weights = LoadOperations.mix(options.mix)
+    }
+
+    LoadReport run() {
+        // Connection
+        def ontrack = OntrackConnection.create(options.url)
+                .disableSsl(options.disableSsl)
+                .authenticate(options.user, options.password)
+                .build()
+        // Projects, branches & builds
+        logger.info "[load] Setting up ${options.projects} project(s) with ${options.branches} branch(es) each"
+        def context = new LoadContext(ontrack)
+        context.setup(options)
+        // Clients
+        recorders = newRecorders()
+        def done = new CountDownLatch(options.threads)
+        def clients = (0..<options.threads).collect { index ->
+            Thread thread = new Thread({
+                try {
+                    client(context, new Random(options.seed + index))
+                } finally {
+                    done.countDown()
+                }
+            }, "load-${index}")
+            thread.start()
+            thread
+        }
+        // Warm-up
+        logger.info "[load] Warming up ${clients.size()} client(s) for ${options.warmup} s"
+        TimeUnit.SECONDS.sleep(options.warmup)
+        // Measures
+        logger.info "[load] Measuring for ${options.duration} s"
+        recorders = newRecorders()
+        long start = System.nanoTime()
+        TimeUnit.SECONDS.sleep(options.duration)
+        // End of the window: the operations started from now on are not measured
+        def measured = recorders
+        recorders = newRecorders()
+        long elapsed = System.nanoTime() - start
+        // Stopping the clients
+        running = false
+        done.await()
+        // Report
+        new LoadReport(measured, elapsed)
+    }
+
+    private Map<String, LatencyRecorder> newRecorders() {
+        weights.keySet().collectEntries { [it, new LatencyRecorder()] }
+    }
+
+    private void client(LoadContext context, Random random) {
+        int total = weights.values().sum() as int
+        while (running) {
+            // Choice of the operation
+            int pick = random.nextInt(total)
+            String name = weights.find { operation, weight ->
+                pick -= weight
+                pick < 0
+            }.key
+            // Call
+            def recorder = recorders[name]
+            long start = System.nanoTime()
+            try {
+                LoadOperations.OPERATIONS[name](context, random)
+                recorder.record(System.nanoTime() - start)
+            } catch (Exception ex) {
+                recorder.error()
+                logger.debug "[load] Error on ${name}", ex
+            }
+        }
+    }
+
+    static void main(String... args) {
+        def options = new LoadOptions()
+        def parser = new CmdLineParser(options)
+        // Help?
+        if (args.contains("--help") || args.contains("-h")) {
+            parser.printUsage(System.out)
+            return
+        }
+        // Parsing
+        try {
+            parser.parseArgument(args)
+        } catch (CmdLineException ex) {
+            System.err.println ex.message
+            parser.printUsage(System.out)
+            System.exit(-1)
+        }
+        // Load
+        def load
+        try {
+            load = new Load(options)
+        } catch (IllegalArgumentException ex) {
+            System.err.println ex.message
+            System.exit(-1)
+        }
+        def report = load.run()
+        // Report
+        report.print(new PrintWriter(System.out))
+        if (options.output) {
+            options.output.text = report.toJson()
+            logger.info "[load] Report written at ${options.output}"
+        }
+    }
+
+}
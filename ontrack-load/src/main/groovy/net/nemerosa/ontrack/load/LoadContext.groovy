@@ -0,0 +1,142 @@
+package net.nemerosa.ontrack.load
+
+import net.nemerosa.ontrack.dsl.Branch
+import net.nemerosa.ontrack.dsl.Build
+import net.nemerosa.ontrack.dsl.Ontrack
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+/**
+ * Projects, branches and builds the load test works on.
+ */
+class LoadContext {
+
+    static final List<String> PROMOTION_LEVELS = ['BRONZE', 'SILVER', 'GOLD']
+    static final List<String> VALIDATION_STAMPS = ['BUILD', 'UNIT', 'INTEGRATION']
+
+    /**
+     * Number of recent builds kept for each branch
+     */
+    static final int RECENT_BUILDS = 20
+
+    private final Logger logger = LoggerFactory.getLogger(LoadContext)
+
+    final Ontrack ontrack
+    final List<LoadBranch> branches = []
+
+    /**
+     * Prefix for the names of the builds, unique for each run
+     */
+    private final String run = Long.toString(System.currentTimeMillis(), 36)
+
+    LoadContext(Ontrack ontrack) {
+        this.ontrack = ontrack
+    }
+
+    /**
+     * Creates, or gets if they exist, the projects and branches, and creates the initial builds.
+     */
+    void setup(LoadOptions options) {
+        (1..options.projects).each { p ->
+            // Gets the project if it exists
+            def project = ontrack.project("${options.prefix}-${p}", '')
+            (1..options.branches).each { b ->
+                def branch = project.branch("${b}.0", '', true)
+                PROMOTION_LEVELS.each { branch.promotionLevel(it, '', true) }
+                VALIDATION_STAMPS.each { branch.validationStamp(it, '', true) }
+                def loadBranch = new LoadBranch(branch, run)
+                loadBranch.setup(options.builds)
+                branches << loadBranch
+                logger.info "[load] Branch ${project.name}/${branch.name} ready"
+            }
+        }
+    }
+
+    LoadBranch branch(Random random) {
+        branches[random.nextInt(branches.size())]
+    }
+
+    static class LoadBranch {
+
+        final Branch branch
+        private final String run
+
+        /**
+         * Builds created by the setup, newest first, known by all the clients
+         */
+        private final LinkedList<Build> initialBuilds = new LinkedList<>()
+
+        /**
+         * Recent builds as seen by each client, which knows only the builds it has created itself, so that
+         * its choices do not depend on the timing of the other clients
+         */
+        private final ThreadLocal<ClientBuilds> clientBuilds = ThreadLocal.withInitial { new ClientBuilds(initialBuilds) }
+
+        LoadBranch(Branch branch, String run) {
+            this.branch = branch
+            this.run = run
+        }
+
+        /**
+         * Creates the initial builds
+         */
+        void setup(int count) {
+            count.times {
+                addRecent(initialBuilds, branch.build("${run}-${it + 1}", ''))
+            }
+        }
+
+        /**
+         * Creates a build, named after the client
+         */
+        Build newBuild() {
+            def builds = clientBuilds.get()
+            def build = branch.build("${run}-${Thread.currentThread().name}-${++builds.number}", '')
+            addRecent(builds.recent, build)
+            build
+        }
+
+        /**
+         * One of the recent builds of this branch, or null if there is none
+         */
+        Build build(Random random) {
+            def builds = clientBuilds.get().recent
+            return builds.empty ? null : builds[random.nextInt(builds.size())]
+        }
+
+        /**
+         * Two consecutive recent builds, from the oldest to the newest
+         */
+        List<Build> consecutiveBuilds(Random random) {
+            def builds = clientBuilds.get().recent
+            if (builds.size() < 2) {
+                return []
+            }
+            int index = random.nextInt(builds.size() - 1)
+            return [builds[index + 1], builds[index]]
+        }
+
+        private static void addRecent(LinkedList<Build> builds, Build build) {
+            builds.addFirst(build)
+            if (builds.size() > RECENT_BUILDS) {
+                builds.removeLast()
+            }
+        }
+
+    }
+
+    /**
+     * Builds of a branch, as seen by a client
+     */
+    private static class ClientBuilds {
+
+        final LinkedList<Build> recent
+        int number = 0
+
+        ClientBuilds(List<Build> initialBuilds) {
+            recent = new LinkedList<>(initialBuilds)
+        }
+
+    }
+
+}
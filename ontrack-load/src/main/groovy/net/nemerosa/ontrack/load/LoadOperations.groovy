@@ -0,0 +1,105 @@
+package net.nemerosa.ontrack.load
+
+/**
+ * Operations run by the clients of the load test.
+ * <p>
+ * Each operation is a closure taking the {@link LoadContext} and the {@link Random}
+ * of the client.
+ */
+class LoadOperations {
+
+    /**
+     * Ingestion and reads, with their default weight
+     */
+    static final Map<String, Integer> DEFAULT_MIX = [
+            build    : 10,
+            validate : 25,
+            promote  : 5,
+            branch   : 25,
+            changelog: 5,
+            search   : 10,
+            graphql  : 20,
+    ]
+
+    static final Map<String, Closure> OPERATIONS = [
+            // Creation of a build
+            build    : { LoadContext context, Random random ->
+                context.branch(random).newBuild()
+            },
+            // Validation of a recent build
+            validate : { LoadContext context, Random random ->
+                def branch = context.branch(random)
+                def build = branch.build(random) ?: branch.newBuild()
+                build.validate(
+                        LoadContext.VALIDATION_STAMPS[random.nextInt(LoadContext.VALIDATION_STAMPS.size())],
+                        random.nextInt(10) == 0 ? 'FAILED' : 'PASSED'
+                )
+            },
+            // Promotion of a recent build
+            promote  : { LoadContext context, Random random ->
+                def branch = context.branch(random)
+                def build = branch.build(random) ?: branch.newBuild()
+                build.promote(LoadContext.PROMOTION_LEVELS[random.nextInt(LoadContext.PROMOTION_LEVELS.size())])
+            },
+            // Branch page
+            branch   : { LoadContext context, Random random ->
+                context.branch(random).branch.standardFilter(count: 10)
+            },
+            // Change log between two recent builds
+            changelog: { LoadContext context, Random random ->
+                def builds = context.branch(random).consecutiveBuilds(random)
+                if (builds) {
+                    builds[1].getChangeLog(builds[0])
+                }
+            },
+            // Search of a recent build
+            search   : { LoadContext context, Random random ->
+                def build = context.branch(random).build(random)
+                if (build) {
+                    context.ontrack.search(build.name)
+                }
+            },
+            // Builds of a branch, with their promotions and validations
+            graphql  : { LoadContext context, Random random ->
+                def branch = context.branch(random).branch
+                def result = context.ontrack.graphQLQuery('''
+                    query($id: Int) {
+                        branches(id: $id) {
+                            builds(count: 10) {
+                                name
+                                promotionRuns { promotionLevel { name } }
+                                validationRuns { validationStamp { name } validationRunStatuses { statusID { id } } }
+                            }
+                        }
+                    }
+                ''', [id: branch.id])
+                // GraphQL errors are returned in the response
+                if (result.errors) {
+                    throw new IllegalStateException("GraphQL errors: ${result.errors}")
+                }
+            },
+    ]
+
+    /**
+     * Gets the weights of the operations, from the default mix and the given weights
+     *
+     * @param mix Weights to override, indexed by operation name
+     * @return Weights of all the operations, indexed by operation name
+     * @throws IllegalArgumentException If an operation is not known or if no operation has a positive weight
+     */
+    static Map<String, Integer> mix(Map<String, String> mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>(DEFAULT_MIX)
+        mix.each { name, weight ->
+            if (!OPERATIONS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown operation: ${name}. Operations are: ${OPERATIONS.keySet().join(', ')}")
+            }
+            weights[name] = weight as int
+        }
+        weights = weights.findAll { name, weight -> weight > 0 }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation must have a positive weight")
+        }
+        return weights
+    }
+
+}
@@ -0,0 +1,50 @@
+package net.nemerosa.ontrack.load
+
+import org.kohsuke.args4j.Option
+import org.kohsuke.args4j.spi.MapOptionHandler
+
+class LoadOptions {
+
+    @Option(name = "--url", usage = "Ontrack URL")
+    String url = "http://localhost:8080"
+
+    @Option(name = "--user", aliases = "-u", usage = "Ontrack user, with the rights to create projects")
+    String user = "admin"
+
+    @Option(name = "--password", aliases = "-p", usage = "Ontrack password")
+    String password = "admin"
+
+    @Option(name = "--no-ssl", usage = "Disables SSL certificate checks")
+    boolean disableSsl = false
+
+    @Option(name = "--prefix", usage = "Prefix for the names of the projects used by the load test")
+    String prefix = "load"
+
+    @Option(name = "--projects", usage = "Number of projects")
+    int projects = 2
+
+    @Option(name = "--branches", usage = "Number of branches per project")
+    int branches = 5
+
+    @Option(name = "--builds", usage = "Number of builds created in each branch before the load test")
+    int builds = 20
+
+    @Option(name = "--threads", aliases = "-t", usage = "Number of concurrent clients")
+    int threads = 4
+
+    @Option(name = "--warmup", usage = "Duration (in seconds) of the warm-up, whose measures are discarded")
+    int warmup = 10
+
+    @Option(name = "--duration", aliases = "-d", usage = "Duration (in seconds) of the measures")
+    int duration = 60
+
+    @Option(name = "--seed", usage = "Seed for the random choices of the clients")
+    long seed = 0
+
+    @Option(name = "--mix", aliases = "-m", usage = "Weight of each operation, using operation=weight format", handler = MapOptionHandler)
+    Map<String, String> mix = [:]
+
+    @Option(name = "--output", aliases = "-o", usage = "Path to a JSON file to write the report into")
+    File output = null
+
+}
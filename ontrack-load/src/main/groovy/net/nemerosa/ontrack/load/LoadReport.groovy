@@ -0,0 +1,88 @@
+package net.nemerosa.ontrack.load
+
+import groovy.json.JsonOutput
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Throughput and latency percentiles of each operation of a load test.
+ */
+class LoadReport {
+
+    /**
+     * Percentiles of the latencies, indexed by their label
+     */
+    static final Map<String, Double> PERCENTILES = [
+            p50    : 50.0d,
+            p90    : 90.0d,
+            p99    : 99.0d,
+            'p99.9': 99.9d,
+    ]
+
+    private final Map<String, Map<String, ?>> operations
+    private final Map<String, ?> total
+
+    LoadReport(Map<String, LatencyRecorder> recorders, long elapsedNanos) {
+        double seconds = elapsedNanos / 1.0e9d
+        operations = recorders.collectEntries { name, recorder ->
+            [name, stats(recorder.sortedLatencies, recorder.errors, seconds)]
+        }
+        // All operations together
+        long[] all = recorders.values().collect { it.sortedLatencies.toList() }.flatten() as long[]
+        Arrays.sort(all)
+        total = stats(all, recorders.values().sum { it.errors } as int, seconds)
+    }
+
+    Map<String, Map<String, ?>> getOperations() {
+        operations
+    }
+
+    Map<String, ?> getTotal() {
+        total
+    }
+
+    private static Map<String, ?> stats(long[] sorted, int errors, double seconds) {
+        Map<String, Object> stats = [
+                count     : sorted.length,
+                errors    : errors,
+                throughput: sorted.length / seconds,
+        ]
+        PERCENTILES.each { label, percentile ->
+            stats[label] = millis(LatencyRecorder.percentile(sorted, percentile))
+        }
+        stats.max = millis(LatencyRecorder.percentile(sorted, 100.0d))
+        stats
+    }
+
+    private static double millis(long nanos) {
+        nanos / (double) TimeUnit.MILLISECONDS.toNanos(1)
+    }
+
+    /**
+     * Prints the report as a table, latencies being in milliseconds
+     */
+    void print(PrintWriter writer) {
+        String format = '%-10s %8s %8s %10s %9s %9s %9s %9s %9s%n'
+        List<String> header = ['operation', 'count', 'errors', 'ops/s'] + PERCENTILES.keySet() + ['max']
+        writer.format(format, header as Object[])
+        (operations + [total: total]).each { name, stats ->
+            List<String> latencies = (PERCENTILES.keySet().collect { stats[it] } + [stats.max]).collect {
+                String.format('%.1f', it)
+            }
+            List<?> row = [name, stats.count, stats.errors, String.format('%.1f', stats.throughput)] + latencies
+            writer.format(format, row as Object[])
+        }
+        writer.flush()
+    }
+
+    /**
+     * Report as JSON, in order to compare runs
+     */
+    String toJson() {
+        JsonOutput.prettyPrint(JsonOutput.toJson([
+                operations: operations,
+                total     : total,
+        ]))
+    }
+
+}
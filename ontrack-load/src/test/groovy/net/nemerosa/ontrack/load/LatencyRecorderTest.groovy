@@ -0,0 +1,63 @@
+package net.nemerosa.ontrack.load
+
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+
+class LatencyRecorderTest {
+
+    @Test
+    void 'No latency'() {
+        def recorder = new LatencyRecorder()
+        assertEquals 0, recorder.count
+        assertEquals 0L, LatencyRecorder.percentile(recorder.sortedLatencies, 99.0d)
+    }
+
+    @Test
+    void 'Latencies are sorted'() {
+        def recorder = new LatencyRecorder()
+        [30L, 10L, 20L].each { recorder.record(it) }
+        recorder.error()
+        assertEquals 3, recorder.count
+        assertEquals 1, recorder.errors
+        assertEquals([10L, 20L, 30L], recorder.sortedLatencies as List)
+    }
+
+    @Test
+    void 'Recording beyond the initial capacity'() {
+        def recorder = new LatencyRecorder()
+        (1..5000).each { recorder.record(it) }
+        assertEquals 5000, recorder.count
+        assertEquals 5000L, LatencyRecorder.percentile(recorder.sortedLatencies, 100.0d)
+    }
+
+    @Test
+    void 'Percentiles using the nearest rank'() {
+        long[] sorted = (1L..100L) as long[]
+        assertEquals 1L, LatencyRecorder.percentile(sorted, 0.0d)
+        assertEquals 50L, LatencyRecorder.percentile(sorted, 50.0d)
+        assertEquals 90L, LatencyRecorder.percentile(sorted, 90.0d)
+        assertEquals 99L, LatencyRecorder.percentile(sorted, 99.0d)
+        assertEquals 100L, LatencyRecorder.percentile(sorted, 99.9d)
+        assertEquals 100L, LatencyRecorder.percentile(sorted, 100.0d)
+    }
+
+    @Test
+    void 'Default mix'() {
+        assertEquals LoadOperations.DEFAULT_MIX, LoadOperations.mix([:])
+    }
+
+    @Test
+    void 'Mix overriding and disabling operations'() {
+        def weights = LoadOperations.mix([build: '50', changelog: '0'])
+        assertEquals 50, weights.build
+        assertEquals 25, weights.validate
+        assertEquals false, weights.containsKey('changelog')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void 'Mix with an unknown operation'() {
+        LoadOperations.mix([unknown: '10'])
+    }
+
+}
@@ -0,0 +1,100 @@
+package net.nemerosa.ontrack.load
+
+import net.nemerosa.ontrack.dsl.*
+import org.junit.Test
+
+import static org.junit.Assert.assertEquals
+
+class LoadContextTest {
+
+    /**
+     * Ontrack instance recording the entities which are asked for
+     */
+    static class StubOntrack extends Ontrack {
+
+        final List<String> calls = []
+
+        StubOntrack() {
+            super(null)
+        }
+
+        @Override
+        Project project(String name, String description) {
+            calls << "project:${name}".toString()
+            new StubProject(this, [id: calls.size(), name: name])
+        }
+    }
+
+    static class StubProject extends Project {
+
+        StubProject(StubOntrack ontrack, Map node) {
+            super(ontrack, node)
+        }
+
+        @Override
+        Branch branch(String name, String description, boolean getIfExists) {
+            assert getIfExists
+            ontrack.calls << "branch:${this.name}/${name}".toString()
+            new StubBranch(ontrack, [id: ontrack.calls.size(), name: name])
+        }
+    }
+
+    static class StubBranch extends Branch {
+
+        StubBranch(StubOntrack ontrack, Map node) {
+            super(ontrack, node)
+        }
+
+        @Override
+        PromotionLevel promotionLevel(String name, String description, boolean getIfExists) {
+            assert getIfExists
+            new PromotionLevel(ontrack, [name: name])
+        }
+
+        @Override
+        ValidationStamp validationStamp(String name, String description, boolean getIfExists) {
+            assert getIfExists
+            new ValidationStamp(ontrack, [name: name])
+        }
+
+        @Override
+        Build build(String name, String description) {
+            new Build(ontrack, [name: name])
+        }
+    }
+
+    @Test
+    void 'Setup of the projects, branches and builds'() {
+        def ontrack = new StubOntrack()
+        def context = new LoadContext(ontrack)
+        context.setup(new LoadOptions(prefix: 'test', projects: 2, branches: 2, builds: 3))
+
+        assertEquals([
+                'project:test-1', 'branch:test-1/1.0', 'branch:test-1/2.0',
+                'project:test-2', 'branch:test-2/1.0', 'branch:test-2/2.0',
+        ], ontrack.calls)
+        assertEquals 4, context.branches.size()
+        def random = new Random(0)
+        context.branches.each { branch ->
+            assert branch.consecutiveBuilds(random).size() == 2
+            assert branch.build(random).name =~ /-[123]$/
+        }
+    }
+
+    @Test
+    void 'Each client sees only the builds it has created'() {
+        def context = new LoadContext(new StubOntrack())
+        context.setup(new LoadOptions(prefix: 'test', projects: 1, branches: 1, builds: 1))
+        def branch = context.branches[0]
+
+        def created = null
+        Thread.start('load-0') { created = branch.newBuild() }.join()
+        assert created.name.endsWith('-load-0-1')
+
+        // Only the initial build for this client
+        assert branch.consecutiveBuilds(new Random(0)) == []
+        assert branch.build(new Random(0)).name.endsWith('-1')
+        assert branch.newBuild().name.endsWith("-${Thread.currentThread().name}-1")
+    }
+
+}
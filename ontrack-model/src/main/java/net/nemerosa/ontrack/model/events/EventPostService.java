@@ -1,13 +1,29 @@
 package net.nemerosa.ontrack.model.events;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 /**
  * Service used to save events.
  */
 public interface EventPostService {
 
     /**
-     * Posts an event for the record.
+     * Posts an event for the record, and notifies the listeners in the current transaction, unless
+     * within {@link #deferNotifications(Supplier)}.
      */
     void post(Event event);
 
+    /**
+     * Posts several events for the record. The events are saved in the current transaction
+     * but the listeners are notified only once this transaction has been committed.
+     */
+    void post(List<Event> events);
+
+    /**
+     * Runs some code, the listeners of all the events it posts being notified only once the current
+     * transaction has been committed. Used by the bulk operations.
+     */
+    <T> T deferNotifications(Supplier<T> code);
+
 }
@@ -1,9 +1,6 @@
 package net.nemerosa.ontrack.model.security;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.Getter;
+import lombok.*;
 import net.nemerosa.ontrack.model.structure.Entity;
 import net.nemerosa.ontrack.model.structure.ID;
 import org.apache.commons.lang3.StringUtils;
@@ -15,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Data
-@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(exclude = "authorisationMatrix")
 public class Account implements Entity, Serializable {
 
     public static Account of(String name, String fullName, String email, SecurityRole role, AuthenticationSource authenticationSource) {
@@ -43,17 +40,72 @@ public class Account implements Entity, Serializable {
     private Authorisations authorisations;
     @Getter(AccessLevel.PRIVATE)
     private final boolean locked;
+    /**
+     * Effective rights, compiled once the account is locked.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile AuthorisationMatrix authorisationMatrix;
+
+    protected Account(ID id, String name, String fullName, String email, AuthenticationSource authenticationSource, SecurityRole role, List<AccountGroup> accountGroups, Authorisations authorisations, boolean locked) {
+        this.id = id;
+        this.name = name;
+        this.fullName = fullName;
+        this.email = email;
+        this.authenticationSource = authenticationSource;
+        this.role = role;
+        this.accountGroups = accountGroups;
+        this.authorisations = authorisations;
+        this.locked = locked;
+        if (locked) {
+            this.authorisationMatrix = compileAuthorisations();
+        }
+    }
 
     public boolean isGranted(Class<? extends GlobalFunction> fn) {
-        return (SecurityRole.ADMINISTRATOR == role)
-                || accountGroups.stream().anyMatch(group -> group.isGranted(fn))
-                || authorisations.isGranted(fn);
+        AuthorisationMatrix matrix = getAuthorisationMatrix();
+        if (matrix != null) {
+            return matrix.isGranted(fn);
+        } else {
+            return (SecurityRole.ADMINISTRATOR == role)
+                    || accountGroups.stream().anyMatch(group -> group.isGranted(fn))
+                    || authorisations.isGranted(fn);
+        }
     }
 
     public boolean isGranted(int projectId, Class<? extends ProjectFunction> fn) {
-        return SecurityRole.ADMINISTRATOR == role
-                || accountGroups.stream().anyMatch(group -> group.isGranted(projectId, fn))
-                || authorisations.isGranted(projectId, fn);
+        AuthorisationMatrix matrix = getAuthorisationMatrix();
+        if (matrix != null) {
+            return matrix.isGranted(projectId, fn);
+        } else {
+            return SecurityRole.ADMINISTRATOR == role
+                    || accountGroups.stream().anyMatch(group -> group.isGranted(projectId, fn))
+                    || authorisations.isGranted(projectId, fn);
+        }
+    }
+
+    /**
+     * Gets the compiled rights of a locked account, compiling them again after deserialization.
+     *
+     * @return <code>null</code> if the account is not locked yet
+     */
+    private AuthorisationMatrix getAuthorisationMatrix() {
+        AuthorisationMatrix matrix = authorisationMatrix;
+        if (matrix == null && locked) {
+            matrix = compileAuthorisations();
+            authorisationMatrix = matrix;
+        }
+        return matrix;
+    }
+
+    private AuthorisationMatrix compileAuthorisations() {
+        if (SecurityRole.ADMINISTRATOR == role) {
+            return AuthorisationMatrix.administrator();
+        } else {
+            AuthorisationMatrix.Builder builder = AuthorisationMatrix.builder();
+            accountGroups.forEach(group -> group.contributeTo(builder));
+            return builder.withAuthorisations(authorisations).build();
+        }
     }
 
     public Account withId(ID id) {
@@ -35,6 +35,13 @@ public class AccountGroup implements Entity, Serializable {
         return authorisations.isGranted(projectId, fn);
     }
 
+    /**
+     * Adds the authorisations of this group to a matrix being built.
+     */
+    void contributeTo(AuthorisationMatrix.Builder builder) {
+        builder.withAuthorisations(authorisations);
+    }
+
     private void checkLock() {
         if (locked) {
             throw new IllegalStateException("Account is locked");
@@ -0,0 +1,125 @@
+package net.nemerosa.ontrack.model.security;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Effective rights of an account, compiled from its own authorisations and from the ones of its groups.
+ * <p>
+ * Each function is identified by an index, so that the rights are stored as bit sets: one for the
+ * global functions, one for the project functions granted on all projects and one per project. A project
+ * function is stored together with all the project functions it implies, so that a check is a simple
+ * lookup.
+ * <p>
+ * The indexes are only valid in the current JVM, so the matrix must not be serialized.
+ */
+public final class AuthorisationMatrix {
+
+    private static final AtomicInteger FUNCTION_COUNT = new AtomicInteger();
+
+    /**
+     * Index of each function class, assigned when the class is first seen.
+     */
+    private static final ClassValue<Integer> FUNCTION_INDEX = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return FUNCTION_COUNT.getAndIncrement();
+        }
+    };
+
+    private static final AuthorisationMatrix ADMINISTRATOR = new AuthorisationMatrix(true, new BitSet(), new BitSet(), new int[0], new BitSet[0]);
+
+    private final boolean administrator;
+    private final BitSet globalFunctions;
+    private final BitSet allProjectsFunctions;
+    /**
+     * Sorted project IDs
+     */
+    private final int[] projectIds;
+    /**
+     * Project functions, in the same order than the project IDs
+     */
+    private final BitSet[] projectFunctions;
+
+    private AuthorisationMatrix(boolean administrator, BitSet globalFunctions, BitSet allProjectsFunctions, int[] projectIds, BitSet[] projectFunctions) {
+        this.administrator = administrator;
+        this.globalFunctions = globalFunctions;
+        this.allProjectsFunctions = allProjectsFunctions;
+        this.projectIds = projectIds;
+        this.projectFunctions = projectFunctions;
+    }
+
+    public boolean isGranted(Class<? extends GlobalFunction> fn) {
+        return administrator || globalFunctions.get(FUNCTION_INDEX.get(fn));
+    }
+
+    public boolean isGranted(int projectId, Class<? extends ProjectFunction> fn) {
+        if (administrator) {
+            return true;
+        }
+        int index = FUNCTION_INDEX.get(fn);
+        if (allProjectsFunctions.get(index)) {
+            return true;
+        }
+        int position = Arrays.binarySearch(projectIds, projectId);
+        return position >= 0 && projectFunctions[position].get(index);
+    }
+
+    public static AuthorisationMatrix administrator() {
+        return ADMINISTRATOR;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private final BitSet globalFunctions = new BitSet();
+        private final BitSet allProjectsFunctions = new BitSet();
+        private final Map<Integer, BitSet> projectFunctions = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder withAuthorisations(Authorisations authorisations) {
+            authorisations.contributeTo(this);
+            return this;
+        }
+
+        public Builder withGlobalRole(GlobalRole globalRole) {
+            globalRole.getGlobalFunctions().forEach(fn -> globalFunctions.set(FUNCTION_INDEX.get(fn)));
+            globalRole.getProjectFunctions().forEach(fn -> grant(allProjectsFunctions, fn));
+            return this;
+        }
+
+        public Builder withProjectRole(ProjectRoleAssociation association) {
+            BitSet functions = projectFunctions.computeIfAbsent(association.getProjectId(), id -> new BitSet());
+            association.getProjectRole().getFunctions().forEach(fn -> grant(functions, fn));
+            return this;
+        }
+
+        public AuthorisationMatrix build() {
+            int[] projectIds = projectFunctions.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            BitSet[] functions = new BitSet[projectIds.length];
+            for (int i = 0; i < projectIds.length; i++) {
+                functions[i] = projectFunctions.get(projectIds[i]);
+            }
+            return new AuthorisationMatrix(false, globalFunctions, allProjectsFunctions, projectIds, functions);
+        }
+
+        /**
+         * Granting a project function grants also all the project functions it extends.
+         */
+        private static void grant(BitSet functions, Class<?> fn) {
+            if (fn != null && ProjectFunction.class.isAssignableFrom(fn)) {
+                functions.set(FUNCTION_INDEX.get(fn));
+                grant(functions, fn.getSuperclass());
+                for (Class<?> parent : fn.getInterfaces()) {
+                    grant(functions, parent);
+                }
+            }
+        }
+    }
+
+}
@@ -33,6 +33,16 @@ public class Authorisations implements Serializable {
                 || projectRoleAssociations.stream().anyMatch(pa -> pa.getProjectId() == projectId && pa.isGranted(fn));
     }
 
+    /**
+     * Adds these authorisations to a matrix being built.
+     */
+    void contributeTo(AuthorisationMatrix.Builder builder) {
+        if (globalRole != null) {
+            builder.withGlobalRole(globalRole);
+        }
+        projectRoleAssociations.forEach(builder::withProjectRole);
+    }
+
     public Authorisations withGlobalRole(Optional<GlobalRole> globalRole) {
         this.globalRole = globalRole.orElse(null);
         return this;
@@ -0,0 +1,35 @@
+package net.nemerosa.ontrack.model.security;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * API token of an account.
+ */
+@Data
+public class Token {
+
+    /**
+     * Value of the token, only available when the token is generated.
+     */
+    private final String value;
+
+    /**
+     * Creation time
+     */
+    private final LocalDateTime creation;
+
+    /**
+     * End of validity, <code>null</code> if the token does not expire.
+     */
+    private final LocalDateTime validUntil;
+
+    /**
+     * Copy of this token without its value
+     */
+    public Token obfuscate() {
+        return new Token("", creation, validUntil);
+    }
+
+}
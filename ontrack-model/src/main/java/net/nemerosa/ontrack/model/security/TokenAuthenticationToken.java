@@ -0,0 +1,29 @@
+package net.nemerosa.ontrack.model.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+import java.util.Collections;
+
+/**
+ * Authentication request using an API token.
+ */
+public class TokenAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final String token;
+
+    public TokenAuthenticationToken(String token) {
+        super(Collections.emptyList());
+        this.token = token;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return token;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return "";
+    }
+
+}
@@ -0,0 +1,16 @@
+package net.nemerosa.ontrack.model.security;
+
+import lombok.Data;
+
+/**
+ * Token of the current account, if any.
+ */
+@Data
+public class TokenResponse {
+
+    /**
+     * Token, <code>null</code> if none
+     */
+    private final Token token;
+
+}
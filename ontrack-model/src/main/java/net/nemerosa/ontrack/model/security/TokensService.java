@@ -0,0 +1,35 @@
+package net.nemerosa.ontrack.model.security;
+
+import java.util.Optional;
+
+/**
+ * Management of the API tokens, which allow clients to authenticate without a password.
+ */
+public interface TokensService {
+
+    /**
+     * Generates a new token for the current account, replacing any existing one.
+     *
+     * @return Token, including its value
+     */
+    Token generateNewToken();
+
+    /**
+     * Gets the token of the current account, without its value.
+     */
+    Optional<Token> getCurrentToken();
+
+    /**
+     * Revokes the token of the current account.
+     */
+    void revokeToken();
+
+    /**
+     * Gets the account associated with a valid token.
+     *
+     * @param token Token value
+     * @return Account, without any ACL
+     */
+    Optional<Account> findAccountByToken(String token);
+
+}
@@ -0,0 +1,37 @@
+package net.nemerosa.ontrack.model.settings;
+
+import lombok.Data;
+import net.nemerosa.ontrack.job.JobCategoryPolicy;
+
+/**
+ * Execution settings for a category of jobs.
+ */
+@Data
+public class JobCategorySettings {
+
+    /**
+     * Key of the category
+     */
+    private final String category;
+
+    /**
+     * Maximum number of jobs of this category running at the same time, <code>0</code> for no limit.
+     */
+    private final int maxConcurrentRuns;
+
+    /**
+     * Jobs of categories with a higher priority are started first.
+     */
+    private final int priority;
+
+    /**
+     * Maximum factor by which the period of a job is stretched when its runs find nothing new,
+     * <code>1</code> or less for a fixed period.
+     */
+    private final int maxBackOff;
+
+    public JobCategoryPolicy toPolicy() {
+        return new JobCategoryPolicy(maxConcurrentRuns, priority, maxBackOff);
+    }
+
+}
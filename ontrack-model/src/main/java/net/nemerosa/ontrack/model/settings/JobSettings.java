@@ -0,0 +1,68 @@
+package net.nemerosa.ontrack.model.settings;
+
+import lombok.Data;
+import net.nemerosa.ontrack.job.JobCategory;
+import net.nemerosa.ontrack.job.JobCategoryPolicy;
+import net.nemerosa.ontrack.model.form.Form;
+import net.nemerosa.ontrack.model.form.Int;
+import net.nemerosa.ontrack.model.form.MultiForm;
+import net.nemerosa.ontrack.model.form.Text;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Execution settings for the jobs. Categories which are not listed have no limit and a
+ * default priority of <code>0</code>.
+ */
+@Data
+public class JobSettings {
+
+    private final List<JobCategorySettings> categories;
+
+    public static JobSettings of() {
+        return new JobSettings(Collections.emptyList());
+    }
+
+    public JobCategoryPolicy getPolicy(JobCategory category) {
+        return categories.stream()
+                .filter(settings -> StringUtils.equals(category.getKey(), settings.getCategory()))
+                .findFirst()
+                .map(JobCategorySettings::toPolicy)
+                .orElse(JobCategoryPolicy.DEFAULT);
+    }
+
+    public Form form() {
+        return Form.create()
+                .with(
+                        MultiForm.of(
+                                "categories",
+                                Form.create()
+                                        .with(
+                                                Text.of("category")
+                                                        .label("Category")
+                                                        .help("Key of the job category, like `git` or `svn`")
+                                        )
+                                        .with(
+                                                Int.of("maxConcurrentRuns")
+                                                        .label("Maximum concurrent runs")
+                                                        .help("Maximum number of jobs of this category running at the same time. 0 for no limit.")
+                                        )
+                                        .with(
+                                                Int.of("priority")
+                                                        .min(Integer.MIN_VALUE)
+                                                        .label("Priority")
+                                                        .help("When jobs are waiting to run, the ones of the categories with the highest priority are started first.")
+                                        )
+                                        .with(
+                                                Int.of("maxBackOff")
+                                                        .label("Maximum back-off")
+                                                        .help("When the runs of a job find nothing new, its period is doubled, up to this factor. 0 or 1 for a fixed period.")
+                                        )
+                        )
+                                .label("Categories")
+                                .value(categories)
+                );
+    }
+}
@@ -0,0 +1,38 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.beans.ConstructorProperties;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request data used by CI engines to report everything about a build in one call: the build
+ * itself (created if needed), its properties, its validation runs, its promotion runs
+ * and its links to other builds.
+ */
+@Data
+public class BuildBatchRequest {
+
+    @NotNull(message = "The build name is required.")
+    @Pattern(regexp = NameDescription.NAME, message = "The build name " + NameDescription.NAME_MESSAGE_SUFFIX)
+    private final String name;
+    private final String description;
+    private final List<PropertyCreationRequest> properties;
+    private final List<ValidationRunRequest> validationRuns;
+    private final List<PromotionRunRequest> promotionRuns;
+    private final List<BuildLinkFormItem> links;
+
+    @ConstructorProperties({"name", "description", "properties", "validationRuns", "promotionRuns", "links"})
+    public BuildBatchRequest(String name, String description, List<PropertyCreationRequest> properties, List<ValidationRunRequest> validationRuns, List<PromotionRunRequest> promotionRuns, List<BuildLinkFormItem> links) {
+        this.name = name;
+        this.description = description;
+        this.properties = properties != null ? properties : Collections.emptyList();
+        this.validationRuns = validationRuns != null ? validationRuns : Collections.emptyList();
+        this.promotionRuns = promotionRuns != null ? promotionRuns : Collections.emptyList();
+        this.links = links != null ? links : Collections.emptyList();
+    }
+
+}
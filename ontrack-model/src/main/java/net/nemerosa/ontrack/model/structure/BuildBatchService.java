@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.model.structure;
+
+/**
+ * Service used to record a build and all its associated information at once.
+ */
+public interface BuildBatchService {
+
+    /**
+     * Gets or creates a build on a branch, and records its properties, validation runs, promotion runs
+     * and links in one transaction. The events are notified only once all the information has been saved.
+     *
+     * @param branch  Branch of the build
+     * @param request Build information
+     * @return Build
+     */
+    Build process(Branch branch, BuildBatchRequest request);
+
+}
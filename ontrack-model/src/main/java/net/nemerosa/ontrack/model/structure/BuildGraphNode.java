@@ -0,0 +1,21 @@
+package net.nemerosa.ontrack.model.structure;
+
+import lombok.Data;
+
+/**
+ * Build reached when traversing the build links.
+ */
+@Data
+public class BuildGraphNode {
+
+    /**
+     * Build reached
+     */
+    private final Build build;
+
+    /**
+     * Number of links between the starting build and this build
+     */
+    private final int depth;
+
+}
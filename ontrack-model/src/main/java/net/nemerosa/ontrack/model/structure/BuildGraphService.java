@@ -0,0 +1,51 @@
+package net.nemerosa.ontrack.model.structure;
+
+import java.util.List;
+
+/**
+ * Transitive queries on the build links.
+ * <p>
+ * The <i>downstream</i> builds of a build are the builds it is linked to (its dependencies), directly or not,
+ * and its <i>upstream</i> builds are the ones which are linked to it (the builds using it).
+ * <p>
+ * Only the builds the current user can see are returned, and the traversal does not go through the other ones.
+ */
+public interface BuildGraphService {
+
+    /**
+     * Maximum depth of a traversal
+     */
+    int MAX_DEPTH = 10;
+
+    /**
+     * Gets the builds this build is linked to, directly or not.
+     *
+     * @param build     Starting build
+     * @param depth     Maximum number of links to follow (capped to {@link #MAX_DEPTH})
+     * @param promotion If set, returns only the builds having reached a promotion level with this name
+     * @return Builds ordered by depth
+     */
+    List<BuildGraphNode> getDownstreamBuilds(Build build, int depth, String promotion);
+
+    /**
+     * Gets the builds which are linked to this build, directly or not.
+     *
+     * @param build     Starting build
+     * @param depth     Maximum number of links to follow (capped to {@link #MAX_DEPTH})
+     * @param promotion If set, returns only the builds having reached a promotion level with this name
+     * @return Builds ordered by depth
+     */
+    List<BuildGraphNode> getUpstreamBuilds(Build build, int depth, String promotion);
+
+    /**
+     * Gets one of the shortest chains of links from a build to another one.
+     *
+     * @param from  Starting build
+     * @param to    Build to reach
+     * @param depth Maximum number of links to follow (capped to {@link #MAX_DEPTH})
+     * @return Builds of the path, starting with <code>from</code> and ending with <code>to</code>,
+     * or an empty list if <code>to</code> cannot be reached
+     */
+    List<Build> getPath(Build from, Build to, int depth);
+
+}
@@ -12,4 +12,12 @@ public interface DecorationService {
      */
     List<Decoration<?>> getDecorations(ProjectEntity entity);
 
+    /**
+     * Gets the list of decorations for several entities at once.
+     *
+     * @param entities Entities to decorate
+     * @return For each entity, in the same order, its list of decorations
+     */
+    List<List<Decoration<?>>> getDecorations(List<? extends ProjectEntity> entities);
+
 }
@@ -19,4 +19,13 @@ public interface Decorator<T> extends Extension {
      */
     List<Decoration<T>> getDecorations(ProjectEntity entity);
 
+    /**
+     * Cost of computing the decorations.
+     *
+     * @return {@link DecoratorCost#CHEAP} by default
+     */
+    default DecoratorCost getCost() {
+        return DecoratorCost.CHEAP;
+    }
+
 }
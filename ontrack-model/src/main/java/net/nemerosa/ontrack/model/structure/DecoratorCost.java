@@ -0,0 +1,20 @@
+package net.nemerosa.ontrack.model.structure;
+
+/**
+ * Indication about the cost of computing the decorations of a {@link Decorator}.
+ */
+public enum DecoratorCost {
+
+    /**
+     * Pure in-memory computation or a single simple lookup. Such decorators
+     * are computed directly, in the calling thread.
+     */
+    CHEAP,
+
+    /**
+     * Several queries or remote calls. Such decorators are computed concurrently,
+     * in a bounded pool, and are subject to a timeout.
+     */
+    EXPENSIVE
+
+}
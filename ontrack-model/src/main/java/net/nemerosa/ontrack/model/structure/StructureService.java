@@ -3,8 +3,8 @@ package net.nemerosa.ontrack.model.structure;
 import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.model.Ack;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 
@@ -44,16 +44,78 @@ public interface StructureService {
 
     Ack deleteBranch(ID branchId);
 
+    /**
+     * Disables several branches at once. The listeners are notified about them only
+     * after the current transaction has been committed.
+     */
+    void disableBranches(List<Branch> branches);
+
+    /**
+     * Deletes several branches at once.
+     */
+    void deleteBranches(List<Branch> branches);
+
+    /**
+     * Gets, for each branch of a project having builds, the creation time of its last build.
+     *
+     * @param projectId ID of the project
+     * @return Index of the creation times per branch ID
+     */
+    Map<ID, LocalDateTime> getLastBuildTimesForProject(ID projectId);
+
+    /**
+     * Gets the branches of a project which have been promoted at least once to one of the given
+     * promotion levels.
+     *
+     * @param projectId           ID of the project
+     * @param promotionLevelNames Names of the promotion levels
+     * @return IDs of the promoted branches
+     */
+    Set<ID> getBranchesPromotedTo(ID projectId, Collection<String> promotionLevelNames);
+
     // Builds
 
     Build newBuild(Build build);
 
+    /**
+     * Creates several builds at once. The listeners are notified about them only
+     * after the current transaction has been committed.
+     */
+    List<Build> newBuilds(List<Build> builds);
+
     Build saveBuild(Build build);
 
     Build getBuild(ID buildId);
 
     Optional<Build> findBuildByName(String project, String branch, String build);
 
+    /**
+     * Looks for a build using its name inside a given branch.
+     *
+     * @param branchId ID of the branch
+     * @param build    Name of the build
+     * @return Build if found and visible
+     */
+    Optional<Build> findBuildByName(ID branchId, String build);
+
+    /**
+     * Looks for several builds using their names inside a given branch.
+     *
+     * @param branch Branch to look into
+     * @param names  Names of the builds
+     * @return Builds which exist, in no particular order
+     */
+    List<Build> findBuildsByName(Branch branch, Collection<String> names);
+
+    /**
+     * Looks for the most recent build having a given name in any branch of a project.
+     *
+     * @param projectId ID of the project
+     * @param build     Name of the build
+     * @return Build if found and visible
+     */
+    Optional<Build> findLastBuildByNameInProject(ID projectId, String build);
+
     BranchStatusView getEarliestPromotionsAfterBuild(Build build);
 
     /**
@@ -67,8 +129,24 @@ public interface StructureService {
      */
     BuildView getBuildView(Build build, boolean withDecorations);
 
+    /**
+     * Gets the aggregated views of several builds at once.
+     *
+     * @see #getBuildView(Build, boolean)
+     */
+    List<BuildView> getBuildViews(List<Build> builds, boolean withDecorations);
+
     Build getLastBuildForBranch(Branch branch);
 
+    /**
+     * Gets the last builds of several branches at once.
+     *
+     * @param branches Branches to get the builds for
+     * @param count    Maximum number of builds per branch
+     * @return Builds, from the newest to the oldest, indexed by branch ID
+     */
+    Map<ID, List<Build>> getLastBuildsForBranches(List<Branch> branches, int count);
+
     /**
      * Gets the number of builds for a branch.
      */
@@ -86,10 +164,23 @@ public interface StructureService {
 
     void addBuildLink(Build fromBuild, Build toBuild);
 
+    /**
+     * Links a build to several others at once.
+     */
+    void addBuildLinks(Build fromBuild, List<Build> toBuilds);
+
     void deleteBuildLink(Build fromBuild, Build toBuild);
 
     List<Build> getBuildLinksFrom(Build build);
 
+    /**
+     * Gets the builds linked from several builds at once.
+     *
+     * @param builds Source builds
+     * @return Target builds indexed by source build ID
+     */
+    Map<ID, List<Build>> getBuildLinksFrom(List<Build> builds);
+
     List<Build> getBuildLinksTo(Build build);
 
     List<Build> searchBuildsLinkedTo(String projectName, String buildPattern);
@@ -142,6 +233,12 @@ public interface StructureService {
 
     PromotionRun newPromotionRun(PromotionRun promotionRun);
 
+    /**
+     * Creates several promotion runs at once. The listeners are notified about them only
+     * after the current transaction has been committed.
+     */
+    List<PromotionRun> newPromotionRuns(List<PromotionRun> promotionRuns);
+
     PromotionRun getPromotionRun(ID promotionRunId);
 
     Optional<PromotionLevel> findPromotionLevelByName(String project, String branch, String promotionLevel);
@@ -150,6 +247,22 @@ public interface StructureService {
 
     List<PromotionRun> getLastPromotionRunsForBuild(ID buildId);
 
+    /**
+     * Gets the last promotion runs of several builds at once.
+     *
+     * @param builds Builds to get the promotions for
+     * @return Last promotion runs indexed by build ID
+     */
+    Map<ID, List<PromotionRun>> getLastPromotionRunsForBuilds(List<Build> builds);
+
+    /**
+     * Gets all the promotion runs of several builds at once.
+     *
+     * @param builds Builds to get the promotions for
+     * @return Promotion runs, the most recent first, indexed by build ID
+     */
+    Map<ID, List<PromotionRun>> getPromotionRunsForBuilds(List<Build> builds);
+
     Optional<PromotionRun> getLastPromotionRunForBuildAndPromotionLevel(Build build, PromotionLevel promotionLevel);
 
     List<PromotionRun> getPromotionRunsForBuildAndPromotionLevel(Build build, PromotionLevel promotionLevel);
@@ -201,14 +314,37 @@ public interface StructureService {
 
     ValidationRun newValidationRun(ValidationRun validationRun);
 
+    /**
+     * Creates several validation runs at once. The listeners are notified about them only
+     * after the current transaction has been committed.
+     */
+    List<ValidationRun> newValidationRuns(List<ValidationRun> validationRuns);
+
     ValidationRun getValidationRun(ID validationRunId);
 
     List<ValidationRun> getValidationRunsForBuild(ID buildId);
 
+    /**
+     * Gets the validation runs of several builds at once.
+     *
+     * @param builds Builds to get the validations for
+     * @return Validation runs indexed by build ID
+     */
+    Map<ID, List<ValidationRun>> getValidationRunsForBuilds(List<Build> builds);
+
     List<ValidationRun> getValidationRunsForBuildAndValidationStamp(ID buildId, ID validationStampId);
 
     List<ValidationRun> getValidationRunsForValidationStamp(ID validationStampId, int offset, int count);
 
+    /**
+     * Gets the current status of the last validation runs of several validation stamps at once.
+     *
+     * @param validationStamps Validation stamps
+     * @param count            Maximum number of runs to consider for each validation stamp
+     * @return Statuses of the last runs, from the most recent one, indexed by validation stamp ID
+     */
+    Map<ID, List<ValidationRunStatusID>> getLastValidationRunStatusesForValidationStamps(List<ValidationStamp> validationStamps, int count);
+
     ValidationRun newValidationRunStatus(ValidationRun validationRun, ValidationRunStatus runStatus);
 
     // Entity searches by name
@@ -0,0 +1,18 @@
+package net.nemerosa.ontrack.model.support;
+
+import lombok.Data;
+
+@Data
+public class DecorationConfigProperties {
+
+    /**
+     * Number of threads used to compute the expensive decorations.
+     */
+    private int poolSize = 10;
+
+    /**
+     * Maximum time (in milliseconds) to wait for an expensive decoration.
+     */
+    private int timeout = 5000;
+
+}
@@ -0,0 +1,44 @@
+package net.nemerosa.ontrack.model.support;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+public class GraphQLConfigProperties {
+
+    /**
+     * Maximum depth of a query. Setting 0 disables the check.
+     */
+    private int maxDepth = 12;
+
+    /**
+     * Maximum complexity of a query, as the estimated number of fields to resolve.
+     * Setting 0 disables the check.
+     */
+    private int maxComplexity = 20000;
+
+    /**
+     * Estimated size of the lists which are not limited by a <code>count</code> or
+     * <code>first</code> argument.
+     */
+    private int defaultListSize = 10;
+
+    /**
+     * Costs of the fields, indexed by <code>Type.field</code>, overriding the default ones.
+     */
+    private Map<String, Integer> fieldCosts = new HashMap<>();
+
+    /**
+     * Maximum time (in seconds) to execute a query. Setting 0 disables the timeout.
+     */
+    private int timeout = 60;
+
+    /**
+     * Maximum number of parsed and validated queries kept in cache. The queries in this cache
+     * can be sent by ID only.
+     */
+    private int documentCacheSize = 500;
+
+}
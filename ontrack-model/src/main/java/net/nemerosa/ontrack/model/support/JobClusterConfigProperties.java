@@ -0,0 +1,34 @@
+package net.nemerosa.ontrack.model.support;
+
+import lombok.Data;
+
+/**
+ * Configuration of the jobs when several instances of Ontrack share the same database.
+ */
+@Data
+public class JobClusterConfigProperties {
+
+    /**
+     * Set to <code>true</code> when several instances share the same database, so that
+     * each job runs on one instance at a time.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Name of this instance. Defaults to the host name.
+     */
+    private String node = "";
+
+    /**
+     * Maximum duration of a run (in minutes). After this time, the job can be run
+     * by another instance, for example when the instance running it has stopped.
+     */
+    private int leaseDuration = 60;
+
+    /**
+     * Time (in minutes) during which the jobs sharing the same affinity (like the jobs working
+     * on the same Git repository) keep on running on the same instance after their last run.
+     */
+    private int affinityDuration = 30;
+
+}
@@ -31,6 +31,11 @@ public class JobConfigProperties {
      */
     private double scatteringRatio = 1.0;
 
+    /**
+     * Running several instances
+     */
+    private JobClusterConfigProperties cluster = new JobClusterConfigProperties();
+
     /**
      * Sets the scattering ratio (must be between 0.0 and 1.0 inclusive).
      */
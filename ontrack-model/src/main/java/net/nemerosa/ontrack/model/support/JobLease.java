@@ -0,0 +1,33 @@
+package net.nemerosa.ontrack.model.support;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Right for an instance to run a job, or the jobs of an affinity.
+ */
+@Data
+public class JobLease {
+
+    /**
+     * Job key or affinity
+     */
+    private final String key;
+
+    /**
+     * Instance holding the lease, or which has held it last
+     */
+    private final String node;
+
+    /**
+     * End of the lease
+     */
+    private final LocalDateTime expiry;
+
+    /**
+     * Is the job running?
+     */
+    private final boolean running;
+
+}
@@ -0,0 +1,20 @@
+package net.nemerosa.ontrack.model.support;
+
+import java.util.List;
+
+/**
+ * Access to the leases used to share the jobs between several instances.
+ */
+public interface JobLeaseService {
+
+    /**
+     * Name of this instance
+     */
+    String getNode();
+
+    /**
+     * Gets all the leases
+     */
+    List<JobLease> getLeases();
+
+}
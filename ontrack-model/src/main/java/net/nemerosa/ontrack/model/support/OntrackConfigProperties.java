@@ -50,6 +50,27 @@ public class OntrackConfigProperties {
      */
     private JobConfigProperties jobs = new JobConfigProperties();
 
+    /**
+     * Decoration configuration
+     */
+    private DecorationConfigProperties decorations = new DecorationConfigProperties();
+
+    /**
+     * Security configuration
+     */
+    private SecurityConfigProperties security = new SecurityConfigProperties();
+
+    /**
+     * GraphQL configuration
+     */
+    private GraphQLConfigProperties graphql = new GraphQLConfigProperties();
+
+    /**
+     * Maximum age (in seconds) of the index of the build links, when several instances share the same database
+     * (see {@link JobClusterConfigProperties#isEnabled()}). Setting 0 never loads the index again.
+     */
+    private int buildGraphRefresh = 60;
+
     @PostConstruct
     public void log() {
         if (!configurationTest) {
@@ -0,0 +1,23 @@
+package net.nemerosa.ontrack.model.support;
+
+import lombok.Data;
+
+@Data
+public class SecurityConfigProperties {
+
+    /**
+     * Maximum number of authenticated clients kept in cache. Setting 0 disables the cache.
+     */
+    private int authenticationCacheMaxSize = 1000;
+
+    /**
+     * Duration (in seconds) during which an authentication is kept in cache.
+     */
+    private int authenticationCacheTtl = 300;
+
+    /**
+     * Validity (in days) of the API tokens. Setting 0 makes the tokens valid until they are revoked.
+     */
+    private int tokenValidityDays = 0;
+
+}
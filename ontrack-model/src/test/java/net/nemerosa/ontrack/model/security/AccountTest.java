@@ -91,4 +91,67 @@ public class AccountTest {
         assertTrue(account.isGranted(ProjectCreation.class));
     }
 
+    @Test
+    public void locked_account_with_project_function_granted_for_all_projects() {
+        Account account = baseAccount().withGlobalRole(
+                Optional.of(
+                        new GlobalRole(
+                                "test", "Test", "",
+                                Collections.emptySet(),
+                                Collections.singleton(ProjectEdit.class)
+                        )
+                )
+        ).lock();
+        assertTrue(account.isGranted(1, ProjectEdit.class));
+        assertTrue(account.isGranted(2, BuildCreate.class));
+        assertFalse(account.isGranted(2, ProjectDelete.class));
+        assertFalse(account.isGranted(GlobalSettings.class));
+    }
+
+    @Test
+    public void locked_account_with_groups() {
+        AccountGroup group1 = AccountGroup.of("group1", "").withProjectRole(
+                new ProjectRoleAssociation(
+                        2,
+                        new ProjectRole("viewer", "Viewer", "", Collections.singleton(ProjectView.class))
+                )
+        );
+        AccountGroup group2 = AccountGroup.of("group2", "").withGlobalRole(
+                Optional.of(
+                        new GlobalRole(
+                                "settings", "Settings", "",
+                                Collections.singleton(GlobalSettings.class),
+                                Collections.emptySet()
+                        )
+                )
+        );
+        Account account = account(ProjectEdit.class).withGroup(group1).withGroup(group2).lock();
+        assertTrue(account.isGranted(1, ProjectEdit.class));
+        assertTrue(account.isGranted(2, ProjectView.class));
+        assertFalse(account.isGranted(2, ProjectEdit.class));
+        assertFalse(account.isGranted(3, ProjectView.class));
+        assertTrue(account.isGranted(GlobalSettings.class));
+        assertFalse(account.isGranted(ProjectCreation.class));
+    }
+
+    @Test
+    public void locked_account_for_admin() {
+        Account account = Account.of("test", "Test", "test@test.com", SecurityRole.ADMINISTRATOR, AuthenticationSource.none()).lock();
+        assertTrue(account.isGranted(GlobalSettings.class));
+        assertTrue(account.isGranted(1, ProjectDelete.class));
+    }
+
+    @Test
+    public void serializable_locked_account() {
+        Account account = account(ProjectEdit.class).lock();
+        // Serialisation
+        byte[] bytes = SerializationUtils.serialize(account);
+        // Deserialisation
+        Account readAccount = SerializationUtils.deserialize(bytes);
+        // Check
+        assertEquals(account, readAccount);
+        assertTrue(readAccount.isGranted(1, BuildCreate.class));
+        assertFalse(readAccount.isGranted(2, BuildCreate.class));
+    }
+
 }
@@ -0,0 +1,100 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.support.JobLease;
+import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The expiry dates are stored as milliseconds, so that they can be compared in the database.
+ */
+@Repository
+public class JobLeaseJdbcRepository extends AbstractJdbcRepository implements JobLeaseRepository {
+
+    @Autowired
+    public JobLeaseJdbcRepository(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public boolean acquire(String key, String node, LocalDateTime now, LocalDateTime expiry, boolean running, boolean takeOver) {
+        int count = getNamedParameterJdbcTemplate().update(
+                "UPDATE JOB_LEASES SET NODE = :node, EXPIRY = :expiry, RUNNING = :running " +
+                        "WHERE ID = :key AND (NODE = :node OR EXPIRY < :now OR (:takeOver AND RUNNING = FALSE))",
+                params("key", key)
+                        .addValue("node", node)
+                        .addValue("now", toMillis(now))
+                        .addValue("expiry", toMillis(expiry))
+                        .addValue("running", running)
+                        .addValue("takeOver", takeOver)
+        );
+        if (count > 0) {
+            return true;
+        } else {
+            try {
+                getNamedParameterJdbcTemplate().update(
+                        "INSERT INTO JOB_LEASES (ID, NODE, EXPIRY, RUNNING) VALUES (:key, :node, :expiry, :running)",
+                        params("key", key)
+                                .addValue("node", node)
+                                .addValue("expiry", toMillis(expiry))
+                                .addValue("running", running)
+                );
+                return true;
+            } catch (DuplicateKeyException ex) {
+                // Held by another node
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public void release(String key, String node, LocalDateTime expiry) {
+        getNamedParameterJdbcTemplate().update(
+                "UPDATE JOB_LEASES SET EXPIRY = :expiry, RUNNING = FALSE WHERE ID = :key AND NODE = :node",
+                params("key", key)
+                        .addValue("node", node)
+                        .addValue("expiry", toMillis(expiry))
+        );
+    }
+
+    @Override
+    public Optional<JobLease> getLease(String key) {
+        return getOptional(
+                "SELECT * FROM JOB_LEASES WHERE ID = :key",
+                params("key", key),
+                (rs, num) -> toJobLease(rs)
+        );
+    }
+
+    @Override
+    public List<JobLease> getLeases() {
+        return getJdbcTemplate().query(
+                "SELECT * FROM JOB_LEASES ORDER BY ID",
+                (rs, num) -> toJobLease(rs)
+        );
+    }
+
+    private static JobLease toJobLease(ResultSet rs) throws SQLException {
+        return new JobLease(
+                rs.getString("ID"),
+                rs.getString("NODE"),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(rs.getLong("EXPIRY")), ZoneOffset.UTC),
+                rs.getBoolean("RUNNING")
+        );
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+}
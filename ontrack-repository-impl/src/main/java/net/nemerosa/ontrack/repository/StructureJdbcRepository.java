@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.repository;
 
+import com.google.common.collect.Iterables;
 import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.exceptions.*;
@@ -9,13 +10,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Optional;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -23,6 +29,9 @@ import java.util.stream.Collectors;
 @Repository
 public class StructureJdbcRepository extends AbstractJdbcRepository implements StructureRepository {
 
+    private static final String INSERT_VALIDATION_RUN_STATUS = "INSERT INTO VALIDATION_RUN_STATUSES(VALIDATIONRUNID, VALIDATIONRUNSTATUSID, CREATION, CREATOR, DESCRIPTION) " +
+            "VALUES (:validationRunId, :validationRunStatusId, :creation, :creator, :description)";
+
     private final BranchTemplateRepository branchTemplateRepository;
 
     @Autowired
@@ -182,6 +191,59 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public void disableBranches(Collection<ID> branchIds) {
+        for (List<Integer> chunk : Iterables.partition(toIds(branchIds), 500)) {
+            getNamedParameterJdbcTemplate().update(
+                    "UPDATE BRANCHES SET DISABLED = TRUE WHERE ID IN (:ids)",
+                    params("ids", chunk)
+            );
+        }
+    }
+
+    @Override
+    public void deleteBranches(Collection<ID> branchIds) {
+        for (List<Integer> chunk : Iterables.partition(toIds(branchIds), 500)) {
+            getNamedParameterJdbcTemplate().update(
+                    "DELETE FROM BRANCHES WHERE ID IN (:ids)",
+                    params("ids", chunk)
+            );
+        }
+    }
+
+    private static List<Integer> toIds(Collection<ID> ids) {
+        return ids.stream().map(ID::get).collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<ID, LocalDateTime> getLastBuildTimesForProject(ID projectId) {
+        Map<ID, LocalDateTime> times = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                "SELECT B.BRANCHID, B.CREATION FROM BUILDS B WHERE B.ID IN (" +
+                        "SELECT MAX(L.ID) FROM BUILDS L INNER JOIN BRANCHES R ON R.ID = L.BRANCHID " +
+                        "WHERE R.PROJECTID = :projectId GROUP BY L.BRANCHID)",
+                params("projectId", projectId.get()),
+                (ResultSet rs) -> {
+                    times.put(id(rs, "BRANCHID"), dateTimeFromDB(rs.getString("CREATION")));
+                }
+        );
+        return times;
+    }
+
+    @Override
+    public Set<ID> getBranchesPromotedTo(ID projectId, Collection<String> promotionLevelNames) {
+        if (promotionLevelNames.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(getNamedParameterJdbcTemplate().query(
+                "SELECT DISTINCT PL.BRANCHID FROM PROMOTION_LEVELS PL INNER JOIN BRANCHES R ON R.ID = PL.BRANCHID " +
+                        "WHERE R.PROJECTID = :projectId AND PL.NAME IN (:names) " +
+                        "AND EXISTS (SELECT 1 FROM PROMOTION_RUNS PR WHERE PR.PROMOTIONLEVELID = PL.ID)",
+                params("projectId", projectId.get()).addValue("names", promotionLevelNames),
+                (rs, rowNum) -> id(rs, "BRANCHID")
+        ));
+    }
+
     @Override
     public void builds(Branch branch, Predicate<Build> buildPredicate, BuildSortDirection sortDirection) {
         String order = sortDirection == BuildSortDirection.FROM_NEWEST ? "DESC" : "ASC";
@@ -237,6 +299,35 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public Map<ID, List<Build>> getLastBuildsForBranches(Collection<Branch> branches, int count) {
+        Map<ID, List<Build>> index = new HashMap<>();
+        Map<ID, Branch> branchIndex = branches.stream().collect(Collectors.toMap(Branch::getId, branch -> branch, (a, b) -> a));
+        // One limited sub-query per branch, joined together
+        for (List<ID> chunk : Iterables.partition(new ArrayList<>(branchIndex.keySet()), 100)) {
+            MapSqlParameterSource params = params("count", count);
+            List<String> queries = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                queries.add(String.format(
+                        "SELECT * FROM (SELECT * FROM BUILDS WHERE BRANCHID = :branch%1$d ORDER BY ID DESC LIMIT :count) B%1$d",
+                        i
+                ));
+                params.addValue("branch" + i, chunk.get(i).get());
+            }
+            getNamedParameterJdbcTemplate().query(
+                    StringUtils.join(queries, " UNION ALL "),
+                    params,
+                    (ResultSet rs) -> {
+                        Build build = toBuild(rs, branchIndex::get);
+                        index.computeIfAbsent(build.getBranch().getId(), id -> new ArrayList<>()).add(build);
+                    }
+            );
+        }
+        // The union does not keep the order of the sub-queries
+        index.values().forEach(builds -> builds.sort(Comparator.comparingInt(Build::id).reversed()));
+        return index;
+    }
+
     @Override
     public Ack deleteBuild(ID buildId) {
         return Ack.one(
@@ -256,6 +347,24 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public void addBuildLinks(ID fromBuildId, Collection<ID> toBuildIds) {
+        if (toBuildIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource[] links = toBuildIds.stream()
+                .map(toBuildId -> params("fromBuildId", fromBuildId.get()).addValue("toBuildId", toBuildId.get()))
+                .toArray(MapSqlParameterSource[]::new);
+        getNamedParameterJdbcTemplate().batchUpdate(
+                "DELETE FROM BUILD_LINKS WHERE BUILDID = :fromBuildId AND TARGETBUILDID = :toBuildId",
+                links
+        );
+        getNamedParameterJdbcTemplate().batchUpdate(
+                "INSERT INTO BUILD_LINKS(BUILDID, TARGETBUILDID) VALUES (:fromBuildId, :toBuildId)",
+                links
+        );
+    }
+
     @Override
     public void deleteBuildLink(ID fromBuildId, ID toBuildId) {
         getNamedParameterJdbcTemplate().update(
@@ -275,6 +384,28 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public Map<ID, List<Build>> getBuildLinksFrom(Collection<ID> buildIds) {
+        Map<ID, List<Build>> index = new HashMap<>();
+        if (buildIds.isEmpty()) {
+            return index;
+        }
+        // Target branches are shared between most of the links
+        Map<ID, Branch> branches = new HashMap<>();
+        getNamedParameterJdbcTemplate().query(
+                "SELECT BL.BUILDID AS SOURCEBUILDID, T.* FROM BUILDS T " +
+                        "INNER JOIN BUILD_LINKS BL ON BL.TARGETBUILDID = T.ID " +
+                        "WHERE BL.BUILDID IN (:buildIds)",
+                params("buildIds", buildIds.stream().map(ID::get).collect(Collectors.toList())),
+                (ResultSet rs) -> {
+                    index.computeIfAbsent(id(rs, "sourceBuildId"), id -> new ArrayList<>()).add(
+                            toBuild(rs, branchId -> branches.computeIfAbsent(branchId, this::getBranch))
+                    );
+                }
+        );
+        return index;
+    }
+
     @Override
     public List<Build> getBuildLinksTo(ID buildId) {
         return getNamedParameterJdbcTemplate().query(
@@ -342,6 +473,41 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         ).isPresent();
     }
 
+    @Override
+    public void forEachBuildLink(BiConsumer<Integer, Integer> consumer) {
+        getJdbcTemplate().query(
+                "SELECT BUILDID, TARGETBUILDID FROM BUILD_LINKS",
+                (ResultSet rs) -> {
+                    consumer.accept(rs.getInt("BUILDID"), rs.getInt("TARGETBUILDID"));
+                }
+        );
+    }
+
+    @Override
+    public List<Integer> getLinkedBuildIds(ID branchId) {
+        return getNamedParameterJdbcTemplate().queryForList(
+                "SELECT B.ID FROM BUILDS B WHERE B.BRANCHID = :branchId AND (" +
+                        "EXISTS (SELECT 1 FROM BUILD_LINKS L WHERE L.BUILDID = B.ID) OR " +
+                        "EXISTS (SELECT 1 FROM BUILD_LINKS L WHERE L.TARGETBUILDID = B.ID))",
+                params("branchId", branchId.get()),
+                Integer.class
+        );
+    }
+
+    @Override
+    public List<Build> getBuilds(Collection<ID> buildIds) {
+        if (buildIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Branches are shared between most of the builds
+        Map<ID, Branch> branches = new HashMap<>();
+        return getNamedParameterJdbcTemplate().query(
+                "SELECT * FROM BUILDS WHERE ID IN (:buildIds)",
+                params("buildIds", buildIds.stream().map(ID::get).collect(Collectors.toList())),
+                (rs, num) -> toBuild(rs, branchId -> branches.computeIfAbsent(branchId, this::getBranch))
+        );
+    }
+
     protected Build toBuild(ResultSet rs, Function<ID, Branch> branchSupplier) throws SQLException {
         return Build.of(
                 branchSupplier.apply(id(rs, "branchId")),
@@ -412,6 +578,42 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         ));
     }
 
+    @Override
+    public Optional<Build> getBuildByName(ID branchId, String build) {
+        return getOptional(
+                "SELECT * FROM BUILDS WHERE BRANCHID = :branchId AND NAME = :name",
+                params("branchId", branchId.get()).addValue("name", build),
+                (rs, rowNum) -> toBuild(rs, this::getBranch)
+        );
+    }
+
+    @Override
+    public List<Build> getBuildsByName(Branch branch, Collection<String> names) {
+        List<Build> builds = new ArrayList<>();
+        // Limiting the size of the IN clause
+        for (List<String> chunk : Iterables.partition(names, 500)) {
+            builds.addAll(getNamedParameterJdbcTemplate().query(
+                    "SELECT * FROM BUILDS WHERE BRANCHID = :branchId AND NAME IN (:names)",
+                    params("branchId", branch.id()).addValue("names", chunk),
+                    (rs, rowNum) -> toBuild(rs, id -> branch)
+            ));
+        }
+        return builds;
+    }
+
+    @Override
+    public Optional<Build> getLastBuildByNameInProject(ID projectId, String build) {
+        return Optional.ofNullable(
+                getFirstItem(
+                        "SELECT B.* FROM BUILDS B INNER JOIN BRANCHES R ON R.ID = B.BRANCHID " +
+                                "WHERE R.PROJECTID = :projectId AND B.NAME = :name " +
+                                "ORDER BY B.ID DESC LIMIT 1",
+                        params("projectId", projectId.get()).addValue("name", build),
+                        (rs, rowNum) -> toBuild(rs, this::getBranch)
+                )
+        );
+    }
+
     @Override
     public Optional<Build> findBuildAfterUsingNumericForm(ID branchId, String buildName) {
         return Optional.ofNullable(
@@ -637,6 +839,58 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<ID, List<PromotionRun>> getLastPromotionRunsForBuilds(Collection<Build> builds) {
+        Map<ID, List<PromotionRun>> index = new HashMap<>();
+        if (builds.isEmpty()) {
+            return index;
+        }
+        Map<ID, Build> buildIndex = builds.stream().collect(Collectors.toMap(Build::getId, build -> build, (a, b) -> a));
+        Map<ID, PromotionLevel> promotionLevels = new HashMap<>();
+        // Runs sorted by promotion level, the most recent one first
+        getNamedParameterJdbcTemplate().query(
+                "SELECT PR.* FROM PROMOTION_RUNS PR " +
+                        "INNER JOIN PROMOTION_LEVELS PL ON PL.ID = PR.PROMOTIONLEVELID " +
+                        "WHERE PR.BUILDID IN (:buildIds) " +
+                        "ORDER BY PR.BUILDID, PL.ORDERNB, PR.CREATION DESC, PR.ID DESC",
+                params("buildIds", buildIndex.keySet().stream().map(ID::get).collect(Collectors.toList())),
+                (ResultSet rs) -> {
+                    List<PromotionRun> runs = index.computeIfAbsent(id(rs, "buildId"), id -> new ArrayList<>());
+                    ID promotionLevelId = id(rs, "promotionLevelId");
+                    // Keeps only the last run for each promotion level
+                    if (runs.isEmpty() || !promotionLevelId.equals(runs.get(runs.size() - 1).getPromotionLevel().getId())) {
+                        runs.add(toPromotionRun(
+                                rs,
+                                buildIndex::get,
+                                id -> promotionLevels.computeIfAbsent(id, this::getPromotionLevel)
+                        ));
+                    }
+                }
+        );
+        return index;
+    }
+
+    @Override
+    public Map<ID, List<PromotionRun>> getPromotionRunsForBuilds(Collection<Build> builds) {
+        Map<ID, List<PromotionRun>> index = new HashMap<>();
+        Map<ID, Build> buildIndex = builds.stream().collect(Collectors.toMap(Build::getId, build -> build, (a, b) -> a));
+        Map<ID, PromotionLevel> promotionLevels = new HashMap<>();
+        for (List<Integer> chunk : Iterables.partition(toIds(buildIndex.keySet()), 500)) {
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT * FROM PROMOTION_RUNS WHERE BUILDID IN (:buildIds) ORDER BY BUILDID, CREATION DESC",
+                    params("buildIds", chunk),
+                    (ResultSet rs) -> {
+                        index.computeIfAbsent(id(rs, "buildId"), id -> new ArrayList<>()).add(toPromotionRun(
+                                rs,
+                                buildIndex::get,
+                                id -> promotionLevels.computeIfAbsent(id, this::getPromotionLevel)
+                        ));
+                    }
+            );
+        }
+        return index;
+    }
+
     @Override
     public PromotionRun getLastPromotionRunForPromotionLevel(PromotionLevel promotionLevel) {
         return getFirstItem(
@@ -873,6 +1127,52 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         return getValidationRun(ID.of(id), validationRunStatusService);
     }
 
+    @Override
+    public List<ValidationRun> newValidationRuns(List<ValidationRun> validationRuns, Function<String, ValidationRunStatusID> validationRunStatusService) {
+        if (validationRuns.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Validation runs themselves (parents), through one statement, their generated IDs being needed
+        // for the statuses. The keys are read after each execution since H2 returns only the last one
+        // for a batch.
+        List<Integer> ids = getJdbcTemplate().execute(
+                (Connection connection) -> connection.prepareStatement(
+                        "INSERT INTO VALIDATION_RUNS(BUILDID, VALIDATIONSTAMPID) VALUES (?, ?)",
+                        Statement.RETURN_GENERATED_KEYS
+                ),
+                (PreparedStatement ps) -> {
+                    List<Integer> generatedIds = new ArrayList<>();
+                    for (ValidationRun validationRun : validationRuns) {
+                        ps.setInt(1, validationRun.getBuild().id());
+                        ps.setInt(2, validationRun.getValidationStamp().id());
+                        ps.executeUpdate();
+                        try (ResultSet rs = ps.getGeneratedKeys()) {
+                            rs.next();
+                            generatedIds.add(rs.getInt(1));
+                        }
+                    }
+                    return generatedIds;
+                }
+        );
+        // Statuses, all at once
+        List<MapSqlParameterSource> statuses = new ArrayList<>();
+        for (int i = 0; i < validationRuns.size(); i++) {
+            int id = ids.get(i);
+            validationRuns.get(i).getValidationRunStatuses()
+                    .forEach(validationRunStatus -> statuses.add(validationRunStatusParams(id, validationRunStatus)));
+        }
+        if (!statuses.isEmpty()) {
+            getNamedParameterJdbcTemplate().batchUpdate(
+                    INSERT_VALIDATION_RUN_STATUS,
+                    statuses.toArray(new MapSqlParameterSource[statuses.size()])
+            );
+        }
+        // Reloads the runs
+        return ids.stream()
+                .map(id -> getValidationRun(ID.of(id), validationRunStatusService))
+                .collect(Collectors.toList());
+    }
+
     @Override
     public ValidationRun getValidationRun(ID validationRunId, Function<String, ValidationRunStatusID> validationRunStatusService) {
         return getNamedParameterJdbcTemplate().queryForObject(
@@ -901,6 +1201,64 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public Map<ID, List<ValidationRun>> getValidationRunsForBuilds(Collection<Build> builds, Function<String, ValidationRunStatusID> validationRunStatusService) {
+        Map<ID, List<ValidationRun>> index = new HashMap<>();
+        Map<ID, Build> buildIndex = builds.stream().collect(Collectors.toMap(Build::getId, build -> build, (a, b) -> a));
+        Map<ID, ValidationStamp> validationStamps = new HashMap<>();
+        for (List<Integer> chunk : Iterables.partition(toIds(buildIndex.keySet()), 500)) {
+            // Runs, the run order being their rank for the same build & validation stamp
+            List<Integer> runIds = new ArrayList<>();
+            Map<Integer, ID> runBuilds = new HashMap<>();
+            Map<Integer, ValidationStamp> runStamps = new HashMap<>();
+            Map<Integer, Integer> runOrders = new HashMap<>();
+            Map<String, Integer> runCounts = new HashMap<>();
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT ID, BUILDID, VALIDATIONSTAMPID FROM VALIDATION_RUNS WHERE BUILDID IN (:buildIds) ORDER BY ID",
+                    params("buildIds", chunk),
+                    (ResultSet rs) -> {
+                        int id = rs.getInt("id");
+                        ID buildId = id(rs, "buildId");
+                        ID validationStampId = id(rs, "validationStampId");
+                        runIds.add(id);
+                        runBuilds.put(id, buildId);
+                        runStamps.put(id, validationStamps.computeIfAbsent(validationStampId, this::getValidationStamp));
+                        runOrders.put(id, runCounts.merge(buildId.get() + ":" + validationStampId.get(), 1, Integer::sum));
+                    }
+            );
+            // Statuses
+            Map<Integer, List<ValidationRunStatus>> statuses = new HashMap<>();
+            for (List<Integer> runChunk : Iterables.partition(runIds, 500)) {
+                getNamedParameterJdbcTemplate().query(
+                        "SELECT * FROM VALIDATION_RUN_STATUSES WHERE VALIDATIONRUNID IN (:runIds) ORDER BY VALIDATIONRUNID, CREATION DESC",
+                        params("runIds", runChunk),
+                        (ResultSet rs) -> {
+                            statuses.computeIfAbsent(rs.getInt("validationRunId"), id -> new ArrayList<>()).add(
+                                    ValidationRunStatus.of(
+                                            readSignature(rs),
+                                            validationRunStatusService.apply(rs.getString("validationRunStatusId")),
+                                            rs.getString("description")
+                                    )
+                            );
+                        }
+                );
+            }
+            // Runs
+            for (Integer id : runIds) {
+                ID buildId = runBuilds.get(id);
+                index.computeIfAbsent(buildId, key -> new ArrayList<>()).add(
+                        ValidationRun.of(
+                                buildIndex.get(buildId),
+                                runStamps.get(id),
+                                runOrders.get(id),
+                                statuses.getOrDefault(id, Collections.emptyList())
+                        ).withId(ID.of(id))
+                );
+            }
+        }
+        return index;
+    }
+
     @Override
     public List<ValidationRun> getValidationRunsForBuildAndValidationStamp(Build build, ValidationStamp validationStamp, Function<String, ValidationRunStatusID> validationRunStatusService) {
         return getNamedParameterJdbcTemplate().query(
@@ -931,6 +1289,37 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
         );
     }
 
+    @Override
+    public Map<ID, List<ValidationRunStatusID>> getLastValidationRunStatusesForValidationStamps(Collection<ValidationStamp> validationStamps, int count, Function<String, ValidationRunStatusID> validationRunStatusService) {
+        Map<ID, List<ValidationRunStatusID>> index = new HashMap<>();
+        List<ID> validationStampIds = validationStamps.stream().map(ValidationStamp::getId).distinct().collect(Collectors.toList());
+        // One limited sub-query per validation stamp, joined together
+        for (List<ID> chunk : Iterables.partition(validationStampIds, 100)) {
+            MapSqlParameterSource params = params("count", count);
+            List<String> queries = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                queries.add(String.format(
+                        "SELECT * FROM (SELECT ID, VALIDATIONSTAMPID, BUILDID FROM VALIDATION_RUNS WHERE VALIDATIONSTAMPID = :validationStamp%1$d ORDER BY BUILDID DESC, ID DESC LIMIT :count) R%1$d",
+                        i
+                ));
+                params.addValue("validationStamp" + i, chunk.get(i).get());
+            }
+            getNamedParameterJdbcTemplate().query(
+                    "SELECT VR.VALIDATIONSTAMPID, " +
+                            "(SELECT S.VALIDATIONRUNSTATUSID FROM VALIDATION_RUN_STATUSES S WHERE S.VALIDATIONRUNID = VR.ID ORDER BY S.CREATION DESC, S.ID DESC LIMIT 1) AS STATUS " +
+                            "FROM (" + StringUtils.join(queries, " UNION ALL ") + ") VR " +
+                            "ORDER BY VR.VALIDATIONSTAMPID, VR.BUILDID DESC, VR.ID DESC",
+                    params,
+                    (ResultSet rs) -> {
+                        index.computeIfAbsent(id(rs, "validationStampId"), id -> new ArrayList<>()).add(
+                                validationRunStatusService.apply(rs.getString("status"))
+                        );
+                    }
+            );
+        }
+        return index;
+    }
+
     @Override
     public ValidationRun newValidationRunStatus(ValidationRun validationRun, ValidationRunStatus runStatus) {
         // Saves the new status
@@ -941,16 +1330,19 @@ public class StructureJdbcRepository extends AbstractJdbcRepository implements S
 
     protected void newValidationRunStatus(int validationRunId, ValidationRunStatus validationRunStatus) {
         dbCreate(
-                "INSERT INTO VALIDATION_RUN_STATUSES(VALIDATIONRUNID, VALIDATIONRUNSTATUSID, CREATION, CREATOR, DESCRIPTION) " +
-                        "VALUES (:validationRunId, :validationRunStatusId, :creation, :creator, :description)",
-                params("validationRunId", validationRunId)
-                        .addValue("validationRunStatusId", validationRunStatus.getStatusID().getId())
-                        .addValue("description", validationRunStatus.getDescription())
-                        .addValue("creation", dateTimeForDB(validationRunStatus.getSignature().getTime()))
-                        .addValue("creator", validationRunStatus.getSignature().getUser().getName())
+                INSERT_VALIDATION_RUN_STATUS,
+                validationRunStatusParams(validationRunId, validationRunStatus)
         );
     }
 
+    private MapSqlParameterSource validationRunStatusParams(int validationRunId, ValidationRunStatus validationRunStatus) {
+        return params("validationRunId", validationRunId)
+                .addValue("validationRunStatusId", validationRunStatus.getStatusID().getId())
+                .addValue("description", validationRunStatus.getDescription())
+                .addValue("creation", dateTimeForDB(validationRunStatus.getSignature().getTime()))
+                .addValue("creator", validationRunStatus.getSignature().getUser().getName());
+    }
+
     protected ValidationRun toValidationRun(ResultSet rs,
                                             Function<ID, Build> buildSupplier,
                                             Function<ID, ValidationStamp> validationStampSupplier,
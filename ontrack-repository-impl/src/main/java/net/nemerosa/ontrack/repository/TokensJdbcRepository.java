@@ -0,0 +1,77 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.security.Token;
+import net.nemerosa.ontrack.repository.support.AbstractJdbcRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public class TokensJdbcRepository extends AbstractJdbcRepository implements TokensRepository {
+
+    @Autowired
+    public TokensJdbcRepository(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public void save(int accountId, String digest, LocalDateTime creation, LocalDateTime validUntil) {
+        invalidate(accountId);
+        getNamedParameterJdbcTemplate().update(
+                "INSERT INTO TOKENS (ACCOUNT, TOKEN, CREATION, VALID_UNTIL) VALUES (:account, :token, :creation, :validUntil)",
+                params("account", accountId)
+                        .addValue("token", digest)
+                        .addValue("creation", dateTimeForDB(creation))
+                        .addValue("validUntil", validUntil != null ? dateTimeForDB(validUntil) : null)
+        );
+    }
+
+    @Override
+    public Optional<Token> getForAccount(int accountId) {
+        return getOptional(
+                "SELECT * FROM TOKENS WHERE ACCOUNT = :account",
+                params("account", accountId),
+                (rs, num) -> new Token(
+                        "",
+                        dateTimeFromDB(rs.getString("CREATION")),
+                        getValidUntil(rs)
+                )
+        );
+    }
+
+    @Override
+    public void invalidate(int accountId) {
+        getNamedParameterJdbcTemplate().update(
+                "DELETE FROM TOKENS WHERE ACCOUNT = :account",
+                params("account", accountId)
+        );
+    }
+
+    @Override
+    public Optional<Integer> findAccountByToken(String digest, LocalDateTime time) {
+        return getOptional(
+                "SELECT * FROM TOKENS WHERE TOKEN = :token",
+                params("token", digest),
+                (rs, num) -> {
+                    LocalDateTime validUntil = getValidUntil(rs);
+                    if (validUntil == null || validUntil.isAfter(time)) {
+                        return rs.getInt("ACCOUNT");
+                    } else {
+                        return null;
+                    }
+                }
+        );
+    }
+
+    private LocalDateTime getValidUntil(ResultSet rs) throws SQLException {
+        String value = rs.getString("VALID_UNTIL");
+        return StringUtils.isNotBlank(value) ? dateTimeFromDB(value) : null;
+    }
+
+}
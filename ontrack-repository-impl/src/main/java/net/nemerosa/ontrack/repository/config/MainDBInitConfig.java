@@ -15,7 +15,7 @@ import java.util.stream.Collectors;
 @Component
 public class MainDBInitConfig extends AbstractDBInitConfig {
 
-    public static final int VERSION = 39;
+    public static final int VERSION = 41;
 
     private final ApplicationContext applicationContext;
 
@@ -0,0 +1,12 @@
+-- 40. API tokens
+
+CREATE TABLE TOKENS (
+  ACCOUNT     INTEGER     NOT NULL,
+  TOKEN       VARCHAR(64) NOT NULL,
+  CREATION    VARCHAR(24) NOT NULL,
+  VALID_UNTIL VARCHAR(24) NULL,
+  CONSTRAINT TOKENS_PK PRIMARY KEY (ACCOUNT),
+  CONSTRAINT TOKENS_UQ_TOKEN UNIQUE (TOKEN),
+  CONSTRAINT TOKENS_FK_ACCOUNT FOREIGN KEY (ACCOUNT) REFERENCES ACCOUNTS (ID)
+  ON DELETE CASCADE
+);
@@ -0,0 +1,9 @@
+-- 41. Job leases
+
+CREATE TABLE JOB_LEASES (
+  ID      VARCHAR(400) NOT NULL,
+  NODE    VARCHAR(200) NOT NULL,
+  EXPIRY  BIGINT       NOT NULL,
+  RUNNING BOOLEAN      NOT NULL,
+  CONSTRAINT JOB_LEASES_PK PRIMARY KEY (ID)
+);
@@ -0,0 +1,80 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.model.support.JobLease;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static net.nemerosa.ontrack.test.TestUtils.uid;
+import static org.junit.Assert.*;
+
+public class JobLeaseJdbcRepositoryIT extends AbstractRepositoryTestSupport {
+
+    @Autowired
+    private JobLeaseRepository repository;
+
+    private Optional<JobLease> getLease(String key) {
+        return repository.getLease(key);
+    }
+
+    @Test
+    public void lease_held_by_another_node() {
+        String key = uid("J");
+        LocalDateTime now = Time.now();
+        assertTrue(repository.acquire(key, "node1", now, now.plusMinutes(10), true, false));
+        assertFalse(repository.acquire(key, "node2", now, now.plusMinutes(10), true, false));
+        // Same node
+        assertTrue(repository.acquire(key, "node1", now, now.plusMinutes(10), true, false));
+        JobLease lease = getLease(key).orElseThrow(() -> new IllegalStateException("No lease"));
+        assertEquals("node1", lease.getNode());
+        assertTrue(lease.isRunning());
+    }
+
+    @Test
+    public void lease_expired() {
+        String key = uid("J");
+        LocalDateTime now = Time.now();
+        assertTrue(repository.acquire(key, "node1", now, now.plusMinutes(10), true, false));
+        assertTrue(repository.acquire(key, "node2", now.plusMinutes(11), now.plusMinutes(20), true, false));
+        assertEquals("node2", getLease(key).map(JobLease::getNode).orElse(null));
+    }
+
+    @Test
+    public void lease_released() {
+        String key = uid("J");
+        LocalDateTime now = Time.now();
+        assertTrue(repository.acquire(key, "node1", now, now.plusMinutes(10), true, false));
+        repository.release(key, "node1", now.plusMinutes(1));
+        // Still held
+        assertFalse(repository.acquire(key, "node2", now, now.plusMinutes(10), true, false));
+        // Until the new expiry
+        assertTrue(repository.acquire(key, "node2", now.plusMinutes(2), now.plusMinutes(10), true, false));
+    }
+
+    @Test
+    public void lease_taken_over_when_not_running() {
+        String key = uid("J");
+        LocalDateTime now = Time.now();
+        assertTrue(repository.acquire(key, "node1", now, now.plusMinutes(10), true, false));
+        // Cannot take over a running job
+        assertFalse(repository.acquire(key, "node2", now, now.plusMinutes(10), true, true));
+        repository.release(key, "node1", now.plusMinutes(10));
+        assertTrue(repository.acquire(key, "node2", now, now.plusMinutes(10), true, true));
+        assertEquals("node2", getLease(key).map(JobLease::getNode).orElse(null));
+    }
+
+    @Test
+    public void release_by_another_node_is_ignored() {
+        String key = uid("J");
+        LocalDateTime now = Time.now();
+        assertTrue(repository.acquire(key, "node1", now, now.plusMinutes(10), true, false));
+        repository.release(key, "node2", now);
+        JobLease lease = getLease(key).orElseThrow(() -> new IllegalStateException("No lease"));
+        assertEquals("node1", lease.getNode());
+        assertTrue(lease.isRunning());
+    }
+
+}
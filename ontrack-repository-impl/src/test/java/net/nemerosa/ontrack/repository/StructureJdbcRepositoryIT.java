@@ -4,6 +4,9 @@ import net.nemerosa.ontrack.model.structure.*;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.time.LocalDateTime;
+import java.util.*;
+
 import static net.nemerosa.ontrack.test.TestUtils.uid;
 import static org.junit.Assert.*;
 
@@ -44,6 +47,22 @@ public class StructureJdbcRepositoryIT extends AbstractRepositoryTestSupport {
         assertTrue("Build ID is defined", ID.isDefined(build.getId()));
     }
 
+    @Test
+    public void get_build_by_name_in_branch() {
+        Branch branch = do_create_branch();
+        Build build = structureRepository.newBuild(Build.of(
+                branch,
+                NameDescription.nd("1", ""),
+                Signature.of("test")
+        ));
+        // Existing build
+        assertEquals(build.getId(), structureRepository.getBuildByName(branch.getId(), "1").map(Build::getId).orElse(null));
+        // Missing build
+        assertFalse(structureRepository.getBuildByName(branch.getId(), "2").isPresent());
+        // Same name in another branch
+        assertFalse(structureRepository.getBuildByName(do_create_branch().getId(), "1").isPresent());
+    }
+
     @Test
     public void create_branch_with_null_description() {
         // Creates a project
@@ -96,4 +115,64 @@ public class StructureJdbcRepositoryIT extends AbstractRepositoryTestSupport {
         assertTrue("Project must be disabled", p.isDisabled());
     }
 
+    @Test
+    public void disable_branches() {
+        Project project = do_create_project();
+        Branch b1 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        Branch b2 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        Branch b3 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        structureRepository.disableBranches(Arrays.asList(b1.getId(), b2.getId()));
+        assertTrue(structureRepository.getBranch(b1.getId()).isDisabled());
+        assertTrue(structureRepository.getBranch(b2.getId()).isDisabled());
+        assertFalse(structureRepository.getBranch(b3.getId()).isDisabled());
+    }
+
+    @Test
+    public void last_build_times_for_project() {
+        Project project = do_create_project();
+        Branch b1 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        Branch b2 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        structureRepository.newBranch(Branch.of(project, nameDescription()));
+        LocalDateTime t1 = LocalDateTime.of(2017, 1, 10, 12, 0);
+        LocalDateTime t2 = LocalDateTime.of(2017, 1, 11, 12, 0);
+        LocalDateTime t3 = LocalDateTime.of(2017, 1, 12, 12, 0);
+        structureRepository.newBuild(Build.of(b1, NameDescription.nd("1", ""), Signature.of(t1, "test")));
+        structureRepository.newBuild(Build.of(b1, NameDescription.nd("2", ""), Signature.of(t2, "test")));
+        structureRepository.newBuild(Build.of(b2, NameDescription.nd("1", ""), Signature.of(t3, "test")));
+        // Builds in other projects are ignored
+        structureRepository.newBuild(Build.of(do_create_branch(), NameDescription.nd("1", ""), Signature.of(t1, "test")));
+        Map<ID, LocalDateTime> times = structureRepository.getLastBuildTimesForProject(project.getId());
+        assertEquals(2, times.size());
+        assertEquals(t2, times.get(b1.getId()));
+        assertEquals(t3, times.get(b2.getId()));
+    }
+
+    @Test
+    public void branches_promoted_to() {
+        Project project = do_create_project();
+        Branch b1 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        Branch b2 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        Branch b3 = structureRepository.newBranch(Branch.of(project, nameDescription()));
+        // Promoted to PRODUCTION
+        Build build1 = structureRepository.newBuild(Build.of(b1, NameDescription.nd("1", ""), Signature.of("test")));
+        PromotionLevel production1 = structureRepository.newPromotionLevel(PromotionLevel.of(b1, NameDescription.nd("PRODUCTION", "")));
+        structureRepository.newPromotionRun(PromotionRun.of(build1, production1, Signature.of("test"), ""));
+        // Promoted to another level
+        Build build2 = structureRepository.newBuild(Build.of(b2, NameDescription.nd("1", ""), Signature.of("test")));
+        PromotionLevel silver2 = structureRepository.newPromotionLevel(PromotionLevel.of(b2, NameDescription.nd("SILVER", "")));
+        structureRepository.newPromotionRun(PromotionRun.of(build2, silver2, Signature.of("test"), ""));
+        // Level without promotion
+        structureRepository.newPromotionLevel(PromotionLevel.of(b3, NameDescription.nd("PRODUCTION", "")));
+        // Checks
+        assertEquals(
+                Collections.singleton(b1.getId()),
+                structureRepository.getBranchesPromotedTo(project.getId(), Collections.singletonList("PRODUCTION"))
+        );
+        assertEquals(
+                new HashSet<>(Arrays.asList(b1.getId(), b2.getId())),
+                structureRepository.getBranchesPromotedTo(project.getId(), Arrays.asList("PRODUCTION", "SILVER"))
+        );
+        assertTrue(structureRepository.getBranchesPromotedTo(project.getId(), Collections.emptyList()).isEmpty());
+    }
+
 }
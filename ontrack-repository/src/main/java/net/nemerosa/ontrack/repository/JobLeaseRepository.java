@@ -0,0 +1,46 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.support.JobLease;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of the leases allowing an instance to run a job.
+ */
+public interface JobLeaseRepository {
+
+    /**
+     * Gets a lease, if it is free, expired or already held by the node.
+     *
+     * @param key      Job key or affinity
+     * @param node     Node getting the lease
+     * @param now      Current time
+     * @param expiry   End of the lease
+     * @param running  If the lease is acquired to run the job
+     * @param takeOver If the lease can also be taken from another node, as long as this node is not running the job
+     * @return <code>true</code> if the lease has been acquired
+     */
+    boolean acquire(String key, String node, LocalDateTime now, LocalDateTime expiry, boolean running, boolean takeOver);
+
+    /**
+     * Sets the end of a lease, if still held by the node.
+     *
+     * @param key    Job key or affinity
+     * @param node   Node holding the lease
+     * @param expiry End of the lease
+     */
+    void release(String key, String node, LocalDateTime expiry);
+
+    /**
+     * Gets a lease by its key
+     */
+    Optional<JobLease> getLease(String key);
+
+    /**
+     * Gets all the leases
+     */
+    List<JobLease> getLeases();
+
+}
@@ -4,8 +4,9 @@ import net.nemerosa.ontrack.common.Document;
 import net.nemerosa.ontrack.model.Ack;
 import net.nemerosa.ontrack.model.structure.*;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -39,6 +40,34 @@ public interface StructureRepository {
 
     Ack deleteBranch(ID branchId);
 
+    /**
+     * Disables several branches at once.
+     */
+    void disableBranches(Collection<ID> branchIds);
+
+    /**
+     * Deletes several branches at once.
+     */
+    void deleteBranches(Collection<ID> branchIds);
+
+    /**
+     * Gets, for each branch of a project having builds, the creation time of its last build.
+     *
+     * @param projectId ID of the project
+     * @return Index of the creation times per branch ID
+     */
+    Map<ID, LocalDateTime> getLastBuildTimesForProject(ID projectId);
+
+    /**
+     * Gets the branches of a project which have been promoted at least once to one of the given
+     * promotion levels.
+     *
+     * @param projectId            ID of the project
+     * @param promotionLevelNames Names of the promotion levels
+     * @return IDs of the promoted branches
+     */
+    Set<ID> getBranchesPromotedTo(ID projectId, Collection<String> promotionLevelNames);
+
     // Builds
 
     Build newBuild(Build build);
@@ -49,6 +78,22 @@ public interface StructureRepository {
 
     Optional<Build> getBuildByName(String project, String branch, String build);
 
+    Optional<Build> getBuildByName(ID branchId, String build);
+
+    /**
+     * Gets the builds of a branch having some given names.
+     *
+     * @param branch Branch to look into
+     * @param names  Names of the builds
+     * @return Builds which exist, in no particular order
+     */
+    List<Build> getBuildsByName(Branch branch, Collection<String> names);
+
+    /**
+     * Gets the most recent build having the given name in any branch of a project.
+     */
+    Optional<Build> getLastBuildByNameInProject(ID projectId, String build);
+
     Optional<Build> findBuildAfterUsingNumericForm(ID branchId, String buildName);
 
     int getBuildCount(Branch branch);
@@ -78,6 +123,15 @@ public interface StructureRepository {
 
     Build getLastBuildForBranch(Branch branch);
 
+    /**
+     * Gets the last builds of several branches, using one query.
+     *
+     * @param branches Branches to get the builds for
+     * @param count    Maximum number of builds per branch
+     * @return Builds, from the newest to the oldest, indexed by branch ID
+     */
+    Map<ID, List<Build>> getLastBuildsForBranches(Collection<Branch> branches, int count);
+
     Ack deleteBuild(ID buildId);
 
     /**
@@ -86,10 +140,20 @@ public interface StructureRepository {
 
     void addBuildLink(ID fromBuildId, ID toBuildId);
 
+    void addBuildLinks(ID fromBuildId, Collection<ID> toBuildIds);
+
     void deleteBuildLink(ID fromBuildId, ID toBuildId);
 
     List<Build> getBuildLinksFrom(ID buildId);
 
+    /**
+     * Gets the builds linked from several builds, using one query.
+     *
+     * @param buildIds IDs of the source builds
+     * @return Target builds indexed by source build ID
+     */
+    Map<ID, List<Build>> getBuildLinksFrom(Collection<ID> buildIds);
+
     List<Build> getBuildLinksTo(ID buildId);
 
     List<Build> searchBuildsLinkedTo(String projectName, String buildPattern);
@@ -98,6 +162,26 @@ public interface StructureRepository {
 
     boolean isLinkedTo(ID id, String project, String buildPattern);
 
+    /**
+     * Loops over all the build links.
+     *
+     * @param consumer Called with the IDs of the source and target builds of each link
+     */
+    void forEachBuildLink(BiConsumer<Integer, Integer> consumer);
+
+    /**
+     * Gets the IDs of the builds of a branch which are linked to or from other builds.
+     */
+    List<Integer> getLinkedBuildIds(ID branchId);
+
+    /**
+     * Gets several builds at once.
+     *
+     * @param buildIds IDs of the builds
+     * @return Builds which exist, in no particular order
+     */
+    List<Build> getBuilds(Collection<ID> buildIds);
+
     // Promotion levels
 
     List<PromotionLevel> getPromotionLevelListForBranch(ID branchId);
@@ -132,6 +216,22 @@ public interface StructureRepository {
 
     List<PromotionRun> getLastPromotionRunsForBuild(Build build);
 
+    /**
+     * Gets the last promotion run for each promotion level of several builds, using one query.
+     *
+     * @param builds Builds to get the promotions for
+     * @return Last promotion runs, in the order of the promotion levels, indexed by build ID
+     */
+    Map<ID, List<PromotionRun>> getLastPromotionRunsForBuilds(Collection<Build> builds);
+
+    /**
+     * Gets all the promotion runs of several builds, using one query.
+     *
+     * @param builds Builds to get the promotions for
+     * @return Promotion runs, the most recent first, indexed by build ID
+     */
+    Map<ID, List<PromotionRun>> getPromotionRunsForBuilds(Collection<Build> builds);
+
     PromotionRun getLastPromotionRunForPromotionLevel(PromotionLevel promotionLevel);
 
     Optional<PromotionRun> getLastPromotionRun(Build build, PromotionLevel promotionLevel);
@@ -170,13 +270,35 @@ public interface StructureRepository {
 
     ValidationRun newValidationRun(ValidationRun validationRun, Function<String, ValidationRunStatusID> validationRunStatusService);
 
+    /**
+     * Creates several validation runs, inserting their statuses in one batch.
+     */
+    List<ValidationRun> newValidationRuns(List<ValidationRun> validationRuns, Function<String, ValidationRunStatusID> validationRunStatusService);
+
     ValidationRun getValidationRun(ID validationRunId, Function<String, ValidationRunStatusID> validationRunStatusService);
 
     List<ValidationRun> getValidationRunsForBuild(Build build, Function<String, ValidationRunStatusID> validationRunStatusService);
 
+    /**
+     * Gets the validation runs of several builds, loading the runs and their statuses with one query each.
+     *
+     * @param builds Builds to get the validations for
+     * @return Validation runs indexed by build ID
+     */
+    Map<ID, List<ValidationRun>> getValidationRunsForBuilds(Collection<Build> builds, Function<String, ValidationRunStatusID> validationRunStatusService);
+
     List<ValidationRun> getValidationRunsForBuildAndValidationStamp(Build build, ValidationStamp validationStamp, Function<String, ValidationRunStatusID> validationRunStatusService);
 
     List<ValidationRun> getValidationRunsForValidationStamp(ValidationStamp validationStamp, int offset, int count, Function<String, ValidationRunStatusID> validationRunStatusService);
 
+    /**
+     * Gets the current status of the last validation runs of several validation stamps, using one query.
+     *
+     * @param validationStamps Validation stamps
+     * @param count            Maximum number of runs to get for each validation stamp
+     * @return Statuses of the last runs, from the most recent one, indexed by validation stamp ID
+     */
+    Map<ID, List<ValidationRunStatusID>> getLastValidationRunStatusesForValidationStamps(Collection<ValidationStamp> validationStamps, int count, Function<String, ValidationRunStatusID> validationRunStatusService);
+
     ValidationRun newValidationRunStatus(ValidationRun validationRun, ValidationRunStatus runStatus);
 }
@@ -0,0 +1,42 @@
+package net.nemerosa.ontrack.repository;
+
+import net.nemerosa.ontrack.model.security.Token;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Storage of the API tokens. Only the digests of the tokens are stored.
+ */
+public interface TokensRepository {
+
+    /**
+     * Saves the token of an account, replacing any existing one.
+     *
+     * @param accountId  ID of the account
+     * @param digest     Digest of the token
+     * @param creation   Creation time
+     * @param validUntil End of validity, <code>null</code> if the token does not expire
+     */
+    void save(int accountId, String digest, LocalDateTime creation, LocalDateTime validUntil);
+
+    /**
+     * Gets the token of an account, without its value.
+     */
+    Optional<Token> getForAccount(int accountId);
+
+    /**
+     * Removes the token of an account.
+     */
+    void invalidate(int accountId);
+
+    /**
+     * Gets the ID of the account owning a token which is still valid at the given time.
+     *
+     * @param digest Digest of the token
+     * @param time   Time of the check
+     * @return ID of the account
+     */
+    Optional<Integer> findAccountByToken(String digest, LocalDateTime time);
+
+}
@@ -0,0 +1,113 @@
+package net.nemerosa.ontrack.service;
+
+import net.nemerosa.ontrack.model.events.EventPostService;
+import net.nemerosa.ontrack.model.exceptions.BuildNotFoundException;
+import net.nemerosa.ontrack.model.exceptions.ProjectNotFoundException;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class BuildBatchServiceImpl implements BuildBatchService {
+
+    private final StructureService structureService;
+    private final PropertyService propertyService;
+    private final SecurityService securityService;
+    private final ValidationRunStatusService validationRunStatusService;
+    private final EventPostService eventPostService;
+
+    @Autowired
+    public BuildBatchServiceImpl(StructureService structureService, PropertyService propertyService, SecurityService securityService, ValidationRunStatusService validationRunStatusService, EventPostService eventPostService) {
+        this.structureService = structureService;
+        this.propertyService = propertyService;
+        this.securityService = securityService;
+        this.validationRunStatusService = validationRunStatusService;
+        this.eventPostService = eventPostService;
+    }
+
+    @Override
+    public Build process(Branch branch, BuildBatchRequest request) {
+        // All the events of the batch are notified once it is committed
+        return eventPostService.deferNotifications(() -> doProcess(branch, request));
+    }
+
+    private Build doProcess(Branch branch, BuildBatchRequest request) {
+        Signature signature = securityService.getCurrentSignature();
+        // Gets or creates the build
+        Build build = structureService.findBuildByName(branch.getId(), request.getName())
+                .orElseGet(() -> structureService.newBuild(
+                        Build.of(branch, new NameDescription(request.getName(), request.getDescription()), signature)
+                ));
+        // Build properties
+        editProperties(build, request.getProperties());
+        // Validation runs
+        if (!request.getValidationRuns().isEmpty()) {
+            List<ValidationRun> validationRuns = structureService.newValidationRuns(
+                    request.getValidationRuns().stream()
+                            .map(validationRunRequest -> ValidationRun.of(
+                                    build,
+                                    structureService.getOrCreateValidationStamp(branch, validationRunRequest.getValidationStampId(), validationRunRequest.getValidationStampName()),
+                                    0,
+                                    signature,
+                                    validationRunStatusService.getValidationRunStatus(validationRunRequest.getValidationRunStatusId()),
+                                    validationRunRequest.getDescription()
+                            ))
+                            .collect(Collectors.toList())
+            );
+            for (int i = 0; i < validationRuns.size(); i++) {
+                editProperties(validationRuns.get(i), request.getValidationRuns().get(i).getProperties());
+            }
+        }
+        // Promotion runs
+        if (!request.getPromotionRuns().isEmpty()) {
+            List<PromotionRun> promotionRuns = structureService.newPromotionRuns(
+                    request.getPromotionRuns().stream()
+                            .map(promotionRunRequest -> PromotionRun.of(
+                                    build,
+                                    structureService.getOrCreatePromotionLevel(branch, promotionRunRequest.getPromotionLevelId(), promotionRunRequest.getPromotionLevelName()),
+                                    signature.withTime(promotionRunRequest.getDateTime()),
+                                    promotionRunRequest.getDescription()
+                            ))
+                            .collect(Collectors.toList())
+            );
+            for (int i = 0; i < promotionRuns.size(); i++) {
+                editProperties(promotionRuns.get(i), request.getPromotionRuns().get(i).getProperties());
+            }
+        }
+        // Build links
+        if (!request.getLinks().isEmpty()) {
+            structureService.addBuildLinks(
+                    build,
+                    request.getLinks().stream()
+                            .map(this::getLinkTarget)
+                            .collect(Collectors.toList())
+            );
+        }
+        // OK
+        return build;
+    }
+
+    private void editProperties(ProjectEntity entity, List<PropertyCreationRequest> properties) {
+        for (PropertyCreationRequest property : properties) {
+            propertyService.editProperty(
+                    entity,
+                    property.getPropertyTypeName(),
+                    property.getPropertyData()
+            );
+        }
+    }
+
+    private Build getLinkTarget(BuildLinkFormItem item) {
+        Project project = structureService.findProjectByName(item.getProject())
+                .orElseThrow(() -> new ProjectNotFoundException(item.getProject()));
+        return structureService.findLastBuildByNameInProject(project.getId(), item.getBuild())
+                .orElseThrow(() -> new BuildNotFoundException(item.getProject(), item.getBuild()));
+    }
+
+}
@@ -0,0 +1,293 @@
+package net.nemerosa.ontrack.service;
+
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import net.nemerosa.ontrack.model.support.StartupService;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the build links, used to traverse the build graph without querying
+ * the database for each hop.
+ * <p>
+ * Build IDs are used directly as indexes in two arrays: one for the links from a build, one for the links
+ * to a build. Each entry is a sorted array of build IDs, which is never modified once published, so that it
+ * can be read outside of the lock.
+ * <p>
+ * Changes to the links are applied once they are committed. The links of the builds deleted in cascade (by the
+ * deletion of a build, a branch or a project) are removed from the index the same way.
+ * <p>
+ * Each node keeps its index up to date only for the changes it makes itself. When several nodes share
+ * the same database (<code>ontrack.config.jobs.cluster.enabled</code>), the index is loaded again once it is
+ * older than <code>ontrack.config.build-graph-refresh</code> seconds, so that the links created or deleted by
+ * the other nodes are seen after this delay.
+ */
+@Component
+public class BuildGraphIndex implements StartupService {
+
+    private static final int[] NONE = new int[0];
+
+    private final Logger logger = LoggerFactory.getLogger(BuildGraphIndex.class);
+
+    private final StructureRepository structureRepository;
+    /**
+     * Maximum age of the index (in milliseconds), 0 when it is never loaded again
+     */
+    private final long refreshPeriod;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int[][] downstream = new int[0][];
+    private int[][] upstream = new int[0][];
+    private volatile boolean loaded = false;
+    private volatile long loadedAt = 0;
+
+    @Autowired
+    public BuildGraphIndex(StructureRepository structureRepository, OntrackConfigProperties ontrackConfigProperties) {
+        this.structureRepository = structureRepository;
+        this.refreshPeriod = ontrackConfigProperties.getJobs().getCluster().isEnabled() ?
+                TimeUnit.SECONDS.toMillis(ontrackConfigProperties.getBuildGraphRefresh()) :
+                0;
+    }
+
+    @Override
+    public String getName() {
+        return "Build graph index";
+    }
+
+    @Override
+    public int startupOrder() {
+        return 100;
+    }
+
+    @Override
+    public void start() {
+        ensureLoaded();
+    }
+
+    /**
+     * IDs of the builds the given build is linked to
+     */
+    public int[] getDownstream(int buildId) {
+        return get(buildId, true);
+    }
+
+    /**
+     * IDs of the builds linked to the given build
+     */
+    public int[] getUpstream(int buildId) {
+        return get(buildId, false);
+    }
+
+    /**
+     * Records some links, once the current transaction is committed.
+     */
+    public void addLinks(int fromBuildId, int... toBuildIds) {
+        afterCommit(() -> update(() -> {
+            for (int toBuildId : toBuildIds) {
+                downstream = insert(downstream, fromBuildId, toBuildId);
+                upstream = insert(upstream, toBuildId, fromBuildId);
+            }
+        }));
+    }
+
+    /**
+     * Removes a link, once the current transaction is committed.
+     */
+    public void deleteLink(int fromBuildId, int toBuildId) {
+        afterCommit(() -> update(() -> {
+            downstream = remove(downstream, fromBuildId, toBuildId);
+            upstream = remove(upstream, toBuildId, fromBuildId);
+        }));
+    }
+
+    /**
+     * Removes all the links from and to some builds, once the current transaction is committed.
+     */
+    public void deleteBuilds(int... buildIds) {
+        afterCommit(() -> update(() -> {
+            for (int buildId : buildIds) {
+                int[] targets = buildId < downstream.length ? downstream[buildId] : null;
+                if (targets != null) {
+                    for (int target : targets) {
+                        upstream = remove(upstream, target, buildId);
+                    }
+                    downstream[buildId] = null;
+                }
+                int[] sources = buildId < upstream.length ? upstream[buildId] : null;
+                if (sources != null) {
+                    for (int source : sources) {
+                        downstream = remove(downstream, source, buildId);
+                    }
+                    upstream[buildId] = null;
+                }
+            }
+        }));
+    }
+
+    private int[] get(int buildId, boolean down) {
+        ensureLoaded();
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            int[][] index = down ? downstream : upstream;
+            if (buildId >= 0 && buildId < index.length && index[buildId] != null) {
+                return index[buildId];
+            } else {
+                return NONE;
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void update(Runnable change) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            // Changes are ignored when the index is to be loaded anyway
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean isUpToDate() {
+        return loaded && (refreshPeriod <= 0 || System.currentTimeMillis() - loadedAt < refreshPeriod);
+    }
+
+    private void ensureLoaded() {
+        if (!isUpToDate()) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (!isUpToDate()) {
+                    long start = System.currentTimeMillis();
+                    load();
+                    loadedAt = start;
+                    loaded = true;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        // Collects all the links
+        int[][] links = {new int[1024], new int[1024]};
+        int[] count = new int[1];
+        structureRepository.forEachBuildLink((from, to) -> {
+            int n = count[0];
+            if (n == links[0].length) {
+                links[0] = Arrays.copyOf(links[0], n * 2);
+                links[1] = Arrays.copyOf(links[1], n * 2);
+            }
+            links[0][n] = from;
+            links[1][n] = to;
+            count[0]++;
+        });
+        // Indexes
+        downstream = index(links[0], links[1], count[0]);
+        upstream = index(links[1], links[0], count[0]);
+        logger.info("[build-graph] {} build links loaded in {} ms", count[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Groups the values per key.
+     */
+    private static int[][] index(int[] keys, int[] values, int count) {
+        int max = -1;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, keys[i]);
+        }
+        // Size of each row
+        int[] sizes = new int[max + 1];
+        for (int i = 0; i < count; i++) {
+            sizes[keys[i]]++;
+        }
+        int[][] index = new int[max + 1][];
+        for (int key = 0; key <= max; key++) {
+            if (sizes[key] > 0) {
+                index[key] = new int[sizes[key]];
+            }
+        }
+        // Filling the rows
+        int[] positions = new int[max + 1];
+        for (int i = 0; i < count; i++) {
+            int key = keys[i];
+            index[key][positions[key]++] = values[i];
+        }
+        for (int[] row : index) {
+            if (row != null) {
+                Arrays.sort(row);
+            }
+        }
+        return index;
+    }
+
+    private static int[][] insert(int[][] index, int from, int to) {
+        if (from >= index.length) {
+            index = Arrays.copyOf(index, Math.max(from + 1, index.length + index.length / 2));
+        }
+        int[] row = index[from];
+        if (row == null) {
+            index[from] = new int[]{to};
+        } else {
+            int position = Arrays.binarySearch(row, to);
+            if (position < 0) {
+                int insertion = -position - 1;
+                int[] newRow = new int[row.length + 1];
+                System.arraycopy(row, 0, newRow, 0, insertion);
+                newRow[insertion] = to;
+                System.arraycopy(row, insertion, newRow, insertion + 1, row.length - insertion);
+                index[from] = newRow;
+            }
+        }
+        return index;
+    }
+
+    private static int[][] remove(int[][] index, int from, int to) {
+        if (from < index.length && index[from] != null) {
+            int[] row = index[from];
+            int position = Arrays.binarySearch(row, to);
+            if (position >= 0) {
+                if (row.length == 1) {
+                    index[from] = null;
+                } else {
+                    int[] newRow = new int[row.length - 1];
+                    System.arraycopy(row, 0, newRow, 0, position);
+                    System.arraycopy(row, position + 1, newRow, position, row.length - position - 1);
+                    index[from] = newRow;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+}
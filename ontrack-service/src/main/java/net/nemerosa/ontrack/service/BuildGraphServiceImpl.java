@@ -0,0 +1,150 @@
+package net.nemerosa.ontrack.service;
+
+import net.nemerosa.ontrack.model.security.ProjectView;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+public class BuildGraphServiceImpl implements BuildGraphService {
+
+    private final BuildGraphIndex buildGraphIndex;
+    private final StructureRepository structureRepository;
+    private final StructureService structureService;
+    private final SecurityService securityService;
+
+    @Autowired
+    public BuildGraphServiceImpl(BuildGraphIndex buildGraphIndex, StructureRepository structureRepository, StructureService structureService, SecurityService securityService) {
+        this.buildGraphIndex = buildGraphIndex;
+        this.structureRepository = structureRepository;
+        this.structureService = structureService;
+        this.securityService = securityService;
+    }
+
+    @Override
+    public List<BuildGraphNode> getDownstreamBuilds(Build build, int depth, String promotion) {
+        return filterByPromotion(
+                traverse(build, depth, buildGraphIndex::getDownstream, null).nodes,
+                promotion
+        );
+    }
+
+    @Override
+    public List<BuildGraphNode> getUpstreamBuilds(Build build, int depth, String promotion) {
+        return filterByPromotion(
+                traverse(build, depth, buildGraphIndex::getUpstream, null).nodes,
+                promotion
+        );
+    }
+
+    @Override
+    public List<Build> getPath(Build from, Build to, int depth) {
+        securityService.checkProjectFunction(from, ProjectView.class);
+        securityService.checkProjectFunction(to, ProjectView.class);
+        if (from.id() == to.id()) {
+            return Collections.singletonList(from);
+        }
+        Traversal traversal = traverse(from, depth, buildGraphIndex::getDownstream, to.id());
+        if (!traversal.builds.containsKey(to.id())) {
+            return Collections.emptyList();
+        } else {
+            LinkedList<Build> path = new LinkedList<>();
+            Integer current = to.id();
+            while (current != null) {
+                path.addFirst(traversal.builds.get(current));
+                current = traversal.parents.get(current);
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Breadth-first traversal, loading the builds of each level at once.
+     *
+     * @param start      Starting build
+     * @param depth      Maximum depth
+     * @param neighbours Links to follow from a build
+     * @param target     If not <code>null</code>, the traversal stops as soon as this build is reached
+     */
+    private Traversal traverse(Build start, int depth, IntFunction<int[]> neighbours, Integer target) {
+        securityService.checkProjectFunction(start, ProjectView.class);
+        int maxDepth = Math.min(Math.max(depth, 0), MAX_DEPTH);
+        Traversal traversal = new Traversal();
+        traversal.builds.put(start.id(), start);
+        List<Build> level = Collections.singletonList(start);
+        for (int currentDepth = 1; currentDepth <= maxDepth && !level.isEmpty(); currentDepth++) {
+            // Next builds to visit, with the build they are reached from
+            Map<Integer, Integer> next = new LinkedHashMap<>();
+            for (Build build : level) {
+                for (int id : neighbours.apply(build.id())) {
+                    if (!traversal.builds.containsKey(id)) {
+                        next.putIfAbsent(id, build.id());
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                break;
+            }
+            // Loads the builds, keeping only the visible ones
+            List<Build> builds = structureRepository.getBuilds(
+                    next.keySet().stream().map(ID::of).collect(Collectors.toList())
+            ).stream()
+                    .filter(build -> securityService.isProjectFunctionGranted(build, ProjectView.class))
+                    .sorted((a, b) -> Integer.compare(b.id(), a.id()))
+                    .collect(Collectors.toList());
+            for (Build build : builds) {
+                traversal.builds.put(build.id(), build);
+                traversal.parents.put(build.id(), next.get(build.id()));
+                traversal.nodes.add(new BuildGraphNode(build, currentDepth));
+            }
+            if (target != null && traversal.builds.containsKey(target)) {
+                break;
+            }
+            level = builds;
+        }
+        return traversal;
+    }
+
+    private List<BuildGraphNode> filterByPromotion(List<BuildGraphNode> nodes, String promotion) {
+        if (StringUtils.isBlank(promotion) || nodes.isEmpty()) {
+            return nodes;
+        } else {
+            Map<ID, List<PromotionRun>> promotions = structureService.getLastPromotionRunsForBuilds(
+                    nodes.stream().map(BuildGraphNode::getBuild).collect(Collectors.toList())
+            );
+            return nodes.stream()
+                    .filter(node -> promotions.getOrDefault(node.getBuild().getId(), Collections.emptyList()).stream()
+                            .anyMatch(run -> StringUtils.equals(promotion, run.getPromotionLevel().getName()))
+                    )
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static class Traversal {
+
+        /**
+         * Visited builds, indexed by ID
+         */
+        private final Map<Integer, Build> builds = new HashMap<>();
+
+        /**
+         * For each build, the build it was reached from
+         */
+        private final Map<Integer, Integer> parents = new HashMap<>();
+
+        /**
+         * Builds reached from the starting build, in order of depth
+         */
+        private final List<BuildGraphNode> nodes = new ArrayList<>();
+    }
+
+}
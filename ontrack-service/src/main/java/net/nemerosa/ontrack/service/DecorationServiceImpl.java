@@ -1,66 +1,269 @@
 package net.nemerosa.ontrack.service;
 
+import com.codahale.metrics.MetricRegistry;
 import net.nemerosa.ontrack.common.BaseException;
 import net.nemerosa.ontrack.extension.api.DecorationExtension;
 import net.nemerosa.ontrack.extension.api.ExtensionManager;
 import net.nemerosa.ontrack.model.security.SecurityService;
-import net.nemerosa.ontrack.model.structure.Decoration;
-import net.nemerosa.ontrack.model.structure.DecorationService;
-import net.nemerosa.ontrack.model.structure.Decorator;
-import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.model.structure.*;
+import net.nemerosa.ontrack.model.support.DecorationConfigProperties;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.util.Collections;
-import java.util.List;
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.IntStream;
 
 @Service
 @Transactional
 public class DecorationServiceImpl implements DecorationService {
 
+    private final Logger logger = LoggerFactory.getLogger(DecorationServiceImpl.class);
+
     private final ExtensionManager extensionManager;
     private final SecurityService securityService;
+    private final MetricRegistry metricRegistry;
+    private final DecorationConfigProperties config;
+
+    /**
+     * Pool used to compute the {@link DecoratorCost#EXPENSIVE expensive} decorations.
+     */
+    private final ExecutorService executor;
 
     @Autowired
-    public DecorationServiceImpl(ExtensionManager extensionManager, SecurityService securityService) {
+    public DecorationServiceImpl(ExtensionManager extensionManager, SecurityService securityService, MetricRegistry metricRegistry, OntrackConfigProperties ontrackConfigProperties) {
         this.extensionManager = extensionManager;
         this.securityService = securityService;
+        this.metricRegistry = metricRegistry;
+        this.config = ontrackConfigProperties.getDecorations();
+        this.executor = new ThreadPoolExecutor(
+                config.getPoolSize(),
+                config.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(config.getPoolSize() * 10),
+                new BasicThreadFactory.Builder()
+                        .daemon(true)
+                        .namingPattern("decoration-%s")
+                        .build(),
+                // When the pool is saturated, the decoration is skipped
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
     }
 
     @Override
     public List<Decoration<?>> getDecorations(ProjectEntity entity) {
-        // Downloading a decoration with the current security context
-        Function<Decorator, Stream<Decoration<?>>> securedDecoratorFunction = securityService.runner(
-                decorator -> getDecorations(entity, decorator).stream()
-        );
+        // Gets the decorators for this entity
+        List<DecorationExtension<?>> decorators = getDecorators().stream()
+                // ... and filters per entity
+                .filter(decorator -> decorator.getScope().contains(entity.getProjectEntityType()))
+                .collect(Collectors.toList());
+        // Launches the expensive decorators in the background
+        long deadline = System.currentTimeMillis() + config.getTimeout();
+        Map<Decorator<?>, Future<List<Decoration<?>>>> futures = new HashMap<>();
+        for (DecorationExtension<?> decorator : decorators) {
+            if (decorator.getCost() == DecoratorCost.EXPENSIVE) {
+                futures.put(decorator, submit(decorator, () -> getDecorations(entity, decorator), Collections::emptyList));
+            }
+        }
+        // Collects the decorations, in the order of the decorators
+        List<Decoration<?>> decorations = new ArrayList<>();
+        for (DecorationExtension<?> decorator : decorators) {
+            Future<List<Decoration<?>>> future = futures.get(decorator);
+            if (future != null) {
+                decorations.addAll(
+                        await(future, deadline, error -> Collections.singletonList(Decoration.error(decorator, error)))
+                );
+            } else {
+                decorations.addAll(getDecorations(entity, decorator));
+            }
+        }
         // OK
+        return decorations;
+    }
+
+    @Override
+    public List<List<Decoration<?>>> getDecorations(List<? extends ProjectEntity> entities) {
+        // Decorations for each entity
+        List<List<Decoration<?>>> result = new ArrayList<>();
+        entities.forEach(entity -> result.add(new ArrayList<>()));
+        // For each decorator, the positions of the entities in its scope
+        Map<DecorationExtension<?>, List<Integer>> positions = new LinkedHashMap<>();
+        for (DecorationExtension<?> decorator : getDecorators()) {
+            List<Integer> indexes = IntStream.range(0, entities.size())
+                    .filter(index -> decorator.getScope().contains(entities.get(index).getProjectEntityType()))
+                    .boxed()
+                    .collect(Collectors.toList());
+            if (!indexes.isEmpty()) {
+                positions.put(decorator, indexes);
+            }
+        }
+        // Launches the expensive decorators in the background
+        long deadline = System.currentTimeMillis() + config.getTimeout();
+        Map<Decorator<?>, Future<List<List<Decoration<?>>>>> futures = new HashMap<>();
+        positions.forEach((decorator, indexes) -> {
+            if (decorator.getCost() == DecoratorCost.EXPENSIVE) {
+                List<ProjectEntity> scopedEntities = indexes.stream().<ProjectEntity>map(entities::get).collect(Collectors.toList());
+                futures.put(decorator, submit(
+                        decorator,
+                        () -> getDecorations(scopedEntities, decorator),
+                        () -> scopedEntities.stream()
+                                .<List<Decoration<?>>>map(entity -> Collections.emptyList())
+                                .collect(Collectors.toList())
+                ));
+            }
+        });
+        // Collects the decorations, in the order of the decorators
+        positions.forEach((decorator, indexes) -> {
+            List<List<Decoration<?>>> decorations;
+            Future<List<List<Decoration<?>>>> future = futures.get(decorator);
+            if (future != null) {
+                decorations = await(future, deadline, error -> indexes.stream()
+                        .<List<Decoration<?>>>map(index -> Collections.singletonList(Decoration.error(decorator, error)))
+                        .collect(Collectors.toList())
+                );
+            } else {
+                decorations = getDecorations(
+                        indexes.stream().<ProjectEntity>map(entities::get).collect(Collectors.toList()),
+                        decorator
+                );
+            }
+            for (int i = 0; i < indexes.size(); i++) {
+                result.get(indexes.get(i)).addAll(decorations.get(i));
+            }
+        });
+        // OK
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected List<DecorationExtension<?>> getDecorators() {
         return extensionManager.getExtensions(DecorationExtension.class)
                 .stream()
-                        // ... and filters per entity
-                .filter(decorator -> decorator.getScope().contains(entity.getProjectEntityType()))
-                        // ... and gets the decoration
-                .flatMap(securedDecoratorFunction)
-                        // OK
+                .map(decorator -> (DecorationExtension<?>) decorator)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Computes some decorations in the background, with the current security and request contexts.
+     * <p>
+     * When the pool is saturated, the decorations are skipped, like when they cannot be computed in time,
+     * rather than being computed in the calling thread without any timeout.
+     *
+     * @param decorator Decorator to run
+     * @param task      Computation of the decorations
+     * @param skipped   Decorations to return when the pool is saturated
+     */
+    protected <R> Future<R> submit(Decorator<?> decorator, Supplier<R> task, Supplier<R> skipped) {
+        // Downloading a decoration with the current security context
+        Supplier<R> securedTask = securityService.runner(task);
+        // Links might need the current request
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        try {
+            return executor.submit(() -> {
+                RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    return securedTask.get();
+                } finally {
+                    RequestContextHolder.setRequestAttributes(previousAttributes);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("[decoration] Pool is saturated, skipping {}", decorator.getClass().getSimpleName());
+            metricRegistry.counter("error.decoration.rejected").inc();
+            return CompletableFuture.completedFuture(skipped.get());
+        }
+    }
+
+    /**
+     * Waits for some decorations computed in the background, and converts any timeout into "error" decorations.
+     */
+    protected <R> R await(Future<R> future, long deadline, Function<String, R> errorFn) {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            metricRegistry.counter("error.decoration.timeout").inc();
+            return errorFn.apply("Decoration could not be computed in time");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return errorFn.apply("Problem while getting decoration");
+        } catch (ExecutionException ex) {
+            // Errors are already converted into decorations
+            return errorFn.apply("Problem while getting decoration");
+        }
+    }
+
+    /**
+     * Gets the decorations for a list of entities, and returns an "error" decoration for each entity in case of problem,
+     * including when the decorator does not return one list of decorations per entity.
+     */
+    protected <T> List<List<Decoration<?>>> getDecorations(List<ProjectEntity> entities, DecorationExtension<T> decorator) {
+        long start = System.currentTimeMillis();
+        try {
+            List<List<Decoration<T>>> entitiesDecorations = decorator.getDecorations(entities);
+            if (entitiesDecorations.size() != entities.size()) {
+                logger.error(
+                        "[decoration] {} returned {} lists of decorations for {} entities",
+                        decorator.getClass().getSimpleName(),
+                        entitiesDecorations.size(),
+                        entities.size()
+                );
+                throw new IllegalStateException("Decorations do not match the entities");
+            }
+            List<List<Decoration<?>>> decorations = new ArrayList<>();
+            for (List<Decoration<T>> entityDecorations : entitiesDecorations) {
+                decorations.add(new ArrayList<>(entityDecorations));
+            }
+            return decorations;
+        } catch (Exception ex) {
+            metricRegistry.counter("error.decoration").inc();
+            String error = getErrorMessage(ex);
+            return entities.stream()
+                    .<List<Decoration<?>>>map(entity -> Collections.singletonList(Decoration.error(decorator, error)))
+                    .collect(Collectors.toList());
+        } finally {
+            metricRegistry.timer(getDecoratorMetric(decorator)).update(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
+        }
+    }
+
     /**
      * Gets the decoration for an entity, and returns an "error" decoration in case of problem.
      */
-    protected <T> List<? extends Decoration> getDecorations(ProjectEntity entity, Decorator<T> decorator) {
+    protected <T> List<Decoration<?>> getDecorations(ProjectEntity entity, Decorator<T> decorator) {
+        long start = System.currentTimeMillis();
         try {
-            return decorator.getDecorations(entity);
+            return new ArrayList<>(decorator.getDecorations(entity));
         } catch (Exception ex) {
+            metricRegistry.counter("error.decoration").inc();
             return Collections.singletonList(
                     Decoration.error(decorator, getErrorMessage(ex))
             );
+        } finally {
+            metricRegistry.timer(getDecoratorMetric(decorator)).update(System.currentTimeMillis() - start, TimeUnit.MILLISECONDS);
         }
     }
 
+    protected String getDecoratorMetric(Decorator<?> decorator) {
+        return "decoration." + decorator.getClass().getSimpleName();
+    }
+
     /**
      * Decoration error message
      */
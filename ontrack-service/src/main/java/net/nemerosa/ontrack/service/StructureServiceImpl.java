@@ -54,9 +54,10 @@ public class StructureServiceImpl implements StructureService {
     private final PredefinedValidationStampService predefinedValidationStampService;
     private final DecorationService decorationService;
     private final ProjectFavouriteService projectFavouriteService;
+    private final BuildGraphIndex buildGraphIndex;
 
     @Autowired
-    public StructureServiceImpl(SecurityService securityService, EventPostService eventPostService, EventFactory eventFactory, ValidationRunStatusService validationRunStatusService, StructureRepository structureRepository, ExtensionManager extensionManager, PropertyService propertyService, PredefinedPromotionLevelService predefinedPromotionLevelService, PredefinedValidationStampService predefinedValidationStampService, DecorationService decorationService, ProjectFavouriteService projectFavouriteService) {
+    public StructureServiceImpl(SecurityService securityService, EventPostService eventPostService, EventFactory eventFactory, ValidationRunStatusService validationRunStatusService, StructureRepository structureRepository, ExtensionManager extensionManager, PropertyService propertyService, PredefinedPromotionLevelService predefinedPromotionLevelService, PredefinedValidationStampService predefinedValidationStampService, DecorationService decorationService, ProjectFavouriteService projectFavouriteService, BuildGraphIndex buildGraphIndex) {
         this.securityService = securityService;
         this.eventPostService = eventPostService;
         this.eventFactory = eventFactory;
@@ -68,28 +69,31 @@ public class StructureServiceImpl implements StructureService {
         this.predefinedValidationStampService = predefinedValidationStampService;
         this.decorationService = decorationService;
         this.projectFavouriteService = projectFavouriteService;
+        this.buildGraphIndex = buildGraphIndex;
     }
 
     @Override
     public List<ProjectStatusView> getProjectStatusViews() {
-        return getProjectList().stream()
-                .map(project -> new ProjectStatusView(
-                        project,
-                        decorationService.getDecorations(project),
-                        getBranchStatusViews(project.getId())
-                ))
-                .collect(Collectors.toList());
+        return getProjectStatusViews(getProjectList());
     }
 
     @Override
     public List<ProjectStatusView> getProjectStatusViewsForFavourites() {
-        return getProjectFavourites().stream()
-                .map(project -> new ProjectStatusView(
-                        project,
-                        decorationService.getDecorations(project),
-                        getBranchStatusViews(project.getId())
-                ))
-                .collect(Collectors.toList());
+        return getProjectStatusViews(getProjectFavourites());
+    }
+
+    protected List<ProjectStatusView> getProjectStatusViews(List<Project> projects) {
+        List<List<Decoration<?>>> decorations = decorationService.getDecorations(projects);
+        List<ProjectStatusView> views = new ArrayList<>();
+        for (int i = 0; i < projects.size(); i++) {
+            Project project = projects.get(i);
+            views.add(new ProjectStatusView(
+                    project,
+                    decorations.get(i),
+                    getBranchStatusViews(project.getId())
+            ));
+        }
+        return views;
     }
 
     @Override
@@ -145,6 +149,7 @@ public class StructureServiceImpl implements StructureService {
         Validate.isTrue(projectId.isSet(), "Project ID must be set");
         securityService.checkProjectFunction(projectId.getValue(), ProjectDelete.class);
         eventPostService.post(eventFactory.deleteProject(getProject(projectId)));
+        structureRepository.getBranchesForProject(projectId).forEach(branch -> deleteLinkedBuilds(branch.getId()));
         return structureRepository.deleteProject(projectId);
     }
 
@@ -178,16 +183,24 @@ public class StructureServiceImpl implements StructureService {
 
     @Override
     public List<BranchStatusView> getBranchStatusViews(ID projectId) {
-        return getBranchesForProject(projectId).stream()
-                .map(this::getBranchStatusView)
-                .collect(Collectors.toList());
+        List<Branch> branches = getBranchesForProject(projectId);
+        List<List<Decoration<?>>> decorations = decorationService.getDecorations(branches);
+        List<BranchStatusView> views = new ArrayList<>();
+        for (int i = 0; i < branches.size(); i++) {
+            views.add(getBranchStatusView(branches.get(i), decorations.get(i)));
+        }
+        return views;
     }
 
     @Override
     public BranchStatusView getBranchStatusView(Branch branch) {
+        return getBranchStatusView(branch, decorationService.getDecorations(branch));
+    }
+
+    protected BranchStatusView getBranchStatusView(Branch branch, List<Decoration<?>> decorations) {
         return new BranchStatusView(
                 branch,
-                decorationService.getDecorations(branch),
+                decorations,
                 getLastBuildForBranch(branch),
                 getPromotionLevelListForBranch(branch.getId()).stream()
                         .map(this::toPromotionView)
@@ -210,9 +223,65 @@ public class StructureServiceImpl implements StructureService {
         Branch branch = getBranch(branchId);
         securityService.checkProjectFunction(branch.projectId(), BranchDelete.class);
         eventPostService.post(eventFactory.deleteBranch(branch));
+        deleteLinkedBuilds(branchId);
         return structureRepository.deleteBranch(branchId);
     }
 
+    /**
+     * Removes the builds of a branch from the build graph.
+     */
+    private void deleteLinkedBuilds(ID branchId) {
+        buildGraphIndex.deleteBuilds(
+                structureRepository.getLinkedBuildIds(branchId).stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    @Override
+    public void disableBranches(List<Branch> branches) {
+        branches.forEach(branch -> {
+            isEntityDefined(branch, "Branch must be defined");
+            isEntityDefined(branch.getProject(), "Project must be defined");
+        });
+        branches.stream().map(Branch::projectId).distinct()
+                .forEach(projectId -> securityService.checkProjectFunction(projectId, BranchEdit.class));
+        structureRepository.disableBranches(
+                branches.stream().map(Branch::getId).collect(Collectors.toList())
+        );
+        eventPostService.post(
+                branches.stream()
+                        .map(branch -> eventFactory.updateBranch(branch.withDisabled(true)))
+                        .collect(Collectors.toList())
+        );
+    }
+
+    @Override
+    public void deleteBranches(List<Branch> branches) {
+        branches.forEach(branch -> isEntityDefined(branch, "Branch must be defined"));
+        branches.stream().map(Branch::projectId).distinct()
+                .forEach(projectId -> securityService.checkProjectFunction(projectId, BranchDelete.class));
+        eventPostService.post(
+                branches.stream()
+                        .map(eventFactory::deleteBranch)
+                        .collect(Collectors.toList())
+        );
+        branches.forEach(branch -> deleteLinkedBuilds(branch.getId()));
+        structureRepository.deleteBranches(
+                branches.stream().map(Branch::getId).collect(Collectors.toList())
+        );
+    }
+
+    @Override
+    public Map<ID, LocalDateTime> getLastBuildTimesForProject(ID projectId) {
+        securityService.checkProjectFunction(projectId.get(), ProjectView.class);
+        return structureRepository.getLastBuildTimesForProject(projectId);
+    }
+
+    @Override
+    public Set<ID> getBranchesPromotedTo(ID projectId, Collection<String> promotionLevelNames) {
+        securityService.checkProjectFunction(projectId.get(), ProjectView.class);
+        return structureRepository.getBranchesPromotedTo(projectId, promotionLevelNames);
+    }
+
     protected PromotionView toPromotionView(PromotionLevel promotionLevel) {
         // Gets the last build having this promotion level
         PromotionRun promotionRun = getLastPromotionRunForPromotionLevel(promotionLevel);
@@ -267,6 +336,12 @@ public class StructureServiceImpl implements StructureService {
         return structureRepository.getLastBuildForBranch(branch);
     }
 
+    @Override
+    public Map<ID, List<Build>> getLastBuildsForBranches(List<Branch> branches, int count) {
+        branches.forEach(branch -> securityService.checkProjectFunction(branch.projectId(), ProjectView.class));
+        return structureRepository.getLastBuildsForBranches(branches, count);
+    }
+
     @Override
     public int getBuildCount(Branch branch) {
         return structureRepository.getBuildCount(branch);
@@ -278,6 +353,7 @@ public class StructureServiceImpl implements StructureService {
         Build build = getBuild(buildId);
         securityService.checkProjectFunction(build.projectId(), BuildDelete.class);
         eventPostService.post(eventFactory.deleteBuild(build));
+        buildGraphIndex.deleteBuilds(buildId.get());
         return structureRepository.deleteBuild(buildId);
     }
 
@@ -300,6 +376,32 @@ public class StructureServiceImpl implements StructureService {
     @Override
     public Build newBuild(Build build) {
         // Validation
+        checkNewBuild(build);
+        // Repository
+        Build newBuild = structureRepository.newBuild(build);
+        // Event
+        eventPostService.post(eventFactory.newBuild(newBuild));
+        // OK
+        return newBuild;
+    }
+
+    @Override
+    public List<Build> newBuilds(List<Build> builds) {
+        // Validation
+        builds.forEach(this::checkNewBuild);
+        // Actual creation
+        List<Build> newBuilds = builds.stream()
+                .map(structureRepository::newBuild)
+                .collect(Collectors.toList());
+        // Events
+        eventPostService.post(
+                newBuilds.stream().map(eventFactory::newBuild).collect(Collectors.toList())
+        );
+        // OK
+        return newBuilds;
+    }
+
+    private void checkNewBuild(Build build) {
         isEntityNew(build, "Build must be new");
         isEntityDefined(build.getBranch(), "Branch must be defined");
         isEntityDefined(build.getBranch().getProject(), "Project must be defined");
@@ -311,12 +413,6 @@ public class StructureServiceImpl implements StructureService {
         securityService.checkProjectFunction(build.getBranch().getProject().id(), BuildCreate.class);
         // Build validation
         validateBuild(build);
-        // Repository
-        Build newBuild = structureRepository.newBuild(build);
-        // Event
-        eventPostService.post(eventFactory.newBuild(newBuild));
-        // OK
-        return newBuild;
     }
 
     @Override
@@ -461,6 +557,18 @@ public class StructureServiceImpl implements StructureService {
         securityService.checkProjectFunction(fromBuild, BuildConfig.class);
         securityService.checkProjectFunction(toBuild, ProjectView.class);
         structureRepository.addBuildLink(fromBuild.getId(), toBuild.getId());
+        buildGraphIndex.addLinks(fromBuild.id(), toBuild.id());
+    }
+
+    @Override
+    public void addBuildLinks(Build fromBuild, List<Build> toBuilds) {
+        securityService.checkProjectFunction(fromBuild, BuildConfig.class);
+        toBuilds.forEach(toBuild -> securityService.checkProjectFunction(toBuild, ProjectView.class));
+        structureRepository.addBuildLinks(
+                fromBuild.getId(),
+                toBuilds.stream().map(Build::getId).distinct().collect(Collectors.toList())
+        );
+        buildGraphIndex.addLinks(fromBuild.id(), toBuilds.stream().mapToInt(Build::id).toArray());
     }
 
     @Override
@@ -468,6 +576,7 @@ public class StructureServiceImpl implements StructureService {
         securityService.checkProjectFunction(fromBuild, BuildConfig.class);
         securityService.checkProjectFunction(toBuild, ProjectView.class);
         structureRepository.deleteBuildLink(fromBuild.getId(), toBuild.getId());
+        buildGraphIndex.deleteLink(fromBuild.id(), toBuild.id());
     }
 
     @Override
@@ -478,6 +587,20 @@ public class StructureServiceImpl implements StructureService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Map<ID, List<Build>> getBuildLinksFrom(List<Build> builds) {
+        builds.forEach(build -> securityService.checkProjectFunction(build, ProjectView.class));
+        Map<ID, List<Build>> links = structureRepository.getBuildLinksFrom(
+                builds.stream().map(Build::getId).collect(Collectors.toList())
+        );
+        // Keeps only the accessible targets
+        links.replaceAll((id, targets) -> targets.stream()
+                .filter(b -> securityService.isProjectFunctionGranted(b, ProjectView.class))
+                .collect(Collectors.toList())
+        );
+        return links;
+    }
+
     @Override
     public List<Build> getBuildLinksTo(Build build) {
         securityService.checkProjectFunction(build, ProjectView.class);
@@ -750,6 +873,33 @@ public class StructureServiceImpl implements StructureService {
 
     @Override
     public PromotionRun newPromotionRun(PromotionRun promotionRun) {
+        // Actual creation
+        PromotionRun newPromotionRun = structureRepository.newPromotionRun(checkNewPromotionRun(promotionRun));
+        // Event
+        eventPostService.post(eventFactory.newPromotionRun(newPromotionRun));
+        // OK
+        return newPromotionRun;
+    }
+
+    @Override
+    public List<PromotionRun> newPromotionRuns(List<PromotionRun> promotionRuns) {
+        // Actual creation
+        List<PromotionRun> newPromotionRuns = promotionRuns.stream()
+                .map(this::checkNewPromotionRun)
+                .map(structureRepository::newPromotionRun)
+                .collect(Collectors.toList());
+        // Events
+        eventPostService.post(
+                newPromotionRuns.stream().map(eventFactory::newPromotionRun).collect(Collectors.toList())
+        );
+        // OK
+        return newPromotionRuns;
+    }
+
+    /**
+     * Checks a promotion run before its creation and returns the one to save.
+     */
+    private PromotionRun checkNewPromotionRun(PromotionRun promotionRun) {
         // Validation
         isEntityNew(promotionRun, "Promotion run must be new");
         isEntityDefined(promotionRun.getBuild(), "Build must be defined");
@@ -771,12 +921,8 @@ public class StructureServiceImpl implements StructureService {
         } else {
             promotionRunToSave = promotionRun;
         }
-        // Actual creation
-        PromotionRun newPromotionRun = structureRepository.newPromotionRun(promotionRunToSave);
-        // Event
-        eventPostService.post(eventFactory.newPromotionRun(newPromotionRun));
         // OK
-        return newPromotionRun;
+        return promotionRunToSave;
     }
 
     @Override
@@ -800,6 +946,18 @@ public class StructureServiceImpl implements StructureService {
         return structureRepository.getLastPromotionRunsForBuild(build);
     }
 
+    @Override
+    public Map<ID, List<PromotionRun>> getLastPromotionRunsForBuilds(List<Build> builds) {
+        builds.forEach(build -> securityService.checkProjectFunction(build, ProjectView.class));
+        return structureRepository.getLastPromotionRunsForBuilds(builds);
+    }
+
+    @Override
+    public Map<ID, List<PromotionRun>> getPromotionRunsForBuilds(List<Build> builds) {
+        builds.forEach(build -> securityService.checkProjectFunction(build, ProjectView.class));
+        return structureRepository.getPromotionRunsForBuilds(builds);
+    }
+
     @Override
     public Optional<PromotionRun> getLastPromotionRunForBuildAndPromotionLevel(Build build, PromotionLevel promotionLevel) {
         securityService.checkProjectFunction(build, ProjectView.class);
@@ -856,6 +1014,27 @@ public class StructureServiceImpl implements StructureService {
                 .filter(b -> securityService.isProjectFunctionGranted(b, ProjectView.class));
     }
 
+    @Override
+    public Optional<Build> findBuildByName(ID branchId, String build) {
+        return structureRepository.getBuildByName(branchId, build)
+                .filter(b -> securityService.isProjectFunctionGranted(b, ProjectView.class));
+    }
+
+    @Override
+    public List<Build> findBuildsByName(Branch branch, Collection<String> names) {
+        if (names.isEmpty() || !securityService.isProjectFunctionGranted(branch, ProjectView.class)) {
+            return Collections.emptyList();
+        } else {
+            return structureRepository.getBuildsByName(branch, names);
+        }
+    }
+
+    @Override
+    public Optional<Build> findLastBuildByNameInProject(ID projectId, String build) {
+        return structureRepository.getLastBuildByNameInProject(projectId, build)
+                .filter(b -> securityService.isProjectFunctionGranted(b, ProjectView.class));
+    }
+
     @Override
     public BranchStatusView getEarliestPromotionsAfterBuild(Build build) {
         return new BranchStatusView(
@@ -893,6 +1072,32 @@ public class StructureServiceImpl implements StructureService {
         return view;
     }
 
+    @Override
+    public List<BuildView> getBuildViews(List<Build> builds, boolean withDecorations) {
+        Map<ID, List<PromotionRun>> promotionRuns = getLastPromotionRunsForBuilds(builds);
+        Map<ID, List<ValidationRun>> validationRuns = getValidationRunsForBuilds(builds);
+        // Validation stamps, shared by the builds of the same branch
+        Map<ID, List<ValidationStamp>> validationStamps = new HashMap<>();
+        List<List<Decoration<?>>> decorations = withDecorations ? decorationService.getDecorations(builds) : null;
+        List<BuildView> views = new ArrayList<>();
+        for (int i = 0; i < builds.size(); i++) {
+            Build build = builds.get(i);
+            List<ValidationRun> runs = validationRuns.getOrDefault(build.getId(), Collections.emptyList());
+            BuildView view = BuildView.of(build)
+                    .withPromotionRuns(promotionRuns.getOrDefault(build.getId(), Collections.emptyList()))
+                    .withValidationStampRunViews(
+                            validationStamps.computeIfAbsent(build.getBranch().getId(), this::getValidationStampListForBranch).stream()
+                                    .map(stamp -> getValidationStampRunView(runs, stamp))
+                                    .collect(Collectors.toList())
+                    );
+            if (decorations != null) {
+                view = view.withDecorations(decorations.get(i));
+            }
+            views.add(view);
+        }
+        return views;
+    }
+
     @Override
     public Document getValidationStampImage(ID validationStampId) {
         // Checks access
@@ -1070,6 +1275,30 @@ public class StructureServiceImpl implements StructureService {
     @Override
     public ValidationRun newValidationRun(ValidationRun validationRun) {
         // Validation
+        checkNewValidationRun(validationRun);
+        // Actual creation
+        ValidationRun newValidationRun = structureRepository.newValidationRun(validationRun, validationRunStatusService::getValidationRunStatus);
+        // Event
+        eventPostService.post(eventFactory.newValidationRun(newValidationRun));
+        // OK
+        return newValidationRun;
+    }
+
+    @Override
+    public List<ValidationRun> newValidationRuns(List<ValidationRun> validationRuns) {
+        // Validation
+        validationRuns.forEach(this::checkNewValidationRun);
+        // Actual creation
+        List<ValidationRun> newValidationRuns = structureRepository.newValidationRuns(validationRuns, validationRunStatusService::getValidationRunStatus);
+        // Events
+        eventPostService.post(
+                newValidationRuns.stream().map(eventFactory::newValidationRun).collect(Collectors.toList())
+        );
+        // OK
+        return newValidationRuns;
+    }
+
+    private void checkNewValidationRun(ValidationRun validationRun) {
         isEntityNew(validationRun, "Validation run must be new");
         isEntityDefined(validationRun.getBuild(), "Build must be defined");
         isEntityDefined(validationRun.getValidationStamp(), "Validation stamp must be defined");
@@ -1077,12 +1306,6 @@ public class StructureServiceImpl implements StructureService {
                 "Validation run for a validation stamp can be done only on the same branch than the build.");
         // Checks the authorization
         securityService.checkProjectFunction(validationRun.getBuild().getBranch().getProject().id(), ValidationRunCreate.class);
-        // Actual creation
-        ValidationRun newValidationRun = structureRepository.newValidationRun(validationRun, validationRunStatusService::getValidationRunStatus);
-        // Event
-        eventPostService.post(eventFactory.newValidationRun(newValidationRun));
-        // OK
-        return newValidationRun;
     }
 
     @Override
@@ -1099,6 +1322,12 @@ public class StructureServiceImpl implements StructureService {
         return structureRepository.getValidationRunsForBuild(build, validationRunStatusService::getValidationRunStatus);
     }
 
+    @Override
+    public Map<ID, List<ValidationRun>> getValidationRunsForBuilds(List<Build> builds) {
+        builds.forEach(build -> securityService.checkProjectFunction(build, ProjectView.class));
+        return structureRepository.getValidationRunsForBuilds(builds, validationRunStatusService::getValidationRunStatus);
+    }
+
     @Override
     public List<ValidationRun> getValidationRunsForBuildAndValidationStamp(ID buildId, ID validationStampId) {
         Build build = getBuild(buildId);
@@ -1114,6 +1343,12 @@ public class StructureServiceImpl implements StructureService {
         return structureRepository.getValidationRunsForValidationStamp(validationStamp, offset, count, validationRunStatusService::getValidationRunStatus);
     }
 
+    @Override
+    public Map<ID, List<ValidationRunStatusID>> getLastValidationRunStatusesForValidationStamps(List<ValidationStamp> validationStamps, int count) {
+        validationStamps.forEach(validationStamp -> securityService.checkProjectFunction(validationStamp, ProjectView.class));
+        return structureRepository.getLastValidationRunStatusesForValidationStamps(validationStamps, count, validationRunStatusService::getValidationRunStatus);
+    }
+
     @Override
     public ValidationRun newValidationRunStatus(ValidationRun validationRun, ValidationRunStatus runStatus) {
         // Entity check
@@ -7,7 +7,17 @@ import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.repository.EventRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -16,23 +26,76 @@ public class EventPostServiceImpl implements EventPostService {
     private final SecurityService securityService;
     private final EventRepository eventRepository;
     private final EventListenerService eventListenerService;
+    private final TransactionTemplate listenerTransactionTemplate;
+
+    /**
+     * Set while the notifications are deferred
+     */
+    private final ThreadLocal<Boolean> deferred = ThreadLocal.withInitial(() -> false);
 
     @Autowired
-    public EventPostServiceImpl(SecurityService securityService, EventRepository eventRepository, EventListenerService eventListenerService) {
+    public EventPostServiceImpl(SecurityService securityService, EventRepository eventRepository, EventListenerService eventListenerService, PlatformTransactionManager transactionManager) {
         this.securityService = securityService;
         this.eventRepository = eventRepository;
         this.eventListenerService = eventListenerService;
+        // Listeners notified after a commit cannot join the completed transaction
+        this.listenerTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.listenerTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     public void post(Event event) {
+        Event savedEvent = save(event);
+        if (deferred.get()) {
+            notifyListeners(Collections.singletonList(savedEvent));
+        } else {
+            eventListenerService.onEvent(savedEvent);
+        }
+    }
+
+    @Override
+    public void post(List<Event> events) {
+        notifyListeners(events.stream().map(this::save).collect(Collectors.toList()));
+    }
+
+    @Override
+    public <T> T deferNotifications(Supplier<T> code) {
+        boolean previous = deferred.get();
+        deferred.set(true);
+        try {
+            return code.get();
+        } finally {
+            deferred.set(previous);
+        }
+    }
+
+    /**
+     * Notifies the listeners once the changes are visible, that is, after the current transaction
+     * (if any) has been committed. Nothing is notified if this transaction is rolled back.
+     */
+    private void notifyListeners(List<Event> savedEvents) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    listenerTransactionTemplate.execute(status -> {
+                        savedEvents.forEach(eventListenerService::onEvent);
+                        return null;
+                    });
+                }
+            });
+        } else {
+            savedEvents.forEach(eventListenerService::onEvent);
+        }
+    }
+
+    private Event save(Event event) {
         Event e = event;
         if (e.getSignature() == null) {
             e = e.withSignature(securityService.getCurrentSignature());
         }
         eventRepository.post(e);
-        // Notification to the listeners
-        eventListenerService.onEvent(event);
+        return e;
     }
 
 }
@@ -0,0 +1,134 @@
+package net.nemerosa.ontrack.service.job;
+
+import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.job.Job;
+import net.nemerosa.ontrack.job.JobLeaseManager;
+import net.nemerosa.ontrack.model.support.JobClusterConfigProperties;
+import net.nemerosa.ontrack.model.support.JobLease;
+import net.nemerosa.ontrack.model.support.JobLeaseService;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import net.nemerosa.ontrack.repository.JobLeaseRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leases stored in the database, shared by all the instances of Ontrack using it.
+ * <p>
+ * A job runs only on the instance holding its lease. After a run, the instance keeps the lease
+ * until the next run is due, so that the other instances skip the job in the meantime. If the job
+ * has an affinity, the instance must also hold the lease of this affinity, which it keeps for a while
+ * after its last run.
+ */
+@Component
+public class DatabaseJobLeaseManager implements JobLeaseManager, JobLeaseService {
+
+    private static final String AFFINITY_PREFIX = "affinity:";
+
+    private final Logger logger = LoggerFactory.getLogger(DatabaseJobLeaseManager.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final JobClusterConfigProperties config;
+    private final String node;
+
+    @Autowired
+    public DatabaseJobLeaseManager(JobLeaseRepository jobLeaseRepository, OntrackConfigProperties ontrackConfigProperties) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.config = ontrackConfigProperties.getJobs().getCluster();
+        this.node = StringUtils.isNotBlank(config.getNode()) ? config.getNode() : getHostName();
+    }
+
+    private static String getHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "ontrack";
+        }
+    }
+
+    @Override
+    public String getNode() {
+        return node;
+    }
+
+    @Override
+    public List<JobLease> getLeases() {
+        return jobLeaseRepository.getLeases();
+    }
+
+    @Override
+    public boolean acquire(Job job) {
+        return acquire(job, false);
+    }
+
+    /**
+     * A triggered run takes the job lease over from the other nodes, unless they are running the job. The affinity
+     * is never taken over, since it is not marked as running while its jobs run.
+     */
+    @Override
+    public boolean acquire(Job job, boolean triggered) {
+        LocalDateTime now = Time.now();
+        String affinity = job.getAffinity();
+        String affinityKey = AFFINITY_PREFIX + affinity;
+        Optional<JobLease> previousAffinity = Optional.empty();
+        if (affinity != null) {
+            previousAffinity = jobLeaseRepository.getLease(affinityKey);
+            if (!jobLeaseRepository.acquire(
+                    affinityKey,
+                    node,
+                    now,
+                    now.plus(config.getAffinityDuration(), ChronoUnit.MINUTES),
+                    false,
+                    false
+            )) {
+                logger.info("[job][lease]{} Affinity {} held by another node", job.getKey(), affinity);
+                return false;
+            }
+        }
+        boolean acquired = jobLeaseRepository.acquire(
+                job.getKey().toString(),
+                node,
+                now,
+                now.plus(config.getLeaseDuration(), ChronoUnit.MINUTES),
+                true,
+                triggered
+        );
+        if (!acquired && affinity != null) {
+            // The affinity is not extended by a job which does not run
+            LocalDateTime expiry = previousAffinity
+                    .filter(lease -> node.equals(lease.getNode()))
+                    .map(JobLease::getExpiry)
+                    .orElse(now);
+            jobLeaseRepository.release(affinityKey, node, expiry);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void release(Job job, long holdMs) {
+        LocalDateTime now = Time.now();
+        jobLeaseRepository.release(
+                job.getKey().toString(),
+                node,
+                now.plus(holdMs, ChronoUnit.MILLIS)
+        );
+        String affinity = job.getAffinity();
+        if (affinity != null) {
+            jobLeaseRepository.release(
+                    AFFINITY_PREFIX + affinity,
+                    node,
+                    now.plus(config.getAffinityDuration(), ChronoUnit.MINUTES)
+            );
+        }
+    }
+
+}
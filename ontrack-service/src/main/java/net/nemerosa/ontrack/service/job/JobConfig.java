@@ -1,9 +1,12 @@
 package net.nemerosa.ontrack.service.job;
 
 import com.codahale.metrics.MetricRegistry;
+import net.nemerosa.ontrack.job.JobLeaseManager;
 import net.nemerosa.ontrack.job.JobListener;
 import net.nemerosa.ontrack.job.JobScheduler;
 import net.nemerosa.ontrack.job.support.DefaultJobScheduler;
+import net.nemerosa.ontrack.model.settings.CachedSettingsService;
+import net.nemerosa.ontrack.model.settings.JobSettings;
 import net.nemerosa.ontrack.model.support.ApplicationLogService;
 import net.nemerosa.ontrack.model.support.JobConfigProperties;
 import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
@@ -32,14 +35,20 @@ public class JobConfig {
 
     private final SettingsRepository settingsRepository;
 
+    private final CachedSettingsService cachedSettingsService;
+
+    private final DatabaseJobLeaseManager databaseJobLeaseManager;
+
     @Autowired
-    public JobConfig(OntrackConfigProperties ontrackConfigProperties, DefaultJobDecorator jobDecorator, ApplicationLogService logService, MetricRegistry metricRegistry, CounterService counterService, SettingsRepository settingsRepository) {
+    public JobConfig(OntrackConfigProperties ontrackConfigProperties, DefaultJobDecorator jobDecorator, ApplicationLogService logService, MetricRegistry metricRegistry, CounterService counterService, SettingsRepository settingsRepository, CachedSettingsService cachedSettingsService, DatabaseJobLeaseManager databaseJobLeaseManager) {
         this.ontrackConfigProperties = ontrackConfigProperties;
         this.jobDecorator = jobDecorator;
         this.logService = logService;
         this.metricRegistry = metricRegistry;
         this.counterService = counterService;
         this.settingsRepository = settingsRepository;
+        this.cachedSettingsService = cachedSettingsService;
+        this.databaseJobLeaseManager = databaseJobLeaseManager;
     }
 
     @Bean
@@ -71,8 +80,15 @@ public class JobConfig {
                 jobExecutorService(),
                 jobListener(),
                 jobConfigProperties.isPausedAtStartup(),
+                (executorService, job) -> executorService,
                 jobConfigProperties.isScattering(),
-                jobConfigProperties.getScatteringRatio()
+                jobConfigProperties.getScatteringRatio(),
+                // Read on each job start, so that changes to the settings apply immediately
+                category -> cachedSettingsService.getCachedSettings(JobSettings.class).getPolicy(category),
+                // Jobs wait in the scheduler queue, by priority, instead of in the queue of the pool
+                jobConfigProperties.getPoolSize(),
+                // Sharing the jobs with other instances
+                jobConfigProperties.getCluster().isEnabled() ? databaseJobLeaseManager : JobLeaseManager.NONE
         );
     }
 
@@ -1,6 +1,7 @@
 package net.nemerosa.ontrack.service.job;
 
 import lombok.Data;
+import net.nemerosa.ontrack.job.JobCategoryStatus;
 import net.nemerosa.ontrack.job.JobScheduler;
 import net.nemerosa.ontrack.job.JobStatus;
 import net.nemerosa.ontrack.model.metrics.OntrackMetrics;
@@ -81,6 +82,14 @@ public class JobMetrics implements OntrackMetrics, OntrackTaggedMetrics {
             metrics.add(new Metric<>("gauge.jobs." + category + ".paused", metric.paused));
         }
 
+        // Queues per categories
+        for (JobCategoryStatus categoryStatus : scheduler.getCategoryStatuses()) {
+            String category = categoryStatus.getCategory().getKey();
+            metrics.add(new Metric<>("gauge.jobs." + category + ".queued", categoryStatus.getQueued()));
+            metrics.add(new Metric<>("gauge.jobs." + category + ".waitTimeMs", categoryStatus.getAverageWaitMs()));
+            metrics.add(new Metric<>("gauge.jobs." + category + ".maxWaitTimeMs", categoryStatus.getMaxWaitMs()));
+        }
+
         // OK
         return metrics;
     }
@@ -121,12 +130,35 @@ public class JobMetrics implements OntrackMetrics, OntrackTaggedMetrics {
         return String.format("ontrack.job.%s", measure);
     }
 
+    /**
+     * Queue metrics for ONE category.
+     */
+    protected Stream<TaggedMetric<?>> getCategoryMetrics(JobCategoryStatus status) {
+        return Stream.of(
+                count(status, "queued", status.getQueued()),
+                count(status, "running", status.getRunning()),
+                count(status, "startCount", status.getStartCount()),
+                count(status, "waitTimeMs", status.getAverageWaitMs()),
+                count(status, "maxWaitTimeMs", status.getMaxWaitMs())
+        );
+    }
+
+    protected TaggedMetric<Long> count(JobCategoryStatus status, String measure, long count) {
+        return TaggedMetric.of(String.format("ontrack.job.category.%s", measure), count)
+                .tag("category", status.getCategory().getKey())
+                .build();
+    }
+
     @Override
     public Collection<TaggedMetric<?>> getTaggedMetrics() {
-        return scheduler.getJobStatuses()
-                .stream()
-                .flatMap(this::getJobMetrics)
-                .collect(Collectors.toList());
+        return Stream.concat(
+                scheduler.getJobStatuses()
+                        .stream()
+                        .flatMap(this::getJobMetrics),
+                scheduler.getCategoryStatuses()
+                        .stream()
+                        .flatMap(this::getCategoryMetrics)
+        ).collect(Collectors.toList());
     }
 
     @Data
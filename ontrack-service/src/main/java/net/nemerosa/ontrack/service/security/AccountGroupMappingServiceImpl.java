@@ -21,10 +21,12 @@ import java.util.List;
 public class AccountGroupMappingServiceImpl implements AccountGroupMappingService {
 
     private final AccountGroupMappingRepository accountGroupMappingRepository;
+    private final AuthenticationCache authenticationCache;
 
     @Autowired
-    public AccountGroupMappingServiceImpl(AccountGroupMappingRepository accountGroupMappingRepository) {
+    public AccountGroupMappingServiceImpl(AccountGroupMappingRepository accountGroupMappingRepository, AuthenticationCache authenticationCache) {
         this.accountGroupMappingRepository = accountGroupMappingRepository;
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
@@ -39,6 +41,7 @@ public class AccountGroupMappingServiceImpl implements AccountGroupMappingServic
 
     @Override
     public AccountGroupMapping newMapping(String mapping, AccountGroupMappingInput input) {
+        authenticationCache.invalidate();
         return accountGroupMappingRepository.newMapping(mapping, input);
     }
 
@@ -55,12 +58,14 @@ public class AccountGroupMappingServiceImpl implements AccountGroupMappingServic
     @Override
     public AccountGroupMapping updateMapping(String mapping, ID id, AccountGroupMappingInput input) {
         getMapping(mapping, id);
+        authenticationCache.invalidate();
         return accountGroupMappingRepository.updateMapping(id, input);
     }
 
     @Override
     public Ack deleteMapping(String mapping, ID id) {
         getMapping(mapping, id);
+        authenticationCache.invalidate();
         return accountGroupMappingRepository.deleteMapping(id);
     }
 
@@ -31,6 +31,7 @@ public class AccountServiceImpl implements AccountService {
     private final SecurityService securityService;
     private final AuthenticationSourceService authenticationSourceService;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationCache authenticationCache;
     private Collection<AccountGroupContributor> accountGroupContributors = Collections.emptyList();
 
     @Autowired
@@ -41,7 +42,8 @@ public class AccountServiceImpl implements AccountService {
             AccountGroupRepository accountGroupRepository,
             SecurityService securityService,
             AuthenticationSourceService authenticationSourceService,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder,
+            AuthenticationCache authenticationCache) {
         this.roleRepository = roleRepository;
         this.rolesService = rolesService;
         this.accountRepository = accountRepository;
@@ -49,6 +51,7 @@ public class AccountServiceImpl implements AccountService {
         this.securityService = securityService;
         this.authenticationSourceService = authenticationSourceService;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
     }
 
     @Autowired(required = false)
@@ -147,6 +150,8 @@ public class AccountServiceImpl implements AccountService {
         }
         // Account groups
         accountGroupRepository.linkAccountToGroups(account.id(), input.getGroups());
+        // Authentications must be performed again
+        authenticationCache.invalidate();
         // OK
         return getAccount(accountId);
     }
@@ -160,6 +165,7 @@ public class AccountServiceImpl implements AccountService {
             throw new AccountDefaultAdminCannotDeleteException();
         }
         // Deletion
+        authenticationCache.invalidate();
         return accountRepository.deleteAccount(accountId);
     }
 
@@ -189,12 +195,14 @@ public class AccountServiceImpl implements AccountService {
         securityService.checkGlobalFunction(AccountGroupManagement.class);
         AccountGroup group = getAccountGroup(groupId).update(input);
         accountGroupRepository.update(group);
+        authenticationCache.invalidate();
         return group;
     }
 
     @Override
     public Ack deleteGroup(ID groupId) {
         securityService.checkGlobalFunction(AccountGroupManagement.class);
+        authenticationCache.invalidate();
         return accountGroupRepository.delete(groupId);
     }
 
@@ -239,9 +247,11 @@ public class AccountServiceImpl implements AccountService {
         switch (type) {
             case ACCOUNT:
                 securityService.checkGlobalFunction(AccountManagement.class);
+                authenticationCache.invalidate();
                 return roleRepository.saveGlobalRoleForAccount(id, input.getRole());
             case GROUP:
                 securityService.checkGlobalFunction(AccountGroupManagement.class);
+                authenticationCache.invalidate();
                 return roleRepository.saveGlobalRoleForGroup(id, input.getRole());
             default:
                 return Ack.NOK;
@@ -278,9 +288,11 @@ public class AccountServiceImpl implements AccountService {
         switch (type) {
             case ACCOUNT:
                 securityService.checkGlobalFunction(AccountManagement.class);
+                authenticationCache.invalidate();
                 return roleRepository.deleteGlobalRoleForAccount(id);
             case GROUP:
                 securityService.checkGlobalFunction(AccountGroupManagement.class);
+                authenticationCache.invalidate();
                 return roleRepository.deleteGlobalRoleForGroup(id);
             default:
                 return Ack.NOK;
@@ -316,6 +328,7 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public Ack saveProjectPermission(ID projectId, PermissionTargetType type, int id, PermissionInput input) {
         securityService.checkProjectFunction(projectId.getValue(), ProjectAuthorisationMgt.class);
+        authenticationCache.invalidate();
         switch (type) {
             case ACCOUNT:
                 return roleRepository.saveProjectRoleForAccount(projectId.getValue(), id, input.getRole());
@@ -329,6 +342,7 @@ public class AccountServiceImpl implements AccountService {
     @Override
     public Ack deleteProjectPermission(ID projectId, PermissionTargetType type, int id) {
         securityService.checkProjectFunction(projectId.getValue(), ProjectAuthorisationMgt.class);
+        authenticationCache.invalidate();
         switch (type) {
             case ACCOUNT:
                 return roleRepository.deleteProjectRoleForAccount(projectId.getValue(), id);
@@ -0,0 +1,117 @@
+package net.nemerosa.ontrack.service.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import net.nemerosa.ontrack.model.support.SecurityConfigProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the successful authentications, so that clients authenticating on each call (like CI agents)
+ * do not trigger a password check or an LDAP connection, and the loading of their ACL, each time.
+ * <p>
+ * The entries are indexed by a salted digest of the credentials: the credentials themselves are never kept.
+ * <p>
+ * Any change in the accounts, groups or permissions must {@link #invalidate() invalidate} the cache.
+ */
+@Component
+public class AuthenticationCache {
+
+    private final Cache<String, Authentication> cache;
+
+    /**
+     * Salt used for the digest of the credentials, specific to this instance.
+     */
+    private final byte[] salt = new byte[32];
+
+    /**
+     * Incremented on each invalidation, so that an authentication performed before an invalidation is not stored.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public AuthenticationCache(OntrackConfigProperties ontrackConfigProperties) {
+        SecurityConfigProperties config = ontrackConfigProperties.getSecurity();
+        if (config.getAuthenticationCacheMaxSize() > 0) {
+            cache = CacheBuilder.newBuilder()
+                    .maximumSize(config.getAuthenticationCacheMaxSize())
+                    .expireAfterWrite(config.getAuthenticationCacheTtl(), TimeUnit.SECONDS)
+                    .build();
+        } else {
+            cache = null;
+        }
+        new SecureRandom().nextBytes(salt);
+    }
+
+    /**
+     * Authenticates using the cache, or using the given authentication manager if the credentials
+     * are not cached yet.
+     */
+    public Authentication authenticate(Authentication authentication, AuthenticationManager authenticationManager) throws AuthenticationException {
+        if (cache == null || !(authentication.getCredentials() instanceof String)) {
+            return authenticationManager.authenticate(authentication);
+        }
+        String key = getKey(authentication);
+        Authentication result = cache.getIfPresent(key);
+        if (result == null) {
+            long current = generation.get();
+            result = authenticationManager.authenticate(authentication);
+            if (result != null && result.isAuthenticated()) {
+                synchronized (this) {
+                    if (current == generation.get()) {
+                        cache.put(key, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes all the cached authentications.
+     */
+    public void invalidate() {
+        if (cache != null) {
+            doInvalidate();
+            // Authentications performed before the change is committed are removed again afterwards
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        doInvalidate();
+                    }
+                });
+            }
+        }
+    }
+
+    private synchronized void doInvalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private String getKey(Authentication authentication) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putBytes(salt)
+                .putString(authentication.getClass().getName(), StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putString(authentication.getName(), StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putString((String) authentication.getCredentials(), StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+}
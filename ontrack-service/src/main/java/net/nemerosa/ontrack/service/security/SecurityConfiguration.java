@@ -15,9 +15,13 @@ public class SecurityConfiguration {
     @Autowired
     private List<AuthenticationProvider> authenticationProviders;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     @Bean
     public AuthenticationManager authenticationManager() {
-        return new ProviderManager(authenticationProviders);
+        ProviderManager providerManager = new ProviderManager(authenticationProviders);
+        return authentication -> authenticationCache.authenticate(authentication, providerManager);
     }
 
 }
@@ -0,0 +1,43 @@
+package net.nemerosa.ontrack.service.security;
+
+import net.nemerosa.ontrack.model.security.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authentication using an API token, without any password check or access to an external source.
+ */
+@Component
+public class TokenAuthenticationProvider implements AuthenticationProvider {
+
+    private final TokensService tokensService;
+    private final AccountService accountService;
+
+    @Autowired
+    public TokenAuthenticationProvider(TokensService tokensService, AccountService accountService) {
+        this.tokensService = tokensService;
+        this.accountService = accountService;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String token = (String) authentication.getCredentials();
+        AccountUserDetails userDetails = tokensService.findAccountByToken(token)
+                .map(AuthenticatedAccount::of)
+                .map(accountService::withACL)
+                .map(AccountUserDetails::new)
+                .orElseThrow(() -> new BadCredentialsException("Invalid token"));
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return TokenAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+}
@@ -0,0 +1,94 @@
+package net.nemerosa.ontrack.service.security;
+
+import com.google.common.hash.Hashing;
+import net.nemerosa.ontrack.common.Time;
+import net.nemerosa.ontrack.model.security.*;
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import net.nemerosa.ontrack.repository.AccountRepository;
+import net.nemerosa.ontrack.repository.TokensRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.codec.Hex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class TokensServiceImpl implements TokensService {
+
+    private final TokensRepository tokensRepository;
+    private final AccountRepository accountRepository;
+    private final SecurityService securityService;
+    private final AuthenticationSourceService authenticationSourceService;
+    private final AuthenticationCache authenticationCache;
+    private final OntrackConfigProperties ontrackConfigProperties;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public TokensServiceImpl(TokensRepository tokensRepository, AccountRepository accountRepository, SecurityService securityService, AuthenticationSourceService authenticationSourceService, AuthenticationCache authenticationCache, OntrackConfigProperties ontrackConfigProperties) {
+        this.tokensRepository = tokensRepository;
+        this.accountRepository = accountRepository;
+        this.securityService = securityService;
+        this.authenticationSourceService = authenticationSourceService;
+        this.authenticationCache = authenticationCache;
+        this.ontrackConfigProperties = ontrackConfigProperties;
+    }
+
+    @Override
+    public Token generateNewToken() {
+        Account account = getAccount();
+        // Random value
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String value = new String(Hex.encode(bytes));
+        // Validity
+        LocalDateTime creation = Time.now();
+        int validityDays = ontrackConfigProperties.getSecurity().getTokenValidityDays();
+        LocalDateTime validUntil = validityDays > 0 ? creation.plusDays(validityDays) : null;
+        // Saves only the digest
+        tokensRepository.save(account.id(), digest(value), creation, validUntil);
+        authenticationCache.invalidate();
+        // OK
+        return new Token(value, creation, validUntil);
+    }
+
+    @Override
+    public Optional<Token> getCurrentToken() {
+        return tokensRepository.getForAccount(getAccount().id());
+    }
+
+    @Override
+    public void revokeToken() {
+        tokensRepository.invalidate(getAccount().id());
+        authenticationCache.invalidate();
+    }
+
+    @Override
+    public Optional<Account> findAccountByToken(String token) {
+        return tokensRepository.findAccountByToken(digest(token), Time.now())
+                .map(accountId -> accountRepository.getAccount(ID.of(accountId), authenticationSourceService::getAuthenticationSource));
+    }
+
+    private Account getAccount() {
+        Account account = securityService.getCurrentAccount();
+        if (account == null || !ID.isDefined(account.getId())) {
+            throw new AccessDeniedException("Must be logged to manage tokens.");
+        }
+        return account;
+    }
+
+    /**
+     * Tokens are long random values, so a simple digest is enough to protect them.
+     */
+    private static String digest(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
+
+}
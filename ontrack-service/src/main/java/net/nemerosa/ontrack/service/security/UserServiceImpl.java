@@ -18,12 +18,14 @@ public class UserServiceImpl implements UserService {
     private final SecurityService securityService;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationCache authenticationCache;
 
     @Autowired
-    public UserServiceImpl(SecurityService securityService, AccountRepository accountRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(SecurityService securityService, AccountRepository accountRepository, PasswordEncoder passwordEncoder, AuthenticationCache authenticationCache) {
         this.securityService = securityService;
         this.accountRepository = accountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
     }
 
     @Override
@@ -44,6 +46,8 @@ public class UserServiceImpl implements UserService {
                     account.id(),
                     passwordEncoder.encode(input.getNewPassword())
             );
+            // The old password must not be accepted any longer
+            authenticationCache.invalidate();
             return Ack.OK;
         }
     }
@@ -0,0 +1,51 @@
+package net.nemerosa.ontrack.service.settings;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nemerosa.ontrack.json.ObjectMapperFactory;
+import net.nemerosa.ontrack.model.exceptions.JsonWritingException;
+import net.nemerosa.ontrack.model.form.Form;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.settings.AbstractSettingsManager;
+import net.nemerosa.ontrack.model.settings.CachedSettingsService;
+import net.nemerosa.ontrack.model.settings.JobSettings;
+import net.nemerosa.ontrack.model.support.SettingsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JobSettingsManager extends AbstractSettingsManager<JobSettings> {
+
+    private final SettingsRepository settingsRepository;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.create();
+
+    @Autowired
+    public JobSettingsManager(CachedSettingsService cachedSettingsService, SettingsRepository settingsRepository, SecurityService securityService) {
+        super(JobSettings.class, cachedSettingsService, securityService);
+        this.settingsRepository = settingsRepository;
+    }
+
+    @Override
+    protected Form getSettingsForm(JobSettings settings) {
+        return settings.form();
+    }
+
+    @Override
+    protected void doSaveSettings(JobSettings settings) {
+        try {
+            settingsRepository.setString(JobSettings.class, "categories", objectMapper.writeValueAsString(settings.getCategories()));
+        } catch (JsonProcessingException e) {
+            throw new JsonWritingException(e);
+        }
+    }
+
+    @Override
+    public String getId() {
+        return "jobs";
+    }
+
+    @Override
+    public String getTitle() {
+        return "Job execution";
+    }
+}
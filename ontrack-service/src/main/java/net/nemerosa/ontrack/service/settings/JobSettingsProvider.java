@@ -0,0 +1,50 @@
+package net.nemerosa.ontrack.service.settings;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.nemerosa.ontrack.json.ObjectMapperFactory;
+import net.nemerosa.ontrack.model.exceptions.JsonParsingException;
+import net.nemerosa.ontrack.model.settings.JobCategorySettings;
+import net.nemerosa.ontrack.model.settings.JobSettings;
+import net.nemerosa.ontrack.model.settings.SettingsProvider;
+import net.nemerosa.ontrack.model.support.SettingsRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+@Component
+public class JobSettingsProvider implements SettingsProvider<JobSettings> {
+
+    private final SettingsRepository settingsRepository;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.create();
+
+    @Autowired
+    public JobSettingsProvider(SettingsRepository settingsRepository) {
+        this.settingsRepository = settingsRepository;
+    }
+
+    @Override
+    public JobSettings getSettings() {
+        String categories = settingsRepository.getString(JobSettings.class, "categories", "");
+        if (StringUtils.isBlank(categories)) {
+            return JobSettings.of();
+        } else {
+            try {
+                return new JobSettings(
+                        objectMapper.readValue(categories, new TypeReference<List<JobCategorySettings>>() {
+                        })
+                );
+            } catch (IOException e) {
+                throw new JsonParsingException(e);
+            }
+        }
+    }
+
+    @Override
+    public Class<JobSettings> getSettingsClass() {
+        return JobSettings.class;
+    }
+}
@@ -0,0 +1,80 @@
+package net.nemerosa.ontrack.service
+
+import net.nemerosa.ontrack.it.AbstractServiceTestSupport
+import net.nemerosa.ontrack.model.structure.*
+import org.junit.Test
+import org.springframework.beans.factory.annotation.Autowired
+
+import static net.nemerosa.ontrack.model.structure.NameDescription.nd
+
+class BuildBatchServiceIT extends AbstractServiceTestSupport {
+
+    @Autowired
+    private BuildBatchService buildBatchService
+
+    @Test
+    void 'Build recorded with its validations, promotions and links'() {
+        def branch = doCreateBranch()
+        def vs1 = doCreateValidationStamp(branch, nd('VS1', ''))
+        def vs2 = doCreateValidationStamp(branch, nd('VS2', ''))
+        def pl = doCreatePromotionLevel(branch, nd('COPPER', ''))
+        def target = doCreateBuild()
+
+        def build = asAdmin().call {
+            buildBatchService.process(
+                    branch,
+                    new BuildBatchRequest(
+                            '1',
+                            'Build 1',
+                            [],
+                            [
+                                    new ValidationRunRequest(null, vs1.name, 'PASSED', '', []),
+                                    new ValidationRunRequest(null, vs2.name, 'FAILED', '', []),
+                            ],
+                            [
+                                    new PromotionRunRequest(null, pl.name, null, '', []),
+                            ],
+                            [
+                                    new BuildLinkFormItem(target.project.name, target.name),
+                            ]
+                    )
+            )
+        }
+
+        asAdmin().call {
+            assert build.name == '1'
+            assert build.description == 'Build 1'
+            def runs = structureService.getValidationRunsForBuild(build.id)
+            assert runs.collect { it.validationStamp.name }.sort() == ['VS1', 'VS2']
+            assert runs.find { it.validationStamp.name == 'VS2' }.lastStatus.statusID.id == 'FAILED'
+            assert structureService.getPromotionRunsForBuild(build.id).collect { it.promotionLevel.name } == ['COPPER']
+            assert structureService.getBuildLinksFrom(build).collect { it.id } == [target.id]
+        }
+    }
+
+    @Test
+    void 'Existing build is reused'() {
+        def build = doCreateBuild()
+        def vs = doCreateValidationStamp(build.branch, nd('VS', ''))
+
+        def recorded = asAdmin().call {
+            buildBatchService.process(
+                    build.branch,
+                    new BuildBatchRequest(
+                            build.name,
+                            'Other description',
+                            [],
+                            [new ValidationRunRequest(null, vs.name, 'PASSED', '', [])],
+                            [],
+                            []
+                    )
+            )
+        }
+
+        assert recorded.id == build.id
+        asAdmin().call {
+            assert structureService.getValidationRunsForBuild(build.id).size() == 1
+        }
+    }
+
+}
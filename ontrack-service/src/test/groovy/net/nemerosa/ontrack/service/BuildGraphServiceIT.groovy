@@ -0,0 +1,128 @@
+package net.nemerosa.ontrack.service
+
+import net.nemerosa.ontrack.it.AbstractServiceTestSupport
+import net.nemerosa.ontrack.model.security.BranchDelete
+import net.nemerosa.ontrack.model.security.BuildConfig
+import net.nemerosa.ontrack.model.security.BuildDelete
+import net.nemerosa.ontrack.model.structure.Build
+import net.nemerosa.ontrack.model.structure.BuildGraphService
+import net.nemerosa.ontrack.model.structure.NameDescription
+import org.junit.Test
+import org.springframework.beans.factory.annotation.Autowired
+
+class BuildGraphServiceIT extends AbstractServiceTestSupport {
+
+    @Autowired
+    private BuildGraphService buildGraphService
+
+    private void link(Build from, Build to) {
+        asUser().with(from, BuildConfig).withView(to).call {
+            structureService.addBuildLink(from, to)
+        }
+    }
+
+    /**
+     * a -> b -> c -> d
+     */
+    private List<Build> chain() {
+        def builds = (1..4).collect { doCreateBuild() }
+        link(builds[0], builds[1])
+        link(builds[1], builds[2])
+        link(builds[2], builds[3])
+        return builds
+    }
+
+    @Test
+    void 'Downstream builds limited by depth'() {
+        def (a, b, c, d) = chain()
+        asUserWithView(a, b, c, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 1, null).collect { [it.build.id, it.depth] } == [[b.id, 1]]
+            assert buildGraphService.getDownstreamBuilds(a, 2, null).collect { [it.build.id, it.depth] } == [[b.id, 1], [c.id, 2]]
+            assert buildGraphService.getDownstreamBuilds(a, 5, null).collect { [it.build.id, it.depth] } == [[b.id, 1], [c.id, 2], [d.id, 3]]
+        }
+    }
+
+    @Test
+    void 'Upstream builds limited by depth'() {
+        def (a, b, c, d) = chain()
+        asUserWithView(a, b, c, d).call {
+            assert buildGraphService.getUpstreamBuilds(d, 2, null).collect { [it.build.id, it.depth] } == [[c.id, 1], [b.id, 2]]
+            assert buildGraphService.getUpstreamBuilds(a, 5, null).empty
+        }
+    }
+
+    @Test
+    void 'Downstream builds filtered by promotion'() {
+        def (a, b, c, d) = chain()
+        def pl = doCreatePromotionLevel(c.branch, NameDescription.nd('GOLD', ''))
+        doPromote(c, pl, '')
+        asUserWithView(a, b, c, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 5, 'GOLD')*.build*.id == [c.id]
+            assert buildGraphService.getDownstreamBuilds(a, 5, 'SILVER').empty
+        }
+    }
+
+    @Test
+    void 'Cycles are visited only once'() {
+        def (a, b, c, d) = chain()
+        link(d, a)
+        asUserWithView(a, b, c, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 10, null)*.build*.id == [b.id, c.id, d.id]
+        }
+    }
+
+    @Test
+    void 'Path between builds'() {
+        def (a, b, c, d) = chain()
+        asUserWithView(a, b, c, d).call {
+            assert buildGraphService.getPath(a, d, 10)*.id == [a.id, b.id, c.id, d.id]
+            assert buildGraphService.getPath(a, d, 2).empty
+            assert buildGraphService.getPath(d, a, 10).empty
+            assert buildGraphService.getPath(b, b, 10)*.id == [b.id]
+        }
+    }
+
+    @Test
+    void 'Builds which cannot be seen are not traversed'() {
+        grantViewToAll false
+        def (a, b, c, d) = chain()
+        asUserWithView(a, c, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 5, null).empty
+        }
+    }
+
+    @Test
+    void 'Deleted links are no longer traversed'() {
+        def (a, b, c, d) = chain()
+        asUser().with(b, BuildConfig).withView(c).call {
+            structureService.deleteBuildLink(b, c)
+        }
+        asUserWithView(a, b, c, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 5, null)*.build*.id == [b.id]
+        }
+    }
+
+    @Test
+    void 'Deleted builds are no longer traversed'() {
+        def (a, b, c, d) = chain()
+        asUser().with(c, BuildDelete).call {
+            structureService.deleteBuild(c.id)
+        }
+        asUserWithView(a, b, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 5, null)*.build*.id == [b.id]
+        }
+    }
+
+    @Test
+    void 'Builds of deleted branches are no longer traversed'() {
+        def (a, b, c, d) = chain()
+        asUser().with(c, BranchDelete).call {
+            structureService.deleteBranch(c.branch.id)
+        }
+        asUserWithView(a, b, d).call {
+            assert buildGraphService.getDownstreamBuilds(a, 5, null)*.build*.id == [b.id]
+            assert buildGraphService.getUpstreamBuilds(d, 5, null).empty
+        }
+    }
+
+}
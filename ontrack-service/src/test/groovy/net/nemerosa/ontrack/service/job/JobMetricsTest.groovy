@@ -33,7 +33,9 @@ class JobMetricsTest {
                         200,
                         null,
                         5,
-                        ""
+                        "",
+                        0,
+                        null
                 )
         ])
 
@@ -0,0 +1,86 @@
+package net.nemerosa.ontrack.service.security
+
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties
+import org.junit.Before
+import org.junit.Test
+import org.springframework.security.authentication.AuthenticationManager
+import org.springframework.security.authentication.BadCredentialsException
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken
+
+import static org.mockito.Matchers.any
+import static org.mockito.Mockito.*
+
+class AuthenticationCacheTest {
+
+    private AuthenticationManager authenticationManager
+    private AuthenticationCache cache
+
+    @Before
+    void before() {
+        authenticationManager = mock(AuthenticationManager)
+        when(authenticationManager.authenticate(any())).thenAnswer { invocation ->
+            def authentication = invocation.arguments[0]
+            if (authentication.credentials == 'secret') {
+                new UsernamePasswordAuthenticationToken(authentication.name, null, [])
+            } else {
+                throw new BadCredentialsException('Incorrect password')
+            }
+        }
+        cache = new AuthenticationCache(new OntrackConfigProperties())
+    }
+
+    @Test
+    void 'Successful authentication is cached'() {
+        def first = cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        def second = cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        assert first.authenticated
+        assert second.is(first)
+        verify(authenticationManager, times(1)).authenticate(any())
+    }
+
+    @Test
+    void 'Cache is indexed by credentials'() {
+        cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        try {
+            cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'other'), authenticationManager)
+            assert false: 'Wrong password must be rejected'
+        } catch (BadCredentialsException ignored) {
+            // OK
+        }
+        def other = cache.authenticate(new UsernamePasswordAuthenticationToken('other', 'secret'), authenticationManager)
+        assert other.name == 'other'
+        verify(authenticationManager, times(3)).authenticate(any())
+    }
+
+    @Test
+    void 'Failed authentication is not cached'() {
+        2.times {
+            try {
+                cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'wrong'), authenticationManager)
+                assert false: 'Wrong password must be rejected'
+            } catch (BadCredentialsException ignored) {
+                // OK
+            }
+        }
+        verify(authenticationManager, times(2)).authenticate(any())
+    }
+
+    @Test
+    void 'Invalidation'() {
+        cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        cache.invalidate()
+        cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        verify(authenticationManager, times(2)).authenticate(any())
+    }
+
+    @Test
+    void 'Disabled cache'() {
+        def config = new OntrackConfigProperties()
+        config.security.authenticationCacheMaxSize = 0
+        cache = new AuthenticationCache(config)
+        cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        cache.authenticate(new UsernamePasswordAuthenticationToken('user', 'secret'), authenticationManager)
+        verify(authenticationManager, times(2)).authenticate(any())
+    }
+
+}
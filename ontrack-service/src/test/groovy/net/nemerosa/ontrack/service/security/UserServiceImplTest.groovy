@@ -31,7 +31,8 @@ class UserServiceImplTest {
         service = new UserServiceImpl(
                 securityService,
                 accountRepository,
-                passwordEncoder
+                passwordEncoder,
+                mock(AuthenticationCache)
         )
     }
 
@@ -0,0 +1,54 @@
+package net.nemerosa.ontrack.service;
+
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
+import net.nemerosa.ontrack.repository.StructureRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class BuildGraphIndexTest {
+
+    private StructureRepository structureRepository;
+    private OntrackConfigProperties config;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        structureRepository = mock(StructureRepository.class);
+        doAnswer(invocation -> {
+            BiConsumer<Integer, Integer> consumer = (BiConsumer<Integer, Integer>) invocation.getArguments()[0];
+            consumer.accept(1, 2);
+            consumer.accept(1, 3);
+            return null;
+        }).when(structureRepository).forEachBuildLink(any(BiConsumer.class));
+        config = new OntrackConfigProperties();
+    }
+
+    @Test
+    public void loaded_once_on_a_single_node() {
+        BuildGraphIndex index = new BuildGraphIndex(structureRepository, config);
+        assertArrayEquals(new int[]{2, 3}, index.getDownstream(1));
+        assertArrayEquals(new int[]{1}, index.getUpstream(3));
+        verify(structureRepository, times(1)).forEachBuildLink(any());
+    }
+
+    @Test
+    public void loaded_again_on_a_cluster() throws InterruptedException {
+        config.getJobs().getCluster().setEnabled(true);
+        config.setBuildGraphRefresh(1);
+        BuildGraphIndex index = new BuildGraphIndex(structureRepository, config);
+        assertArrayEquals(new int[]{2, 3}, index.getDownstream(1));
+        assertArrayEquals(new int[]{1}, index.getUpstream(3));
+        verify(structureRepository, times(1)).forEachBuildLink(any());
+        // Once the index is too old
+        Thread.sleep(1100);
+        assertArrayEquals(new int[]{2, 3}, index.getDownstream(1));
+        verify(structureRepository, times(2)).forEachBuildLink(any());
+    }
+
+}
@@ -1,15 +1,22 @@
 package net.nemerosa.ontrack.service;
 
+import com.codahale.metrics.MetricRegistry;
 import net.nemerosa.ontrack.common.BaseException;
 import net.nemerosa.ontrack.extension.api.DecorationExtension;
 import net.nemerosa.ontrack.extension.api.ExtensionManager;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.Decoration;
+import net.nemerosa.ontrack.model.structure.DecoratorCost;
 import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
@@ -32,7 +39,7 @@ public class DecorationServiceImplTest {
 
         SecurityService securityService = mock(SecurityService.class);
 
-        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService);
+        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService, new MetricRegistry(), new OntrackConfigProperties());
 
         @SuppressWarnings("unchecked")
         List<? extends Decoration> decorations = service.getDecorations(projectEntity, decorator);
@@ -57,7 +64,7 @@ public class DecorationServiceImplTest {
 
         SecurityService securityService = mock(SecurityService.class);
 
-        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService);
+        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService, new MetricRegistry(), new OntrackConfigProperties());
 
         @SuppressWarnings("unchecked")
         List<? extends Decoration> decorations = service.getDecorations(projectEntity, decorator);
@@ -68,6 +75,137 @@ public class DecorationServiceImplTest {
         assertNull(decoration.getData());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void expensive_decoration_timeout_generates_error_decoration() {
+        ProjectEntity projectEntity = mock(ProjectEntity.class);
+        when(projectEntity.getProjectEntityType()).thenReturn(ProjectEntityType.BUILD);
+
+        DecorationExtension decorator = mock(DecorationExtension.class);
+        when(decorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.BUILD));
+        when(decorator.getCost()).thenReturn(DecoratorCost.EXPENSIVE);
+        when(decorator.getDecorations(any(ProjectEntity.class))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return Collections.emptyList();
+        });
+
+        ExtensionManager extensionManager = mock(ExtensionManager.class);
+        when(extensionManager.getExtensions(DecorationExtension.class)).thenReturn(
+                Collections.singletonList(decorator)
+        );
+
+        SecurityService securityService = mock(SecurityService.class);
+        when(securityService.runner(any(Supplier.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        OntrackConfigProperties configProperties = new OntrackConfigProperties();
+        configProperties.getDecorations().setTimeout(100);
+
+        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService, new MetricRegistry(), configProperties);
+
+        List<Decoration<?>> decorations = service.getDecorations(projectEntity);
+        assertNotNull(decorations);
+        assertEquals(1, decorations.size());
+        Decoration decoration = decorations.get(0);
+        assertNull(decoration.getData());
+        assertEquals("Decoration could not be computed in time", decoration.getError());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void expensive_decoration_skipped_when_pool_is_saturated() {
+        ProjectEntity projectEntity = mock(ProjectEntity.class);
+        when(projectEntity.getProjectEntityType()).thenReturn(ProjectEntityType.BUILD);
+
+        DecorationExtension decorator = mock(DecorationExtension.class);
+        when(decorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.BUILD));
+        when(decorator.getCost()).thenReturn(DecoratorCost.EXPENSIVE);
+        when(decorator.getDecorations(any(ProjectEntity.class))).thenReturn(
+                Collections.singletonList(Decoration.of(decorator, "Build decoration"))
+        );
+
+        ExtensionManager extensionManager = mock(ExtensionManager.class);
+        when(extensionManager.getExtensions(DecorationExtension.class)).thenReturn(
+                Collections.singletonList(decorator)
+        );
+
+        SecurityService securityService = mock(SecurityService.class);
+        when(securityService.runner(any(Supplier.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService, new MetricRegistry(), new OntrackConfigProperties());
+        // The pool does not accept any task any longer
+        service.shutdown();
+
+        assertTrue(service.getDecorations(projectEntity).isEmpty());
+        List<List<Decoration<?>>> decorations = service.getDecorations(Collections.singletonList(projectEntity));
+        assertEquals(1, decorations.size());
+        assertTrue(decorations.get(0).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batch_decorations_are_dispatched_according_to_the_scope() {
+        ProjectEntity build = mock(ProjectEntity.class);
+        when(build.getProjectEntityType()).thenReturn(ProjectEntityType.BUILD);
+        ProjectEntity branch = mock(ProjectEntity.class);
+        when(branch.getProjectEntityType()).thenReturn(ProjectEntityType.BRANCH);
+
+        DecorationExtension decorator = mock(DecorationExtension.class);
+        when(decorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.BUILD));
+        when(decorator.getCost()).thenReturn(DecoratorCost.CHEAP);
+        when(decorator.getDecorations(Collections.singletonList(build))).thenReturn(
+                Collections.singletonList(Collections.singletonList(Decoration.of(decorator, "Build decoration")))
+        );
+
+        ExtensionManager extensionManager = mock(ExtensionManager.class);
+        when(extensionManager.getExtensions(DecorationExtension.class)).thenReturn(
+                Collections.singletonList(decorator)
+        );
+
+        SecurityService securityService = mock(SecurityService.class);
+
+        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService, new MetricRegistry(), new OntrackConfigProperties());
+
+        List<List<Decoration<?>>> decorations = service.getDecorations(Arrays.asList(branch, build));
+        assertEquals(2, decorations.size());
+        assertTrue(decorations.get(0).isEmpty());
+        assertEquals(1, decorations.get(1).size());
+        assertEquals("Build decoration", decorations.get(1).get(0).getData());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void batch_decorations_not_matching_the_entities_generate_error_decorations() {
+        ProjectEntity build1 = mock(ProjectEntity.class);
+        when(build1.getProjectEntityType()).thenReturn(ProjectEntityType.BUILD);
+        ProjectEntity build2 = mock(ProjectEntity.class);
+        when(build2.getProjectEntityType()).thenReturn(ProjectEntityType.BUILD);
+
+        DecorationExtension decorator = mock(DecorationExtension.class);
+        when(decorator.getScope()).thenReturn(EnumSet.of(ProjectEntityType.BUILD));
+        when(decorator.getCost()).thenReturn(DecoratorCost.CHEAP);
+        // Only one list of decorations for two builds
+        when(decorator.getDecorations(Arrays.asList(build1, build2))).thenReturn(
+                Collections.singletonList(Collections.singletonList(Decoration.of(decorator, "Build decoration")))
+        );
+
+        ExtensionManager extensionManager = mock(ExtensionManager.class);
+        when(extensionManager.getExtensions(DecorationExtension.class)).thenReturn(
+                Collections.singletonList(decorator)
+        );
+
+        SecurityService securityService = mock(SecurityService.class);
+
+        DecorationServiceImpl service = new DecorationServiceImpl(extensionManager, securityService, new MetricRegistry(), new OntrackConfigProperties());
+
+        List<List<Decoration<?>>> decorations = service.getDecorations(Arrays.asList(build1, build2));
+        assertEquals(2, decorations.size());
+        for (List<Decoration<?>> buildDecorations : decorations) {
+            assertEquals(1, buildDecorations.size());
+            assertNull(buildDecorations.get(0).getData());
+            assertEquals("Problem while getting decoration", buildDecorations.get(0).getError());
+        }
+    }
+
     public static class TestBaseException extends BaseException {
 
         public TestBaseException() {
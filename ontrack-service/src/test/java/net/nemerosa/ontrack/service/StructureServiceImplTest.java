@@ -12,6 +12,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static net.nemerosa.ontrack.model.structure.NameDescription.nd;
@@ -22,6 +24,7 @@ public class StructureServiceImplTest {
 
     private StructureServiceImpl service;
     private StructureRepository structureRepository;
+    private BuildGraphIndex buildGraphIndex;
     private PromotionLevel copper;
     private Build build;
 
@@ -38,6 +41,7 @@ public class StructureServiceImplTest {
         PredefinedValidationStampService predefinedValidationStampService = mock(PredefinedValidationStampService.class);
         DecorationService decorationService = mock(DecorationService.class);
         ProjectFavouriteService projectFavouriteService = mock(ProjectFavouriteService.class);
+        buildGraphIndex = mock(BuildGraphIndex.class);
         service = new StructureServiceImpl(
                 securityService,
                 eventService,
@@ -49,7 +53,8 @@ public class StructureServiceImplTest {
                 predefinedPromotionLevelService,
                 predefinedValidationStampService,
                 decorationService,
-                projectFavouriteService);
+                projectFavouriteService,
+                buildGraphIndex);
         // Model
         Project project = Project.of(nd("P", "Project")).withId(ID.of(1));
         Branch branch = Branch.of(project, nd("B", "Branch")).withId(ID.of(1));
@@ -96,4 +101,15 @@ public class StructureServiceImplTest {
         assertNotNull(ref.get());
         assertNotNull(ref.get().getSignature().getTime());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deleteBranches_removes_the_builds_from_the_graph() {
+        Branch other = Branch.of(build.getProject(), nd("C", "Other branch")).withId(ID.of(2));
+        when(structureRepository.getLinkedBuildIds(ID.of(1))).thenReturn(Arrays.asList(1, 2));
+        when(structureRepository.getLinkedBuildIds(ID.of(2))).thenReturn(Collections.singletonList(3));
+        service.deleteBranches(Arrays.asList(build.getBranch(), other));
+        verify(buildGraphIndex, times(1)).deleteBuilds(1, 2);
+        verify(buildGraphIndex, times(1)).deleteBuilds(3);
+        verify(structureRepository, times(1)).deleteBranches(Arrays.asList(ID.of(1), ID.of(2)));
+    }
+}
@@ -0,0 +1,88 @@
+package net.nemerosa.ontrack.service.events;
+
+import net.nemerosa.ontrack.model.events.Event;
+import net.nemerosa.ontrack.model.events.EventListenerService;
+import net.nemerosa.ontrack.model.events.EventPostService;
+import net.nemerosa.ontrack.model.events.SimpleEventType;
+import net.nemerosa.ontrack.model.security.SecurityService;
+import net.nemerosa.ontrack.model.structure.Signature;
+import net.nemerosa.ontrack.repository.EventRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class EventPostServiceImplTest {
+
+    private EventListenerService eventListenerService;
+    private EventPostService eventPostService;
+    private Event event;
+
+    @Before
+    public void before() {
+        eventListenerService = mock(EventListenerService.class);
+        eventPostService = new EventPostServiceImpl(
+                mock(SecurityService.class),
+                mock(EventRepository.class),
+                eventListenerService,
+                mock(PlatformTransactionManager.class)
+        );
+        event = Event.of(SimpleEventType.of("test", "Test")).with(Signature.of("test")).get();
+        // Transaction in progress
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @After
+    public void after() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    @Test
+    public void event_notified_in_the_transaction() {
+        eventPostService.post(event);
+        verify(eventListenerService, times(1)).onEvent(event);
+        assertNoSynchronization();
+    }
+
+    @Test
+    public void events_notified_after_commit() {
+        eventPostService.post(Collections.singletonList(event));
+        verify(eventListenerService, never()).onEvent(any(Event.class));
+        commit();
+        verify(eventListenerService, times(1)).onEvent(event);
+    }
+
+    @Test
+    public void deferred_event_notified_after_commit() {
+        eventPostService.deferNotifications(() -> {
+            eventPostService.post(event);
+            return null;
+        });
+        verify(eventListenerService, never()).onEvent(any(Event.class));
+        commit();
+        verify(eventListenerService, times(1)).onEvent(event);
+        // Back to the notifications in the transaction
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        eventPostService.post(event);
+        verify(eventListenerService, times(2)).onEvent(event);
+        assertNoSynchronization();
+    }
+
+    private void assertNoSynchronization() {
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.nemerosa.ontrack.service.security;
+
+import net.nemerosa.ontrack.it.AbstractServiceTestSupport;
+import net.nemerosa.ontrack.model.security.*;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class TokensServiceIT extends AbstractServiceTestSupport {
+
+    @Autowired
+    private TokensService tokensService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Test
+    public void generate_and_find_token() throws Exception {
+        Account account = doCreateAccount();
+        Token token = asAccount(account).call(() -> tokensService.generateNewToken());
+        assertEquals(64, token.getValue().length());
+        // Finding the account
+        Optional<Account> tokenAccount = tokensService.findAccountByToken(token.getValue());
+        assertTrue(tokenAccount.isPresent());
+        assertEquals(account.id(), tokenAccount.get().id());
+        // The value of the token is not available any longer
+        Optional<Token> currentToken = asAccount(account).call(() -> tokensService.getCurrentToken());
+        assertTrue(currentToken.isPresent());
+        assertEquals("", currentToken.get().getValue());
+        assertEquals(token.getCreation(), currentToken.get().getCreation());
+    }
+
+    @Test
+    public void new_token_replaces_the_previous_one() throws Exception {
+        Account account = doCreateAccount();
+        Token oldToken = asAccount(account).call(() -> tokensService.generateNewToken());
+        Token newToken = asAccount(account).call(() -> tokensService.generateNewToken());
+        assertFalse(tokensService.findAccountByToken(oldToken.getValue()).isPresent());
+        assertTrue(tokensService.findAccountByToken(newToken.getValue()).isPresent());
+    }
+
+    @Test
+    public void revoked_token() throws Exception {
+        Account account = doCreateAccount();
+        Token token = asAccount(account).call(() -> tokensService.generateNewToken());
+        asAccount(account).execute(() -> tokensService.revokeToken());
+        assertFalse(tokensService.findAccountByToken(token.getValue()).isPresent());
+        assertFalse(asAccount(account).call(() -> tokensService.getCurrentToken()).isPresent());
+    }
+
+    @Test
+    public void authentication_with_token() throws Exception {
+        Account account = doCreateAccountWithGlobalRole("CONTROLLER");
+        Token token = asAccount(account).call(() -> tokensService.generateNewToken());
+        Authentication authentication = authenticationManager.authenticate(new TokenAuthenticationToken(token.getValue()));
+        assertTrue(authentication.isAuthenticated());
+        assertTrue(authentication.getPrincipal() instanceof AccountHolder);
+        Account authenticatedAccount = ((AccountHolder) authentication.getPrincipal()).getAccount();
+        assertEquals(account.id(), authenticatedAccount.id());
+        assertTrue(authenticatedAccount.isGranted(1, ValidationRunCreate.class));
+    }
+
+    @Test(expected = BadCredentialsException.class)
+    public void authentication_with_revoked_token() throws Exception {
+        Account account = doCreateAccount();
+        Token token = asAccount(account).call(() -> tokensService.generateNewToken());
+        authenticationManager.authenticate(new TokenAuthenticationToken(token.getValue()));
+        asAccount(account).execute(() -> tokensService.revokeToken());
+        authenticationManager.authenticate(new TokenAuthenticationToken(token.getValue()));
+    }
+
+}
@@ -4,11 +4,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.execution.Execution;
+import graphql.language.Document;
 import graphql.schema.GraphQLSchema;
 import lombok.Data;
 import lombok.experimental.Wither;
 import net.nemerosa.ontrack.graphql.schema.GraphqlSchemaService;
+import net.nemerosa.ontrack.graphql.support.*;
 import net.nemerosa.ontrack.json.ObjectMapperFactory;
+import net.nemerosa.ontrack.model.support.GraphQLConfigProperties;
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,18 +23,25 @@ import org.springframework.web.bind.annotation.*;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/graphql")
 public class GraphqlController {
 
     private final GraphqlSchemaService schemaService;
+    private final GraphQLConfigProperties config;
+    private final GraphqlQueryAnalyser queryAnalyser;
+    private final GraphqlDocumentCache documentCache;
 
     private final ObjectMapper objectMapper = ObjectMapperFactory.create();
 
     @Autowired
-    public GraphqlController(GraphqlSchemaService schemaService) {
+    public GraphqlController(GraphqlSchemaService schemaService, OntrackConfigProperties ontrackConfigProperties) {
         this.schemaService = schemaService;
+        this.config = ontrackConfigProperties.getGraphql();
+        this.queryAnalyser = new GraphqlQueryAnalyser(config);
+        this.documentCache = new GraphqlDocumentCache(config.getDocumentCacheSize());
     }
 
     /**
@@ -41,6 +53,12 @@ public class GraphqlController {
         @Wither
         private final Map<String, Object> variables;
         private final String operationName;
+        /**
+         * ID of the query, to send instead of the query once it has been sent
+         *
+         * @see GraphqlDocumentCache#getId(String)
+         */
+        private final String id;
 
         public Request withVariables() {
             if (variables == null) {
@@ -57,9 +75,10 @@ public class GraphqlController {
     @RequestMapping(method = RequestMethod.GET)
     @Transactional
     public ResponseEntity<JsonNode> get(
-            @RequestParam String query,
+            @RequestParam(required = false) String query,
             @RequestParam(required = false) String variables,
-            @RequestParam(required = false) String operationName
+            @RequestParam(required = false) String operationName,
+            @RequestParam(required = false) String id
     ) throws IOException {
         // Parses the arguments
         Map<String, Object> arguments = decodeIntoMap(variables);
@@ -69,7 +88,8 @@ public class GraphqlController {
                         new Request(
                                 query,
                                 arguments,
-                                operationName
+                                operationName,
+                                id
                         )
                 )
         );
@@ -107,12 +127,46 @@ public class GraphqlController {
     public ExecutionResult request(Request request) {
         // Schema
         GraphQLSchema schema = schemaService.getSchema();
-        // TODO Execution strategy
-        return new GraphQL(schema).execute(
-                request.getQuery(),
-                request.getOperationName(),
-                null, // No context
-                request.getVariables());
+        // Parsed and validated document
+        Optional<Document> document = getDocument(schema, request);
+        // Batch loading of the data, level by level
+        GraphqlBatchContext context = new GraphqlBatchContext();
+        GraphqlBatchExecutionStrategy strategy = new GraphqlBatchExecutionStrategy(context, config.getTimeout());
+        if (document.isPresent()) {
+            // Rejects the queries which are too deep or too complex
+            queryAnalyser.check(schema, document.get(), request.getOperationName(), request.getVariables());
+            return new Execution(strategy, strategy).execute(
+                    schema,
+                    context,
+                    document.get(),
+                    request.getOperationName(),
+                    request.getVariables());
+        } else {
+            // Invalid query, the errors are reported by the execution
+            return new GraphQL(schema, strategy).execute(
+                    request.getQuery(),
+                    request.getOperationName(),
+                    context,
+                    request.getVariables());
+        }
+    }
+
+    private Optional<Document> getDocument(GraphQLSchema schema, Request request) {
+        String id = request.getId();
+        String query = request.getQuery();
+        if (StringUtils.isNotBlank(query)) {
+            if (id != null && !id.equals(GraphqlDocumentCache.getId(query))) {
+                throw new GraphqlPersistedQueryMismatchException(id);
+            }
+            return documentCache.getDocument(schema, query);
+        } else if (id != null) {
+            return Optional.of(
+                    documentCache.getDocumentById(id)
+                            .orElseThrow(() -> new GraphqlPersistedQueryNotFoundException(id))
+            );
+        } else {
+            return Optional.empty();
+        }
 
     }
 
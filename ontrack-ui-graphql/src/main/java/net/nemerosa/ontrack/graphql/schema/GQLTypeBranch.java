@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.graphql.schema;
 import graphql.schema.DataFetcher;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLTypeReference;
+import net.nemerosa.ontrack.graphql.support.GraphqlBatchContext;
 import net.nemerosa.ontrack.graphql.support.GraphqlUtils;
 import net.nemerosa.ontrack.model.buildfilter.BuildFilterProviderData;
 import net.nemerosa.ontrack.model.buildfilter.BuildFilterService;
@@ -143,9 +144,16 @@ public class GQLTypeBranch extends AbstractGQLProjectEntity<Branch> {
                 if (lastPromotions) {
                     buildFilter = buildFilterService.lastPromotedBuildsFilterData();
                 }
-                // Default filter
+                // Default filter, which returns the last builds, for all the branches at once
                 else if (filter == null) {
-                    buildFilter = buildFilterService.standardFilterProviderData(count).build();
+                    return GraphqlBatchContext.of(environment).load(
+                            "branchBuilds:" + count,
+                            Branch.class,
+                            branch,
+                            Branch::getId,
+                            branches -> structureService.getLastBuildsForBranches(branches, count),
+                            Collections.<Build>emptyList()
+                    );
                 } else {
                     buildFilter = inputBuildStandardFilter.convert(filter);
                 }
@@ -1,8 +1,11 @@
 package net.nemerosa.ontrack.graphql.schema;
 
 import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLNonNull;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLTypeReference;
+import net.nemerosa.ontrack.graphql.support.GraphqlBatchContext;
 import net.nemerosa.ontrack.graphql.support.GraphqlUtils;
 import net.nemerosa.ontrack.model.exceptions.PromotionLevelNotFoundException;
 import net.nemerosa.ontrack.model.exceptions.ValidationStampNotFoundException;
@@ -29,12 +32,15 @@ public class GQLTypeBuild extends AbstractGQLProjectEntity<Build> {
     public static final String BUILD = "Build";
 
     private final StructureService structureService;
+    private final BuildGraphService buildGraphService;
 
     @Autowired
     public GQLTypeBuild(StructureService structureService,
+                        BuildGraphService buildGraphService,
                         List<GQLProjectEntityFieldContributor> projectEntityFieldContributors) {
         super(Build.class, ProjectEntityType.BUILD, projectEntityFieldContributors);
         this.structureService = structureService;
+        this.buildGraphService = buildGraphService;
     }
 
     @Override
@@ -100,14 +106,103 @@ public class GQLTypeBuild extends AbstractGQLProjectEntity<Build> {
                                 .dataFetcher(buildLinkedToFetcher())
                                 .build()
                 )
+                // Build graph
+                .field(buildGraphField("downstreamBuilds", "Builds this build is linked to, directly or not", true))
+                .field(buildGraphField("upstreamBuilds", "Builds linked to this build, directly or not", false))
+                .field(
+                        newFieldDefinition()
+                                .name("buildPath")
+                                .description("Chain of links from this build to another one, empty if there is none")
+                                .argument(
+                                        newArgument()
+                                                .name("to")
+                                                .description("ID of the build to reach")
+                                                .type(new GraphQLNonNull(GraphQLInt))
+                                                .build()
+                                )
+                                .argument(
+                                        newArgument()
+                                                .name("depth")
+                                                .description("Maximum number of links to follow")
+                                                .type(GraphQLInt)
+                                                .defaultValue(BuildGraphService.MAX_DEPTH)
+                                                .build()
+                                )
+                                .type(stdList(new GraphQLTypeReference(BUILD)))
+                                .dataFetcher(buildPathFetcher())
+                                .build()
+                )
                 // OK
                 .build();
     }
 
+    private GraphQLFieldDefinition buildGraphField(String name, String description, boolean downstream) {
+        return newFieldDefinition()
+                .name(name)
+                .description(description)
+                .argument(
+                        newArgument()
+                                .name("depth")
+                                .description("Maximum number of links to follow")
+                                .type(GraphQLInt)
+                                .defaultValue(1)
+                                .build()
+                )
+                .argument(
+                        newArgument()
+                                .name("promotion")
+                                .description("Name of a promotion level the builds must have reached")
+                                .type(GraphQLString)
+                                .build()
+                )
+                .type(stdList(new GraphQLTypeReference(BUILD)))
+                .dataFetcher(buildGraphFetcher(downstream))
+                .build();
+    }
+
+    private DataFetcher buildGraphFetcher(boolean downstream) {
+        return environment -> {
+            Object source = environment.getSource();
+            if (source instanceof Build) {
+                Build build = (Build) source;
+                int depth = GraphqlUtils.getIntArgument(environment, "depth").orElse(1);
+                String promotion = GraphqlUtils.getStringArgument(environment, "promotion").orElse(null);
+                List<BuildGraphNode> nodes = downstream ?
+                        buildGraphService.getDownstreamBuilds(build, depth, promotion) :
+                        buildGraphService.getUpstreamBuilds(build, depth, promotion);
+                return nodes.stream().map(BuildGraphNode::getBuild).collect(Collectors.toList());
+            } else {
+                return Collections.emptyList();
+            }
+        };
+    }
+
+    private DataFetcher buildPathFetcher() {
+        return environment -> {
+            Object source = environment.getSource();
+            if (source instanceof Build) {
+                Build build = (Build) source;
+                int to = GraphqlUtils.getIntArgument(environment, "to")
+                        .orElseThrow(() -> new IllegalStateException("The target build is required"));
+                int depth = GraphqlUtils.getIntArgument(environment, "depth").orElse(BuildGraphService.MAX_DEPTH);
+                return buildGraphService.getPath(build, structureService.getBuild(ID.of(to)), depth);
+            } else {
+                return Collections.emptyList();
+            }
+        };
+    }
+
     private DataFetcher buildLinkedToFetcher() {
         return fetcher(
                 Build.class,
-                structureService::getBuildLinksFrom
+                (environment, build) -> GraphqlBatchContext.of(environment).load(
+                        "buildLinksFrom",
+                        Build.class,
+                        build,
+                        Build::getId,
+                        structureService::getBuildLinksFrom,
+                        Collections.<Build>emptyList()
+                )
         );
     }
 
@@ -139,8 +234,15 @@ public class GQLTypeBuild extends AbstractGQLProjectEntity<Build> {
                             .limit(count)
                             .collect(Collectors.toList());
                 } else {
-                    // Gets all the validation runs (limited by count)
-                    return structureService.getValidationRunsForBuild(build.getId()).stream()
+                    // Gets all the validation runs (limited by count), for all the builds at once
+                    return GraphqlBatchContext.of(environment).load(
+                            "buildValidationRuns",
+                            Build.class,
+                            build,
+                            Build::getId,
+                            structureService::getValidationRunsForBuilds,
+                            Collections.<ValidationRun>emptyList()
+                    ).stream()
                             .limit(count)
                             .collect(Collectors.toList());
                 }
@@ -171,8 +273,15 @@ public class GQLTypeBuild extends AbstractGQLProjectEntity<Build> {
                     // Gets promotion runs for this promotion level
                     return structureService.getPromotionRunsForBuildAndPromotionLevel(build, promotionLevel);
                 } else {
-                    // Gets all the promotion runs
-                    return structureService.getPromotionRunsForBuild(build.getId());
+                    // Gets all the promotion runs, for all the builds at once
+                    return GraphqlBatchContext.of(environment).load(
+                            "buildPromotionRuns",
+                            Build.class,
+                            build,
+                            Build::getId,
+                            structureService::getPromotionRunsForBuilds,
+                            Collections.<PromotionRun>emptyList()
+                    );
                 }
             } else {
                 return Collections.emptyList();
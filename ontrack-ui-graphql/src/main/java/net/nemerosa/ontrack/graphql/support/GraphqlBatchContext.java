@@ -0,0 +1,97 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import graphql.schema.DataFetchingEnvironment;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Context of a GraphQL request, which allows the data fetchers to load the data for all the objects
+ * of the same level at once, instead of once per object.
+ * <p>
+ * The objects returned as a list by a fetcher are registered together as siblings. When a fetcher
+ * needs some data for one of them, it loads it for all its siblings, and the results are cached
+ * for the next siblings. The loaded objects become in turn siblings, so that the next level of the
+ * query is loaded the same way, with one call.
+ * <p>
+ * A context must not be shared between requests.
+ */
+public class GraphqlBatchContext {
+
+    private final Map<Object, List<?>> siblings = new IdentityHashMap<>();
+    private final Map<String, Map<Object, Object>> caches = new HashMap<>();
+
+    /**
+     * Gets the batch context of the current request, or a new one if the request was not
+     * executed with one, the data being then loaded for the given source only.
+     */
+    public static GraphqlBatchContext of(DataFetchingEnvironment environment) {
+        Object context = environment.getContext();
+        if (context instanceof GraphqlBatchContext) {
+            return (GraphqlBatchContext) context;
+        } else {
+            return new GraphqlBatchContext();
+        }
+    }
+
+    /**
+     * Registers a list of objects as siblings. An object which is already registered keeps its
+     * first group of siblings.
+     */
+    public void register(Collection<?> items) {
+        if (!items.isEmpty()) {
+            List<?> group = new ArrayList<>(items);
+            group.forEach(item -> siblings.putIfAbsent(item, group));
+        }
+    }
+
+    /**
+     * Gets the value for a source object, loading it in one call for all the siblings of the source
+     * which have not been loaded yet.
+     *
+     * @param loader       Name of the loader, which must include any argument the loaded values depend on
+     * @param sourceType   Type of the source objects
+     * @param source       Source object to get the value for
+     * @param key          Key of a source object in the loaded values
+     * @param batch        Loading of the values for a list of source objects
+     * @param defaultValue Value to use when none is returned for a source object
+     * @param <S>          Type of the source objects
+     * @param <K>          Type of the keys
+     * @param <V>          Type of the values
+     * @return Loaded value
+     */
+    public <S, K, V> V load(String loader, Class<S> sourceType, S source, Function<S, K> key, Function<List<S>, Map<K, V>> batch, V defaultValue) {
+        Map<Object, Object> cache = caches.computeIfAbsent(loader, ignored -> new HashMap<>());
+        K sourceKey = key.apply(source);
+        if (!cache.containsKey(sourceKey)) {
+            // Siblings to load, the source included
+            Map<K, S> pending = new LinkedHashMap<>();
+            pending.put(sourceKey, source);
+            for (Object sibling : siblings.getOrDefault(source, Collections.emptyList())) {
+                if (sourceType.isInstance(sibling)) {
+                    S s = sourceType.cast(sibling);
+                    K k = key.apply(s);
+                    if (!cache.containsKey(k)) {
+                        pending.putIfAbsent(k, s);
+                    }
+                }
+            }
+            // Loading
+            Map<K, V> values = batch.apply(new ArrayList<>(pending.values()));
+            List<Object> loaded = new ArrayList<>();
+            pending.keySet().forEach(k -> {
+                V value = values.getOrDefault(k, defaultValue);
+                cache.put(k, value);
+                if (value instanceof Collection) {
+                    loaded.addAll((Collection<?>) value);
+                }
+            });
+            // All the loaded objects are on the same level
+            register(loaded);
+        }
+        @SuppressWarnings("unchecked")
+        V value = (V) cache.get(sourceKey);
+        return value;
+    }
+
+}
@@ -0,0 +1,57 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionContext;
+import graphql.execution.SimpleExecutionStrategy;
+import graphql.language.Field;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execution strategy which registers the lists returned by the data fetchers into the
+ * {@link GraphqlBatchContext} of the request, before their fields are resolved.
+ * <p>
+ * When a timeout is set, the execution is stopped before resolving a field once
+ * the timeout has been reached.
+ */
+public class GraphqlBatchExecutionStrategy extends SimpleExecutionStrategy {
+
+    private final GraphqlBatchContext context;
+    private final int timeout;
+    private final long deadline;
+
+    public GraphqlBatchExecutionStrategy(GraphqlBatchContext context) {
+        this(context, 0);
+    }
+
+    /**
+     * @param context Batch context of the request
+     * @param timeout Maximum time (in seconds) to execute the request, 0 for no limit
+     */
+    public GraphqlBatchExecutionStrategy(GraphqlBatchContext context, int timeout) {
+        this.context = context;
+        this.timeout = timeout;
+        this.deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+    }
+
+    @Override
+    protected ExecutionResult resolveField(ExecutionContext executionContext, GraphQLObjectType parentType, Object source, List<Field> fields) {
+        if (timeout > 0 && System.nanoTime() - deadline > 0) {
+            throw new GraphqlQueryTimeoutException(timeout);
+        }
+        return super.resolveField(executionContext, parentType, source, fields);
+    }
+
+    @Override
+    protected ExecutionResult completeValue(ExecutionContext executionContext, GraphQLType fieldType, List<Field> fields, Object result) {
+        if (result instanceof Collection) {
+            context.register((Collection<?>) result);
+        }
+        return super.completeValue(executionContext, fieldType, fields, result);
+    }
+
+}
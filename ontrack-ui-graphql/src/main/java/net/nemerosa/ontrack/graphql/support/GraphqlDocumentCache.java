@@ -0,0 +1,81 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.validation.ValidationError;
+import graphql.validation.Validator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded cache of the parsed and validated GraphQL documents, indexed by the SHA-256 hash of
+ * their query.
+ * <p>
+ * This hash is also the ID of the query, which a client can send instead of the query once it
+ * has been sent at least once. When the query is no longer in the cache, the client must send
+ * the query again.
+ */
+public class GraphqlDocumentCache {
+
+    private final Cache<String, Document> documents;
+
+    /**
+     * @param maxSize Maximum number of documents to keep
+     */
+    public GraphqlDocumentCache(int maxSize) {
+        this.documents = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Gets the ID of a query, as the hexadecimal SHA-256 hash of its text.
+     */
+    public static String getId(String query) {
+        return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Gets the parsed and validated document for a query, parsing and validating it if it
+     * is not in the cache yet.
+     *
+     * @param schema Schema to validate the query against
+     * @param query  Text of the query
+     * @return Document, or empty if the query cannot be parsed or is not valid, in which case
+     * the errors are left to the execution
+     */
+    public Optional<Document> getDocument(GraphQLSchema schema, String query) {
+        String id = getId(query);
+        Document document = documents.getIfPresent(id);
+        if (document == null) {
+            try {
+                document = new Parser().parseDocument(query);
+            } catch (RuntimeException ex) {
+                return Optional.empty();
+            }
+            List<ValidationError> errors = new Validator().validateDocument(schema, document);
+            if (!errors.isEmpty()) {
+                return Optional.empty();
+            }
+            documents.put(id, document);
+        }
+        return Optional.of(document);
+    }
+
+    /**
+     * Gets the document of a query which has already been sent.
+     *
+     * @param id ID of the query
+     * @return Document, or empty if the query is not in the cache
+     */
+    public Optional<Document> getDocumentById(String id) {
+        return Optional.ofNullable(documents.getIfPresent(id));
+    }
+
+}
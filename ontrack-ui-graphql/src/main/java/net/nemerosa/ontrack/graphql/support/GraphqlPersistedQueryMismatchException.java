@@ -0,0 +1,9 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import net.nemerosa.ontrack.model.exceptions.InputException;
+
+public class GraphqlPersistedQueryMismatchException extends InputException {
+    public GraphqlPersistedQueryMismatchException(String id) {
+        super("The GraphQL query ID %s is not the SHA-256 hash of the query.", id);
+    }
+}
@@ -0,0 +1,9 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import net.nemerosa.ontrack.model.exceptions.NotFoundException;
+
+public class GraphqlPersistedQueryNotFoundException extends NotFoundException {
+    public GraphqlPersistedQueryNotFoundException(String id) {
+        super("The GraphQL query with ID %s is not known. The query must be sent again.", id);
+    }
+}
@@ -0,0 +1,274 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import com.google.common.collect.ImmutableMap;
+import graphql.language.*;
+import graphql.parser.Parser;
+import graphql.schema.*;
+import net.nemerosa.ontrack.model.support.GraphQLConfigProperties;
+
+import java.util.*;
+
+/**
+ * Static analysis of a GraphQL query, before its execution, in order to reject the queries
+ * which are too deep or too complex.
+ * <p>
+ * The complexity of a query is the estimated number of fields to resolve. Each field costs
+ * its weight, and the fields selected below a list are counted once per expected item of the
+ * list, given by its <code>count</code>, <code>first</code> or <code>last</code> argument,
+ * or by a default size.
+ */
+public class GraphqlQueryAnalyser {
+
+    /**
+     * Default costs of the fields which are expensive to resolve
+     */
+    private static final Map<String, Integer> DEFAULT_FIELD_COSTS = ImmutableMap.<String, Integer>builder()
+            .put("Build.downstreamBuilds", 10)
+            .put("Build.upstreamBuilds", 10)
+            .put("Build.buildPath", 10)
+            .put("Branch.builds", 5)
+            .build();
+
+    private static final List<String> LIST_SIZE_ARGUMENTS = Arrays.asList("count", "first", "last");
+
+    private final GraphQLConfigProperties config;
+    private final Map<String, Integer> fieldCosts;
+
+    public GraphqlQueryAnalyser(GraphQLConfigProperties config) {
+        this.config = config;
+        this.fieldCosts = new HashMap<>(DEFAULT_FIELD_COSTS);
+        this.fieldCosts.putAll(config.getFieldCosts());
+    }
+
+    /**
+     * Checks the query against the configured limits.
+     *
+     * @throws GraphqlQueryTooComplexException If the query is too deep or too complex
+     */
+    public GraphqlQueryAnalysis check(GraphQLSchema schema, String query, String operationName, Map<String, Object> variables) {
+        return check(analyse(schema, query, operationName, variables));
+    }
+
+    /**
+     * Checks a parsed query against the configured limits.
+     *
+     * @throws GraphqlQueryTooComplexException If the query is too deep or too complex
+     */
+    public GraphqlQueryAnalysis check(GraphQLSchema schema, Document document, String operationName, Map<String, Object> variables) {
+        return check(analyse(schema, document, operationName, variables));
+    }
+
+    private GraphqlQueryAnalysis check(GraphqlQueryAnalysis analysis) {
+        if (config.getMaxDepth() > 0 && analysis.getDepth() > config.getMaxDepth()) {
+            throw new GraphqlQueryTooComplexException("depth", analysis.getDepth(), config.getMaxDepth());
+        }
+        if (config.getMaxComplexity() > 0 && analysis.getComplexity() > config.getMaxComplexity()) {
+            throw new GraphqlQueryTooComplexException("complexity", analysis.getComplexity(), config.getMaxComplexity());
+        }
+        return analysis;
+    }
+
+    /**
+     * Computes the depth and the complexity of a query. A query which cannot be parsed is
+     * left to the execution, which reports its errors.
+     */
+    public GraphqlQueryAnalysis analyse(GraphQLSchema schema, String query, String operationName, Map<String, Object> variables) {
+        Document document;
+        try {
+            document = new Parser().parseDocument(query);
+        } catch (RuntimeException ex) {
+            return GraphqlQueryAnalysis.EMPTY;
+        }
+        return analyse(schema, document, operationName, variables);
+    }
+
+    /**
+     * Computes the depth and the complexity of a parsed query.
+     */
+    public GraphqlQueryAnalysis analyse(GraphQLSchema schema, Document document, String operationName, Map<String, Object> variables) {
+        // Fragments
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (Definition definition : document.getDefinitions()) {
+            if (definition instanceof FragmentDefinition) {
+                FragmentDefinition fragment = (FragmentDefinition) definition;
+                fragments.put(fragment.getName(), fragment);
+            }
+        }
+        // Operations
+        GraphqlQueryAnalysis result = GraphqlQueryAnalysis.EMPTY;
+        for (Definition definition : document.getDefinitions()) {
+            if (definition instanceof OperationDefinition) {
+                OperationDefinition operation = (OperationDefinition) definition;
+                if (operationName == null || operationName.equals(operation.getName())) {
+                    GraphQLObjectType rootType = operation.getOperation() == OperationDefinition.Operation.MUTATION ?
+                            schema.getMutationType() :
+                            schema.getQueryType();
+                    if (rootType != null) {
+                        Analyser analyser = new Analyser(schema, fragments, variables != null ? variables : Collections.emptyMap());
+                        result = result.max(analyser.analyse(operation.getSelectionSet(), rootType, 1));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private class Analyser {
+
+        private final GraphQLSchema schema;
+        private final Map<String, FragmentDefinition> fragments;
+        private final Map<String, Object> variables;
+        private final Set<String> visitedFragments = new HashSet<>();
+        /**
+         * Analysis of the fragments per name and type, with a depth relative to their spread
+         */
+        private final Map<String, GraphqlQueryAnalysis> analysedFragments = new HashMap<>();
+
+        private Analyser(GraphQLSchema schema, Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+            this.schema = schema;
+            this.fragments = fragments;
+            this.variables = variables;
+        }
+
+        private GraphqlQueryAnalysis analyse(SelectionSet selectionSet, GraphQLType type, int depth) {
+            int maxDepth = depth;
+            long complexity = 0;
+            if (selectionSet != null) {
+                for (Selection selection : selectionSet.getSelections()) {
+                    GraphqlQueryAnalysis analysis;
+                    if (selection instanceof Field) {
+                        analysis = analyseField((Field) selection, type, depth);
+                    } else if (selection instanceof InlineFragment) {
+                        InlineFragment fragment = (InlineFragment) selection;
+                        analysis = analyse(fragment.getSelectionSet(), getType(fragment.getTypeCondition(), type), depth);
+                    } else if (selection instanceof FragmentSpread) {
+                        analysis = analyseFragment(((FragmentSpread) selection).getName(), type, depth);
+                    } else {
+                        analysis = GraphqlQueryAnalysis.EMPTY;
+                    }
+                    maxDepth = Math.max(maxDepth, analysis.getDepth());
+                    complexity = add(complexity, analysis.getComplexity());
+                }
+            }
+            return new GraphqlQueryAnalysis(maxDepth, complexity);
+        }
+
+        private GraphqlQueryAnalysis analyseFragment(String name, GraphQLType type, int depth) {
+            FragmentDefinition fragment = fragments.get(name);
+            // Unknown or cyclic fragments are reported by the validation
+            if (fragment == null || visitedFragments.contains(name)) {
+                return GraphqlQueryAnalysis.EMPTY;
+            }
+            GraphQLType fragmentType = getType(fragment.getTypeCondition(), type);
+            // Each fragment is analysed only once, whatever the number of its spreads
+            String key = name + ":" + fragmentType.getName();
+            GraphqlQueryAnalysis analysis = analysedFragments.get(key);
+            if (analysis == null) {
+                visitedFragments.add(name);
+                try {
+                    analysis = analyse(fragment.getSelectionSet(), fragmentType, 0);
+                } finally {
+                    visitedFragments.remove(name);
+                }
+                analysedFragments.put(key, analysis);
+            }
+            return new GraphqlQueryAnalysis(depth + analysis.getDepth(), analysis.getComplexity());
+        }
+
+        private GraphqlQueryAnalysis analyseField(Field field, GraphQLType parentType, int depth) {
+            // Introspection is not limited
+            if (field.getName().startsWith("__")) {
+                return GraphqlQueryAnalysis.EMPTY;
+            }
+            GraphQLFieldDefinition definition = getFieldDefinition(parentType, field.getName());
+            if (definition == null) {
+                return GraphqlQueryAnalysis.EMPTY;
+            }
+            int cost = fieldCosts.getOrDefault(parentType.getName() + "." + field.getName(), 1);
+            // Fields of the items
+            GraphQLType fieldType = definition.getType();
+            boolean list = false;
+            while (fieldType instanceof GraphQLModifiedType) {
+                list = list || fieldType instanceof GraphQLList;
+                fieldType = ((GraphQLModifiedType) fieldType).getWrappedType();
+            }
+            GraphqlQueryAnalysis items = analyse(field.getSelectionSet(), fieldType, depth + 1);
+            long size = list ? getListSize(field, definition) : 1;
+            return new GraphqlQueryAnalysis(
+                    field.getSelectionSet() != null ? items.getDepth() : depth,
+                    add(cost, multiply(size, items.getComplexity()))
+            );
+        }
+
+        /**
+         * Sum which saturates instead of overflowing, so that huge lists are still rejected
+         */
+        private long add(long a, long b) {
+            try {
+                return Math.addExact(a, b);
+            } catch (ArithmeticException ex) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        /**
+         * Product which saturates instead of overflowing, so that huge lists are still rejected
+         */
+        private long multiply(long a, long b) {
+            try {
+                return Math.multiplyExact(a, b);
+            } catch (ArithmeticException ex) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        private long getListSize(Field field, GraphQLFieldDefinition definition) {
+            for (String name : LIST_SIZE_ARGUMENTS) {
+                // Actual argument
+                for (Argument argument : field.getArguments()) {
+                    if (name.equals(argument.getName())) {
+                        Object value = getValue(argument.getValue());
+                        if (value instanceof Number) {
+                            return Math.max(0, ((Number) value).longValue());
+                        }
+                    }
+                }
+                // Default value
+                GraphQLArgument argument = definition.getArgument(name);
+                if (argument != null && argument.getDefaultValue() instanceof Number) {
+                    return ((Number) argument.getDefaultValue()).longValue();
+                }
+            }
+            return config.getDefaultListSize();
+        }
+
+        private Object getValue(Value value) {
+            if (value instanceof IntValue) {
+                return ((IntValue) value).getValue();
+            } else if (value instanceof VariableReference) {
+                return variables.get(((VariableReference) value).getName());
+            } else {
+                return null;
+            }
+        }
+
+        private GraphQLType getType(TypeName typeCondition, GraphQLType defaultType) {
+            if (typeCondition != null) {
+                GraphQLType type = schema.getType(typeCondition.getName());
+                if (type != null) {
+                    return type;
+                }
+            }
+            return defaultType;
+        }
+
+        private GraphQLFieldDefinition getFieldDefinition(GraphQLType type, String name) {
+            if (type instanceof GraphQLFieldsContainer) {
+                return ((GraphQLFieldsContainer) type).getFieldDefinition(name);
+            } else {
+                return null;
+            }
+        }
+    }
+
+}
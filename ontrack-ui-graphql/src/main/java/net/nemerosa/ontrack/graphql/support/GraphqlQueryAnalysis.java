@@ -0,0 +1,32 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import lombok.Data;
+
+/**
+ * Result of the analysis of a GraphQL query.
+ *
+ * @see GraphqlQueryAnalyser
+ */
+@Data
+public class GraphqlQueryAnalysis {
+
+    public static final GraphqlQueryAnalysis EMPTY = new GraphqlQueryAnalysis(0, 0);
+
+    /**
+     * Maximum number of nested fields
+     */
+    private final int depth;
+
+    /**
+     * Estimated number of fields to resolve
+     */
+    private final long complexity;
+
+    public GraphqlQueryAnalysis max(GraphqlQueryAnalysis other) {
+        return new GraphqlQueryAnalysis(
+                Math.max(depth, other.depth),
+                Math.max(complexity, other.complexity)
+        );
+    }
+
+}
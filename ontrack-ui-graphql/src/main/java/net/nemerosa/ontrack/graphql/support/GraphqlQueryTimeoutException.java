@@ -0,0 +1,9 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import net.nemerosa.ontrack.model.exceptions.InputException;
+
+public class GraphqlQueryTimeoutException extends InputException {
+    public GraphqlQueryTimeoutException(int timeout) {
+        super("The GraphQL query has been stopped because it was running for more than %d seconds.", timeout);
+    }
+}
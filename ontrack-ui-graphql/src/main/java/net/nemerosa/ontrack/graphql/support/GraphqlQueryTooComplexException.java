@@ -0,0 +1,9 @@
+package net.nemerosa.ontrack.graphql.support;
+
+import net.nemerosa.ontrack.model.exceptions.InputException;
+
+public class GraphqlQueryTooComplexException extends InputException {
+    public GraphqlQueryTooComplexException(String measure, long actual, long max) {
+        super("The GraphQL query has been rejected because its %s (%d) is greater than the maximum allowed (%d).", measure, actual, max);
+    }
+}
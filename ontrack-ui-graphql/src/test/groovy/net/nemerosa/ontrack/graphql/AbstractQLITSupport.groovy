@@ -2,6 +2,8 @@ package net.nemerosa.ontrack.graphql
 
 import graphql.GraphQL
 import net.nemerosa.ontrack.graphql.schema.GraphqlSchemaService
+import net.nemerosa.ontrack.graphql.support.GraphqlBatchContext
+import net.nemerosa.ontrack.graphql.support.GraphqlBatchExecutionStrategy
 import net.nemerosa.ontrack.it.AbstractServiceTestSupport
 import org.springframework.beans.factory.annotation.Autowired
 
@@ -13,7 +15,8 @@ abstract class AbstractQLITSupport extends AbstractServiceTestSupport {
     private GraphqlSchemaService schemaService
 
     def run(String query) {
-        def result = new GraphQL(schemaService.schema).execute(query)
+        def context = new GraphqlBatchContext()
+        def result = new GraphQL(schemaService.schema, new GraphqlBatchExecutionStrategy(context)).execute(query, null, context, [:])
         if (result.errors && !result.errors.empty) {
             fail result.errors*.message.join('\n')
         } else if (result.data) {
@@ -7,6 +7,7 @@ import net.nemerosa.ontrack.extension.api.support.TestDecoratorPropertyType
 import net.nemerosa.ontrack.extension.api.support.TestSimpleProperty
 import net.nemerosa.ontrack.extension.api.support.TestSimplePropertyType
 import net.nemerosa.ontrack.model.structure.NameDescription
+import net.nemerosa.ontrack.model.structure.ValidationRunStatusID
 import org.junit.Test
 
 class BranchQLIT extends AbstractQLITSupport {
@@ -250,4 +251,61 @@ class BranchQLIT extends AbstractQLITSupport {
         assert data.branches*.name as Set == [p1.name] as Set
     }
 
+    @Test
+    void 'Builds, promotions, validations and links of several branches'() {
+        def project = doCreateProject()
+        def b1 = doCreateBranch(project, NameDescription.nd("B1", ""))
+        def b2 = doCreateBranch(project, NameDescription.nd("B2", ""))
+        def b3 = doCreateBranch(project, NameDescription.nd("B3", ""))
+        // Builds
+        def builds = [b1, b2].collectEntries { branch ->
+            [branch.name, (1..3).collect { doCreateBuild(branch, NameDescription.nd("${branch.name}.${it}", "")) }]
+        }
+        // Promotions & validations
+        def pl = doCreatePromotionLevel(b1, NameDescription.nd("COPPER", ""))
+        doPromote(builds.B1[2], pl, "")
+        doPromote(builds.B1[2], pl, "")
+        def vs = doCreateValidationStamp(b2, NameDescription.nd("VS", ""))
+        doValidateBuild(builds.B2[1], vs, ValidationRunStatusID.STATUS_FAILED)
+        doValidateBuild(builds.B2[1], vs, ValidationRunStatusID.STATUS_PASSED)
+        // Links
+        asAdmin().execute {
+            structureService.addBuildLink(builds.B1[2], builds.B2[1])
+        }
+
+        def data = run("""{
+            branches (project: "${project.name}") {
+                name
+                builds(count: 2) {
+                    name
+                    promotionRuns {
+                        promotionLevel { name }
+                    }
+                    validationRuns {
+                        runOrder
+                        validationRunStatuses { statusID { id } }
+                    }
+                    linkedBuilds {
+                        name
+                        validationRuns { runOrder }
+                    }
+                }
+            }
+        }""")
+
+        def branches = data.branches.collectEntries { [it.name, it.builds] }
+        assert branches.keySet() == [b1.name, b2.name, b3.name] as Set
+        assert branches.B1.name == ['B1.3', 'B1.2']
+        assert branches.B2.name == ['B2.3', 'B2.2']
+        assert branches.B3 == []
+        assert branches.B1[0].promotionRuns.promotionLevel.name == ['COPPER', 'COPPER']
+        assert branches.B1[1].promotionRuns == []
+        assert branches.B2[1].validationRuns.runOrder == [1, 2]
+        assert branches.B2[1].validationRuns.validationRunStatuses*.first().statusID.id == ['FAILED', 'PASSED']
+        assert branches.B2[0].validationRuns == []
+        assert branches.B1[0].linkedBuilds.name == ['B2.2']
+        assert branches.B1[0].linkedBuilds.first().validationRuns.runOrder == [1, 2]
+        assert branches.B2[1].linkedBuilds == []
+    }
+
 }
@@ -0,0 +1,86 @@
+package net.nemerosa.ontrack.graphql
+
+import net.nemerosa.ontrack.graphql.schema.GraphqlSchemaService
+import net.nemerosa.ontrack.graphql.support.GraphqlDocumentCache
+import net.nemerosa.ontrack.graphql.support.GraphqlPersistedQueryMismatchException
+import net.nemerosa.ontrack.graphql.support.GraphqlPersistedQueryNotFoundException
+import net.nemerosa.ontrack.graphql.support.GraphqlQueryTooComplexException
+import net.nemerosa.ontrack.model.support.OntrackConfigProperties
+import org.junit.Before
+import org.junit.Test
+import org.springframework.beans.factory.annotation.Autowired
+
+class GraphqlControllerQLIT extends AbstractQLITSupport {
+
+    @Autowired
+    private GraphqlSchemaService schemaService
+
+    private GraphqlController controller
+
+    @Before
+    void controller() {
+        controller = new GraphqlController(schemaService, new OntrackConfigProperties())
+    }
+
+    @Test
+    void 'Query sent by ID after having been sent'() {
+        def project = doCreateProject()
+        def query = '{ projects(id: $id) { name } }'.replace('$id', project.id as String)
+        def id = GraphqlDocumentCache.getId(query)
+
+        def result = controller.request(new GraphqlController.Request(query, [:], null, null))
+        assert result.errors.empty
+        assert result.data.projects.name == [project.name]
+
+        result = controller.request(new GraphqlController.Request(null, [:], null, id))
+        assert result.errors.empty
+        assert result.data.projects.name == [project.name]
+    }
+
+    @Test
+    void 'Query sent with its ID'() {
+        def project = doCreateProject()
+        def query = 'query($name: String) { projects(name: $name) { id } }'
+        def result = controller.request(new GraphqlController.Request(query, [name: project.name], null, GraphqlDocumentCache.getId(query)))
+        assert result.errors.empty
+        assert result.data.projects.id == [project.id()]
+    }
+
+    @Test(expected = GraphqlPersistedQueryNotFoundException)
+    void 'Unknown query ID'() {
+        controller.request(new GraphqlController.Request(null, [:], null, GraphqlDocumentCache.getId('{ projects { id } }')))
+    }
+
+    @Test(expected = GraphqlPersistedQueryMismatchException)
+    void 'Query ID not matching the query'() {
+        controller.request(new GraphqlController.Request('{ projects { id } }', [:], null, GraphqlDocumentCache.getId('{ projects { name } }')))
+    }
+
+    @Test
+    void 'Invalid query is reported and not kept'() {
+        def query = '{ projects { unknownField } }'
+        def result = controller.request(new GraphqlController.Request(query, [:], null, null))
+        assert !result.errors.empty
+        try {
+            controller.request(new GraphqlController.Request(null, [:], null, GraphqlDocumentCache.getId(query)))
+            assert false: "The invalid query must not be kept"
+        } catch (GraphqlPersistedQueryNotFoundException ignored) {
+            // OK
+        }
+    }
+
+    @Test(expected = GraphqlQueryTooComplexException)
+    void 'Complex query sent by ID is still checked'() {
+        def config = new OntrackConfigProperties()
+        config.graphql.maxComplexity = 10
+        controller = new GraphqlController(schemaService, config)
+        def query = '{ projects { name } }'
+        try {
+            controller.request(new GraphqlController.Request(query, [:], null, null))
+        } catch (GraphqlQueryTooComplexException ignored) {
+            // The valid document is kept anyway
+        }
+        controller.request(new GraphqlController.Request(null, [:], null, GraphqlDocumentCache.getId(query)))
+    }
+
+}
@@ -0,0 +1,111 @@
+package net.nemerosa.ontrack.graphql
+
+import net.nemerosa.ontrack.graphql.schema.GraphqlSchemaService
+import net.nemerosa.ontrack.graphql.support.GraphqlQueryAnalyser
+import net.nemerosa.ontrack.graphql.support.GraphqlQueryAnalysis
+import net.nemerosa.ontrack.graphql.support.GraphqlQueryTooComplexException
+import net.nemerosa.ontrack.model.support.GraphQLConfigProperties
+import org.junit.Test
+import org.springframework.beans.factory.annotation.Autowired
+
+class GraphqlQueryAnalysisQLIT extends AbstractQLITSupport {
+
+    @Autowired
+    private GraphqlSchemaService schemaService
+
+    private GraphqlQueryAnalysis analyse(String query, Map<String, Object> variables = [:]) {
+        new GraphqlQueryAnalyser(new GraphQLConfigProperties()).analyse(schemaService.schema, query, null, variables)
+    }
+
+    @Test
+    void 'List with the default size'() {
+        assert analyse('{ projects { name } }') == new GraphqlQueryAnalysis(2, 11)
+    }
+
+    @Test
+    void 'List with a count and a field cost'() {
+        assert analyse('{ branches { builds(count: 3) { name } } }') == new GraphqlQueryAnalysis(3, 81)
+    }
+
+    @Test
+    void 'List with a default count'() {
+        assert analyse('{ builds { validationRuns { id } } }') == new GraphqlQueryAnalysis(3, 511)
+    }
+
+    @Test
+    void 'List with a count given by a variable'() {
+        assert analyse('query($n: Int) { branches { builds(count: $n) { name } } }', [n: 2]) == new GraphqlQueryAnalysis(3, 71)
+    }
+
+    @Test
+    void 'Fragments'() {
+        assert analyse('''{
+            branches { ...branch }
+        }
+        fragment branch on Branch {
+            name
+            project { ... on Project { name } }
+        }''') == new GraphqlQueryAnalysis(3, 31)
+    }
+
+    @Test(timeout = 10000L)
+    void 'Fragments spread several times are analysed once'() {
+        // Each fragment spreads the next one twice
+        def fragments = (1..29).collect { "fragment f${it} on Build { ...f${it + 1} ...f${it + 1} }" }.join('\n')
+        assert analyse("""{ builds { ...f1 } }
+        ${fragments}
+        fragment f30 on Build { name }""") == new GraphqlQueryAnalysis(2, 1 + 10 * (1L << 29))
+    }
+
+    @Test
+    void 'Introspection is not counted'() {
+        assert analyse('{ __schema { types { name fields { name } } } }') == new GraphqlQueryAnalysis(1, 0)
+    }
+
+    @Test
+    void 'Invalid query is left to the execution'() {
+        assert analyse('{ projects { ') == GraphqlQueryAnalysis.EMPTY
+    }
+
+    @Test
+    void 'Query within the limits'() {
+        def config = new GraphQLConfigProperties(maxDepth: 3, maxComplexity: 81)
+        def analysis = new GraphqlQueryAnalyser(config).check(schemaService.schema, '{ branches { builds(count: 3) { name } } }', null, [:])
+        assert analysis.depth == 3
+    }
+
+    @Test(expected = GraphqlQueryTooComplexException)
+    void 'Query too deep'() {
+        def config = new GraphQLConfigProperties(maxDepth: 2)
+        new GraphqlQueryAnalyser(config).check(schemaService.schema, '{ branches { builds(count: 3) { name } } }', null, [:])
+    }
+
+    @Test(expected = GraphqlQueryTooComplexException)
+    void 'Query too complex'() {
+        def config = new GraphQLConfigProperties(maxComplexity: 80)
+        new GraphqlQueryAnalyser(config).check(schemaService.schema, '{ branches { builds(count: 3) { name } } }', null, [:])
+    }
+
+    @Test(expected = GraphqlQueryTooComplexException)
+    void 'Query whose complexity overflows'() {
+        def query = '''{
+            builds {
+                validationRuns(count: 2147483647) { build {
+                    validationRuns(count: 2147483647) { build {
+                        validationRuns(count: 2147483647) { id }
+                    } }
+                } }
+            }
+        }'''
+        assert analyse(query).complexity == Long.MAX_VALUE
+        def config = new GraphQLConfigProperties(maxComplexity: 1000)
+        new GraphqlQueryAnalyser(config).check(schemaService.schema, query, null, [:])
+    }
+
+    @Test
+    void 'Configured field cost'() {
+        def config = new GraphQLConfigProperties(fieldCosts: ['Branch.builds': 1, 'Build.name': 2])
+        assert new GraphqlQueryAnalyser(config).analyse(schemaService.schema, '{ branches { builds(count: 3) { name } } }', null, [:]).complexity == 1 + 10 * (1 + 3 * 2)
+    }
+
+}
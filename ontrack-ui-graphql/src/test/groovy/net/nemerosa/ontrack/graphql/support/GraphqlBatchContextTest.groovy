@@ -0,0 +1,68 @@
+package net.nemerosa.ontrack.graphql.support
+
+import org.junit.Before
+import org.junit.Test
+
+class GraphqlBatchContextTest {
+
+    private GraphqlBatchContext context
+    private List<List<String>> calls
+
+    @Before
+    void before() {
+        context = new GraphqlBatchContext()
+        calls = []
+    }
+
+    private List<String> load(String loader, String source) {
+        context.load(loader, String, source, { it }, { List<String> items ->
+            calls << items
+            items.findAll { !it.startsWith('none') }.collectEntries { [it, [it + '1', it + '2']] }
+        }, [])
+    }
+
+    @Test
+    void 'Loading once for all the siblings'() {
+        context.register(['a', 'b', 'c'])
+        assert load('test', 'b') == ['b1', 'b2']
+        assert load('test', 'a') == ['a1', 'a2']
+        assert load('test', 'c') == ['c1', 'c2']
+        assert calls == [['b', 'a', 'c']]
+    }
+
+    @Test
+    void 'Loading once per loader'() {
+        context.register(['a', 'b'])
+        load('first', 'a')
+        load('second', 'b')
+        load('first', 'b')
+        load('second', 'a')
+        assert calls == [['a', 'b'], ['b', 'a']]
+    }
+
+    @Test
+    void 'Loaded values are loaded together at the next level'() {
+        context.register(['a', 'b'])
+        def a = load('test', 'a')
+        def b = load('test', 'b')
+        assert load('next', a[1]) == ['a21', 'a22']
+        assert load('next', b[0]) == ['b11', 'b12']
+        assert calls == [['a', 'b'], ['a2', 'a1', 'b1', 'b2']]
+    }
+
+    @Test
+    void 'Default value'() {
+        context.register(['a', 'none'])
+        assert load('test', 'none') == []
+        assert load('test', 'a') == ['a1', 'a2']
+        assert calls == [['none', 'a']]
+    }
+
+    @Test
+    void 'Loading without siblings'() {
+        assert load('test', 'a') == ['a1', 'a2']
+        assert load('test', 'b') == ['b1', 'b2']
+        assert calls == [['a'], ['b']]
+    }
+
+}
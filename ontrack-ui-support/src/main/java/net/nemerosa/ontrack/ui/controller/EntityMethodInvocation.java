@@ -0,0 +1,92 @@
+package net.nemerosa.ontrack.ui.controller;
+
+import net.nemerosa.ontrack.model.structure.ID;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
+
+/**
+ * Invocation of a controller method for a given entity, recorded only once.
+ * <p>
+ * The invocation is recorded using a placeholder ID, which is replaced by the
+ * actual ID of the entity when calling {@link #withId(ID)}. This avoids recording
+ * the invocation through a controller proxy for each link of each entity.
+ */
+public class EntityMethodInvocation implements MvcUriComponentsBuilder.MethodInvocationInfo {
+
+    /**
+     * Placeholder for the ID, recognized by identity
+     */
+    private static final ID PLACEHOLDER = ID.of(Integer.MAX_VALUE);
+
+    private final Class<?> controllerType;
+    private final Method controllerMethod;
+    private final Object[] argumentValues;
+    private final int[] idPositions;
+
+    private EntityMethodInvocation(Class<?> controllerType, Method controllerMethod, Object[] argumentValues, int[] idPositions) {
+        this.controllerType = controllerType;
+        this.controllerMethod = controllerMethod;
+        this.argumentValues = argumentValues;
+        this.idPositions = idPositions;
+    }
+
+    /**
+     * Records an invocation on a controller.
+     *
+     * @param controllerType Type of the controller
+     * @param invocation     Invocation of the controller method, using the given ID
+     * @param <C>            Type of the controller
+     * @return Recorded invocation, to complete using {@link #withId(ID)}
+     */
+    public static <C> EntityMethodInvocation of(Class<C> controllerType, BiFunction<C, ID, Object> invocation) {
+        Object info = invocation.apply(on(controllerType), PLACEHOLDER);
+        if (!(info instanceof MvcUriComponentsBuilder.MethodInvocationInfo)) {
+            throw new IllegalArgumentException("The invocation on " + controllerType.getName() + " must return a non final type.");
+        }
+        MvcUriComponentsBuilder.MethodInvocationInfo methodInvocationInfo = (MvcUriComponentsBuilder.MethodInvocationInfo) info;
+        Object[] argumentValues = methodInvocationInfo.getArgumentValues().clone();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < argumentValues.length; i++) {
+            if (argumentValues[i] == PLACEHOLDER) {
+                positions.add(i);
+            }
+        }
+        return new EntityMethodInvocation(
+                controllerType,
+                methodInvocationInfo.getControllerMethod(),
+                argumentValues,
+                positions.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * Invocation for the given ID
+     */
+    public EntityMethodInvocation withId(ID id) {
+        Object[] values = argumentValues.clone();
+        for (int position : idPositions) {
+            values[position] = id;
+        }
+        return new EntityMethodInvocation(controllerType, controllerMethod, values, idPositions);
+    }
+
+    public Class<?> getControllerType() {
+        return controllerType;
+    }
+
+    @Override
+    public Method getControllerMethod() {
+        return controllerMethod;
+    }
+
+    @Override
+    public Object[] getArgumentValues() {
+        return argumentValues;
+    }
+}
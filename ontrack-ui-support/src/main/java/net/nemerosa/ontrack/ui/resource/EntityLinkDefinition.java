@@ -0,0 +1,28 @@
+package net.nemerosa.ontrack.ui.resource;
+
+import lombok.Data;
+import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.ui.controller.EntityMethodInvocation;
+
+import java.util.function.BiPredicate;
+
+/**
+ * Link to a controller method which depends only on the ID of the entity.
+ * The invocation is recorded once and completed with the ID for each entity.
+ */
+@Data
+public class EntityLinkDefinition<T extends ProjectEntity> implements LinkDefinition<T> {
+
+    private final String name;
+    private final EntityMethodInvocation invocation;
+    private final BiPredicate<T, ResourceContext> checkFn;
+
+    @Override
+    public LinksBuilder addLink(LinksBuilder linksBuilder, T resource, ResourceContext resourceContext) {
+        return linksBuilder.link(
+                name,
+                invocation.withId(resource.getId())
+        );
+    }
+
+}
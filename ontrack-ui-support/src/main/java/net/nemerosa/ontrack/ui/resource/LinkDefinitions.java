@@ -2,7 +2,9 @@ package net.nemerosa.ontrack.ui.resource;
 
 import net.nemerosa.ontrack.model.security.GlobalFunction;
 import net.nemerosa.ontrack.model.security.ProjectFunction;
+import net.nemerosa.ontrack.model.structure.ID;
 import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.ui.controller.EntityMethodInvocation;
 
 import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
@@ -65,6 +67,45 @@ public class LinkDefinitions {
         );
     }
 
+    /**
+     * Creation of a link to a controller method which depends only on the ID of the entity.
+     * The invocation is recorded once, using the given ID as a placeholder.
+     */
+    public static <T extends ProjectEntity, C> LinkDefinition<T> link(String name, Class<C> controller, BiFunction<C, ID, Object> invocation,
+                                                                      BiPredicate<T, ResourceContext> checkFn) {
+        return new EntityLinkDefinition<>(
+                name,
+                EntityMethodInvocation.of(controller, invocation),
+                checkFn
+        );
+    }
+
+    public static <T extends ProjectEntity, C> LinkDefinition<T> link(String name, Class<C> controller, BiFunction<C, ID, Object> invocation) {
+        return link(
+                name,
+                controller,
+                invocation,
+                (t, rc) -> true
+        );
+    }
+
+    public static <T extends ProjectEntity, C> LinkDefinition<T> self(Class<C> controller, BiFunction<C, ID, Object> invocation) {
+        return link(
+                Link.SELF,
+                controller,
+                invocation
+        );
+    }
+
+    public static <T extends ProjectEntity, C, P extends ProjectFunction> LinkDefinition<T> delete(Class<C> controller, BiFunction<C, ID, Object> invocation, Class<P> fn) {
+        return link(
+                Link.DELETE,
+                controller,
+                invocation,
+                withProjectFn(fn)
+        );
+    }
+
     /**
      * Creation of a link to the entity's page
      */
@@ -47,6 +47,20 @@ public class BranchResourceDecorator extends AbstractLinkResourceDecorator<Branc
                                 (branch, resourceContext) -> branch.getType() != BranchType.TEMPLATE_DEFINITION &&
                                         resourceContext.isProjectFunctionGranted(branch, BuildCreate.class)
                         ),
+                        // Build creation or retrieval
+                        link(
+                                "_getOrCreateBuild",
+                                (Branch branch) -> on(BuildController.class).getOrCreateBuild(branch.getId(), null),
+                                (branch, resourceContext) -> branch.getType() != BranchType.TEMPLATE_DEFINITION &&
+                                        resourceContext.isProjectFunctionGranted(branch, BuildCreate.class)
+                        ),
+                        // Build recording in one call
+                        link(
+                                "_batchBuild",
+                                (Branch branch) -> on(BuildController.class).batchBuild(branch.getId(), null),
+                                (branch, resourceContext) -> branch.getType() != BranchType.TEMPLATE_DEFINITION &&
+                                        resourceContext.isProjectFunctionGranted(branch, BuildCreate.class)
+                        ),
                         // Promotion level creation
                         link(
                                 "_createPromotionLevel",
@@ -15,7 +15,6 @@ import org.springframework.stereotype.Component;
 import java.util.Arrays;
 
 import static net.nemerosa.ontrack.ui.resource.LinkDefinitions.*;
-import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
 
 @Component
 public class BuildResourceDecorator extends AbstractLinkResourceDecorator<Build> {
@@ -34,101 +33,121 @@ public class BuildResourceDecorator extends AbstractLinkResourceDecorator<Build>
                 Arrays.asList(
                         link(
                                 Link.SELF,
-                                build -> on(BuildController.class).getBuild(build.getId())
+                                BuildController.class,
+                                (c, id) -> c.getBuild(id)
                         ),
                         // Other linked resources
                         link(
                                 "_lastPromotionRuns",
-                                build -> on(PromotionRunController.class).getLastPromotionRuns(build.getId())
+                                PromotionRunController.class,
+                                (c, id) -> c.getLastPromotionRuns(id)
                         ),
                         link(
                                 "_promotionRuns",
-                                build -> on(PromotionRunController.class).getPromotionRuns(build.getId())
+                                PromotionRunController.class,
+                                (c, id) -> c.getPromotionRuns(id)
                         ),
                         link(
                                 "_validationRuns",
-                                build -> on(ValidationRunController.class).getValidationRuns(build.getId())
+                                ValidationRunController.class,
+                                (c, id) -> c.getValidationRuns(id)
                         ),
                         link(
                                 "_validationStampRunViews",
-                                build -> on(ValidationRunController.class).getValidationStampRunViews(build.getId())
+                                ValidationRunController.class,
+                                (c, id) -> c.getValidationStampRunViews(id)
                         ),
                         // Creation of a promoted run
                         link(
                                 "_promote",
-                                build -> on(PromotionRunController.class).newPromotionRunForm(build.getId()),
+                                PromotionRunController.class,
+                                (c, id) -> c.newPromotionRunForm(id),
                                 withProjectFn(PromotionRunCreate.class)
                         ),
                         // Creation of a validation run
                         link(
                                 "_validate",
-                                build -> on(ValidationRunController.class).newValidationRunForm(build.getId()),
+                                ValidationRunController.class,
+                                (c, id) -> c.newValidationRunForm(id),
                                 withProjectFn(ValidationRunCreate.class)
                         ),
                         // Actual properties for this build
                         link(
                                 "_properties",
-                                build -> on(PropertyController.class).getProperties(ProjectEntityType.BUILD, build.getId())
+                                PropertyController.class,
+                                (c, id) -> c.getProperties(ProjectEntityType.BUILD, id)
                         ),
                         // Actions
                         link(
                                 "_actions",
-                                build -> on(ProjectEntityExtensionController.class).getActions(ProjectEntityType.BUILD, build.getId())
+                                ProjectEntityExtensionController.class,
+                                (c, id) -> c.getActions(ProjectEntityType.BUILD, id)
                         ),
                         // Extra information
                         link(
                                 "_extra",
-                                build -> on(ProjectEntityExtensionController.class).getInformation(ProjectEntityType.BUILD, build.getId())
+                                ProjectEntityExtensionController.class,
+                                (c, id) -> c.getInformation(ProjectEntityType.BUILD, id)
                         ),
                         // Update link
                         link(
                                 Link.UPDATE,
-                                build -> on(BuildController.class).updateBuild(build.getId(), null),
+                                BuildController.class,
+                                (c, id) -> c.updateBuild(id, null),
                                 withProjectFn(BuildEdit.class)
                         ),
                         // Delete link
                         link(
                                 Link.DELETE,
-                                build -> on(BuildController.class).deleteBuild(build.getId()),
+                                BuildController.class,
+                                (c, id) -> c.deleteBuild(id),
                                 withProjectFn(BuildDelete.class)
                         ),
                         // Decorations
                         link(
                                 "_decorations",
-                                build -> on(DecorationsController.class).getDecorations(build.getProjectEntityType(), build.getId())
+                                DecorationsController.class,
+                                (c, id) -> c.getDecorations(ProjectEntityType.BUILD, id)
                         ),
                         // Events
                         link(
                                 "_events",
-                                build -> on(EventController.class).getEvents(build.getProjectEntityType(), build.getId(), 0, 10)
+                                EventController.class,
+                                (c, id) -> c.getEvents(ProjectEntityType.BUILD, id, 0, 10)
                         ),
                         // Signature change
                         link(
                                 "_signature",
-                                build -> on(BuildController.class).updateBuildSignatureForm(build.getId()),
+                                BuildController.class,
+                                (c, id) -> c.updateBuildSignatureForm(id),
                                 withProjectFn(ProjectEdit.class)
                         ),
                         // Previous & next build
                         link(
                                 "_previous",
-                                build -> on(BuildController.class).getPreviousBuild(build.getId())
+                                BuildController.class,
+                                (c, id) -> c.getPreviousBuild(id)
                         ),
                         link(
                                 "_next",
-                                build -> on(BuildController.class).getNextBuild(build.getId())
+                                BuildController.class,
+                                (c, id) -> c.getNextBuild(id)
                         ),
                         // Build links
                         link(
                                 "_buildLinksFrom",
-                                build -> on(BuildController.class).getBuildLinksFrom(build.getId())
+                                BuildController.class,
+                                (c, id) -> c.getBuildLinksFrom(id)
                         ),
                         link(
                                 "_buildLinksTo",
-                                build -> on(BuildController.class).getBuildLinksTo(build.getId())
+                                BuildController.class,
+                                (c, id) -> c.getBuildLinksTo(id)
                         ),
                         link(
                                 "_buildLinks",
-                                build -> on(BuildController.class).getBuildLinkForm(build.getId()),
+                                BuildController.class,
+                                (c, id) -> c.getBuildLinkForm(id),
                                 withProjectFn(BuildConfig.class)
                         ),
                         // Page
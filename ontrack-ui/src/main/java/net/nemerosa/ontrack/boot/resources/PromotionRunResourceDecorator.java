@@ -4,6 +4,7 @@ import net.nemerosa.ontrack.boot.ui.PromotionLevelController;
 import net.nemerosa.ontrack.boot.ui.PromotionRunController;
 import net.nemerosa.ontrack.boot.ui.PropertyController;
 import net.nemerosa.ontrack.model.security.PromotionRunDelete;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
 import net.nemerosa.ontrack.model.structure.PromotionRun;
 import net.nemerosa.ontrack.ui.resource.AbstractLinkResourceDecorator;
 import net.nemerosa.ontrack.ui.resource.Link;
@@ -26,7 +27,7 @@ public class PromotionRunResourceDecorator extends AbstractLinkResourceDecorator
     protected Iterable<LinkDefinition<PromotionRun>> getLinkDefinitions() {
         return Arrays.asList(
                 // Self
-                self(promotionRun -> on(PromotionRunController.class).getPromotionRun(promotionRun.getId())),
+                self(PromotionRunController.class, (c, id) -> c.getPromotionRun(id)),
                 // List of runs for the build and promotion level
                 link(
                         "_all",
@@ -37,13 +38,15 @@ public class PromotionRunResourceDecorator extends AbstractLinkResourceDecorator
                 ),
                 // Deletion
                 delete(
-                        promotionRun -> on(PromotionRunController.class).deletePromotionRun(promotionRun.getId()),
+                        PromotionRunController.class,
+                        (c, id) -> c.deletePromotionRun(id),
                         PromotionRunDelete.class
                 ),
                 // Actual properties for this item
                 link(
                         "_properties",
-                        promotionRun -> on(PropertyController.class).getProperties(promotionRun.getProjectEntityType(), promotionRun.getId())
+                        PropertyController.class,
+                        (c, id) -> c.getProperties(ProjectEntityType.PROMOTION_RUN, id)
                 ),
                 // Image
                 link(
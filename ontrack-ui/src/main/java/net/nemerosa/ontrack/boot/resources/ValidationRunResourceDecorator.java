@@ -5,6 +5,7 @@ import net.nemerosa.ontrack.boot.ui.PropertyController;
 import net.nemerosa.ontrack.boot.ui.ValidationRunController;
 import net.nemerosa.ontrack.boot.ui.ValidationStampController;
 import net.nemerosa.ontrack.model.security.ValidationRunStatusChange;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
 import net.nemerosa.ontrack.model.structure.ValidationRun;
 import net.nemerosa.ontrack.ui.resource.AbstractLinkResourceDecorator;
 import net.nemerosa.ontrack.ui.resource.Link;
@@ -27,7 +28,7 @@ public class ValidationRunResourceDecorator extends AbstractLinkResourceDecorato
     @Override
     protected Iterable<LinkDefinition<ValidationRun>> getLinkDefinitions() {
         return Arrays.asList(
-                self(validationRun -> on(ValidationRunController.class).getValidationRun(validationRun.getId())),
+                self(ValidationRunController.class, (c, id) -> c.getValidationRun(id)),
                 link(
                         Link.IMAGE_LINK,
                         validationRun -> on(ValidationStampController.class).getValidationStampImage_(null, validationRun.getValidationStamp().getId())
@@ -38,7 +39,8 @@ public class ValidationRunResourceDecorator extends AbstractLinkResourceDecorato
                 ),
                 link(
                         "_validationRunStatusChange",
-                        validationRun -> on(ValidationRunController.class).getValidationRunStatusChangeForm(validationRun.getId()),
+                        ValidationRunController.class,
+                        (c, id) -> c.getValidationRunStatusChangeForm(id),
                         // Only if transition possible
                         (ValidationRun validationRun, ResourceContext resourceContext) ->
                                 resourceContext.isProjectFunctionGranted(
@@ -49,12 +51,14 @@ public class ValidationRunResourceDecorator extends AbstractLinkResourceDecorato
                 // Actual properties for this entity
                 link(
                         "_properties",
-                        validationRun -> on(PropertyController.class).getProperties(validationRun.getProjectEntityType(), validationRun.getId())
+                        PropertyController.class,
+                        (c, id) -> c.getProperties(ProjectEntityType.VALIDATION_RUN, id)
                 ),
                 // Decorations
                 link(
                         "_decorations",
-                        validationRun -> on(DecorationsController.class).getDecorations(validationRun.getProjectEntityType(), validationRun.getId())
+                        DecorationsController.class,
+                        (c, id) -> c.getDecorations(ProjectEntityType.VALIDATION_RUN, id)
                 ),
                 // Page
                 page()
@@ -0,0 +1,49 @@
+package net.nemerosa.ontrack.boot.support;
+
+import net.nemerosa.ontrack.model.security.TokenAuthenticationToken;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Authentication using an API token passed in the {@link #HEADER} header.
+ */
+public class TokenHeaderAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Ontrack-Token";
+
+    private final AuthenticationManager authenticationManager;
+    private final AuthenticationEntryPoint authenticationEntryPoint;
+
+    public TokenHeaderAuthenticationFilter(AuthenticationManager authenticationManager, AuthenticationEntryPoint authenticationEntryPoint) {
+        this.authenticationManager = authenticationManager;
+        this.authenticationEntryPoint = authenticationEntryPoint;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        String token = request.getHeader(HEADER);
+        if (StringUtils.isNotBlank(token)) {
+            try {
+                Authentication authentication = authenticationManager.authenticate(new TokenAuthenticationToken(token));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } catch (AuthenticationException ex) {
+                SecurityContextHolder.clearContext();
+                authenticationEntryPoint.commence(request, response, ex);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+}
@@ -13,6 +13,7 @@ import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.web.authentication.RememberMeServices;
 import org.springframework.security.web.authentication.rememberme.InMemoryTokenRepositoryImpl;
 import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.security.SecureRandom;
 import java.util.List;
@@ -66,6 +67,11 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .tokenValiditySeconds(604800)
             // Cache enabled
             .and().headers().cacheControl().disable()
+            // API tokens
+            .and().addFilterBefore(
+                new TokenHeaderAuthenticationFilter(authenticationManager, apiBasicAuthenticationEntryPoint),
+                BasicAuthenticationFilter.class
+            )
         ;
         // @formatter:on
     }
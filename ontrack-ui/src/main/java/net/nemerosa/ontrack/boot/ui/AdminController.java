@@ -1,5 +1,6 @@
 package net.nemerosa.ontrack.boot.ui;
 
+import net.nemerosa.ontrack.job.JobCategoryStatus;
 import net.nemerosa.ontrack.job.JobScheduler;
 import net.nemerosa.ontrack.job.JobStatus;
 import net.nemerosa.ontrack.model.Ack;
@@ -8,6 +9,8 @@ import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.support.ApplicationLogEntry;
 import net.nemerosa.ontrack.model.support.ApplicationLogEntryFilter;
 import net.nemerosa.ontrack.model.support.ApplicationLogService;
+import net.nemerosa.ontrack.model.support.JobLease;
+import net.nemerosa.ontrack.model.support.JobLeaseService;
 import net.nemerosa.ontrack.model.support.Page;
 import net.nemerosa.ontrack.ui.controller.AbstractResourceController;
 import net.nemerosa.ontrack.ui.resource.Pagination;
@@ -30,13 +33,15 @@ public class AdminController extends AbstractResourceController {
     private final ApplicationLogService applicationLogService;
     private final HealthEndpoint healthEndpoint;
     private final SecurityService securityService;
+    private final JobLeaseService jobLeaseService;
 
     @Autowired
-    public AdminController(JobScheduler jobScheduler, ApplicationLogService applicationLogService, HealthEndpoint healthEndpoint, SecurityService securityService) {
+    public AdminController(JobScheduler jobScheduler, ApplicationLogService applicationLogService, HealthEndpoint healthEndpoint, SecurityService securityService, JobLeaseService jobLeaseService) {
         this.jobScheduler = jobScheduler;
         this.applicationLogService = applicationLogService;
         this.healthEndpoint = healthEndpoint;
         this.securityService = securityService;
+        this.jobLeaseService = jobLeaseService;
     }
 
     /**
@@ -130,6 +135,28 @@ public class AdminController extends AbstractResourceController {
                 ;
     }
 
+    /**
+     * Gets the execution statistics per category of jobs
+     */
+    @GetMapping("jobs/categories")
+    public Resources<JobCategoryStatus> getJobCategories() {
+        return Resources.of(
+                jobScheduler.getCategoryStatuses(),
+                uri(on(getClass()).getJobCategories())
+        );
+    }
+
+    /**
+     * Gets the leases of the jobs, showing which instance has run them last
+     */
+    @GetMapping("jobs/leases")
+    public Resources<JobLease> getJobLeases() {
+        return Resources.of(
+                jobLeaseService.getLeases(),
+                uri(on(getClass()).getJobLeases())
+        );
+    }
+
     /**
      * Launches a job
      */
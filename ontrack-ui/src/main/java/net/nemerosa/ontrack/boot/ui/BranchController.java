@@ -478,9 +478,7 @@ public class BranchController extends AbstractResourceController {
                 .collect(Collectors.toList());
         // Gets the views for each build
         return new BranchBuildView(
-                builds.stream()
-                        .map(build -> structureService.getBuildView(build, true))
-                        .collect(Collectors.toList()),
+                structureService.getBuildViews(builds, true),
                 buildDiffActions
         );
     }
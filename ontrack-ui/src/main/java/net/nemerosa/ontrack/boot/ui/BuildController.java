@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.boot.ui;
 import net.nemerosa.ontrack.extension.api.BuildDiffExtension;
 import net.nemerosa.ontrack.extension.api.ExtensionManager;
 import net.nemerosa.ontrack.model.Ack;
+import net.nemerosa.ontrack.model.exceptions.BuildNameAlreadyDefinedException;
 import net.nemerosa.ontrack.model.form.*;
 import net.nemerosa.ontrack.model.security.SecurityService;
 import net.nemerosa.ontrack.model.structure.*;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
@@ -29,13 +31,17 @@ public class BuildController extends AbstractResourceController {
     private final PropertyService propertyService;
     private final SecurityService securityService;
     private final ExtensionManager extensionManager;
+    private final BuildBatchService buildBatchService;
+    private final BuildGraphService buildGraphService;
 
     @Autowired
-    public BuildController(StructureService structureService, PropertyService propertyService, SecurityService securityService, ExtensionManager extensionManager) {
+    public BuildController(StructureService structureService, PropertyService propertyService, SecurityService securityService, ExtensionManager extensionManager, BuildBatchService buildBatchService, BuildGraphService buildGraphService) {
         this.structureService = structureService;
         this.propertyService = propertyService;
         this.securityService = securityService;
         this.extensionManager = extensionManager;
+        this.buildBatchService = buildBatchService;
+        this.buildGraphService = buildGraphService;
     }
 
     @RequestMapping(value = "project/{projectId}/builds", method = RequestMethod.GET)
@@ -110,9 +116,7 @@ public class BuildController extends AbstractResourceController {
     @RequestMapping(value = "project/{projectId}/builds/search", method = RequestMethod.GET)
     public Resources<BuildView> buildSearch(@PathVariable ID projectId, @Valid BuildSearchForm form) {
         return Resources.of(
-                structureService.buildSearch(projectId, form).stream()
-                        .map(build -> structureService.getBuildView(build, true))
-                        .collect(Collectors.toList()),
+                structureService.getBuildViews(structureService.buildSearch(projectId, form), true),
                 uri(on(getClass()).buildSearch(projectId, form)))
                 .forView(BuildView.class)
                 ;
@@ -145,6 +149,48 @@ public class BuildController extends AbstractResourceController {
     public Build newBuild(@PathVariable ID branchId, @RequestBody @Valid BuildRequest request) {
         // Gets the holding branch
         Branch branch = structureService.getBranch(branchId);
+        // Creates the build
+        return createBuild(branch, request);
+    }
+
+    /**
+     * Gets a build by its name, or creates it if it does not exist yet. The name is looked up
+     * directly on the branch, and the build is returned in one call, which makes it suitable
+     * for CI clients which need to make sure a build exists.
+     * <p>
+     * The description and the properties are used only when the build is created.
+     */
+    @RequestMapping(value = "branches/{branchId}/builds/get-or-create", method = RequestMethod.PUT)
+    public Build getOrCreateBuild(@PathVariable ID branchId, @RequestBody @Valid BuildRequest request) {
+        // Gets the holding branch
+        Branch branch = structureService.getBranch(branchId);
+        // Existing build
+        Optional<Build> existingBuild = structureService.findBuildByName(branch.getId(), request.getName());
+        if (existingBuild.isPresent()) {
+            return existingBuild.get();
+        }
+        // Creates the build
+        try {
+            return createBuild(branch, request);
+        } catch (BuildNameAlreadyDefinedException ex) {
+            // Created concurrently
+            return structureService.findBuildByName(branch.getId(), request.getName())
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    /**
+     * Records a build with its properties, validation runs, promotion runs and links in one call.
+     */
+    @RequestMapping(value = "branches/{branchId}/builds/batch", method = RequestMethod.PUT)
+    public Build batchBuild(@PathVariable ID branchId, @RequestBody @Valid BuildBatchRequest request) {
+        return buildBatchService.process(
+                structureService.getBranch(branchId),
+                request
+        );
+    }
+
+    private Build createBuild(Branch branch, BuildRequest request) {
         // Build signature
         Signature signature = securityService.getCurrentSignature();
         // Creates a new build
@@ -265,6 +311,60 @@ public class BuildController extends AbstractResourceController {
         ).forView(Build.class);
     }
 
+    /**
+     * Gets the builds this build is linked to, directly or not.
+     *
+     * @param buildId   Starting build
+     * @param depth     Maximum number of links to follow
+     * @param promotion If set, returns only the builds having reached a promotion level with this name
+     * @return List of builds with their depth
+     */
+    @RequestMapping(value = "builds/{buildId}/graph/downstream", method = RequestMethod.GET)
+    public Resources<BuildGraphNode> getDownstreamBuilds(@PathVariable ID buildId,
+                                                         @RequestParam(required = false, defaultValue = "1") int depth,
+                                                         @RequestParam(required = false) String promotion) {
+        return Resources.of(
+                buildGraphService.getDownstreamBuilds(structureService.getBuild(buildId), depth, promotion),
+                uri(on(getClass()).getDownstreamBuilds(buildId, depth, promotion))
+        );
+    }
+
+    /**
+     * Gets the builds which are linked to this build, directly or not.
+     *
+     * @param buildId   Starting build
+     * @param depth     Maximum number of links to follow
+     * @param promotion If set, returns only the builds having reached a promotion level with this name
+     * @return List of builds with their depth
+     */
+    @RequestMapping(value = "builds/{buildId}/graph/upstream", method = RequestMethod.GET)
+    public Resources<BuildGraphNode> getUpstreamBuilds(@PathVariable ID buildId,
+                                                       @RequestParam(required = false, defaultValue = "1") int depth,
+                                                       @RequestParam(required = false) String promotion) {
+        return Resources.of(
+                buildGraphService.getUpstreamBuilds(structureService.getBuild(buildId), depth, promotion),
+                uri(on(getClass()).getUpstreamBuilds(buildId, depth, promotion))
+        );
+    }
+
+    /**
+     * Gets a chain of links from a build to another one.
+     *
+     * @param buildId       Starting build
+     * @param targetBuildId Build to reach
+     * @param depth         Maximum number of links to follow
+     * @return List of builds, empty if the target build cannot be reached
+     */
+    @RequestMapping(value = "builds/{buildId}/graph/path/{targetBuildId}", method = RequestMethod.GET)
+    public Resources<Build> getBuildPath(@PathVariable ID buildId,
+                                         @PathVariable ID targetBuildId,
+                                         @RequestParam(required = false, defaultValue = "10") int depth) {
+        return Resources.of(
+                buildGraphService.getPath(structureService.getBuild(buildId), structureService.getBuild(targetBuildId), depth),
+                uri(on(getClass()).getBuildPath(buildId, targetBuildId, depth))
+        ).forView(Build.class);
+    }
+
     /**
      * Form to create a link between a build and another
      *
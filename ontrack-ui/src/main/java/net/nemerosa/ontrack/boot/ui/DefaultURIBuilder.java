@@ -3,6 +3,7 @@ package net.nemerosa.ontrack.boot.ui;
 import net.nemerosa.ontrack.common.RunProfile;
 import net.nemerosa.ontrack.model.structure.ProjectEntity;
 import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+import net.nemerosa.ontrack.ui.controller.EntityMethodInvocation;
 import net.nemerosa.ontrack.ui.controller.URIBuilder;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpRequest;
@@ -14,43 +15,82 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
-import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static java.lang.String.format;
-import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
 
+/**
+ * Builds the URI from controller invocations.
+ * <p>
+ * The URI template of each controller method is computed only once, and the base URL,
+ * which depends on the current request, is computed once per request.
+ */
 @Component
 @Profile({RunProfile.DEV, RunProfile.ACC, RunProfile.PROD})
 public class DefaultURIBuilder implements URIBuilder {
+
+    private static final String BASE_URL_ATTRIBUTE = DefaultURIBuilder.class.getName() + ".baseUrl";
+
+    private final ConcurrentMap<Method, MethodURITemplate> templates = new ConcurrentHashMap<>();
+
+    private final Map<ProjectEntityType, EntityMethodInvocation> entityInvocations = new EnumMap<>(ProjectEntityType.class);
+
+    public DefaultURIBuilder() {
+        entityInvocations.put(ProjectEntityType.PROJECT, EntityMethodInvocation.of(ProjectController.class, ProjectController::getProject));
+        entityInvocations.put(ProjectEntityType.BRANCH, EntityMethodInvocation.of(BranchController.class, BranchController::getBranch));
+        entityInvocations.put(ProjectEntityType.PROMOTION_LEVEL, EntityMethodInvocation.of(PromotionLevelController.class, PromotionLevelController::getPromotionLevel));
+        entityInvocations.put(ProjectEntityType.VALIDATION_STAMP, EntityMethodInvocation.of(ValidationStampController.class, ValidationStampController::getValidationStamp));
+        entityInvocations.put(ProjectEntityType.BUILD, EntityMethodInvocation.of(BuildController.class, BuildController::getBuild));
+        entityInvocations.put(ProjectEntityType.PROMOTION_RUN, EntityMethodInvocation.of(PromotionRunController.class, PromotionRunController::getPromotionRun));
+        entityInvocations.put(ProjectEntityType.VALIDATION_RUN, EntityMethodInvocation.of(ValidationRunController.class, ValidationRunController::getValidationRun));
+    }
+
     @Override
     public URI build(Object methodInvocation) {
+        MvcUriComponentsBuilder.MethodInvocationInfo info = (MvcUriComponentsBuilder.MethodInvocationInfo) methodInvocation;
+        Method method = info.getControllerMethod();
+        MethodURITemplate template = templates.computeIfAbsent(
+                method,
+                m -> MethodURITemplate.of(m.getDeclaringClass(), m)
+        );
+        return URI.create(getBaseUrl() + template.expand(info.getArgumentValues()));
+    }
 
-        // Default builder
-        UriComponentsBuilder builder = MvcUriComponentsBuilder.fromMethodCall(methodInvocation);
-
-        // Default URI
-        UriComponents uriComponents = builder.build();
+    /**
+     * Gets the base URL for the current request, computing it only once per request.
+     */
+    protected String getBaseUrl() {
+        RequestAttributes requestAttributes = RequestContextHolder.currentRequestAttributes();
+        String baseUrl = (String) requestAttributes.getAttribute(BASE_URL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUrl == null) {
+            baseUrl = computeBaseUrl(((ServletRequestAttributes) requestAttributes).getRequest());
+            requestAttributes.setAttribute(BASE_URL_ATTRIBUTE, baseUrl, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUrl;
+    }
 
+    private String computeBaseUrl(HttpServletRequest request) {
+        UriComponentsBuilder builder = ServletUriComponentsBuilder.fromServletMapping(request);
         // TODO #251 Workaround for SPR-12771
-        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
-        HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
         HttpRequest httpRequest = new ServletServerHttpRequest(request);
         String portHeader = httpRequest.getHeaders().getFirst("X-Forwarded-Port");
         if (StringUtils.hasText(portHeader)) {
             int port = Integer.parseInt(portHeader);
-            String scheme = uriComponents.getScheme();
+            String scheme = builder.build().getScheme();
             if (("https".equals(scheme) && port == 443) || ("http".equals(scheme) && port == 80)) {
                 port = -1;
             }
             builder.port(port);
         }
-
-        // OK
-        return builder.build().toUri();
+        return builder.build().toUriString();
     }
 
     @Override
@@ -60,7 +100,7 @@ public class DefaultURIBuilder implements URIBuilder {
                 format(path, arguments)
         );
         return URI.create(
-                ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString() +
+                getBaseUrl() +
                         pagePath
         );
     }
@@ -68,23 +108,11 @@ public class DefaultURIBuilder implements URIBuilder {
     @Override
     public URI getEntityURI(ProjectEntity entity) {
         ProjectEntityType projectEntityType = entity.getProjectEntityType();
-        switch (projectEntityType) {
-            case PROJECT:
-                return build(on(ProjectController.class).getProject(entity.getId()));
-            case BRANCH:
-                return build(on(BranchController.class).getBranch(entity.getId()));
-            case PROMOTION_LEVEL:
-                return build(on(PromotionLevelController.class).getPromotionLevel(entity.getId()));
-            case VALIDATION_STAMP:
-                return build(on(ValidationStampController.class).getValidationStamp(entity.getId()));
-            case BUILD:
-                return build(on(BuildController.class).getBuild(entity.getId()));
-            case PROMOTION_RUN:
-                return build(on(PromotionRunController.class).getPromotionRun(entity.getId()));
-            case VALIDATION_RUN:
-                return build(on(ValidationRunController.class).getValidationRun(entity.getId()));
-            default:
-                throw new IllegalStateException("Unknown entity type: " + projectEntityType);
+        EntityMethodInvocation invocation = entityInvocations.get(projectEntityType);
+        if (invocation != null) {
+            return build(invocation.withId(entity.getId()));
+        } else {
+            throw new IllegalStateException("Unknown entity type: " + projectEntityType);
         }
     }
 
@@ -0,0 +1,218 @@
+package net.nemerosa.ontrack.boot.ui;
+
+import lombok.Data;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ValueConstants;
+import org.springframework.web.util.UriUtils;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * URI template for a controller method, computed once from its request mappings and
+ * expanded for each invocation by substituting the arguments.
+ * <p>
+ * The expansion follows the rules of {@link org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder}:
+ * the {@link PathVariable} arguments are set in the path and the {@link RequestParam} arguments
+ * are added as query parameters.
+ */
+class MethodURITemplate {
+
+    private static final String ENCODING = "UTF-8";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+    private static final ConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+    /**
+     * Literal parts of the path, around the variables
+     */
+    private final List<String> literals;
+    /**
+     * Index of the argument for each variable of the path, -1 if not bound
+     */
+    private final int[] variables;
+    /**
+     * Names of the variables of the path
+     */
+    private final List<String> variableNames;
+    private final List<QueryParameter> queryParameters;
+
+    private MethodURITemplate(List<String> literals, List<String> variableNames, int[] variables, List<QueryParameter> queryParameters) {
+        this.literals = literals;
+        this.variableNames = variableNames;
+        this.variables = variables;
+        this.queryParameters = queryParameters;
+    }
+
+    public static MethodURITemplate of(Class<?> controllerType, Method method) {
+        // Path
+        String path = PATH_MATCHER.combine(
+                getMappingPath(AnnotatedElementUtils.findMergedAnnotation(controllerType, RequestMapping.class)),
+                getMappingPath(AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class))
+        );
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        // Arguments
+        Map<String, Integer> pathArguments = new HashMap<>();
+        List<QueryParameter> queryParameters = new ArrayList<>();
+        String[] parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            // Maps of variables are not contributed
+            if (Map.class.isAssignableFrom(method.getParameterTypes()[i])) {
+                continue;
+            }
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof PathVariable) {
+                    pathArguments.put(
+                            getName(((PathVariable) annotation).value(), parameterNames, i),
+                            i
+                    );
+                } else if (annotation instanceof RequestParam) {
+                    RequestParam requestParam = (RequestParam) annotation;
+                    queryParameters.add(new QueryParameter(
+                            getName(requestParam.value(), parameterNames, i),
+                            i,
+                            requestParam.required() && ValueConstants.DEFAULT_NONE.equals(requestParam.defaultValue())
+                    ));
+                }
+            }
+        }
+        // Parsing of the path
+        List<String> literals = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        List<Integer> variables = new ArrayList<>();
+        int start = 0;
+        int open = path.indexOf('{');
+        while (open >= 0) {
+            int close = path.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            literals.add(path.substring(start, open));
+            // Removes any regular expression
+            String name = path.substring(open + 1, close);
+            int colon = name.indexOf(':');
+            if (colon >= 0) {
+                name = name.substring(0, colon);
+            }
+            name = StringUtils.trimWhitespace(name);
+            variableNames.add(name);
+            variables.add(pathArguments.getOrDefault(name, -1));
+            start = close + 1;
+            open = path.indexOf('{', start);
+        }
+        literals.add(path.substring(start));
+        return new MethodURITemplate(
+                literals,
+                variableNames,
+                variables.stream().mapToInt(Integer::intValue).toArray(),
+                queryParameters
+        );
+    }
+
+    /**
+     * Expands the template for the given arguments
+     *
+     * @param arguments Arguments of the invocation
+     * @return Encoded path and query
+     */
+    public String expand(Object[] arguments) {
+        StringBuilder s = new StringBuilder();
+        // Path
+        for (int i = 0; i < variables.length; i++) {
+            s.append(literals.get(i));
+            int index = variables[i];
+            Object value = index >= 0 ? arguments[index] : null;
+            if (value != null) {
+                s.append(encodePath(format(value)));
+            } else {
+                s.append(encodePath("{" + variableNames.get(i) + "}"));
+            }
+        }
+        s.append(literals.get(variables.length));
+        // Query
+        char separator = '?';
+        for (QueryParameter queryParameter : queryParameters) {
+            Object value = arguments[queryParameter.getIndex()];
+            if (value == null) {
+                if (queryParameter.isRequired()) {
+                    s.append(separator).append(encodeQueryParam(queryParameter.getName()));
+                    separator = '&';
+                }
+            } else {
+                Collection<?> values = value instanceof Collection ? (Collection<?>) value : Collections.singleton(value);
+                for (Object item : values) {
+                    s.append(separator).append(encodeQueryParam(queryParameter.getName()));
+                    if (item != null) {
+                        s.append("=").append(encodeQueryParam(format(item)));
+                    }
+                    separator = '&';
+                }
+            }
+        }
+        return s.toString();
+    }
+
+    private static String getMappingPath(RequestMapping mapping) {
+        if (mapping != null && mapping.path().length > 0) {
+            return mapping.path()[0];
+        } else {
+            return "";
+        }
+    }
+
+    private static String getName(String name, String[] parameterNames, int index) {
+        if (StringUtils.hasText(name)) {
+            return name;
+        } else if (parameterNames != null) {
+            return parameterNames[index];
+        } else {
+            throw new IllegalStateException("Cannot get the name of the parameter at index " + index);
+        }
+    }
+
+    private static String format(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        } else {
+            return CONVERSION_SERVICE.convert(value, String.class);
+        }
+    }
+
+    private static String encodePath(String value) {
+        try {
+            return UriUtils.encodePath(value, ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("Cannot encode URI path", e);
+        }
+    }
+
+    private static String encodeQueryParam(String value) {
+        try {
+            return UriUtils.encodeQueryParam(value, ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("Cannot encode URI query parameter", e);
+        }
+    }
+
+    @Data
+    private static class QueryParameter {
+        private final String name;
+        private final int index;
+        private final boolean required;
+    }
+}
@@ -27,12 +27,14 @@ public class UserController extends AbstractResourceController {
     private final SecurityService securityService;
     private final UserService userService;
     private final ExtensionManager extensionManager;
+    private final TokensService tokensService;
 
     @Autowired
-    public UserController(SecurityService securityService, UserService userService, ExtensionManager extensionManager) {
+    public UserController(SecurityService securityService, UserService userService, ExtensionManager extensionManager, TokensService tokensService) {
         this.securityService = securityService;
         this.userService = userService;
         this.extensionManager = extensionManager;
+        this.tokensService = tokensService;
     }
 
     @RequestMapping(value = "", method = RequestMethod.GET)
@@ -99,6 +101,31 @@ public class UserController extends AbstractResourceController {
         return userService.changePassword(input);
     }
 
+    /**
+     * Gets the API token of the current user, without its value
+     */
+    @RequestMapping(value = "token", method = RequestMethod.GET)
+    public TokenResponse getCurrentToken() {
+        return new TokenResponse(tokensService.getCurrentToken().orElse(null));
+    }
+
+    /**
+     * Generates a new API token for the current user. This is the only time its value is returned.
+     */
+    @RequestMapping(value = "token/new", method = RequestMethod.POST)
+    public TokenResponse generateNewToken() {
+        return new TokenResponse(tokensService.generateNewToken());
+    }
+
+    /**
+     * Revokes the API token of the current user
+     */
+    @RequestMapping(value = "token/revoke", method = RequestMethod.POST)
+    public Ack revokeToken() {
+        tokensService.revokeToken();
+        return Ack.OK;
+    }
+
     // Resource assemblers
 
     private ConnectedAccount toAnonymousAccount() {
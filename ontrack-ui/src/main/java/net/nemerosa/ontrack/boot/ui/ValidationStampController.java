@@ -19,6 +19,10 @@ import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static net.nemerosa.ontrack.boot.ui.UIUtils.setupDefaultImageCache;
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
@@ -59,13 +63,20 @@ public class ValidationStampController extends AbstractResourceController {
     @RequestMapping(value = "branches/{branchId}/validationStamps/view", method = RequestMethod.GET)
     @Transactional
     public Resources<ValidationStampView> getValidationStampViewListForBranch(@PathVariable ID branchId) {
-        return getValidationStampListForBranch(branchId)
-                .transform(validationStamp ->
-                        ValidationStampView.of(
-                                validationStamp,
-                                decorationService.getDecorations(validationStamp)
-                        )
-                );
+        Resources<ValidationStamp> validationStamps = getValidationStampListForBranch(branchId);
+        // Decorations of all the validation stamps at once
+        List<ValidationStamp> list = new ArrayList<>(validationStamps.getResources());
+        List<List<Decoration<?>>> decorations = decorationService.getDecorations(list);
+        Map<ID, List<Decoration<?>>> index = new HashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            index.put(list.get(i).getId(), decorations.get(i));
+        }
+        return validationStamps.transform(validationStamp ->
+                ValidationStampView.of(
+                        validationStamp,
+                        index.get(validationStamp.getId())
+                )
+        );
     }
 
     @RequestMapping(value = "branches/{branchId}/validationStamps/reorder", method = RequestMethod.PUT)
@@ -0,0 +1,117 @@
+package net.nemerosa.ontrack.boot.ui;
+
+import net.nemerosa.ontrack.model.structure.ID;
+import net.nemerosa.ontrack.model.structure.ProjectEntity;
+import net.nemerosa.ontrack.model.structure.ProjectEntityType;
+import net.nemerosa.ontrack.ui.controller.EntityMethodInvocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.on;
+
+public class DefaultURIBuilderTest {
+
+    private DefaultURIBuilder builder;
+    private MockHttpServletRequest request;
+
+    @Before
+    public void before() {
+        builder = new DefaultURIBuilder();
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @After
+    public void after() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void assertSameAsMvc(Object invocation) {
+        assertEquals(
+                MvcUriComponentsBuilder.fromMethodCall(invocation).build().toUri(),
+                builder.build(invocation)
+        );
+    }
+
+    @Test
+    public void path_variable() {
+        assertEquals(
+                URI.create("http://localhost/structure/builds/1"),
+                builder.build(on(BuildController.class).getBuild(ID.of(1)))
+        );
+    }
+
+    @Test
+    public void same_as_mvc() {
+        assertSameAsMvc(on(BuildController.class).getBuild(ID.of(1)));
+        assertSameAsMvc(on(PromotionRunController.class).getLastPromotionRuns(ID.of(2)));
+        assertSameAsMvc(on(PropertyController.class).getProperties(ProjectEntityType.BUILD, ID.of(3)));
+        assertSameAsMvc(on(EventController.class).getEvents(ProjectEntityType.BUILD, ID.of(4), 0, 10));
+        assertSameAsMvc(on(BuildController.class).getDownstreamBuilds(ID.of(5), 2, null));
+        assertSameAsMvc(on(BuildController.class).getDownstreamBuilds(ID.of(5), 2, "COPPER PLATINUM"));
+    }
+
+    @Test
+    public void request_parameters() {
+        assertEquals(
+                URI.create("http://localhost/events/BUILD/4?offset=0&count=10"),
+                builder.build(on(EventController.class).getEvents(ProjectEntityType.BUILD, ID.of(4), 0, 10))
+        );
+    }
+
+    @Test
+    public void entity_method_invocation() {
+        EntityMethodInvocation invocation = EntityMethodInvocation.of(BuildController.class, BuildController::getBuild);
+        assertEquals(URI.create("http://localhost/structure/builds/1"), builder.build(invocation.withId(ID.of(1))));
+        assertEquals(URI.create("http://localhost/structure/builds/2"), builder.build(invocation.withId(ID.of(2))));
+    }
+
+    @Test
+    public void entity_uri() {
+        ProjectEntity entity = mock(ProjectEntity.class);
+        when(entity.getProjectEntityType()).thenReturn(ProjectEntityType.PROMOTION_RUN);
+        when(entity.getId()).thenReturn(ID.of(10));
+        assertEquals(
+                builder.build(on(PromotionRunController.class).getPromotionRun(ID.of(10))),
+                builder.getEntityURI(entity)
+        );
+    }
+
+    @Test
+    public void forwarded_port() {
+        request.addHeader("X-Forwarded-Port", "8080");
+        assertEquals(
+                URI.create("http://localhost:8080/structure/builds/1"),
+                builder.build(on(BuildController.class).getBuild(ID.of(1)))
+        );
+    }
+
+    @Test
+    public void forwarded_default_port() {
+        request.setScheme("https");
+        request.setServerPort(443);
+        request.addHeader("X-Forwarded-Port", "443");
+        assertEquals(
+                URI.create("https://localhost/structure/builds/1"),
+                builder.build(on(BuildController.class).getBuild(ID.of(1)))
+        );
+    }
+
+    @Test
+    public void base_url_computed_once_per_request() {
+        assertEquals(URI.create("http://localhost/#/build/1"), builder.page("build/%d", 1));
+        request.setServerName("other");
+        assertEquals(URI.create("http://localhost/#/build/1"), builder.page("build/%d", 1));
+    }
+
+}
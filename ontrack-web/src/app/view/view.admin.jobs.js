@@ -62,6 +62,18 @@ angular.module('ot.view.admin.jobs', [
                     }
                 });
                 $scope.jobCategories = jobCategories;
+            }).then(function () {
+                // Instance which has run each job last
+                return ot.call($http.get('admin/jobs/leases'));
+            }).then(function (leases) {
+                var nodes = {};
+                leases.resources.forEach(function (lease) {
+                    nodes[lease.key] = lease.node;
+                });
+                $scope.jobs.resources.forEach(function (job) {
+                    var key = '[' + job.key.type.category.key + '][' + job.key.type.key + '][' + job.key.id + ']';
+                    job.node = nodes[key];
+                });
             });
         }
 